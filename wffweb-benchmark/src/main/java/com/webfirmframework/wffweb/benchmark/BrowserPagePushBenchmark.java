@@ -0,0 +1,133 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webfirmframework.wffweb.server.page.BrowserPage;
+import com.webfirmframework.wffweb.server.page.PayloadBufferPool;
+import com.webfirmframework.wffweb.tag.html.AbstractHtml;
+import com.webfirmframework.wffweb.tag.html.Body;
+import com.webfirmframework.wffweb.tag.html.Html;
+import com.webfirmframework.wffweb.tag.html.attribute.global.ClassAttribute;
+import com.webfirmframework.wffweb.tag.html.metainfo.Head;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Div;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Span;
+
+/**
+ * Benchmark of the server side diff push throughput of {@link BrowserPage}. The
+ * push listener is a stub which just counts the pushed bytes so the result
+ * represents the cost of building and queueing the client tasks. Run it with
+ * {@code -prof gc} to compare the allocation rate with and without the
+ * {@link PayloadBufferPool}.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BrowserPagePushBenchmark {
+
+    @Param({ "100" })
+    public int size;
+
+    @Param({ "false", "true" })
+    public boolean pooled;
+
+    private final LongAdder pushedBytes = new LongAdder();
+
+    private Div container;
+
+    private ClassAttribute classAttribute;
+
+    private int counter;
+
+    private static final class StubBrowserPage extends BrowserPage {
+
+        private static final long serialVersionUID = 1L;
+
+        private final AbstractHtml content;
+
+        private final PayloadBufferPool bufferPool;
+
+        private StubBrowserPage(final AbstractHtml content, final PayloadBufferPool bufferPool) {
+            this.content = content;
+            this.bufferPool = bufferPool;
+        }
+
+        @Override
+        public String webSocketUrl() {
+            return "ws://localhost/benchmark";
+        }
+
+        @Override
+        public AbstractHtml render() {
+            return new Html(null).give(html -> {
+                new Head(html);
+                new Body(html).appendChild(content);
+            });
+        }
+
+        @Override
+        protected PayloadBufferPool usePayloadBufferPool() {
+            return bufferPool;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        container = TagTrees.wide(null, size);
+        classAttribute = new ClassAttribute("initial");
+        container.addAttributes(classAttribute);
+
+        final BrowserPage browserPage = new StubBrowserPage(container,
+                pooled ? new PayloadBufferPool(256, 65536, 64, 4) : null);
+        browserPage.toHtmlString();
+        browserPage.setWebSocketPushListener(data -> pushedBytes.add(data.remaining()));
+    }
+
+    @Benchmark
+    public int attributeValueChange() {
+        classAttribute.setValue("c" + (counter++ & 1023));
+        return counter;
+    }
+
+    @Benchmark
+    public int appendAndRemoveChild() {
+        final Span span = new Span(null);
+        container.appendChild(span);
+        container.removeChild(span);
+        return ++counter;
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webfirmframework.wffweb.json.JsonParser;
+import com.webfirmframework.wffweb.json.JsonReader;
+
+/**
+ * Benchmark of {@link JsonParser#parseJson(String)} and the single pass
+ * {@link JsonParser#parseJson(byte[])}, {@link JsonParser#parseJson(InputStream)}
+ * with the default configuration, and of extracting a single field with
+ * {@link JsonReader} without building the object graph.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonParserBenchmark {
+
+    @Param({ "10", "1000" })
+    public int itemCount;
+
+    private final JsonParser jsonParser = new JsonParser();
+
+    private String json;
+
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setup() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("{\"items\":[");
+        for (int i = 0; i < itemCount; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"id\":").append(i).append(",\"name\":\"item \\\"").append(i)
+                    .append("\\\"\",\"price\":").append(i * 1.25).append(",\"active\":").append(i % 2 == 0)
+                    .append(",\"tags\":[\"a\",\"b\",null]}");
+        }
+        builder.append("],\"count\":").append(itemCount).append('}');
+        json = builder.toString();
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object parseJson() {
+        return jsonParser.parseJson(json);
+    }
+
+    /**
+     * the input of a request body is usually the UTF-8 bytes so the decoding to
+     * String is included to compare with {@link #parseJsonBytes()}.
+     */
+    @Benchmark
+    public Object parseJsonDecodedBytes() {
+        return jsonParser.parseJson(new String(jsonBytes, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Object parseJsonBytes() {
+        return jsonParser.parseJson(jsonBytes);
+    }
+
+    @Benchmark
+    public Object parseJsonInputStream() throws IOException {
+        return jsonParser.parseJson(new ByteArrayInputStream(jsonBytes));
+    }
+
+    @Benchmark
+    public Object readCountWithJsonReader() {
+        final JsonReader reader = jsonParser.newReader(jsonBytes);
+        return reader.moveTo("/count") ? reader.value() : null;
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webfirmframework.wffweb.server.page.BrowserPage;
+import com.webfirmframework.wffweb.tag.html.AbstractHtml;
+import com.webfirmframework.wffweb.tag.html.Body;
+import com.webfirmframework.wffweb.tag.html.Html;
+import com.webfirmframework.wffweb.tag.html.attribute.global.ClassAttribute;
+import com.webfirmframework.wffweb.tag.html.metainfo.Head;
+import com.webfirmframework.wffweb.tag.html.tables.TBody;
+import com.webfirmframework.wffweb.tag.html.tables.Table;
+import com.webfirmframework.wffweb.tag.html.tables.Td;
+import com.webfirmframework.wffweb.tag.html.tables.Tr;
+import com.webfirmframework.wffweb.tag.htmlwff.NoTag;
+
+/**
+ * Benchmark of the {@code PushCompression} of {@link BrowserPage} on an append
+ * heavy page, each operation appends a table row to the page which is pushed
+ * to the client as a separate payload. The average time is the CPU cost per
+ * pushed message and {@code wireBytes / messages} of the counters is the number
+ * of bytes given to the WebSocket listener per message, compare both of the
+ * {@code compression} params.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PushCompressionBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean compression;
+
+    private TBody tBody;
+
+    private int counter;
+
+    private WireBytes wireBytes;
+
+    private static class StubBrowserPage extends BrowserPage {
+
+        private static final long serialVersionUID = 1L;
+
+        private final AbstractHtml content;
+
+        private StubBrowserPage(final AbstractHtml content) {
+            this.content = content;
+        }
+
+        @Override
+        public String webSocketUrl() {
+            return "ws://localhost/benchmark";
+        }
+
+        @Override
+        public AbstractHtml render() {
+            return new Html(null).give(html -> {
+                new Head(html);
+                new Body(html).appendChild(content);
+            });
+        }
+    }
+
+    // usePushCompression is invoked while constructing the BrowserPage so it
+    // cannot depend on a field of the subclass
+    private static final class CompressedBrowserPage extends StubBrowserPage {
+
+        private static final long serialVersionUID = 1L;
+
+        private CompressedBrowserPage(final AbstractHtml content) {
+            super(content);
+        }
+
+        @Override
+        protected PushCompression usePushCompression() {
+            return new PushCompression();
+        }
+    }
+
+    /**
+     * JMH sums the counters of all iterations, wireBytes / messages is the
+     * number of bytes pushed per message.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireBytes {
+
+        public long wireBytes;
+
+        public long messages;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            wireBytes = 0;
+            messages = 0;
+        }
+
+        private void pushed(final int length) {
+            wireBytes += length;
+            messages++;
+        }
+    }
+
+    @Setup
+    public void setup(final WireBytes wireBytes) {
+        this.wireBytes = wireBytes;
+        tBody = new TBody(null);
+        final Table table = new Table(null);
+        table.appendChild(tBody);
+
+        final BrowserPage browserPage = compression ? new CompressedBrowserPage(table) : new StubBrowserPage(table);
+        browserPage.toHtmlString();
+        browserPage.setWebSocketPushListener(data -> this.wireBytes.pushed(data.remaining()));
+        // the client requests the compression on opening the connection
+        browserPage.webSocketMessaged(new byte[] { 127 });
+    }
+
+    @Benchmark
+    public int appendRow() {
+        final int index = counter++;
+        if ((index & 255) == 0) {
+            tBody.removeAllChildren();
+        }
+        final Tr tr = new Tr(null, new ClassAttribute(index % 2 == 0 ? "row even" : "row odd"));
+        new NoTag(new Td(tr), "item " + index);
+        new NoTag(new Td(tr), "user" + (index % 97) + "@example.com");
+        new NoTag(new Td(tr), "pending");
+        tBody.appendChild(tr);
+        return index;
+    }
+
+}
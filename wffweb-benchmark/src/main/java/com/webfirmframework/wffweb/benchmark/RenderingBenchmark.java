@@ -0,0 +1,103 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webfirmframework.wffweb.settings.WffConfiguration;
+import com.webfirmframework.wffweb.tag.html.attribute.global.Id;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Div;
+import com.webfirmframework.wffweb.tag.repository.TagRepository;
+
+/**
+ * Benchmarks of {@code toHtmlString}, {@code toBigOutputStream} and
+ * {@code toCompressedWffBMBytesV3} on deep and wide tag hierarchies.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderingBenchmark {
+
+    @Param({ "deep", "wide" })
+    public String shape;
+
+    @Param({ "200" })
+    public int size;
+
+    @Param({ "false", "true" })
+    public boolean renderCache;
+
+    private Div root;
+
+    private Id leafId;
+
+    private int leafIdCounter;
+
+    @Setup
+    public void setup() {
+        WffConfiguration.setRenderCacheEnabled(renderCache);
+        if ("deep".equals(shape)) {
+            root = TagTrees.deep(null, size);
+            leafId = (Id) TagRepository.findTagById("d" + (size - 1), root).getAttributeByName("id");
+        } else {
+            root = TagTrees.wide(null, size);
+            leafId = (Id) TagRepository.findTagById("w" + (size / 2), root).getAttributeByName("id");
+        }
+    }
+
+    @Benchmark
+    public String toHtmlString() {
+        return root.toHtmlString(true);
+    }
+
+    @Benchmark
+    public String toHtmlStringAfterLeafChange() {
+        leafId.setValue("leaf" + (leafIdCounter++ & 1023));
+        return root.toHtmlString(true);
+    }
+
+    @Benchmark
+    public int toBigOutputStream() throws IOException {
+        return root.toBigOutputStream(OutputStream.nullOutputStream(), true, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] toCompressedWffBMBytesV3() {
+        return root.toCompressedWffBMBytesV3(StandardCharsets.UTF_8);
+    }
+
+}
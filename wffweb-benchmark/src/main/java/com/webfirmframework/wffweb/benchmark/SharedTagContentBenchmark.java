@@ -0,0 +1,73 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webfirmframework.wffweb.tag.html.SharedTagContent;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Div;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Span;
+
+/**
+ * Benchmark of the fan-out of {@link SharedTagContent#setContent(Object)} to
+ * the subscribed tags.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SharedTagContentBenchmark {
+
+    @Param({ "10", "1000" })
+    public int subscriberCount;
+
+    private SharedTagContent<String> sharedTagContent;
+
+    private int counter;
+
+    @Setup
+    public void setup() {
+        sharedTagContent = new SharedTagContent<>("initial");
+        final Div root = new Div(null);
+        for (int i = 0; i < subscriberCount; i++) {
+            new Span(root).subscribeTo(sharedTagContent);
+        }
+    }
+
+    @Benchmark
+    public SharedTagContent<String> setContent() {
+        sharedTagContent.setContent("content " + (counter++ & 1023));
+        return sharedTagContent;
+    }
+
+}
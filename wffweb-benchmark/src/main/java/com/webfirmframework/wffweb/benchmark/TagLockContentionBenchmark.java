@@ -0,0 +1,95 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webfirmframework.wffweb.tag.html.AbstractHtml;
+import com.webfirmframework.wffweb.tag.html.attribute.global.ClassAttribute;
+import com.webfirmframework.wffweb.tag.html.model.TagLockPolicy;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Div;
+import com.webfirmframework.wffweb.tag.repository.TagRepository;
+
+/**
+ * Benchmark of the {@link TagLockPolicy} of a tag hierarchy under contention.
+ * Seven threads find a tag by id with {@link TagRepository} while one thread
+ * keeps modifying an attribute in the same hierarchy. The throughput of the
+ * {@code find} and {@code modify} methods shows how each policy shares the
+ * lock between the readers and the writer.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagLockContentionBenchmark {
+
+    @Param({ "FAIR", "NON_FAIR", "OPTIMISTIC" })
+    public TagLockPolicy policy;
+
+    @Param({ "1000" })
+    public int size;
+
+    private Div root;
+
+    private String lastId;
+
+    private ClassAttribute classAttribute;
+
+    private int counter;
+
+    @Setup
+    public void setup() {
+        root = policy.build(() -> TagTrees.wide(null, size));
+        lastId = "w" + (size - 1);
+        classAttribute = new ClassAttribute("c0");
+        new Div(root, classAttribute);
+    }
+
+    @Benchmark
+    @Group("contention")
+    @GroupThreads(7)
+    public AbstractHtml find() {
+        return TagRepository.findTagById(lastId, root);
+    }
+
+    @Benchmark
+    @Group("contention")
+    @GroupThreads(1)
+    public void modify() {
+        // only the modify thread writes the counter
+        classAttribute.setValue("c" + (++counter & 15));
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.benchmark;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webfirmframework.wffweb.tag.html.AbstractHtml;
+import com.webfirmframework.wffweb.tag.html.TagNameConstants;
+import com.webfirmframework.wffweb.tag.html.attribute.AttributeNameConstants;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Div;
+import com.webfirmframework.wffweb.tag.repository.TagRepository;
+
+/**
+ * Benchmarks of the static finder methods of {@link TagRepository} in
+ * sequential and parallel mode.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagRepositoryBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    @Param({ "1000" })
+    public int size;
+
+    private Div root;
+
+    private String lastId;
+
+    @Setup
+    public void setup() {
+        root = TagTrees.wide(null, size);
+        lastId = "w" + (size - 1);
+    }
+
+    @Benchmark
+    public AbstractHtml findTagById() {
+        return TagRepository.findTagById(parallel, lastId, root);
+    }
+
+    @Benchmark
+    public Collection<AbstractHtml> findTagsByAttribute() {
+        return TagRepository.findTagsByAttribute(parallel, AttributeNameConstants.CLASS, "odd", root);
+    }
+
+    @Benchmark
+    public Collection<AbstractHtml> findTagsByTagName() {
+        return TagRepository.findTagsByTagName(parallel, TagNameConstants.SPAN, root);
+    }
+
+}
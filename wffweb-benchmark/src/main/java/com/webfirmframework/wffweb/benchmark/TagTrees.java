@@ -0,0 +1,68 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.benchmark;
+
+import com.webfirmframework.wffweb.tag.html.AbstractHtml;
+import com.webfirmframework.wffweb.tag.html.attribute.global.ClassAttribute;
+import com.webfirmframework.wffweb.tag.html.attribute.global.Id;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Div;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Span;
+import com.webfirmframework.wffweb.tag.htmlwff.NoTag;
+
+/**
+ * Builds the tag hierarchies used by the benchmarks.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+final class TagTrees {
+
+    private TagTrees() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @param parent the parent tag, may be null
+     * @param depth  the number of nested levels
+     * @return a hierarchy of nested div tags, each level has a span with text
+     *         content. The id of each div is {@code "d" + level}.
+     */
+    static Div deep(final AbstractHtml parent, final int depth) {
+        final Div root = new Div(parent, new Id("d0"), new ClassAttribute("level"));
+        Div current = root;
+        for (int level = 1; level < depth; level++) {
+            new Span(current, new ClassAttribute("text")).addInnerHtml(new NoTag(null, "level " + level));
+            current = new Div(current, new Id("d" + level), new ClassAttribute("level"));
+        }
+        return root;
+    }
+
+    /**
+     * @param parent the parent tag, may be null
+     * @param width  the number of children of the root tag
+     * @return a div containing the given number of div children each having a
+     *         span with text content. The id of each child is {@code "w" + index}.
+     */
+    static Div wide(final AbstractHtml parent, final int width) {
+        final Div root = new Div(parent, new Id("root"));
+        for (int i = 0; i < width; i++) {
+            final Div child = new Div(root, new Id("w" + i), new ClassAttribute(i % 2 == 0 ? "even" : "odd"));
+            new Span(child).addInnerHtml(new NoTag(null, "item " + i));
+        }
+        return root;
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webfirmframework.wffweb.common.URIEvent;
+import com.webfirmframework.wffweb.common.URIEventInitiator;
+import com.webfirmframework.wffweb.util.URIPattern;
+import com.webfirmframework.wffweb.util.URIPatterns;
+import com.webfirmframework.wffweb.util.URIUtil;
+
+/**
+ * Benchmark of testing all route predicates of an app for a navigation, as
+ * {@code BrowserPage} does for the {@code whenURI} of the tags. Each operation
+ * navigates to the next uri and tests every route with
+ * {@link URIUtil#patternMatches(String, String)} and with the
+ * {@link URIPattern} objects of a {@link URIPatterns}.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class URIRoutingBenchmark {
+
+    @Param({ "50", "500" })
+    public int routes;
+
+    private String[] patternStrings;
+
+    private URIPattern[] patterns;
+
+    private URIEvent[] uriEvents;
+
+    private int counter;
+
+    @Setup
+    public void setup() {
+        patternStrings = new String[routes];
+        patterns = new URIPattern[routes];
+        final URIPatterns uriPatterns = new URIPatterns();
+        for (int i = 0; i < routes; i++) {
+            patternStrings[i] = switch (i % 4) {
+            case 0 -> "/module" + i + "/items";
+            case 1 -> "/module" + i + "/items/view/{itemId}";
+            case 2 -> "/module" + i + "/items/{itemId}/edit";
+            default -> "/module" + i + "/docs/[path]";
+            };
+            patterns[i] = uriPatterns.add(patternStrings[i]);
+        }
+        uriEvents = new URIEvent[16];
+        for (int i = 0; i < uriEvents.length; i++) {
+            final int route = (i * 31) % routes;
+            uriEvents[i] = new URIEvent(null, "/module" + route + "/items/view/" + i + "?tab=details",
+                    URIEventInitiator.BROWSER, false);
+        }
+    }
+
+    @Benchmark
+    public int patternMatches() {
+        final URIEvent uriEvent = uriEvents[counter++ & 15];
+        int matched = 0;
+        for (final String patternString : patternStrings) {
+            if (URIUtil.patternMatches(patternString, uriEvent.uriAfter())) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int uriPatterns() {
+        final URIEvent uriEvent = uriEvents[counter++ & 15];
+        int matched = 0;
+        for (final URIPattern pattern : patterns) {
+            if (pattern.test(uriEvent)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webfirmframework.wffweb.util.WffBinaryMessageUtil;
+import com.webfirmframework.wffweb.util.data.NameValue;
+import com.webfirmframework.wffweb.wffbm.data.BMValueType;
+import com.webfirmframework.wffweb.wffbm.data.WffBMArray;
+import com.webfirmframework.wffweb.wffbm.data.WffBMDoubleArray;
+import com.webfirmframework.wffweb.wffbm.data.WffBMNumberArray;
+import com.webfirmframework.wffweb.wffbm.data.WffBMObject;
+
+/**
+ * Benchmarks of the wff binary message encoding and parsing.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WffBinaryMessageBenchmark {
+
+    @Param({ "10", "1000" })
+    public int nameValueCount;
+
+    private List<NameValue> nameValues;
+
+    private byte[] message;
+
+    /**
+     * an object having an array of nameValueCount nested objects.
+     */
+    private WffBMObject bmObject;
+
+    /**
+     * a series of nameValueCount * 100 points as boxed and primitive values.
+     */
+    private WffBMNumberArray<Double> boxedSeries;
+
+    private WffBMDoubleArray series;
+
+    private byte[] seriesBytes;
+
+    @Setup
+    public void setup() {
+        nameValues = new ArrayList<>(nameValueCount);
+        for (int i = 0; i < nameValueCount; i++) {
+            final byte[] name = ("name" + i).getBytes(StandardCharsets.UTF_8);
+            final byte[][] values = { ("value" + i).getBytes(StandardCharsets.UTF_8),
+                    WffBinaryMessageUtil.getOptimizedBytesFromInt(i) };
+            nameValues.add(new NameValue(name, values));
+        }
+        message = WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
+
+        final WffBMArray items = new WffBMArray(BMValueType.BM_OBJECT);
+        for (int i = 0; i < nameValueCount; i++) {
+            final WffBMObject item = new WffBMObject();
+            item.put("id", BMValueType.NUMBER, i);
+            item.put("name", BMValueType.STRING, "name" + i);
+            item.put("active", BMValueType.BOOLEAN, i % 2 == 0);
+            final WffBMArray tags = new WffBMArray(BMValueType.STRING);
+            tags.add("tag" + i);
+            tags.add("tag" + (i + 1));
+            item.put("tags", BMValueType.BM_ARRAY, tags);
+            items.add(item);
+        }
+        bmObject = new WffBMObject();
+        bmObject.put("items", BMValueType.BM_ARRAY, items);
+
+        final int pointCount = nameValueCount * 100;
+        boxedSeries = new WffBMNumberArray<>();
+        series = new WffBMDoubleArray(pointCount);
+        for (int i = 0; i < pointCount; i++) {
+            final double y = Math.sin(i / 100.0) * 1000;
+            boxedSeries.add(y);
+            series.addDouble(y);
+        }
+        seriesBytes = series.buildBytes(true);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
+    }
+
+    @Benchmark
+    public byte[] buildNestedWffBMObject() {
+        return bmObject.buildBytes(true);
+    }
+
+    @Benchmark
+    public void writeNestedWffBMObject() throws IOException {
+        bmObject.writeBytes(OutputStream.nullOutputStream(), true);
+    }
+
+    @Benchmark
+    public byte[] buildBoxedSeries() {
+        return boxedSeries.buildBytes(true);
+    }
+
+    @Benchmark
+    public byte[] buildPrimitiveSeries() {
+        return series.buildBytes(true);
+    }
+
+    @Benchmark
+    public WffBMArray parseBoxedSeries() {
+        return new WffBMNumberArray<Double>(seriesBytes);
+    }
+
+    @Benchmark
+    public WffBMDoubleArray parsePrimitiveSeries() {
+        return new WffBMDoubleArray(seriesBytes);
+    }
+
+    @Benchmark
+    public List<NameValue> parse() {
+        return WffBinaryMessageUtil.VERSION_1.parse(message);
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.webfirmframework.wffweb.server.page.BrowserPage;
+import com.webfirmframework.wffweb.tag.html.AbstractHtml;
+import com.webfirmframework.wffweb.tag.html.Body;
+import com.webfirmframework.wffweb.tag.html.Html;
+import com.webfirmframework.wffweb.tag.html.metainfo.Head;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Div;
+import com.webfirmframework.wffweb.tag.htmlwff.NoTag;
+
+/**
+ * Benchmark of the first render of a small {@link BrowserPage} with the wff
+ * script embedded in the page and with only the bootstrap script embedded by
+ * {@code useWffRuntimeScriptPath}. The average time is the CPU cost of creating
+ * and rendering a page and {@code htmlBytes / pages} of the counters is the
+ * size of the rendered html.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WffScriptEmbeddingBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean runtimeScript;
+
+    private static class InlineBrowserPage extends BrowserPage {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String webSocketUrl() {
+            return "ws://localhost/benchmark";
+        }
+
+        @Override
+        public AbstractHtml render() {
+            return new Html(null).give(html -> {
+                new Head(html);
+                new Body(html).give(body -> new NoTag(new Div(body), "Hello World"));
+            });
+        }
+    }
+
+    private static final class RuntimeScriptBrowserPage extends InlineBrowserPage {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected String useWffRuntimeScriptPath() {
+            return "/assets/js/";
+        }
+    }
+
+    /**
+     * JMH sums the counters of all iterations, htmlBytes / pages is the size of
+     * a rendered page.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HtmlBytes {
+
+        public long htmlBytes;
+
+        public long pages;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            htmlBytes = 0;
+            pages = 0;
+        }
+    }
+
+    @Benchmark
+    public int renderPage(final HtmlBytes htmlBytes) {
+        final BrowserPage browserPage = runtimeScript ? new RuntimeScriptBrowserPage() : new InlineBrowserPage();
+        final int length = browserPage.toHtmlString().length();
+        htmlBytes.htmlBytes += length;
+        htmlBytes.pages++;
+        return length;
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the external drive queues used for the {@code taskFromClientQ}
+ * of {@link BrowserPage}, the file per message
+ * {@link ExternalDriveByteArrayQueue} against the memory-mapped
+ * {@link ExternalDriveSegmentedByteArrayQueue}. Each operation offers a message
+ * and every 16th operation drains the queue like the consumer of
+ * {@code taskFromClientQ}, compare the time of both {@code queue} params. It is
+ * in the package of the queues as they are package-private.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExternalDriveQueueBenchmark {
+
+    private static final String DIR_NAME = "0f4a7c6e-5b1d-4c3e-9a8f-2d6b1e7c9a40";
+
+    @Param({ "filePerMessage", "segmented" })
+    public String queue;
+
+    @Param({ "256" })
+    public int payloadLength;
+
+    private Queue<byte[]> q;
+
+    private byte[] payload;
+
+    private int counter;
+
+    @Setup
+    public void setup() throws IOException {
+        payload = new byte[payloadLength];
+        Arrays.fill(payload, (byte) 1);
+        final String basePath = Files.createTempDirectory(getClass().getSimpleName()).toString();
+        q = "segmented".equals(queue) ? new ExternalDriveSegmentedByteArrayQueue(basePath, DIR_NAME, "in")
+                : new ExternalDriveByteArrayQueue(basePath, DIR_NAME, "in");
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (q instanceof final ExternalDriveSegmentedByteArrayQueue segmentedQ) {
+            segmentedQ.deleteBaseDirStructure();
+        } else if (q instanceof final ExternalDriveByteArrayQueue fileQ) {
+            fileQ.deleteBaseDirStructure();
+        }
+    }
+
+    @Benchmark
+    public boolean offerAndDrain() {
+        final boolean offered = q.offer(payload);
+        if ((counter++ & 15) == 15) {
+            while (q.poll() != null) {
+                // drain like taskFromClientQ consumer
+            }
+        }
+        return offered;
+    }
+
+}
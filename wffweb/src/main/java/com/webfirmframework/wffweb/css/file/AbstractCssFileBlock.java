@@ -195,7 +195,7 @@ public abstract class AbstractCssFileBlock implements CssFileBlock {
     void setModified(final boolean modified) {
         if (modified) {
             for (final CssFile cssFile : cssFiles) {
-                cssFile.setModified(true);
+                cssFile.setModified(this);
             }
         }
         this.modified = modified;
@@ -263,6 +263,10 @@ public abstract class AbstractCssFileBlock implements CssFileBlock {
      *                        css.
      */
     protected void setExcludeCssBlock(final boolean excludeCssBlock) {
-        this.excludeCssBlock = excludeCssBlock;
+        if (this.excludeCssBlock != excludeCssBlock) {
+            this.excludeCssBlock = excludeCssBlock;
+            // to render the css of the CssFile again
+            setModified(true);
+        }
     }
 }
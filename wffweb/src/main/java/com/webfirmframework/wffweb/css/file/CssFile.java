@@ -20,11 +20,17 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serial;
 import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Field;
 import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -35,6 +41,11 @@ import com.webfirmframework.wffweb.css.core.CssProperty;
 import com.webfirmframework.wffweb.internal.constants.CommonConstants;
 
 /**
+ * NB: the css of each block is cached and rendered again only if the block is
+ * modified. A change in the value of a css property of a block, eg:
+ * {@code bgColor.setCssValue("red")}, also marks the block as modified unless
+ * the same css property object is used in a {@code Style} attribute, in such
+ * case use {@code toCssString(true)} or {@code toOutputStream(os, true)}.
  *
  * @author WFF
  * @since 1.0.0
@@ -58,12 +69,53 @@ public abstract class CssFile implements Serializable, Cloneable {
 
     private boolean prependCharset;
 
+    /**
+     * the rendered css of each selector, used if optimizeCssString is true.
+     */
+    private transient Map<String, RenderedCss> renderedCssBySelectors;
+
+    /**
+     * the rendered css of each block, used if optimizeCssString is false.
+     */
+    private transient Map<AbstractCssFileBlock, RenderedCss> renderedCssByBlock;
+
+    /**
+     * The rendered css of a selector or a block. It is rendered again only if
+     * it is dirty, i.e. a block of it is modified after the rendering.
+     *
+     * @since 12.0.13
+     */
+    private static final class RenderedCss {
+
+        private String css = "";
+
+        private boolean dirty = true;
+
+        private Charset charset;
+
+        private byte[] bytes;
+
+        private void setCss(final String css) {
+            this.css = css;
+            bytes = null;
+            dirty = false;
+        }
+
+        private byte[] getBytes(final Charset charset) {
+            if (bytes == null || !charset.equals(this.charset)) {
+                bytes = css.getBytes(charset);
+                this.charset = charset;
+            }
+            return bytes;
+        }
+    }
+
     private final Set<AbstractCssFileBlock> cssBlocks = new LinkedHashSet<AbstractCssFileBlock>() {
 
         @Serial
         private static final long serialVersionUID = 1_0_0L;
 
-        private final StringBuilder toStringBuilder = new StringBuilder();
+        private String cssString = "";
 
         @Override
         public boolean add(final AbstractCssFileBlock e) {
@@ -121,57 +173,21 @@ public abstract class CssFile implements Serializable, Cloneable {
         public String toString() {
             if (rebuild || modified) {
 
-                toStringBuilder.delete(0, toStringBuilder.length());
-
-                if (optimizeCssString) {
-                    for (final Entry<String, Set<AbstractCssFileBlock>> entry : selectorCssFileBlocks.entrySet()) {
-                        final Set<AbstractCssFileBlock> cssFileBlocks = entry.getValue();
-                        if (!cssFileBlocks.isEmpty()) {
-
-                            boolean exclude = true;
-
-                            final Map<String, CssProperty> cssProperties = new LinkedHashMap<>();
-                            for (final AbstractCssFileBlock cssFileBlock : cssFileBlocks) {
-
-                                // should be called before
-                                // cssFileBlock.isExcludeCssBlock()
-                                final Map<String, CssProperty> cssPropertiesAsMap = cssFileBlock
-                                        .getCssPropertiesAsMap(rebuild);
-
-                                if (!cssFileBlock.isExcludeCssBlock()) {
-                                    cssProperties.putAll(cssPropertiesAsMap);
-                                    exclude = false;
-                                }
-                            }
-
-                            if (exclude) {
-                                continue;
-                            }
-
-                            toStringBuilder.append(entry.getKey()).append('{');
-
-                            for (final CssProperty cssProperty : cssProperties.values()) {
-                                toStringBuilder.append(cssProperty.getCssName()).append(':')
-                                        .append(cssProperty.getCssValue()).append(';');
-                            }
-                            toStringBuilder.append('}');
-                        }
-                    }
-                } else {
-                    for (final AbstractCssFileBlock cssFileBlock : this) {
-                        // this statement should be called before
-                        // cssFileBlock.isExcludeCssBlock method
-                        final String cssString = cssFileBlock.toCssString(rebuild);
-                        if (!cssFileBlock.isExcludeCssBlock()) {
-                            toStringBuilder.append(cssString);
-                        }
-                    }
+                final List<RenderedCss> renderedCssList = renderCss(rebuild);
+                int length = 0;
+                for (final RenderedCss renderedCss : renderedCssList) {
+                    length += renderedCss.css.length();
+                }
+                final StringBuilder cssStringBuilder = new StringBuilder(length);
+                for (final RenderedCss renderedCss : renderedCssList) {
+                    cssStringBuilder.append(renderedCss.css);
                 }
+                cssString = cssStringBuilder.toString();
                 setModified(false);
             }
 
             rebuild = false;
-            return toStringBuilder.toString();
+            return cssString;
         }
     };
 
@@ -223,6 +239,59 @@ public abstract class CssFile implements Serializable, Cloneable {
         }
     }
 
+    /**
+     * Registers the css blocks of this css file. If the blocks are registered by
+     * this method or by {@link #registerCssFiles(CssFile...)} the fields of this
+     * class are not scanned by reflection to find the blocks so the
+     * {@code ExcludeCssBlock} and {@code ImportCssFile} annotations are not
+     * applicable, eg:
+     *
+     * <pre><code>
+     * public class ThemeCssFile extends CssFile {
+     *
+     *     private final CssBlock bodyBlock = new CssBlock("body") {
+     *
+     *         &#64;Override
+     *         protected void load(final Set&lt;CssProperty&gt; cssProperties) {
+     *             cssProperties.add(new BackgroundColor("white"));
+     *         }
+     *     };
+     *
+     *     public ThemeCssFile() {
+     *         registerCssBlocks(bodyBlock);
+     *     }
+     * }
+     * </code></pre>
+     *
+     * @param cssFileBlocks the blocks to add in the order they should be in the
+     *                      css.
+     * @since 12.0.13
+     */
+    protected final void registerCssBlocks(final AbstractCssFileBlock... cssFileBlocks) {
+        initialized = true;
+        for (final AbstractCssFileBlock cssFileBlock : cssFileBlocks) {
+            cssBlocks.add(cssFileBlock);
+        }
+    }
+
+    /**
+     * Imports the blocks of the given css files in to this css file, it is the
+     * alternative of {@code ImportCssFile} annotation without reflection. See
+     * {@link #registerCssBlocks(AbstractCssFileBlock...)}.
+     *
+     * @param cssFiles the css files to import
+     * @since 12.0.13
+     */
+    protected final void registerCssFiles(final CssFile... cssFiles) {
+        initialized = true;
+        for (final CssFile cssFile : cssFiles) {
+            // adding empty set will remove all of the objects.
+            if (!cssFile.getCssBlocks().isEmpty()) {
+                cssBlocks.addAll(cssFile.getCssBlocks());
+            }
+        }
+    }
+
     /**
      * @return the cssBlocks
      * @since 1.0.0
@@ -296,50 +365,19 @@ public abstract class CssFile implements Serializable, Cloneable {
 
         initCssFile();
 
-        if (isOptimizeCssString()) {
-            for (final Entry<String, Set<AbstractCssFileBlock>> entry : selectorCssFileBlocks.entrySet()) {
-                final Set<AbstractCssFileBlock> cssFileBlocks = entry.getValue();
-                if (!cssFileBlocks.isEmpty()) {
-
-                    boolean exclude = true;
-
-                    final Map<String, CssProperty> cssProperties = new LinkedHashMap<>();
-                    for (final AbstractCssFileBlock cssFileBlock : cssFileBlocks) {
-
-                        // should be called before
-                        // cssFileBlock.isExcludeCssBlock method
-                        final Map<String, CssProperty> cssPropertiesAsMap = cssFileBlock.getCssPropertiesAsMap(rebuild);
-
-                        if (!cssFileBlock.isExcludeCssBlock()) {
-                            cssProperties.putAll(cssPropertiesAsMap);
-                            exclude = false;
-                        }
-                    }
-
-                    if (exclude) {
-                        continue;
-                    }
-
-                    os.write(entry.getKey().getBytes(charsetName));
-                    os.write("{".getBytes(charsetName));
+        final Charset charset;
+        try {
+            charset = Charset.forName(charsetName);
+        } catch (final IllegalCharsetNameException | UnsupportedCharsetException e) {
+            throw new UnsupportedEncodingException(charsetName);
+        }
 
-                    for (final CssProperty cssProperty : cssProperties.values()) {
-                        os.write(cssProperty.getCssName().getBytes(charsetName));
-                        os.write(":".getBytes(charsetName));
-                        os.write(cssProperty.getCssValue().getBytes(charsetName));
-                        os.write(";".getBytes(charsetName));
-                    }
-                    os.write("}".getBytes(charsetName));
-                }
-            }
-        } else {
-            for (final AbstractCssFileBlock cssFileBlock : cssBlocks) {
-                // this statement should be called before
-                // cssFileBlock.isExcludeCssBlock method
-                final String cssString = cssFileBlock.toCssString(rebuild);
-                if (!cssFileBlock.isExcludeCssBlock()) {
-                    os.write(cssString.getBytes(charsetName));
-                }
+        // writes the bytes cached for each selector/block, only the modified ones
+        // are rendered again
+        for (final RenderedCss renderedCss : renderCss(rebuild)) {
+            final byte[] bytes = renderedCss.getBytes(charset);
+            if (bytes.length > 0) {
+                os.write(bytes);
             }
         }
     }
@@ -396,6 +434,116 @@ public abstract class CssFile implements Serializable, Cloneable {
         this.modified = modified;
     }
 
+    /**
+     * @param cssFileBlock the modified block
+     * @since 12.0.13
+     */
+    void setModified(final AbstractCssFileBlock cssFileBlock) {
+        modified = true;
+        markDirty(cssFileBlock);
+    }
+
+    private void markDirty(final AbstractCssFileBlock cssFileBlock) {
+        if (renderedCssBySelectors != null) {
+            final RenderedCss renderedCss = renderedCssBySelectors.get(cssFileBlock.getSelectors());
+            if (renderedCss != null) {
+                renderedCss.dirty = true;
+            }
+        }
+        if (renderedCssByBlock != null) {
+            final RenderedCss renderedCss = renderedCssByBlock.get(cssFileBlock);
+            if (renderedCss != null) {
+                renderedCss.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * renders only the dirty selectors/blocks unless rebuild is true.
+     *
+     * @param rebuild true to render all
+     * @return the rendered css in the order of the css.
+     * @since 12.0.13
+     */
+    private List<RenderedCss> renderCss(final boolean rebuild) {
+        if (optimizeCssString) {
+            if (renderedCssBySelectors == null) {
+                renderedCssBySelectors = new HashMap<>();
+            }
+            final List<RenderedCss> renderedCssList = new ArrayList<>(selectorCssFileBlocks.size());
+            for (final Entry<String, Set<AbstractCssFileBlock>> entry : selectorCssFileBlocks.entrySet()) {
+                final Set<AbstractCssFileBlock> cssFileBlocks = entry.getValue();
+                if (cssFileBlocks.isEmpty()) {
+                    continue;
+                }
+                final RenderedCss renderedCss = renderedCssBySelectors.computeIfAbsent(entry.getKey(),
+                        k -> new RenderedCss());
+                if (rebuild || renderedCss.dirty) {
+                    // the dirty flag must be reset only after rendering as the
+                    // lazy loading of a block marks it as dirty
+                    renderedCss.setCss(toCssString(entry.getKey(), cssFileBlocks, rebuild));
+                }
+                renderedCssList.add(renderedCss);
+            }
+            return renderedCssList;
+        }
+
+        if (renderedCssByBlock == null) {
+            renderedCssByBlock = new HashMap<>();
+        }
+        final List<RenderedCss> renderedCssList = new ArrayList<>(cssBlocks.size());
+        for (final AbstractCssFileBlock cssFileBlock : cssBlocks) {
+            final RenderedCss renderedCss = renderedCssByBlock.computeIfAbsent(cssFileBlock, k -> new RenderedCss());
+            if (rebuild || renderedCss.dirty) {
+                // this statement should be called before
+                // cssFileBlock.isExcludeCssBlock method
+                final String cssString = cssFileBlock.toCssString(rebuild);
+                renderedCss.setCss(cssFileBlock.isExcludeCssBlock() ? "" : cssString);
+            }
+            renderedCssList.add(renderedCss);
+        }
+        return renderedCssList;
+    }
+
+    /**
+     * merges the properties of the blocks having the same selectors.
+     *
+     * @param selectors     the selectors
+     * @param cssFileBlocks the blocks of the selectors
+     * @param rebuild       true to invoke load method of the blocks again
+     * @return the css string of the selectors
+     */
+    private static String toCssString(final String selectors, final Set<AbstractCssFileBlock> cssFileBlocks,
+            final boolean rebuild) {
+
+        boolean exclude = true;
+
+        final Map<String, CssProperty> cssProperties = new LinkedHashMap<>();
+        for (final AbstractCssFileBlock cssFileBlock : cssFileBlocks) {
+
+            // should be called before
+            // cssFileBlock.isExcludeCssBlock()
+            final Map<String, CssProperty> cssPropertiesAsMap = cssFileBlock.getCssPropertiesAsMap(rebuild);
+
+            if (!cssFileBlock.isExcludeCssBlock()) {
+                cssProperties.putAll(cssPropertiesAsMap);
+                exclude = false;
+            }
+        }
+
+        if (exclude) {
+            return "";
+        }
+
+        final StringBuilder cssStringBuilder = new StringBuilder(selectors.length() + 2 + (cssProperties.size() * 24));
+        cssStringBuilder.append(selectors).append('{');
+        for (final CssProperty cssProperty : cssProperties.values()) {
+            cssStringBuilder.append(cssProperty.getCssName()).append(':').append(cssProperty.getCssValue())
+                    .append(';');
+        }
+        return cssStringBuilder.append('}').toString();
+    }
+
     private void addToSelectorCssFileBlocks(final AbstractCssFileBlock cssFileBlock) {
         Set<AbstractCssFileBlock> abstractCssFileBlocks = selectorCssFileBlocks.get(cssFileBlock.getSelectors());
         if (abstractCssFileBlocks == null) {
@@ -403,6 +551,7 @@ public abstract class CssFile implements Serializable, Cloneable {
             selectorCssFileBlocks.put(cssFileBlock.getSelectors(), abstractCssFileBlocks);
         }
         abstractCssFileBlocks.add(cssFileBlock);
+        markDirty(cssFileBlock);
     }
 
     private void removeFromSelectorFileBlocks(final AbstractCssFileBlock cssFileBlock) {
@@ -410,6 +559,10 @@ public abstract class CssFile implements Serializable, Cloneable {
         if (abstractCssFileBlocks != null) {
             abstractCssFileBlocks.remove(cssFileBlock);
         }
+        markDirty(cssFileBlock);
+        if (renderedCssByBlock != null) {
+            renderedCssByBlock.remove(cssFileBlock);
+        }
     }
 
     /**
@@ -452,7 +605,10 @@ public abstract class CssFile implements Serializable, Cloneable {
      * @author WFF
      */
     public void setOptimizeCssString(final boolean optimizeCssString) {
-        this.optimizeCssString = optimizeCssString;
+        if (this.optimizeCssString != optimizeCssString) {
+            this.optimizeCssString = optimizeCssString;
+            modified = true;
+        }
     }
 
     /**
@@ -26,14 +26,16 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import com.webfirmframework.wffweb.css.core.AbstractCssProperty;
 import com.webfirmframework.wffweb.css.core.CssProperty;
+import com.webfirmframework.wffweb.informer.StateChangeInformer;
 
 /**
  *
  * @author WFF
  * @since 3.0.7
  */
-class CssPropertySet extends LinkedHashSet<CssProperty> {
+class CssPropertySet extends LinkedHashSet<CssProperty> implements StateChangeInformer<CssProperty> {
 
     @Serial
     private static final long serialVersionUID = 1L;
@@ -131,6 +133,7 @@ class CssPropertySet extends LinkedHashSet<CssProperty> {
             if (added) {
                 cssFileBlock.setModified(added);
                 cssPropertiesAsMap.put(cssProperty.getCssName(), cssProperty);
+                listenStateChange(cssProperty);
             }
             return added;
         } finally {
@@ -150,6 +153,7 @@ class CssPropertySet extends LinkedHashSet<CssProperty> {
                 if (o instanceof CssProperty) {
                     cssPropertiesAsMap.remove(((CssProperty) o).getCssName());
                 }
+                unlistenStateChange(o);
             }
             return removed;
         } finally {
@@ -178,6 +182,7 @@ class CssPropertySet extends LinkedHashSet<CssProperty> {
                 cssFileBlock.setModified(addedAll);
                 for (final CssProperty cssProperty : cssProperties) {
                     cssPropertiesAsMap.put(cssProperty.getCssName(), cssProperty);
+                    listenStateChange(cssProperty);
                 }
             }
             return addedAll;
@@ -209,6 +214,7 @@ class CssPropertySet extends LinkedHashSet<CssProperty> {
                     if (object instanceof CssProperty) {
                         cssPropertiesAsMap.remove(((CssProperty) object).getCssName());
                     }
+                    unlistenStateChange(object);
                 }
             }
             return removedAll;
@@ -223,6 +229,7 @@ class CssPropertySet extends LinkedHashSet<CssProperty> {
         writeLock.lock();
         try {
             cssFileBlock.setModified(true);
+            unlistenStateChangeOfAll();
             super.clear();
             cssPropertiesAsMap.clear();
         } finally {
@@ -273,7 +280,58 @@ class CssPropertySet extends LinkedHashSet<CssProperty> {
     }
 
     void clearLockless() {
+        unlistenStateChangeOfAll();
         super.clear();
     }
 
+    /**
+     * The value of a css property is changed, eg: by
+     * {@code cssProperty.setCssValue("red")}, so the block is marked as modified
+     * to reflect the change in the css of the {@code CssFile}.
+     *
+     * @since 12.0.13
+     */
+    @Override
+    public void stateChanged(final CssProperty stateChangedObject) {
+        cssFileBlock.setModified(true);
+    }
+
+    /**
+     * listens the value change of the given property only if it is not already
+     * listened by another object, eg: a {@code Style} attribute.
+     *
+     * @param cssProperty
+     * @since 12.0.13
+     */
+    private void listenStateChange(final CssProperty cssProperty) {
+        if (cssProperty instanceof final AbstractCssProperty<?> abstractCssProperty
+                && abstractCssProperty.getStateChangeInformer() == null) {
+            abstractCssProperty.setStateChangeInformer(this);
+        }
+    }
+
+    /**
+     * @param object the removed object
+     * @since 12.0.13
+     */
+    private void unlistenStateChange(final Object object) {
+        if (object instanceof final AbstractCssProperty<?> abstractCssProperty
+                && abstractCssProperty.getStateChangeInformer() == this) {
+            abstractCssProperty.setStateChangeInformer(null);
+        }
+    }
+
+    /**
+     * NB: should be called before clearing this set.
+     *
+     * @since 12.0.13
+     */
+    private void unlistenStateChangeOfAll() {
+        // must be super.iterator() as the iterator of this class locks
+        final Iterator<CssProperty> iterator = super.iterator();
+        while (iterator.hasNext()) {
+            unlistenStateChange(iterator.next());
+        }
+    }
+
 }
@@ -99,6 +99,17 @@ public enum WffJsFile {
             setInterval(function(){wffWS.checkCon();},"${HEARTBEAT_INTERVAL}");
             """.trim();
 
+    // the global variable of the page specific values for the runtime content
+    private static final String BOOTSTRAP_VAR = "wffBtCfg";
+
+    private static final String RUNTIME_HEART_BEAT_JS = """
+            if(wffBtCfg.h > 0){setInterval(function(){wffWS.checkCon();},wffBtCfg.h);}
+            """.trim();
+
+    private static final String RUNTIME_AUTOREMOVE_SCRIPT = """
+            if(wffBtCfg.ar){document.currentScript.parentNode.removeChild(document.currentScript);}
+            """.trim();
+
     /**
      * INDEXED_TAGS_ARRAY
      */
@@ -592,56 +603,71 @@ public enum WffJsFile {
             final boolean removePrevBPOnInitTab, final boolean removePrevBPOnClosetTab, final int heartbeatInterval,
             final int wsHeartbeatTimeout, final int wsReconnectInterval, final boolean autoremoveParentScript,
             final boolean losslessCommunication, final String onPayloadLossJS) {
+        return getAllOptimizedContent(wsUrl, instanceId, removePrevBPOnInitTab, removePrevBPOnClosetTab,
+                heartbeatInterval, wsHeartbeatTimeout, wsReconnectInterval, autoremoveParentScript,
+                losslessCommunication, onPayloadLossJS, false);
+    }
+
+    /**
+     * NB :- This method is only for internal use.
+     *
+     * @param wsUrl                   the complete websocket url
+     * @param instanceId              the instanceId of browserPage
+     * @param removePrevBPOnInitTab   true or false
+     * @param removePrevBPOnClosetTab true or false
+     * @param heartbeatInterval       in milliseconds
+     * @param wsHeartbeatTimeout
+     * @param wsReconnectInterval     in milliseconds
+     * @param autoremoveParentScript  true or false
+     * @param losslessCommunication
+     * @param onPayloadLossJS
+     * @param pushCompression         true to request the compression of the
+     *                                pushed payloads on each connection
+     * @return the js string for the client
+     * @since 12.0.13
+     */
+    public static String getAllOptimizedContent(final String wsUrl, final String instanceId,
+            final boolean removePrevBPOnInitTab, final boolean removePrevBPOnClosetTab, final int heartbeatInterval,
+            final int wsHeartbeatTimeout, final int wsReconnectInterval, final boolean autoremoveParentScript,
+            final boolean losslessCommunication, final String onPayloadLossJS, final boolean pushCompression) {
 
         if (heartbeatInterval > 0) {
             if (autoremoveParentScript) {
                 return buildJsContentWithHeartbeat(wsUrl, instanceId, removePrevBPOnInitTab, removePrevBPOnClosetTab,
                         heartbeatInterval, wsHeartbeatTimeout, wsReconnectInterval, losslessCommunication,
-                        onPayloadLossJS).append(AUTOREMOVE_PARENT_SCRIPT).toString();
+                        onPayloadLossJS, pushCompression).append(AUTOREMOVE_PARENT_SCRIPT).toString();
             }
             return buildJsContentWithHeartbeat(wsUrl, instanceId, removePrevBPOnInitTab, removePrevBPOnClosetTab,
-                    heartbeatInterval, wsHeartbeatTimeout, wsReconnectInterval, losslessCommunication, onPayloadLossJS)
-                            .toString();
+                    heartbeatInterval, wsHeartbeatTimeout, wsReconnectInterval, losslessCommunication, onPayloadLossJS,
+                    pushCompression).toString();
         }
 
         if (autoremoveParentScript) {
             return buildJsContentWithoutHeartbeat(wsUrl, instanceId, removePrevBPOnInitTab, removePrevBPOnClosetTab,
-                    heartbeatInterval, wsHeartbeatTimeout, wsReconnectInterval, losslessCommunication, onPayloadLossJS)
-                            .append(AUTOREMOVE_PARENT_SCRIPT).toString();
+                    heartbeatInterval, wsHeartbeatTimeout, wsReconnectInterval, losslessCommunication, onPayloadLossJS,
+                    pushCompression).append(AUTOREMOVE_PARENT_SCRIPT).toString();
         }
         return buildJsContentWithoutHeartbeat(wsUrl, instanceId, removePrevBPOnInitTab, removePrevBPOnClosetTab,
-                heartbeatInterval, wsHeartbeatTimeout, wsReconnectInterval, losslessCommunication, onPayloadLossJS)
-                        .toString();
+                heartbeatInterval, wsHeartbeatTimeout, wsReconnectInterval, losslessCommunication, onPayloadLossJS,
+                pushCompression).toString();
     }
 
     private static StringBuilder buildJsContentWithHeartbeat(final String wsUrl, final String instanceId,
             final boolean removePrevBPOnInitTab, final boolean removePrevBPOnClosetTab, final int heartbeatInterval,
             final int wsHeartbeatTimeout, final int wsReconnectInterval, final boolean losslessCommunication,
-            final String onPayloadLossJS) {
+            final String onPayloadLossJS, final boolean pushCompression) {
         return buildJsContentWithoutHeartbeat(wsUrl, instanceId, removePrevBPOnInitTab, removePrevBPOnClosetTab,
-                heartbeatInterval, wsHeartbeatTimeout, wsReconnectInterval, losslessCommunication, onPayloadLossJS)
-                        .append(HEART_BEAT_JS.replace("\"${HEARTBEAT_INTERVAL}\"",
-                                Integer.toString(heartbeatInterval)));
+                heartbeatInterval, wsHeartbeatTimeout, wsReconnectInterval, losslessCommunication, onPayloadLossJS,
+                pushCompression).append(HEART_BEAT_JS.replace("\"${HEARTBEAT_INTERVAL}\"",
+                        Integer.toString(heartbeatInterval)));
     }
 
     private static StringBuilder buildJsContentWithoutHeartbeat(final String wsUrl, final String instanceId,
             final boolean removePrevBPOnInitTab, final boolean removePrevBPOnClosetTab, final int heartbeatInterval,
             final int wsHeartbeatTimeout, final int wsReconnectInterval, final boolean losslessCommunication,
-            final String onPayloadLossJS) {
+            final String onPayloadLossJS, final boolean pushCompression) {
 
-        final StringBuilder globalContentBuider = new StringBuilder(WFF_GLOBAL.optimizedFileContent);
-
-        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${CPRSD_DATA}\"", String.valueOf(COMPRESSED_WFF_DATA));
-
-        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${NDXD_TGS}\"", NDXD_TGS);
-
-        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${NDXD_ATRBS}\"", NDXD_ATRBS);
-
-        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${NDXD_VNT_ATRBS}\"", NDXD_VNT_ATRBS);
-
-        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${NDXD_BLN_ATRBS}\"", NDXD_BLN_ATRBS);
-
-        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${WFF_ID_PFXS}\"", WFF_ID_PFXS);
+        final StringBuilder globalContentBuider = buildGlobalContentWithCommonValues();
 
         StringBuilderUtil.replaceFirst(globalContentBuider, "${WS_URL}", wsUrl);
 
@@ -655,16 +681,12 @@ public enum WffJsFile {
         StringBuilderUtil.replaceFirst(globalContentBuider, "\"${REMOVE_PREV_BP_ON_INITTAB}\"",
                 String.valueOf(removePrevBPOnInitTab));
 
-        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${TASK_VALUES}\"", Task.getJsObjectString());
-
-        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${URI_EVENT_INITIATOR_VALUES}\"",
-                URIEventInitiator.getJsObjectString());
-
         StringBuilderUtil.replaceFirst(globalContentBuider, "\"${WS_RECON}\"", String.valueOf(wsReconnectInterval));
         StringBuilderUtil.replaceFirst(globalContentBuider, "\"${WS_HRTBT}\"", String.valueOf(heartbeatInterval));
         StringBuilderUtil.replaceFirst(globalContentBuider, "\"${WS_HRTBT_TMT}\"", String.valueOf(wsHeartbeatTimeout));
         StringBuilderUtil.replaceFirst(globalContentBuider, "\"${LOSSLESS_COMM}\"",
                 String.valueOf(losslessCommunication));
+        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${PUSH_CMPRS}\"", String.valueOf(pushCompression));
         String onLossyCommJS = onPayloadLossJS != null ? onPayloadLossJS.strip() : "";
         onLossyCommJS = onLossyCommJS.endsWith(";") ? onLossyCommJS : onLossyCommJS + ";";
         StringBuilderUtil.replaceFirst(globalContentBuider, "\"${ON_PAYLOAD_LOSS}\"", onLossyCommJS);
@@ -675,4 +697,114 @@ public enum WffJsFile {
                 .append(JS_WORK_AROUND.optimizedFileContent).append(globalContent).append(allOptimizedContent);
     }
 
+    /**
+     * @return the wffGlobal content having the values which are common for all
+     *         pages.
+     * @since 12.0.13
+     */
+    private static StringBuilder buildGlobalContentWithCommonValues() {
+        final StringBuilder globalContentBuider = new StringBuilder(WFF_GLOBAL.optimizedFileContent);
+
+        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${CPRSD_DATA}\"", String.valueOf(COMPRESSED_WFF_DATA));
+
+        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${NDXD_TGS}\"", NDXD_TGS);
+
+        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${NDXD_ATRBS}\"", NDXD_ATRBS);
+
+        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${NDXD_VNT_ATRBS}\"", NDXD_VNT_ATRBS);
+
+        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${NDXD_BLN_ATRBS}\"", NDXD_BLN_ATRBS);
+
+        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${WFF_ID_PFXS}\"", WFF_ID_PFXS);
+
+        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${TASK_VALUES}\"", Task.getJsObjectString());
+
+        StringBuilderUtil.replaceFirst(globalContentBuider, "\"${URI_EVENT_INITIATOR_VALUES}\"",
+                URIEventInitiator.getJsObjectString());
+
+        return globalContentBuider;
+    }
+
+    private static final class RuntimeContentHolder {
+
+        private static final String CONTENT = buildRuntimeContent();
+
+        private static String buildRuntimeContent() {
+
+            // the page specific values are read from the object created by the
+            // bootstrap content
+            final StringBuilder globalContentBuider = buildGlobalContentWithCommonValues();
+
+            StringBuilderUtil.replaceFirst(globalContentBuider, "\"${WS_URL}\"", BOOTSTRAP_VAR + ".u");
+            StringBuilderUtil.replaceFirst(globalContentBuider, "\"${INSTANCE_ID}\"", BOOTSTRAP_VAR + ".i");
+            StringBuilderUtil.replaceFirst(globalContentBuider, "\"${NODE_ID}\"", BOOTSTRAP_VAR + ".n");
+            StringBuilderUtil.replaceFirst(globalContentBuider, "\"${REMOVE_PREV_BP_ON_TABCLOSE}\"",
+                    BOOTSTRAP_VAR + ".rc");
+            StringBuilderUtil.replaceFirst(globalContentBuider, "\"${REMOVE_PREV_BP_ON_INITTAB}\"",
+                    BOOTSTRAP_VAR + ".ri");
+            StringBuilderUtil.replaceFirst(globalContentBuider, "\"${WS_RECON}\"", BOOTSTRAP_VAR + ".r");
+            StringBuilderUtil.replaceFirst(globalContentBuider, "\"${WS_HRTBT}\"", BOOTSTRAP_VAR + ".h");
+            StringBuilderUtil.replaceFirst(globalContentBuider, "\"${WS_HRTBT_TMT}\"", BOOTSTRAP_VAR + ".ht");
+            StringBuilderUtil.replaceFirst(globalContentBuider, "\"${LOSSLESS_COMM}\"", BOOTSTRAP_VAR + ".l");
+            StringBuilderUtil.replaceFirst(globalContentBuider, "\"${PUSH_CMPRS}\"", BOOTSTRAP_VAR + ".c");
+            StringBuilderUtil.replaceFirst(globalContentBuider, "\"${ON_PAYLOAD_LOSS}\"", BOOTSTRAP_VAR + ".pl();");
+
+            return new StringBuilder(DEV_MODE ? "\"use strict\"\nvar wffLog = console.log;" : "var wffLog = console.log;")
+                    .append(JS_WORK_AROUND.optimizedFileContent).append(globalContentBuider).append(allOptimizedContent)
+                    .append(RUNTIME_HEART_BEAT_JS).append(RUNTIME_AUTOREMOVE_SCRIPT).toString();
+        }
+    }
+
+    /**
+     * NB :- This method is only for internal use.
+     *
+     * @return the js content which is common for all pages, it must be loaded
+     *         after the content returned by {@link #getBootstrapContent}.
+     * @since 12.0.13
+     */
+    public static String getRuntimeContent() {
+        return RuntimeContentHolder.CONTENT;
+    }
+
+    /**
+     * NB :- This method is only for internal use.
+     *
+     * @param wsUrl                   the complete websocket url
+     * @param instanceId              the instanceId of browserPage
+     * @param removePrevBPOnInitTab   true or false
+     * @param removePrevBPOnClosetTab true or false
+     * @param heartbeatInterval       in milliseconds
+     * @param wsHeartbeatTimeout      in milliseconds
+     * @param wsReconnectInterval     in milliseconds
+     * @param autoremoveParentScript  true to remove the bootstrap and the
+     *                                runtime script tags after executing them
+     * @param losslessCommunication
+     * @param onPayloadLossJS
+     * @param pushCompression         true to request the compression of the
+     *                                pushed payloads on each connection
+     * @return the page specific js content to be loaded before the content
+     *         returned by {@link #getRuntimeContent()}.
+     * @since 12.0.13
+     */
+    public static String getBootstrapContent(final String wsUrl, final String instanceId,
+            final boolean removePrevBPOnInitTab, final boolean removePrevBPOnClosetTab, final int heartbeatInterval,
+            final int wsHeartbeatTimeout, final int wsReconnectInterval, final boolean autoremoveParentScript,
+            final boolean losslessCommunication, final String onPayloadLossJS, final boolean pushCompression) {
+
+        String onLossyCommJS = onPayloadLossJS != null ? onPayloadLossJS.strip() : "";
+        onLossyCommJS = onLossyCommJS.endsWith(";") ? onLossyCommJS : onLossyCommJS + ";";
+
+        final StringBuilder builder = new StringBuilder(256 + wsUrl.length() + onLossyCommJS.length());
+        builder.append("var ").append(BOOTSTRAP_VAR).append(" = {u:\"").append(wsUrl).append("\",i:\"")
+                .append(instanceId).append("\",n:\"").append(NODE_ID).append("\",ri:").append(removePrevBPOnInitTab)
+                .append(",rc:").append(removePrevBPOnClosetTab).append(",r:").append(wsReconnectInterval)
+                .append(",h:").append(heartbeatInterval).append(",ht:").append(wsHeartbeatTimeout).append(",l:")
+                .append(losslessCommunication).append(",c:").append(pushCompression).append(",ar:")
+                .append(autoremoveParentScript).append(",pl:function(){").append(onLossyCommJS).append("}};");
+        if (autoremoveParentScript) {
+            builder.append(AUTOREMOVE_PARENT_SCRIPT);
+        }
+        return builder.toString();
+    }
+
 }
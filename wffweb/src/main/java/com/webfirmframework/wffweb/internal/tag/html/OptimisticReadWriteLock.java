@@ -0,0 +1,154 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.internal.tag.html;
+
+import java.io.Serial;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A {@code ReentrantReadWriteLock} which additionally supports the optimistic
+ * read of {@code StampedLock}. The tag operations take the read lock while
+ * holding the write lock in the same thread so {@code StampedLock} itself
+ * cannot be used, instead the write lock of this class increments a version
+ * number when it is acquired and released by the outermost lock/unlock call.
+ * The version is odd while the write lock is held. Eg:
+ *
+ * <pre><code>
+ * long stamp = lock.tryOptimisticRead();
+ * if (stamp != 0L) {
+ *     // read without lock, it must be tolerant to the inconsistent data
+ *     if (lock.validate(stamp)) {
+ *         // the read data is consistent
+ *     }
+ * }
+ * </code></pre>
+ *
+ * Note: Only for internal use.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+public final class OptimisticReadWriteLock extends ReentrantReadWriteLock {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final VarHandle VERSION;
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(OptimisticReadWriteLock.class, "version", long.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final VersionedWriteLock writeLock;
+
+    @SuppressWarnings("unused")
+    private volatile long version;
+
+    private final class VersionedWriteLock extends WriteLock {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private VersionedWriteLock() {
+            super(OptimisticReadWriteLock.this);
+        }
+
+        private void locked() {
+            if (getWriteHoldCount() == 1) {
+                // getAndAdd is a full fence so the writes under the lock cannot be
+                // reordered before it
+                VERSION.getAndAdd(OptimisticReadWriteLock.this, 1L);
+            }
+        }
+
+        @Override
+        public void lock() {
+            super.lock();
+            locked();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            super.lockInterruptibly();
+            locked();
+        }
+
+        @Override
+        public boolean tryLock() {
+            if (super.tryLock()) {
+                locked();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(final long timeout, final TimeUnit unit) throws InterruptedException {
+            if (super.tryLock(timeout, unit)) {
+                locked();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void unlock() {
+            if (getWriteHoldCount() == 1) {
+                VERSION.getAndAdd(OptimisticReadWriteLock.this, 1L);
+            }
+            super.unlock();
+        }
+    }
+
+    /**
+     * @param fair true for the fair ordering policy
+     */
+    public OptimisticReadWriteLock(final boolean fair) {
+        super(fair);
+        writeLock = new VersionedWriteLock();
+    }
+
+    @Override
+    public WriteLock writeLock() {
+        return writeLock;
+    }
+
+    /**
+     * @return a stamp to validate later or zero if the write lock is held.
+     */
+    public long tryOptimisticRead() {
+        final long stamp = (long) VERSION.getAcquire(this);
+        return (stamp & 1L) == 0L ? stamp + 2L : 0L;
+    }
+
+    /**
+     * @param stamp the stamp returned by {@link #tryOptimisticRead()}.
+     * @return true if the write lock has not been acquired since the stamp was
+     *         issued.
+     */
+    public boolean validate(final long stamp) {
+        VarHandle.acquireFence();
+        return stamp != 0L && stamp == (long) VERSION.getAcquire(this) + 2L;
+    }
+
+}
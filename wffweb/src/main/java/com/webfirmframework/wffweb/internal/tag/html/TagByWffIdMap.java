@@ -0,0 +1,530 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.internal.tag.html;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.webfirmframework.wffweb.tag.html.AbstractHtml;
+import com.webfirmframework.wffweb.tag.html.html5.attribute.global.DataWffId;
+
+/**
+ * Note: only for internal use.<br>
+ * <br>
+ * The map of data-wff-id value to tag. A data-wff-id value like {@code S55} or
+ * {@code C55} is kept as a {@code long} key made of its prefix char and its int
+ * value (see {@link #key(int, int)}) in an open addressing table so a lookup by
+ * a {@link DataWffId} or by the data-wff-id bytes received from the client
+ * neither creates a {@code String} nor computes its hash. A value which is not
+ * in this format is kept in a separate map.<br>
+ * The get methods are lock free, the modifications are done under a lock. The
+ * {@code String} keyed {@code Map} methods are also supported but they are
+ * slower than the methods taking a {@link DataWffId} or a key.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+public final class TagByWffIdMap extends AbstractMap<String, AbstractHtml> implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * the key for a data-wff-id value which is not in the prefix char and int
+     * format.
+     */
+    public static final long NO_KEY = 0L;
+
+    // a removed slot is not reused until the next rehash so a slot which once had
+    // a key will never have another key in the same table
+    private static final long REMOVED = -1L;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final VarHandle TAGS = MethodHandles.arrayElementVarHandle(AbstractHtml[].class);
+
+    private record Table(long[] keys, AbstractHtml[] tags) implements Serializable {
+    }
+
+    // NB: ReentrantLock is used instead of synchronized block to support virtual
+    // threads
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Table table = new Table(new long[MIN_CAPACITY], new AbstractHtml[MIN_CAPACITY]);
+
+    private volatile int size;
+
+    // the number of slots having a key or REMOVED
+    private int usedSlots;
+
+    private final Map<String, AbstractHtml> otherTags = new ConcurrentHashMap<>();
+
+    /**
+     * @param prefix the prefix char of the data-wff-id value, eg: 'S' or 'C'.
+     * @param id     the int value of the data-wff-id value.
+     * @return the key for the data-wff-id value.
+     */
+    public static long key(final int prefix, final int id) {
+        if (prefix <= 0 || prefix > Character.MAX_VALUE) {
+            return NO_KEY;
+        }
+        return ((long) prefix << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param wffId the data-wff-id value, eg: S55
+     * @return the key for the value or {@link #NO_KEY} if it is not in the prefix
+     *         char and int format.
+     */
+    public static long key(final CharSequence wffId) {
+        final int length = wffId.length();
+        if (length < 2 || length > 12) {
+            return NO_KEY;
+        }
+        int index = 1;
+        final boolean negative = wffId.charAt(index) == '-';
+        if (negative && ++index == length) {
+            return NO_KEY;
+        }
+        // a leading zero is not allowed as it will not be the same value when
+        // converting the key back to string
+        if (wffId.charAt(index) == '0' && (negative || index + 1 < length)) {
+            return NO_KEY;
+        }
+        long id = 0;
+        for (; index < length; index++) {
+            final char c = wffId.charAt(index);
+            if (c < '0' || c > '9') {
+                return NO_KEY;
+            }
+            id = id * 10 + (c - '0');
+        }
+        if (negative) {
+            id = -id;
+        }
+        if (id < Integer.MIN_VALUE || id > Integer.MAX_VALUE) {
+            return NO_KEY;
+        }
+        return key(wffId.charAt(0), (int) id);
+    }
+
+    /**
+     * @param wffIdBytes the data-wff-id bytes sent by the client, i.e. the prefix
+     *                   char byte followed by the optimized bytes of the int
+     *                   value.
+     * @return the key for the bytes or {@link #NO_KEY} if it is not in the prefix
+     *         char and int format.
+     */
+    public static long key(final byte[] wffIdBytes) {
+        final int intBytesLength = wffIdBytes.length - 1;
+        if (intBytesLength < 1 || intBytesLength > 4) {
+            return NO_KEY;
+        }
+        // the same as WffBinaryMessageUtil.getIntFromOptimizedBytes but without
+        // copying the bytes
+        int id = intBytesLength == 4 ? wffIdBytes[1] : wffIdBytes[1] & 0xFF;
+        for (int i = 2; i < wffIdBytes.length; i++) {
+            id = (id << 8) | (wffIdBytes[i] & 0xFF);
+        }
+        return key(wffIdBytes[0], id);
+    }
+
+    /**
+     * @param dataWffId
+     * @return the key for the value of the given data-wff-id
+     */
+    private static long key(final DataWffId dataWffId) {
+        final long key = dataWffId.key();
+        // a deserialized DataWffId of an older version will not have the key
+        return key != NO_KEY ? key : key(dataWffId.getValue());
+    }
+
+    /**
+     * @param key the key of the data-wff-id value.
+     * @return the data-wff-id value for the key or null if it is {@link #NO_KEY}.
+     */
+    public static String toWffId(final long key) {
+        if (key == NO_KEY) {
+            return null;
+        }
+        return String.valueOf((char) (key >>> 32)).concat(Integer.toString((int) key));
+    }
+
+    private static int slot(final long key, final int mask) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    /**
+     * @param key the key of the data-wff-id value.
+     * @return the tag for the key or null.
+     */
+    public AbstractHtml get(final long key) {
+        if (key == NO_KEY) {
+            return null;
+        }
+        final Table table = this.table;
+        final long[] keys = table.keys;
+        final int mask = keys.length - 1;
+        for (int i = slot(key, mask);; i = (i + 1) & mask) {
+            final long k = (long) KEYS.getAcquire(keys, i);
+            if (k == key) {
+                // null if it is removed after reading the key
+                return (AbstractHtml) TAGS.getAcquire(table.tags, i);
+            }
+            if (k == NO_KEY) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @param dataWffId the data-wff-id of the tag.
+     * @return the tag for the data-wff-id or null.
+     */
+    public AbstractHtml get(final DataWffId dataWffId) {
+        final long key = key(dataWffId);
+        return key != NO_KEY ? get(key) : otherTags.get(dataWffId.getValue());
+    }
+
+    /**
+     * @param key the key of the data-wff-id value.
+     * @return true if there is a tag for the key.
+     */
+    public boolean containsKey(final long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @param dataWffId the data-wff-id of the tag.
+     * @param tag       the tag.
+     * @return the previous tag for the data-wff-id or null.
+     */
+    public AbstractHtml put(final DataWffId dataWffId, final AbstractHtml tag) {
+        final long key = key(dataWffId);
+        return key != NO_KEY ? put(key, tag) : otherTags.put(dataWffId.getValue(), tag);
+    }
+
+    /**
+     * removes the tag only if the data-wff-id is mapped to the given tag.
+     *
+     * @param dataWffId the data-wff-id of the tag.
+     * @param tag       the tag to remove.
+     * @return true if removed.
+     */
+    public boolean removeTag(final DataWffId dataWffId, final AbstractHtml tag) {
+        final long key = key(dataWffId);
+        return key != NO_KEY ? remove(key, tag) : otherTags.remove(dataWffId.getValue(), tag);
+    }
+
+    private AbstractHtml put(final long key, final AbstractHtml tag) {
+        if (tag == null) {
+            // the same as ConcurrentHashMap
+            throw new NullPointerException("tag cannot be null");
+        }
+        lock.lock();
+        try {
+            Table table = this.table;
+            long[] keys = table.keys;
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            for (long k; (k = keys[i]) != NO_KEY; i = (i + 1) & mask) {
+                if (k == key) {
+                    final AbstractHtml previous = table.tags[i];
+                    TAGS.setRelease(table.tags, i, tag);
+                    return previous;
+                }
+            }
+            if ((usedSlots + 1) * 2 > keys.length) {
+                table = rehash();
+                keys = table.keys;
+                mask = keys.length - 1;
+                i = slot(key, mask);
+                while (keys[i] != NO_KEY) {
+                    i = (i + 1) & mask;
+                }
+            }
+            // the tag must be visible before the key
+            TAGS.setRelease(table.tags, i, tag);
+            KEYS.setRelease(keys, i, key);
+            usedSlots++;
+            size++;
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean remove(final long key, final AbstractHtml tag) {
+        lock.lock();
+        try {
+            final Table table = this.table;
+            final long[] keys = table.keys;
+            final int mask = keys.length - 1;
+            for (int i = slot(key, mask);; i = (i + 1) & mask) {
+                final long k = keys[i];
+                if (k == key) {
+                    final AbstractHtml previous = table.tags[i];
+                    if (tag != null && !tag.equals(previous)) {
+                        return false;
+                    }
+                    TAGS.setRelease(table.tags, i, null);
+                    KEYS.setRelease(keys, i, REMOVED);
+                    size--;
+                    return true;
+                }
+                if (k == NO_KEY) {
+                    return false;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * copies the tags to a new table, the readers of the current table will still
+     * get the right tags as the current table is not modified.
+     *
+     * @return the new table
+     */
+    private Table rehash() {
+        final Table table = this.table;
+        int capacity = MIN_CAPACITY;
+        while ((size + 1) * 4 > capacity) {
+            capacity <<= 1;
+        }
+        final long[] keys = new long[capacity];
+        final AbstractHtml[] tags = new AbstractHtml[capacity];
+        final int mask = capacity - 1;
+        int used = 0;
+        for (int j = 0; j < table.keys.length; j++) {
+            final long key = table.keys[j];
+            final AbstractHtml tag = table.tags[j];
+            if (key != NO_KEY && key != REMOVED && tag != null) {
+                int i = slot(key, mask);
+                while (keys[i] != NO_KEY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                tags[i] = tag;
+                used++;
+            }
+        }
+        usedSlots = used;
+        final Table newTable = new Table(keys, tags);
+        this.table = newTable;
+        return newTable;
+    }
+
+    @Override
+    public AbstractHtml get(final Object wffId) {
+        if (wffId instanceof final String value) {
+            final long key = key(value);
+            return key != NO_KEY ? get(key) : otherTags.get(value);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(final Object wffId) {
+        return get(wffId) != null;
+    }
+
+    @Override
+    public AbstractHtml put(final String wffId, final AbstractHtml tag) {
+        final long key = key(wffId);
+        return key != NO_KEY ? put(key, tag) : otherTags.put(wffId, tag);
+    }
+
+    @Override
+    public AbstractHtml remove(final Object wffId) {
+        if (wffId instanceof final String value) {
+            final long key = key(value);
+            if (key == NO_KEY) {
+                return otherTags.remove(value);
+            }
+            lock.lock();
+            try {
+                final AbstractHtml tag = get(key);
+                if (tag != null) {
+                    remove(key, tag);
+                }
+                return tag;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean remove(final Object wffId, final Object tag) {
+        if (wffId instanceof final String value && tag instanceof final AbstractHtml abstractHtml) {
+            final long key = key(value);
+            return key != NO_KEY ? remove(key, abstractHtml) : otherTags.remove(value, abstractHtml);
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            table = new Table(new long[MIN_CAPACITY], new AbstractHtml[MIN_CAPACITY]);
+            usedSlots = 0;
+            size = 0;
+            otherTags.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return size + otherTags.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0 && otherTags.isEmpty();
+    }
+
+    /**
+     * iterates the table which is current at the time of creating the iterator,
+     * i.e. weakly consistent like the iterators of {@code ConcurrentHashMap}.
+     */
+    private abstract class TableIterator<T> implements Iterator<T> {
+
+        private final Table table = TagByWffIdMap.this.table;
+
+        private final Iterator<Entry<String, AbstractHtml>> otherTagsIterator = otherTags.entrySet().iterator();
+
+        private int index = -1;
+
+        private AbstractHtml nextTag;
+
+        TableIterator() {
+            advance();
+        }
+
+        private void advance() {
+            final long[] keys = table.keys;
+            while (++index < keys.length) {
+                final long key = (long) KEYS.getAcquire(keys, index);
+                if (key != NO_KEY && key != REMOVED) {
+                    final AbstractHtml tag = (AbstractHtml) TAGS.getAcquire(table.tags, index);
+                    if (tag != null) {
+                        nextTag = tag;
+                        return;
+                    }
+                }
+            }
+            nextTag = null;
+        }
+
+        abstract T next(long key, AbstractHtml tag);
+
+        abstract T next(Entry<String, AbstractHtml> otherTagEntry);
+
+        @Override
+        public boolean hasNext() {
+            return nextTag != null || otherTagsIterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            final AbstractHtml tag = nextTag;
+            if (tag != null) {
+                final T next = next(table.keys[index], tag);
+                advance();
+                return next;
+            }
+            if (otherTagsIterator.hasNext()) {
+                return next(otherTagsIterator.next());
+            }
+            throw new NoSuchElementException();
+        }
+    }
+
+    @Override
+    public Collection<AbstractHtml> values() {
+        return new AbstractCollection<>() {
+
+            @Override
+            public Iterator<AbstractHtml> iterator() {
+                return new TableIterator<>() {
+
+                    @Override
+                    AbstractHtml next(final long key, final AbstractHtml tag) {
+                        return tag;
+                    }
+
+                    @Override
+                    AbstractHtml next(final Entry<String, AbstractHtml> otherTagEntry) {
+                        return otherTagEntry.getValue();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return TagByWffIdMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<String, AbstractHtml>> entrySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            public Iterator<Entry<String, AbstractHtml>> iterator() {
+                return new TableIterator<>() {
+
+                    @Override
+                    Entry<String, AbstractHtml> next(final long key, final AbstractHtml tag) {
+                        return new SimpleImmutableEntry<>(toWffId(key), tag);
+                    }
+
+                    @Override
+                    Entry<String, AbstractHtml> next(final Entry<String, AbstractHtml> otherTagEntry) {
+                        return new SimpleImmutableEntry<>(otherTagEntry);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return TagByWffIdMap.this.size();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.internal.tag.html;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.webfirmframework.wffweb.internal.security.object.SecurityObject;
+import com.webfirmframework.wffweb.tag.html.AbstractHtml;
+import com.webfirmframework.wffweb.tag.html.TagUtil;
+import com.webfirmframework.wffweb.tag.html.attribute.AttributeNameConstants;
+
+/**
+ * Note: only for internal use.<br>
+ * <br>
+ * Index of the tags in a tag hierarchy (the tags having the same
+ * {@code AbstractHtml5SharedObject}) by tag name and by the value of the
+ * indexed attributes. The id attribute is always indexed. A modified tag is
+ * just marked as dirty and it will be re-indexed by the next find method call
+ * so frequent attribute value changes will not cost an index update for each
+ * change.<br>
+ * NB: the methods to mark the tags are expected to be called under the write
+ * lock of the shared object and the find methods under its read lock, the find
+ * methods must not be called in an optimistic read as they re-index the dirty
+ * tags. The internal lock is always acquired after the lock of the shared
+ * object and the tag lock is never acquired while holding the internal lock so
+ * the attribute values are read without lock while re-indexing.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+public final class TagIndex {
+
+    private final Map<String, Integer> attributeNameIndexes;
+
+    private final String[] attributeNames;
+
+    // NB: ReentrantLock is used instead of synchronized block to support virtual
+    // threads, the find methods are called under read lock so multiple threads
+    // may refresh the index
+    private final Lock lock = new ReentrantLock(false);
+
+    private final SecurityObject accessObject;
+
+    private final Map<String, Set<AbstractHtml>> tagsByTagName = new HashMap<>();
+
+    // attribute name index -> attribute value -> tags
+    private final List<Map<String, Set<AbstractHtml>>> tagsByAttributeValue;
+
+    private final Map<AbstractHtml, IndexedValues> indexedValuesByTag = new HashMap<>();
+
+    private final Set<AbstractHtml> dirtyTags = new LinkedHashSet<>();
+
+    private record IndexedValues(String tagName, String[] attributeValues) {
+    }
+
+    /**
+     * @param attributeNames the names of the attributes to be indexed in addition
+     *                       to the id attribute.
+     * @param accessObject   to read the attribute values without lock.
+     */
+    public TagIndex(final Collection<String> attributeNames,
+            @SuppressWarnings("exports") final SecurityObject accessObject) {
+        this.accessObject = accessObject;
+        final Set<String> names = new LinkedHashSet<>();
+        names.add(AttributeNameConstants.ID);
+        if (attributeNames != null) {
+            for (final String attributeName : attributeNames) {
+                if (attributeName != null) {
+                    names.add(attributeName);
+                }
+            }
+        }
+        this.attributeNames = names.toArray(new String[names.size()]);
+        attributeNameIndexes = new HashMap<>(this.attributeNames.length * 2);
+        for (int i = 0; i < this.attributeNames.length; i++) {
+            attributeNameIndexes.put(this.attributeNames[i], i);
+        }
+        tagsByAttributeValue = new ArrayList<>(this.attributeNames.length);
+        for (int i = 0; i < this.attributeNames.length; i++) {
+            tagsByAttributeValue.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * @param attributeName the attribute name
+     * @return true if the given attribute name is indexed
+     */
+    public boolean isIndexed(final String attributeName) {
+        return attributeNameIndexes.containsKey(attributeName);
+    }
+
+    /**
+     * marks the given tag to be re-indexed.
+     *
+     * @param tag the tag added to the hierarchy or the tag whose attributes are
+     *            added, removed or changed.
+     */
+    public void tagModified(final AbstractHtml tag) {
+        lock.lock();
+        try {
+            dirtyTags.add(tag);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * marks the given tag to be re-indexed only if the given attribute name is
+     * indexed.
+     *
+     * @param tag           the tag whose attribute value is changed
+     * @param attributeName the name of the changed attribute
+     */
+    public void attributeModified(final AbstractHtml tag, final String attributeName) {
+        if (attributeNameIndexes.containsKey(attributeName)) {
+            tagModified(tag);
+        }
+    }
+
+    /**
+     * @param tag the tag removed from the hierarchy
+     */
+    public void tagRemoved(final AbstractHtml tag) {
+        lock.lock();
+        try {
+            dirtyTags.remove(tag);
+            unindexLockless(tag);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param attributeName  the indexed attribute name
+     * @param attributeValue the attribute value
+     * @return the tags having the given attribute name and value
+     */
+    public Collection<AbstractHtml> findTagsByAttribute(final String attributeName, final String attributeValue) {
+        final int index = attributeNameIndexes.get(attributeName);
+        lock.lock();
+        try {
+            refreshLockless();
+            final Set<AbstractHtml> tags = tagsByAttributeValue.get(index).get(attributeValue);
+            return tags != null ? new HashSet<>(tags) : new HashSet<>(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param attributeName  the indexed attribute name
+     * @param attributeValue the attribute value
+     * @return any tag having the given attribute name and value or null
+     */
+    public AbstractHtml findOneTagByAttribute(final String attributeName, final String attributeValue) {
+        final int index = attributeNameIndexes.get(attributeName);
+        lock.lock();
+        try {
+            refreshLockless();
+            final Set<AbstractHtml> tags = tagsByAttributeValue.get(index).get(attributeValue);
+            return tags != null && !tags.isEmpty() ? tags.iterator().next() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param tagName the tag name
+     * @return the tags having the given tag name
+     */
+    public Collection<AbstractHtml> findTagsByTagName(final String tagName) {
+        lock.lock();
+        try {
+            refreshLockless();
+            final Set<AbstractHtml> tags = tagsByTagName.get(tagName);
+            return tags != null ? new HashSet<>(tags) : new HashSet<>(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param tagName the tag name
+     * @return any tag having the given tag name or null
+     */
+    public AbstractHtml findOneTagByTagName(final String tagName) {
+        lock.lock();
+        try {
+            refreshLockless();
+            final Set<AbstractHtml> tags = tagsByTagName.get(tagName);
+            return tags != null && !tags.isEmpty() ? tags.iterator().next() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refreshLockless() {
+        if (dirtyTags.isEmpty()) {
+            return;
+        }
+        for (final AbstractHtml tag : dirtyTags) {
+            unindexLockless(tag);
+            indexLockless(tag);
+        }
+        dirtyTags.clear();
+    }
+
+    private void indexLockless(final AbstractHtml tag) {
+        if (!TagUtil.isTagged(tag)) {
+            return;
+        }
+        final String tagName = tag.getTagName();
+        tagsByTagName.computeIfAbsent(tagName, k -> new LinkedHashSet<>(2)).add(tag);
+
+        final String[] attributeValues = new String[attributeNames.length];
+        for (int i = 0; i < attributeNames.length; i++) {
+            // must be lockless as the tag lock should not be acquired while holding
+            // the internal lock, the find methods are called under the read lock
+            final String attributeValue = TagUtil.getAttributeValueLockless(accessObject, tag, attributeNames[i]);
+            if (attributeValue != null) {
+                attributeValues[i] = attributeValue;
+                tagsByAttributeValue.get(i).computeIfAbsent(attributeValue, k -> new LinkedHashSet<>(2)).add(tag);
+            }
+        }
+        indexedValuesByTag.put(tag, new IndexedValues(tagName, attributeValues));
+    }
+
+    private void unindexLockless(final AbstractHtml tag) {
+        final IndexedValues indexedValues = indexedValuesByTag.remove(tag);
+        if (indexedValues == null) {
+            return;
+        }
+        removeFromBucket(tagsByTagName, indexedValues.tagName, tag);
+        final String[] attributeValues = indexedValues.attributeValues;
+        for (int i = 0; i < attributeValues.length; i++) {
+            final String attributeValue = attributeValues[i];
+            if (attributeValue != null) {
+                removeFromBucket(tagsByAttributeValue.get(i), attributeValue, tag);
+            }
+        }
+    }
+
+    private static void removeFromBucket(final Map<String, Set<AbstractHtml>> buckets, final String key,
+            final AbstractHtml tag) {
+        final Set<AbstractHtml> tags = buckets.get(key);
+        if (tags != null && tags.remove(tag) && tags.isEmpty()) {
+            buckets.remove(key);
+        }
+    }
+
+}
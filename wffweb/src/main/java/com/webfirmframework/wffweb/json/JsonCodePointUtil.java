@@ -369,7 +369,7 @@ final class JsonCodePointUtil {
         return splitCodePoints;
     }
 
-    private static boolean isWhitespace(final int c) {
+    static boolean isWhitespace(final int c) {
         if (c < 0) {
             // char/code point will never be -Ve value, we use -Ve value for id which is not
             // considered as whitespace
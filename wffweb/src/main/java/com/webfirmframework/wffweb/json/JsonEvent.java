@@ -0,0 +1,69 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.json;
+
+/**
+ * The events of {@link JsonReader}.
+ *
+ * @since 12.0.13
+ */
+public enum JsonEvent {
+
+    /**
+     * The start of a JSON object, i.e. {
+     */
+    START_OBJECT,
+
+    /**
+     * The end of a JSON object, i.e. }
+     */
+    END_OBJECT,
+
+    /**
+     * The start of a JSON array, i.e. [
+     */
+    START_ARRAY,
+
+    /**
+     * The end of a JSON array, i.e. ]
+     */
+    END_ARRAY,
+
+    /**
+     * A key of a JSON object, the value of the key is the next event.
+     */
+    KEY,
+
+    /**
+     * A string value.
+     */
+    STRING,
+
+    /**
+     * A number value.
+     */
+    NUMBER,
+
+    /**
+     * A boolean value.
+     */
+    BOOLEAN,
+
+    /**
+     * A null value.
+     */
+    NULL
+}
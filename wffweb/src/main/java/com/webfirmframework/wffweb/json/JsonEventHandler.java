@@ -0,0 +1,36 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.json;
+
+/**
+ * The handler of the events read by {@link JsonReader#read(JsonEventHandler)}.
+ * The handler may use the reader to get the key, value or the location of the
+ * event, it may also consume the current value with
+ * {@link JsonReader#readValue()} or {@link JsonReader#skipValue()}, the reading
+ * continues from the event next to the consumed value.
+ *
+ * @since 12.0.13
+ */
+@FunctionalInterface
+public interface JsonEventHandler {
+
+    /**
+     * @param event  the current event.
+     * @param reader the reader.
+     */
+    void handle(JsonEvent event, JsonReader reader);
+
+}
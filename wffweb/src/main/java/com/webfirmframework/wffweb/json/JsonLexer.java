@@ -0,0 +1,413 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The lexical part of the single pass JSON parsing, it reads the code points
+ * from the UTF-8 bytes or chars and collects the code points of the current
+ * string or literal value into a reusable buffer. The collected code points are
+ * valid till the next string or literal is read. It is shared by
+ * {@link JsonStreamParser} and {@link JsonReader}.
+ *
+ * Note: Only for internal use.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+final class JsonLexer {
+
+    static final int EOF = -1;
+
+    private static final int CURLY_BRACE_END_CODE_POINT = 125;
+
+    private static final int SQUARE_BRACKET_END_CODE_POINT = 93;
+
+    private static final int COMMA_CODE_POINT = JsonCodePointUtil.COMMA_CODE_POINT;
+
+    private static final int ESCAPE_CODE_POINT = JsonCodePointUtil.ESCAPE_CODE_POINT;
+
+    private static final int DOUBLE_QUOTES_CODE_POINT = JsonCodePointUtil.DOUBLE_QUOTES_CODE_POINT;
+
+    private static final int[] NULL_CODE_POINTS = {110, 117, 108, 108};
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Input input;
+
+    private final boolean validateEscapeSequence;
+
+    /**
+     * the current code point, i.e. the code point next to the last read token.
+     */
+    private int c;
+
+    private int[] codePoints = new int[64];
+
+    private int length;
+
+    private final int[] startEndIndices = new int[2];
+
+    private JsonLexer(final Input input, final boolean validateEscapeSequence) {
+        this.input = input;
+        this.validateEscapeSequence = validateEscapeSequence;
+        c = input.read();
+    }
+
+    static JsonLexer of(final byte[] utf8Bytes, final int offset, final int length,
+            final boolean validateEscapeSequence) {
+        return new JsonLexer(new Utf8Input(utf8Bytes, offset, offset + length, null, null), validateEscapeSequence);
+    }
+
+    static JsonLexer of(final ByteBuffer utf8Bytes, final boolean validateEscapeSequence) {
+        if (utf8Bytes.hasArray()) {
+            return of(utf8Bytes.array(), utf8Bytes.arrayOffset() + utf8Bytes.position(), utf8Bytes.remaining(),
+                    validateEscapeSequence);
+        }
+        final int bufferSize = Math.max(1, Math.min(DEFAULT_BUFFER_SIZE, utf8Bytes.remaining()));
+        return new JsonLexer(new Utf8Input(new byte[bufferSize], 0, 0, null, utf8Bytes.duplicate()),
+                validateEscapeSequence);
+    }
+
+    static JsonLexer of(final InputStream utf8InputStream, final boolean validateEscapeSequence) {
+        return new JsonLexer(new Utf8Input(new byte[DEFAULT_BUFFER_SIZE], 0, 0, utf8InputStream, null),
+                validateEscapeSequence);
+    }
+
+    static JsonLexer of(final Reader reader, final boolean validateEscapeSequence) {
+        return new JsonLexer(new CharInput(reader), validateEscapeSequence);
+    }
+
+    /**
+     * @return the current code point or {@link #EOF}.
+     */
+    int current() {
+        return c;
+    }
+
+    /**
+     * moves to the next code point.
+     *
+     * @return the next code point or {@link #EOF}.
+     */
+    int advance() {
+        c = input.read();
+        return c;
+    }
+
+    void skipWhitespaces() {
+        while (c != EOF && JsonCodePointUtil.isWhitespace(c)) {
+            c = input.read();
+        }
+    }
+
+    /**
+     * @return the collected code points, only the first {@link #length()} code
+     *         points are valid.
+     */
+    int[] codePoints() {
+        return codePoints;
+    }
+
+    /**
+     * @return the number of the collected code points.
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * reads the code points of a null, boolean or number value till a whitespace
+     * or a delimiter.
+     */
+    void readLiteral() {
+        length = 0;
+        while (c != EOF && c != COMMA_CODE_POINT && c != CURLY_BRACE_END_CODE_POINT
+                && c != SQUARE_BRACKET_END_CODE_POINT && !JsonCodePointUtil.isWhitespace(c)) {
+            append(c);
+            c = input.read();
+        }
+        startEndIndices[0] = 0;
+        startEndIndices[1] = length - 1;
+    }
+
+    /**
+     * reads all the remaining code points excluding the trailing whitespaces.
+     */
+    void readRemaining() {
+        length = 0;
+        while (c != EOF) {
+            append(c);
+            c = input.read();
+        }
+        while (length > 0 && JsonCodePointUtil.isWhitespace(codePoints[length - 1])) {
+            length--;
+        }
+        startEndIndices[0] = 0;
+        startEndIndices[1] = length - 1;
+    }
+
+    /**
+     * the current code point should be the opening double quotes. The code points
+     * between the double quotes are collected without replacing the escape
+     * sequences.
+     */
+    void readString() {
+        length = 0;
+        int codePoint = input.read();
+        while (codePoint != DOUBLE_QUOTES_CODE_POINT) {
+            if (codePoint == EOF) {
+                throw new IllegalJsonFormatException("Invalid JSON! Closing \" is missing!");
+            }
+            append(codePoint);
+            if (codePoint == ESCAPE_CODE_POINT) {
+                final int escapedCodePoint = input.read();
+                if (escapedCodePoint == EOF) {
+                    throw new IllegalJsonFormatException("Invalid JSON! Closing \" is missing!");
+                }
+                append(escapedCodePoint);
+                if (validateEscapeSequence) {
+                    if (!JsonStringUtil.isJsonStringEscapableDelim(escapedCodePoint)) {
+                        throw new IllegalJsonFormatException(
+                                "Invalid JSON! The JSON string contains illegal escape sequence (\\)!");
+                    }
+                    if (escapedCodePoint == JsonCodePointUtil.U_CODE_POINT) {
+                        final int escapeIndex = length - 2;
+                        for (int i = 0; i < 4; i++) {
+                            final int hex = input.read();
+                            if (hex == EOF) {
+                                break;
+                            }
+                            append(hex);
+                        }
+                        if (!JsonCodePointUtil.isValidUnicodeEscapeSequence(codePoints, escapeIndex,
+                                escapeIndex + 5)
+                                || (length - escapeIndex) != 6) {
+                            throw new IllegalJsonFormatException(
+                                    "Invalid JSON! The JSON string contains illegal Unicode escape sequence! check "
+                                            .concat(new String(codePoints, escapeIndex, length - escapeIndex)));
+                        }
+                    }
+                }
+            }
+            codePoint = input.read();
+        }
+        c = input.read();
+    }
+
+    private void append(final int codePoint) {
+        if (length == codePoints.length) {
+            codePoints = Arrays.copyOf(codePoints, length << 1);
+        }
+        codePoints[length++] = codePoint;
+    }
+
+    /**
+     * @return the last read string with the escape sequences replaced.
+     */
+    String decodedString() {
+        return JsonStringUtil.replaceEscapeCharSequenceWithJavaChars(codePoints, 0, length);
+    }
+
+    Object parseString(final JsonStringValueType valueType) {
+        return valueType.parse(codePoints, length);
+    }
+
+    boolean isNullLiteral() {
+        return length == NULL_CODE_POINTS.length
+                && Arrays.equals(NULL_CODE_POINTS, 0, NULL_CODE_POINTS.length, codePoints, 0, length);
+    }
+
+    boolean isBooleanLiteral() {
+        return JsonBooleanValueType.isBooleanValue(codePoints, startEndIndices);
+    }
+
+    Object parseBoolean(final JsonBooleanValueType valueType) {
+        return valueType.parse(codePoints, startEndIndices);
+    }
+
+    Boolean parseBooleanOtherwiseNull() {
+        return JsonBooleanValueType.parseBooleanOtherwiseNull(codePoints, startEndIndices);
+    }
+
+    Object parseNumber(final JsonNumberValueType valueType) {
+        try {
+            return valueType.parse(codePoints, startEndIndices);
+        } catch (final NumberFormatException e) {
+            throw new IllegalJsonFormatException(
+                    "Invalid JSON! It contains invalid value ".concat(new String(codePoints, 0, length)), e);
+        }
+    }
+
+    private abstract static sealed class Input permits Utf8Input, CharInput {
+
+        /**
+         * @return the next code point or -1 if the end of the input is reached.
+         * @throws UncheckedIOException if an I/O error occurs.
+         */
+        abstract int read();
+    }
+
+    private static final class Utf8Input extends Input {
+
+        private final byte[] bytes;
+
+        private int position;
+
+        private int limit;
+
+        private final InputStream inputStream;
+
+        private final ByteBuffer byteBuffer;
+
+        /**
+         * @param bytes       the bytes to read or the buffer to read into from the
+         *                    inputStream or byteBuffer.
+         * @param position    the index to read from
+         * @param limit       the index of the end (exclusive)
+         * @param inputStream the stream to read or null
+         * @param byteBuffer  the non heap buffer to read or null
+         */
+        private Utf8Input(final byte[] bytes, final int position, final int limit, final InputStream inputStream,
+                final ByteBuffer byteBuffer) {
+            this.bytes = bytes;
+            this.position = position;
+            this.limit = limit;
+            this.inputStream = inputStream;
+            this.byteBuffer = byteBuffer;
+        }
+
+        private boolean fill() {
+            if (inputStream != null) {
+                try {
+                    int count;
+                    do {
+                        count = inputStream.read(bytes, 0, bytes.length);
+                    } while (count == 0);
+                    if (count < 0) {
+                        return false;
+                    }
+                    position = 0;
+                    limit = count;
+                    return true;
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            if (byteBuffer != null && byteBuffer.hasRemaining()) {
+                final int count = Math.min(bytes.length, byteBuffer.remaining());
+                byteBuffer.get(bytes, 0, count);
+                position = 0;
+                limit = count;
+                return true;
+            }
+            return false;
+        }
+
+        private int nextContinuationByte() {
+            if (position == limit && !fill()) {
+                throw new IllegalJsonFormatException("Invalid JSON! It contains malformed UTF-8 bytes.");
+            }
+            final int b = bytes[position++];
+            if ((b & 0xC0) != 0x80) {
+                throw new IllegalJsonFormatException("Invalid JSON! It contains malformed UTF-8 bytes.");
+            }
+            return b & 0x3F;
+        }
+
+        @Override
+        int read() {
+            if (position == limit && !fill()) {
+                return EOF;
+            }
+            final int b = bytes[position++];
+            if (b >= 0) {
+                return b;
+            }
+            if ((b & 0xE0) == 0xC0) {
+                return ((b & 0x1F) << 6) | nextContinuationByte();
+            }
+            if ((b & 0xF0) == 0xE0) {
+                final int b2 = nextContinuationByte();
+                return ((b & 0x0F) << 12) | (b2 << 6) | nextContinuationByte();
+            }
+            if ((b & 0xF8) == 0xF0) {
+                final int b2 = nextContinuationByte();
+                final int b3 = nextContinuationByte();
+                final int codePoint = ((b & 0x07) << 18) | (b2 << 12) | (b3 << 6) | nextContinuationByte();
+                if (codePoint <= Character.MAX_CODE_POINT) {
+                    return codePoint;
+                }
+            }
+            throw new IllegalJsonFormatException("Invalid JSON! It contains malformed UTF-8 bytes.");
+        }
+    }
+
+    private static final class CharInput extends Input {
+
+        private final char[] chars = new char[DEFAULT_BUFFER_SIZE];
+
+        private int position;
+
+        private int limit;
+
+        private final Reader reader;
+
+        private CharInput(final Reader reader) {
+            this.reader = reader;
+        }
+
+        private boolean fill() {
+            try {
+                int count;
+                do {
+                    count = reader.read(chars, 0, chars.length);
+                } while (count == 0);
+                if (count < 0) {
+                    return false;
+                }
+                position = 0;
+                limit = count;
+                return true;
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        int read() {
+            if (position == limit && !fill()) {
+                return EOF;
+            }
+            final char ch = chars[position++];
+            if (Character.isHighSurrogate(ch) && (position < limit || fill())) {
+                final char low = chars[position];
+                if (Character.isLowSurrogate(low)) {
+                    position++;
+                    return Character.toCodePoint(ch, low);
+                }
+            }
+            return ch;
+        }
+    }
+
+}
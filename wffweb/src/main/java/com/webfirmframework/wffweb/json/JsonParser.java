@@ -18,7 +18,11 @@ package com.webfirmframework.wffweb.json;
 import com.webfirmframework.wffweb.InvalidUsageException;
 import com.webfirmframework.wffweb.util.StringUtil;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -436,7 +440,7 @@ public record JsonParser(JsonObjectType jsonObjectType, JsonArrayType jsonArrayT
         return false;
     }
 
-    private Map<String, Object> newMap(final int length) {
+    Map<String, Object> newMap(final int length) {
         return switch (jsonObjectType) {
             case JSON_MAP, UNMODIFIABLE_MAP -> new JsonMap(length);
             case JSON_CONCURRENT_MAP -> new JsonConcurrentMap(length);
@@ -465,7 +469,7 @@ public record JsonParser(JsonObjectType jsonObjectType, JsonArrayType jsonArrayT
         };
     }
 
-    private List<Object> newList(final int initialCapacity) {
+    List<Object> newList(final int initialCapacity) {
         return switch (jsonArrayType) {
             case JSON_LIST, UNMODIFIABLE_LIST -> new JsonList(initialCapacity);
             case JSON_LINKED_LIST -> new JsonLinkedList();
@@ -630,77 +634,122 @@ public record JsonParser(JsonObjectType jsonObjectType, JsonArrayType jsonArrayT
                             jsonNumberValueTypeForArray.parse(fullPartValueCodePoints, fullPartValueCodePointsIndices));
                 }
             }
-            if (jsonNumberArrayUniformValueType && nullOrNumberValuesOnly
-                    && (JsonNumberValueType.AUTO_INTEGER_LONG_BIG_DECIMAL.equals(jsonNumberValueTypeForArray)
-                    || JsonNumberValueType.AUTO_INTEGER_LONG_DOUBLE.equals(jsonNumberValueTypeForArray))) {
+            values = toUniformNumberValuesIfRequired(values, nullOrNumberValuesOnly);
 
-                boolean containsMixedNumberTypes = false;
-                boolean convertToLong = false;
+            // List.copyOf will throw NPE for null values and toString will be different
+            return JsonArrayType.UNMODIFIABLE_LIST.equals(jsonArrayType) ? Collections.unmodifiableList(values)
+                    : values;
+        }
+        throw new IllegalJsonFormatException("Invalid json. It contains invalid JSON array.");
+    }
+
+    /**
+     * @param keyValues the keys and values of a JSON object in the order, i.e.
+     *                  key1, value1, key2, value2 etc...
+     * @return the map of the configured type.
+     * @throws IllegalJsonFormatException if there is a duplicate key.
+     */
+    Map<String, Object> toJsonObject(final List<Object> keyValues) {
+        final int size = keyValues.size();
+        final Map<String, Object> keyToValue = newMap(size >> 1);
+        for (int i = 0; i < size; i += 2) {
+            final String key = (String) keyValues.get(i);
+            if (keyToValue.put(key, keyValues.get(i + 1)) != null) {
+                throw new IllegalJsonFormatException("Invalid JSON! Duplicate key '%s' found.".formatted(key));
+            }
+        }
+        return JsonObjectType.UNMODIFIABLE_MAP.equals(jsonObjectType) ? Collections.unmodifiableMap(keyToValue)
+                : keyToValue;
+    }
+
+    /**
+     * @param elements               the parsed values of a JSON array.
+     * @param nullOrNumberValuesOnly true if the array contains only null and
+     *                               number values.
+     * @return the list of the configured type.
+     */
+    List<Object> toJsonArray(final List<Object> elements, final boolean nullOrNumberValuesOnly) {
+        List<Object> values = newList(elements.size());
+        values.addAll(elements);
+        values = toUniformNumberValuesIfRequired(values, nullOrNumberValuesOnly);
+        return JsonArrayType.UNMODIFIABLE_LIST.equals(jsonArrayType) ? Collections.unmodifiableList(values) : values;
+    }
+
+    /**
+     * @param values                 the parsed values of a JSON array.
+     * @param nullOrNumberValuesOnly true if the array contains only null and
+     *                               number values.
+     * @return the values converted to a uniform number type if the array contains
+     *         mixed number types and {@code jsonNumberArrayUniformValueType} is
+     *         true, otherwise the given values.
+     */
+    List<Object> toUniformNumberValuesIfRequired(final List<Object> values, final boolean nullOrNumberValuesOnly) {
+        if (jsonNumberArrayUniformValueType && nullOrNumberValuesOnly
+                && (JsonNumberValueType.AUTO_INTEGER_LONG_BIG_DECIMAL.equals(jsonNumberValueTypeForArray)
+                || JsonNumberValueType.AUTO_INTEGER_LONG_DOUBLE.equals(jsonNumberValueTypeForArray))) {
+
+            boolean containsMixedNumberTypes = false;
+            boolean convertToLong = false;
+
+            Class<?> previousValueClass = null;
+            for (final Object value : values) {
+                if (value != null) {
+                    final Class<?> valueClass = value.getClass();
+                    if (previousValueClass != null && !previousValueClass.equals(valueClass)) {
+                        containsMixedNumberTypes = true;
+                        break;
+                    }
+                    previousValueClass = valueClass;
+                }
+            }
 
-                Class<?> previousValueClass = null;
+            if (containsMixedNumberTypes) {
                 for (final Object value : values) {
                     if (value != null) {
-                        final Class<?> valueClass = value.getClass();
-                        if (previousValueClass != null && !previousValueClass.equals(valueClass)) {
-                            containsMixedNumberTypes = true;
+                        if (value instanceof Long || value instanceof Integer) {
+                            convertToLong = true;
+                        } else {
+                            convertToLong = false;
                             break;
                         }
-                        previousValueClass = valueClass;
                     }
                 }
+            }
 
-                if (containsMixedNumberTypes) {
+            if (containsMixedNumberTypes) {
+                final List<Object> convertedValues = newList(values.size());
+                if (convertToLong) {
                     for (final Object value : values) {
                         if (value != null) {
-                            if (value instanceof Long || value instanceof Integer) {
-                                convertToLong = true;
-                            } else {
-                                convertToLong = false;
-                                break;
-                            }
+                            convertedValues.add(Long.valueOf(value.toString()));
+                        } else {
+                            convertedValues.add(null);
                         }
                     }
-                }
-
-                if (containsMixedNumberTypes) {
-                    final List<Object> convertedValues = newList(values.size());
-                    if (convertToLong) {
+                } else {
+                    if (JsonNumberValueType.AUTO_INTEGER_LONG_DOUBLE.equals(jsonNumberValueTypeForArray)) {
                         for (final Object value : values) {
                             if (value != null) {
-                                convertedValues.add(Long.valueOf(value.toString()));
+                                convertedValues.add(Double.valueOf(value.toString()));
                             } else {
                                 convertedValues.add(null);
                             }
                         }
                     } else {
-                        if (JsonNumberValueType.AUTO_INTEGER_LONG_DOUBLE.equals(jsonNumberValueTypeForArray)) {
-                            for (final Object value : values) {
-                                if (value != null) {
-                                    convertedValues.add(Double.valueOf(value.toString()));
-                                } else {
-                                    convertedValues.add(null);
-                                }
-                            }
-                        } else {
-                            for (final Object value : values) {
-                                if (value != null) {
-                                    convertedValues.add(new BigDecimal(value.toString()));
-                                } else {
-                                    convertedValues.add(null);
-                                }
+                        for (final Object value : values) {
+                            if (value != null) {
+                                convertedValues.add(new BigDecimal(value.toString()));
+                            } else {
+                                convertedValues.add(null);
                             }
                         }
                     }
-
-                    values = convertedValues;
                 }
-            }
 
-            // List.copyOf will throw NPE for null values and toString will be different
-            return JsonArrayType.UNMODIFIABLE_LIST.equals(jsonArrayType) ? Collections.unmodifiableList(values)
-                    : values;
+                return convertedValues;
+            }
         }
-        throw new IllegalJsonFormatException("Invalid json. It contains invalid JSON array.");
+        return values;
     }
 
     private String parseJsonString(final int[] codePoints, final int startIndex, final int endIndex) {
@@ -913,6 +962,118 @@ public record JsonParser(JsonObjectType jsonObjectType, JsonArrayType jsonArrayT
         return null;
     }
 
+    /**
+     * Parses the JSON directly from the UTF-8 bytes in a single pass without
+     * converting it to a String or a code points array. The result is the same as
+     * {@link #parseJson(String)} for a valid JSON but it is stricter on a malformed
+     * JSON, eg: {@code {a:1}} or {@code [1 2]} throws
+     * {@link IllegalJsonFormatException} whereas {@link #parseJson(String)} may
+     * return a result or throw a different exception for them.
+     *
+     * @param utf8Bytes the UTF-8 bytes of the JSON text. It can be an object,
+     *                  array, json encoded string value, a boolean value or a
+     *                  number value.
+     * @return the object after parsing.
+     * @since 12.0.13
+     */
+    public Object parseJson(final byte[] utf8Bytes) {
+        return JsonStreamParser.parse(this, utf8Bytes, 0, utf8Bytes.length);
+    }
+
+    /**
+     * Parses the JSON from the remaining UTF-8 bytes of the given buffer in a
+     * single pass, the position of the buffer is not changed. A heap buffer is
+     * parsed directly from its backing array. It is as strict on a malformed JSON
+     * as {@link #parseJson(byte[])}.
+     *
+     * @param utf8Bytes the buffer containing the UTF-8 bytes of the JSON text
+     *                  from its position to limit.
+     * @return the object after parsing.
+     * @since 12.0.13
+     */
+    public Object parseJson(final ByteBuffer utf8Bytes) {
+        return JsonStreamParser.parse(this, utf8Bytes);
+    }
+
+    /**
+     * Parses the JSON from the UTF-8 bytes of the given stream in a single pass
+     * reading it till the end of the stream. The stream is not closed by this
+     * method. It is as strict on a malformed JSON as {@link #parseJson(byte[])}.
+     *
+     * @param utf8InputStream the stream of the UTF-8 bytes of the JSON text.
+     * @return the object after parsing.
+     * @throws IOException if an I/O error occurs while reading the stream.
+     * @since 12.0.13
+     */
+    public Object parseJson(final InputStream utf8InputStream) throws IOException {
+        return JsonStreamParser.parse(this, utf8InputStream);
+    }
+
+    /**
+     * Parses the JSON from the given reader in a single pass reading it till the
+     * end. The reader is not closed by this method. It is as strict on a malformed
+     * JSON as {@link #parseJson(byte[])}.
+     *
+     * @param reader the reader of the JSON text.
+     * @return the object after parsing.
+     * @throws IOException if an I/O error occurs while reading.
+     * @since 12.0.13
+     */
+    public Object parseJson(final Reader reader) throws IOException {
+        return JsonStreamParser.parse(this, reader);
+    }
+
+    /**
+     * Creates a pull reader to read the JSON from the UTF-8 bytes as events
+     * without building the whole object graph, the values are converted with the
+     * config of this parser.
+     *
+     * @param utf8Bytes the UTF-8 bytes of the JSON text.
+     * @return the new reader.
+     * @since 12.0.13
+     */
+    public JsonReader newReader(final byte[] utf8Bytes) {
+        return new JsonReader(this, JsonLexer.of(utf8Bytes, 0, utf8Bytes.length, validateEscapeSequence));
+    }
+
+    /**
+     * Creates a pull reader to read the JSON from the remaining UTF-8 bytes of
+     * the given buffer, the position of the buffer is not changed.
+     *
+     * @param utf8Bytes the buffer containing the UTF-8 bytes of the JSON text
+     *                  from its position to limit.
+     * @return the new reader.
+     * @since 12.0.13
+     */
+    public JsonReader newReader(final ByteBuffer utf8Bytes) {
+        return new JsonReader(this, JsonLexer.of(utf8Bytes, validateEscapeSequence));
+    }
+
+    /**
+     * Creates a pull reader to read the JSON from the UTF-8 bytes of the given
+     * stream, the stream is read only as much as the events are read. The I/O
+     * errors are thrown as {@code UncheckedIOException} by the reader.
+     *
+     * @param utf8InputStream the stream of the UTF-8 bytes of the JSON text.
+     * @return the new reader.
+     * @since 12.0.13
+     */
+    public JsonReader newReader(final InputStream utf8InputStream) {
+        return new JsonReader(this, JsonLexer.of(utf8InputStream, validateEscapeSequence));
+    }
+
+    /**
+     * Creates a pull reader to read the JSON from the given reader. The I/O
+     * errors are thrown as {@code UncheckedIOException} by the reader.
+     *
+     * @param reader the reader of the JSON text.
+     * @return the new reader.
+     * @since 12.0.13
+     */
+    public JsonReader newReader(final Reader reader) {
+        return new JsonReader(this, JsonLexer.of(reader, validateEscapeSequence));
+    }
+
     /**
      * @param json the JSON string which starts with { and ends with }.
      * @return the Map from the JSON object.
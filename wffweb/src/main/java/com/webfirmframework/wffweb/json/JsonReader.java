@@ -0,0 +1,696 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.json;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.webfirmframework.wffweb.InvalidUsageException;
+import com.webfirmframework.wffweb.InvalidValueException;
+import com.webfirmframework.wffweb.wffbm.data.BMValueType;
+import com.webfirmframework.wffweb.wffbm.data.WffBMArray;
+import com.webfirmframework.wffweb.wffbm.data.WffBMNumberArray;
+import com.webfirmframework.wffweb.wffbm.data.WffBMObject;
+
+/**
+ * A pull reader of JSON which reads the input in a single pass and reports it as
+ * a sequence of {@link JsonEvent}s without building the whole object graph. The
+ * memory used by the reader depends only on the nesting depth and the length of
+ * the largest string or number value, not on the size of the document. The
+ * values are converted with the value types of the {@link JsonParser} used to
+ * create the reader, the value types for array are used for the elements of an
+ * array and the value types for object are used for the other values. <br>
+ * Eg: to read only the name of each item of a large array
+ *
+ * <pre><code>
+ * final JsonReader reader = jsonParser.newReader(inputStream);
+ * if (reader.moveTo("/items")) {
+ *     reader.forEachElement(item -&gt; {
+ *         final JsonMap map = (JsonMap) item;
+ *         System.out.println(map.getValueAsString("name"));
+ *     });
+ * }
+ * </code></pre>
+ *
+ * The location of an event is available as a JSON Pointer (RFC 6901) from
+ * {@link #pointer()}, e.g. {@code /items/3/name}. The location of the start
+ * and the end events of an object or array is the location of the object or
+ * array itself. <br>
+ * NB: if the input is an {@code InputStream} or a {@code Reader}, the I/O
+ * errors are thrown as {@link UncheckedIOException}. This class is not
+ * thread-safe.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+public final class JsonReader {
+
+    private static final int EOF = JsonLexer.EOF;
+
+    private static final int CURLY_BRACE_START_CODE_POINT = 123;
+
+    private static final int CURLY_BRACE_END_CODE_POINT = 125;
+
+    private static final int SQUARE_BRACKET_START_CODE_POINT = 91;
+
+    private static final int SQUARE_BRACKET_END_CODE_POINT = 93;
+
+    private static final int COLON_CODE_POINT = 58;
+
+    private static final int COMMA_CODE_POINT = JsonCodePointUtil.COMMA_CODE_POINT;
+
+    private static final int DOUBLE_QUOTES_CODE_POINT = JsonCodePointUtil.DOUBLE_QUOTES_CODE_POINT;
+
+    /**
+     * just after the start of the object or array.
+     */
+    private static final int STATE_START = 0;
+
+    /**
+     * just after a key of an object.
+     */
+    private static final int STATE_AFTER_KEY = 1;
+
+    /**
+     * just after a value of the object or array.
+     */
+    private static final int STATE_AFTER_VALUE = 2;
+
+    private final JsonParser config;
+
+    private final JsonLexer lexer;
+
+    private boolean[] objects = new boolean[16];
+
+    private int[] states = new int[16];
+
+    private String[] keys = new String[16];
+
+    private int[] indices = new int[16];
+
+    /**
+     * the number of the objects and arrays containing the current position.
+     */
+    private int depth;
+
+    /**
+     * the depth of the object or array containing the location of the current
+     * event.
+     */
+    private int locationDepth;
+
+    private JsonEvent event;
+
+    private boolean rootRead;
+
+    /**
+     * true while skipping a value, the keys are not decoded.
+     */
+    private boolean skipping;
+
+    private final List<List<Object>> collectors = new ArrayList<>();
+
+    JsonReader(final JsonParser config, final JsonLexer lexer) {
+        this.config = config;
+        this.lexer = lexer;
+    }
+
+    /**
+     * moves to the next event.
+     *
+     * @return the next event or null if the end of the document is reached.
+     * @throws IllegalJsonFormatException if the JSON is invalid.
+     */
+    public JsonEvent next() {
+        lexer.skipWhitespaces();
+        if (depth == 0) {
+            if (rootRead) {
+                if (lexer.current() != EOF) {
+                    throw new IllegalJsonFormatException("Invalid JSON! It contains extra content after the value.");
+                }
+                event = null;
+                locationDepth = 0;
+                return null;
+            }
+            if (lexer.current() == EOF) {
+                throw new IllegalJsonFormatException("Invalid JSON!");
+            }
+            rootRead = true;
+            locationDepth = 0;
+            return event = readValueEvent();
+        }
+
+        final int top = depth - 1;
+        final int c = lexer.current();
+        if (objects[top]) {
+            switch (states[top]) {
+                case STATE_AFTER_KEY -> {
+                    if (c != COLON_CODE_POINT) {
+                        throw new IllegalJsonFormatException(
+                                "Invalid JSON! It contains illegal JSON key-value pair format!");
+                    }
+                    lexer.advance();
+                    lexer.skipWhitespaces();
+                    states[top] = STATE_AFTER_VALUE;
+                    locationDepth = depth;
+                    return event = readValueEvent();
+                }
+                case STATE_AFTER_VALUE -> {
+                    if (c == CURLY_BRACE_END_CODE_POINT) {
+                        return event = end();
+                    }
+                    if (c != COMMA_CODE_POINT) {
+                        throw new IllegalJsonFormatException(c == EOF ? "Invalid JSON! Closing } is missing!"
+                                : "Invalid json. It contains invalid JSON object.");
+                    }
+                    lexer.advance();
+                    lexer.skipWhitespaces();
+                    return event = readKey(top);
+                }
+                default -> {
+                    if (c == CURLY_BRACE_END_CODE_POINT) {
+                        return event = end();
+                    }
+                    return event = readKey(top);
+                }
+            }
+        }
+
+        if (states[top] == STATE_AFTER_VALUE) {
+            if (c == SQUARE_BRACKET_END_CODE_POINT) {
+                return event = end();
+            }
+            if (c != COMMA_CODE_POINT) {
+                throw new IllegalJsonFormatException(c == EOF ? "Invalid JSON! Closing ] is missing!"
+                        : "Invalid json. It contains invalid JSON array.");
+            }
+            lexer.advance();
+            lexer.skipWhitespaces();
+            indices[top]++;
+        } else if (c == SQUARE_BRACKET_END_CODE_POINT) {
+            return event = end();
+        }
+        states[top] = STATE_AFTER_VALUE;
+        locationDepth = depth;
+        return event = readValueEvent();
+    }
+
+    private JsonEvent readKey(final int top) {
+        if (lexer.current() != DOUBLE_QUOTES_CODE_POINT) {
+            throw new IllegalJsonFormatException(lexer.current() == EOF ? "Invalid JSON! Closing } is missing!"
+                    : "Invalid JSON! It contains illegal JSON object key format!");
+        }
+        lexer.readString();
+        keys[top] = skipping ? null : lexer.decodedString();
+        states[top] = STATE_AFTER_KEY;
+        locationDepth = depth;
+        return JsonEvent.KEY;
+    }
+
+    private JsonEvent end() {
+        lexer.advance();
+        depth--;
+        keys[depth] = null;
+        locationDepth = depth;
+        return objects[depth] ? JsonEvent.END_OBJECT : JsonEvent.END_ARRAY;
+    }
+
+    private void push(final boolean object) {
+        if (depth == objects.length) {
+            final int newLength = depth << 1;
+            objects = Arrays.copyOf(objects, newLength);
+            states = Arrays.copyOf(states, newLength);
+            keys = Arrays.copyOf(keys, newLength);
+            indices = Arrays.copyOf(indices, newLength);
+        }
+        objects[depth] = object;
+        states[depth] = STATE_START;
+        indices[depth] = 0;
+        depth++;
+    }
+
+    private JsonEvent readValueEvent() {
+        switch (lexer.current()) {
+            case CURLY_BRACE_START_CODE_POINT -> {
+                lexer.advance();
+                push(true);
+                return JsonEvent.START_OBJECT;
+            }
+            case SQUARE_BRACKET_START_CODE_POINT -> {
+                lexer.advance();
+                push(false);
+                return JsonEvent.START_ARRAY;
+            }
+            case DOUBLE_QUOTES_CODE_POINT -> {
+                lexer.readString();
+                return JsonEvent.STRING;
+            }
+            default -> {
+                lexer.readLiteral();
+                if (lexer.length() == 0) {
+                    if (lexer.current() == EOF) {
+                        throw new IllegalJsonFormatException(depth > 0 && !objects[depth - 1]
+                                ? "Invalid JSON! Closing ] is missing!"
+                                : "Invalid JSON! Closing } is missing!");
+                    }
+                    throw new IllegalJsonFormatException("Invalid JSON! value not found!");
+                }
+                if (lexer.isNullLiteral()) {
+                    return JsonEvent.NULL;
+                }
+                if (lexer.isBooleanLiteral()) {
+                    return JsonEvent.BOOLEAN;
+                }
+                return JsonEvent.NUMBER;
+            }
+        }
+    }
+
+    /**
+     * @return the current event or null if {@link #next()} is not called yet or
+     *         the end of the document is reached.
+     */
+    public JsonEvent event() {
+        return event;
+    }
+
+    /**
+     * @return the number of the objects and arrays containing the current
+     *         position, the start event of an object or array increments it and
+     *         its end event decrements it.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * @return the key of the current event if it is in a JSON object, i.e. the key
+     *         of a {@link JsonEvent#KEY} event or the key of the current value,
+     *         otherwise null.
+     */
+    public String key() {
+        return locationDepth > 0 && objects[locationDepth - 1] ? keys[locationDepth - 1] : null;
+    }
+
+    /**
+     * @return the index of the current value if it is an element of a JSON array,
+     *         otherwise -1.
+     */
+    public int index() {
+        return locationDepth > 0 && !objects[locationDepth - 1] ? indices[locationDepth - 1] : -1;
+    }
+
+    /**
+     * @return the location of the current event as a JSON Pointer (RFC 6901), an
+     *         empty string for the root value.
+     */
+    public String pointer() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < locationDepth; i++) {
+            builder.append('/');
+            if (objects[i]) {
+                final String key = keys[i];
+                if (key != null) {
+                    builder.append(key.replace("~", "~0").replace("/", "~1"));
+                }
+            } else {
+                builder.append(indices[i]);
+            }
+        }
+        return builder.toString();
+    }
+
+    private boolean inArray() {
+        return locationDepth > 0 && !objects[locationDepth - 1];
+    }
+
+    /**
+     * @return the value of the current {@link JsonEvent#STRING},
+     *         {@link JsonEvent#NUMBER}, {@link JsonEvent#BOOLEAN} or
+     *         {@link JsonEvent#NULL} event converted with the configured value
+     *         type, or the key of the current {@link JsonEvent#KEY} event. A
+     *         root scalar value is converted as in
+     *         {@link JsonParser#parseJson(String)}, i.e. a String, a BigDecimal,
+     *         a Boolean or null.
+     * @throws InvalidUsageException if the current event is not a key or a
+     *                               scalar value.
+     */
+    public Object value() {
+        if (event == null) {
+            throw new InvalidUsageException("There is no current value.");
+        }
+        if (locationDepth == 0) {
+            return switch (event) {
+                case STRING -> lexer.decodedString();
+                case NUMBER -> lexer.parseNumber(JsonNumberValueType.BIG_DECIMAL);
+                case BOOLEAN -> lexer.parseBoolean(JsonBooleanValueType.BOOLEAN);
+                case NULL -> null;
+                default -> throw new InvalidUsageException(
+                        "The current event %s does not have a scalar value, use readValue method.".formatted(event));
+            };
+        }
+        final boolean inArray = inArray();
+        return switch (event) {
+            case KEY -> keys[locationDepth - 1];
+            case STRING -> lexer.parseString(
+                    inArray ? config.jsonStringValueTypeForArray() : config.jsonStringValueTypeForObject());
+            case NUMBER -> lexer.parseNumber(
+                    inArray ? config.jsonNumberValueTypeForArray() : config.jsonNumberValueTypeForObject());
+            case BOOLEAN -> lexer.parseBoolean(
+                    inArray ? config.jsonBooleanValueTypeForArray() : config.jsonBooleanValueTypeForObject());
+            case NULL -> inArray ? config.jsonNullValueTypeForArray().nullValue()
+                    : config.jsonNullValueTypeForObject().nullValue();
+            default -> throw new InvalidUsageException(
+                    "The current event %s does not have a scalar value, use readValue method.".formatted(event));
+        };
+    }
+
+    /**
+     * @return the decoded string of the current {@link JsonEvent#STRING} or
+     *         {@link JsonEvent#KEY} event regardless of the configured string
+     *         value type.
+     * @throws InvalidUsageException if the current event is not a string or key.
+     */
+    public String stringValue() {
+        if (JsonEvent.KEY.equals(event)) {
+            return keys[locationDepth - 1];
+        }
+        if (JsonEvent.STRING.equals(event)) {
+            return lexer.decodedString();
+        }
+        throw new InvalidUsageException("The current event is not a string.");
+    }
+
+    /**
+     * skips the current value. If the current event is a start of an object or
+     * array, the events till its end are skipped. If the current event is a key,
+     * its value is skipped. Otherwise there is nothing to skip.
+     */
+    public void skipValue() {
+        if (JsonEvent.KEY.equals(event)) {
+            next();
+        }
+        if (JsonEvent.START_OBJECT.equals(event) || JsonEvent.START_ARRAY.equals(event)) {
+            final int startDepth = depth;
+            skipping = true;
+            try {
+                while (depth >= startDepth) {
+                    if (next() == null) {
+                        throw new IllegalJsonFormatException("Invalid JSON!");
+                    }
+                }
+            } finally {
+                skipping = false;
+            }
+        }
+    }
+
+    /**
+     * reads the current value as in {@link JsonParser#parseJson(String)} with the
+     * same config. If the current event is a start of an object or array, the
+     * events till its end are consumed to build the map or list. If the current
+     * event is a key, its value is read.
+     *
+     * @return the value
+     * @throws InvalidUsageException if the current event is an end of an object or
+     *                               array.
+     */
+    public Object readValue() {
+        if (JsonEvent.KEY.equals(event)) {
+            next();
+        }
+        if (event == null) {
+            throw new InvalidUsageException("There is no current value.");
+        }
+        return switch (event) {
+            case START_OBJECT -> readObject();
+            case START_ARRAY -> readArray();
+            case END_OBJECT, END_ARRAY -> throw new InvalidUsageException(
+                    "The current event %s does not have a value.".formatted(event));
+            default -> value();
+        };
+    }
+
+    private List<Object> collector() {
+        final int index = depth - 1;
+        while (collectors.size() <= index) {
+            collectors.add(new ArrayList<>());
+        }
+        return collectors.get(index);
+    }
+
+    private Object readObject() {
+        final List<Object> keyValues = collector();
+        try {
+            while (next() != JsonEvent.END_OBJECT) {
+                keyValues.add(keys[depth - 1]);
+                next();
+                keyValues.add(readValue());
+            }
+            return config.toJsonObject(keyValues);
+        } finally {
+            keyValues.clear();
+        }
+    }
+
+    private Object readArray() {
+        final List<Object> elements = collector();
+        try {
+            boolean nullOrNumberValuesOnly = true;
+            JsonEvent elementEvent;
+            while ((elementEvent = next()) != JsonEvent.END_ARRAY) {
+                nullOrNumberValuesOnly &= JsonEvent.NUMBER.equals(elementEvent)
+                        || JsonEvent.NULL.equals(elementEvent);
+                elements.add(readValue());
+            }
+            return config.toJsonArray(elements, nullOrNumberValuesOnly);
+        } finally {
+            elements.clear();
+        }
+    }
+
+    /**
+     * reads each element of the current array and passes it to the given action,
+     * only one element is built at a time. The current event should be
+     * {@link JsonEvent#START_ARRAY} or a {@link JsonEvent#KEY} whose value is an
+     * array. After this method the current event will be the end of the array.
+     *
+     * @param action the action to consume the element, the element is the same as
+     *               the element of the list returned by {@link #readValue()}.
+     * @throws InvalidUsageException if the current value is not an array.
+     */
+    public void forEachElement(final Consumer<Object> action) {
+        if (JsonEvent.KEY.equals(event)) {
+            next();
+        }
+        if (!JsonEvent.START_ARRAY.equals(event)) {
+            throw new InvalidUsageException("The current value is not a JSON array.");
+        }
+        while (next() != JsonEvent.END_ARRAY) {
+            action.accept(readValue());
+        }
+    }
+
+    /**
+     * reads the events till the end of the document and passes each of them to
+     * the given handler.
+     *
+     * @param handler the handler of the events.
+     */
+    public void read(final JsonEventHandler handler) {
+        JsonEvent nextEvent;
+        while ((nextEvent = next()) != null) {
+            handler.handle(nextEvent, this);
+        }
+    }
+
+    /**
+     * moves forward to the value at the given location, the objects and arrays
+     * which cannot contain the location are skipped without reading their
+     * events. It can be called multiple times to read the values of the
+     * subsequent locations in the document order.
+     *
+     * @param jsonPointer the location as a JSON Pointer (RFC 6901), e.g.
+     *                    {@code /items/3/name}, an empty string for the root
+     *                    value.
+     * @return true if the current event is the value at the location, false if
+     *         the location is not found till the end of the document.
+     */
+    public boolean moveTo(final String jsonPointer) {
+        final String[] segments = parsePointer(jsonPointer);
+        JsonEvent nextEvent;
+        while ((nextEvent = next()) != null) {
+            if (JsonEvent.KEY.equals(nextEvent) || JsonEvent.END_OBJECT.equals(nextEvent)
+                    || JsonEvent.END_ARRAY.equals(nextEvent)) {
+                continue;
+            }
+            final int matchedLength = matchedLength(segments);
+            if (matchedLength == locationDepth) {
+                if (locationDepth == segments.length) {
+                    return true;
+                }
+            } else if (JsonEvent.START_OBJECT.equals(nextEvent) || JsonEvent.START_ARRAY.equals(nextEvent)) {
+                skipValue();
+            }
+        }
+        return false;
+    }
+
+    private static String[] parsePointer(final String jsonPointer) {
+        if (jsonPointer.isEmpty()) {
+            return new String[0];
+        }
+        if (jsonPointer.charAt(0) != '/') {
+            throw new InvalidValueException("The JSON Pointer should start with /");
+        }
+        final String[] segments = jsonPointer.substring(1).split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = segments[i].replace("~1", "/").replace("~0", "~");
+        }
+        return segments;
+    }
+
+    /**
+     * @param segments the segments of the JSON Pointer
+     * @return the number of the leading segments matching the current location
+     */
+    private int matchedLength(final String[] segments) {
+        final int length = Math.min(locationDepth, segments.length);
+        for (int i = 0; i < length; i++) {
+            final String segment = segments[i];
+            if (objects[i]) {
+                if (!segment.equals(keys[i])) {
+                    return i;
+                }
+            } else if (!isIndex(segment, indices[i])) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    private static boolean isIndex(final String segment, final int index) {
+        final int length = segment.length();
+        if (length == 0 || length > 10 || (length > 1 && segment.charAt(0) == '0')) {
+            return false;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            final char ch = segment.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return false;
+            }
+            value = value * 10 + (ch - '0');
+        }
+        return value == index;
+    }
+
+    /**
+     * reads the current object directly into a {@code WffBMObject} without
+     * building a map. The string values are decoded and the number values are
+     * converted as in {@link JsonNumberValueType#AUTO_INTEGER_LONG_BIG_DECIMAL}
+     * regardless of the configured value types.
+     *
+     * @return the WffBMObject
+     * @throws InvalidUsageException if the current value is not an object.
+     * @throws InvalidValueException if an array contains null or values of
+     *                               different types.
+     */
+    public WffBMObject readWffBMObject() {
+        if (JsonEvent.KEY.equals(event)) {
+            next();
+        }
+        if (!JsonEvent.START_OBJECT.equals(event)) {
+            throw new InvalidUsageException("The current value is not a JSON object.");
+        }
+        final WffBMObject bmObject = new WffBMObject();
+        while (next() != JsonEvent.END_OBJECT) {
+            final String key = keys[depth - 1];
+            switch (next()) {
+                case START_OBJECT -> bmObject.put(key, readWffBMObject());
+                case START_ARRAY -> bmObject.put(key, readWffBMArray());
+                case STRING -> bmObject.putString(key, lexer.decodedString());
+                case NUMBER -> bmObject.put(key, BMValueType.NUMBER,
+                        lexer.parseNumber(JsonNumberValueType.AUTO_INTEGER_LONG_BIG_DECIMAL));
+                case BOOLEAN -> bmObject.put(key, lexer.parseBooleanOtherwiseNull());
+                case NULL -> bmObject.putNull(key);
+                default -> throw new IllegalJsonFormatException("Invalid JSON!");
+            }
+        }
+        return bmObject;
+    }
+
+    /**
+     * reads the current array directly into a {@code WffBMArray} without building
+     * a list, the type of the WffBMArray is the type of its first element. The
+     * values are converted as in {@link #readWffBMObject()}.
+     *
+     * @return the WffBMArray, it will be a {@code WffBMNumberArray} if it is an
+     *         array of numbers.
+     * @throws InvalidUsageException if the current value is not an array.
+     * @throws InvalidValueException if the array contains null or values of
+     *                               different types.
+     */
+    public WffBMArray readWffBMArray() {
+        if (JsonEvent.KEY.equals(event)) {
+            next();
+        }
+        if (!JsonEvent.START_ARRAY.equals(event)) {
+            throw new InvalidUsageException("The current value is not a JSON array.");
+        }
+        WffBMArray bmArray = null;
+        JsonEvent elementEvent;
+        while ((elementEvent = next()) != JsonEvent.END_ARRAY) {
+            final BMValueType valueType;
+            final Object value;
+            switch (elementEvent) {
+                case START_OBJECT -> {
+                    valueType = BMValueType.BM_OBJECT;
+                    value = readWffBMObject();
+                }
+                case START_ARRAY -> {
+                    valueType = BMValueType.BM_ARRAY;
+                    value = readWffBMArray();
+                }
+                case STRING -> {
+                    valueType = BMValueType.STRING;
+                    value = lexer.decodedString();
+                }
+                case NUMBER -> {
+                    valueType = BMValueType.NUMBER;
+                    value = lexer.parseNumber(JsonNumberValueType.AUTO_INTEGER_LONG_BIG_DECIMAL);
+                }
+                case BOOLEAN -> {
+                    valueType = BMValueType.BOOLEAN;
+                    value = lexer.parseBooleanOtherwiseNull();
+                }
+                case NULL -> throw new InvalidValueException("null is not allowed in the array to convert to WffBMArray.");
+                default -> throw new IllegalJsonFormatException("Invalid JSON!");
+            }
+            if (bmArray == null) {
+                bmArray = BMValueType.NUMBER.equals(valueType) ? new WffBMNumberArray<>() : new WffBMArray(valueType);
+            } else if (!valueType.equals(bmArray.getValueType())) {
+                throw new InvalidValueException("All items in the array should be same type.");
+            }
+            bmArray.add(value);
+        }
+        return bmArray != null ? bmArray : new WffBMArray(BMValueType.STRING);
+    }
+
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single pass recursive descent parser which reads the JSON directly from the
+ * UTF-8 bytes or chars without converting the whole input to a code points
+ * array. It produces the same output as the {@link JsonParser} methods which
+ * take a String, with the same config of the given {@code JsonParser}. The
+ * code points of a string or a literal value are collected into a reusable
+ * buffer which is the only per value buffer used to parse.
+ *
+ * Note: Only for internal use. An object of this class is for a single parse.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+final class JsonStreamParser {
+
+    private static final int EOF = JsonLexer.EOF;
+
+    private static final int CURLY_BRACE_START_CODE_POINT = 123;
+
+    private static final int CURLY_BRACE_END_CODE_POINT = 125;
+
+    private static final int SQUARE_BRACKET_START_CODE_POINT = 91;
+
+    private static final int SQUARE_BRACKET_END_CODE_POINT = 93;
+
+    private static final int COLON_CODE_POINT = 58;
+
+    private static final int COMMA_CODE_POINT = JsonCodePointUtil.COMMA_CODE_POINT;
+
+    private static final int DOUBLE_QUOTES_CODE_POINT = JsonCodePointUtil.DOUBLE_QUOTES_CODE_POINT;
+
+    private final JsonParser config;
+
+    private final JsonLexer lexer;
+
+    /**
+     * true if the last parsed value is a null or number value.
+     */
+    private boolean nullOrNumberValue;
+
+    /**
+     * the reusable lists to collect the entries of the objects and arrays, the
+     * index is the depth.
+     */
+    private final List<List<Object>> collectors = new ArrayList<>();
+
+    private JsonStreamParser(final JsonParser config, final JsonLexer lexer) {
+        this.config = config;
+        this.lexer = lexer;
+    }
+
+    static Object parse(final JsonParser config, final byte[] utf8Bytes, final int offset, final int length) {
+        return new JsonStreamParser(config,
+                JsonLexer.of(utf8Bytes, offset, length, config.validateEscapeSequence())).parseRoot();
+    }
+
+    static Object parse(final JsonParser config, final ByteBuffer utf8Bytes) {
+        return new JsonStreamParser(config, JsonLexer.of(utf8Bytes, config.validateEscapeSequence())).parseRoot();
+    }
+
+    static Object parse(final JsonParser config, final InputStream utf8InputStream) throws IOException {
+        try {
+            return new JsonStreamParser(config, JsonLexer.of(utf8InputStream, config.validateEscapeSequence()))
+                    .parseRoot();
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    static Object parse(final JsonParser config, final Reader reader) throws IOException {
+        try {
+            return new JsonStreamParser(config, JsonLexer.of(reader, config.validateEscapeSequence())).parseRoot();
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Object parseRoot() {
+        lexer.skipWhitespaces();
+        if (lexer.current() == EOF) {
+            throw new IllegalJsonFormatException("Invalid JSON!");
+        }
+        final Object value = switch (lexer.current()) {
+            case CURLY_BRACE_START_CODE_POINT -> parseObject(0);
+            case SQUARE_BRACKET_START_CODE_POINT -> parseArray(0);
+            case DOUBLE_QUOTES_CODE_POINT -> {
+                lexer.readString();
+                yield lexer.decodedString();
+            }
+            default -> parseRootLiteral();
+        };
+        lexer.skipWhitespaces();
+        if (lexer.current() != EOF) {
+            throw new IllegalJsonFormatException(
+                    "Invalid JSON! The JSON should either be a JSON object, a JSON array, a JSON encoded string value, a boolean value or a number value!");
+        }
+        return value;
+    }
+
+    /**
+     * the root literal is parsed as in {@link JsonParser#parseJson(String)}, i.e.
+     * a boolean value or a BigDecimal.
+     */
+    private Object parseRootLiteral() {
+        lexer.readRemaining();
+        final Boolean b = lexer.parseBooleanOtherwiseNull();
+        if (b != null) {
+            return b;
+        }
+        try {
+            return new BigDecimal(new String(lexer.codePoints(), 0, lexer.length()));
+        } catch (final NumberFormatException e) {
+            throw new IllegalJsonFormatException("Invalid JSON!", e);
+        }
+    }
+
+    private List<Object> collector(final int depth) {
+        if (depth < collectors.size()) {
+            return collectors.get(depth);
+        }
+        final List<Object> collector = new ArrayList<>();
+        collectors.add(collector);
+        return collector;
+    }
+
+    /**
+     * the current code point should be {.
+     *
+     * @param depth the depth of the object
+     * @return the map
+     */
+    private Map<String, Object> parseObject(final int depth) {
+        final List<Object> keyValues = collector(depth);
+        try {
+            lexer.advance();
+            lexer.skipWhitespaces();
+            if (lexer.current() != CURLY_BRACE_END_CODE_POINT) {
+                while (true) {
+                    if (lexer.current() != DOUBLE_QUOTES_CODE_POINT) {
+                        throw new IllegalJsonFormatException(
+                                "Invalid JSON! It contains illegal JSON object key format!");
+                    }
+                    lexer.readString();
+                    keyValues.add(lexer.decodedString());
+                    lexer.skipWhitespaces();
+                    if (lexer.current() != COLON_CODE_POINT) {
+                        throw new IllegalJsonFormatException(
+                                "Invalid JSON! It contains illegal JSON key-value pair format!");
+                    }
+                    lexer.advance();
+                    lexer.skipWhitespaces();
+                    keyValues.add(parseValue(depth, false));
+                    lexer.skipWhitespaces();
+                    final int c = lexer.current();
+                    if (c == COMMA_CODE_POINT) {
+                        lexer.advance();
+                        lexer.skipWhitespaces();
+                    } else if (c == CURLY_BRACE_END_CODE_POINT) {
+                        break;
+                    } else if (c == EOF) {
+                        throw new IllegalJsonFormatException("Invalid JSON! Closing } is missing!");
+                    } else {
+                        throw new IllegalJsonFormatException("Invalid json. It contains invalid JSON object.");
+                    }
+                }
+            }
+            lexer.advance();
+            return config.toJsonObject(keyValues);
+        } finally {
+            keyValues.clear();
+        }
+    }
+
+    /**
+     * the current code point should be [.
+     *
+     * @param depth the depth of the array
+     * @return the list
+     */
+    private List<Object> parseArray(final int depth) {
+        final List<Object> collected = collector(depth);
+        try {
+            lexer.advance();
+            lexer.skipWhitespaces();
+            boolean nullOrNumberValuesOnly = true;
+            if (lexer.current() != SQUARE_BRACKET_END_CODE_POINT) {
+                while (true) {
+                    collected.add(parseValue(depth, true));
+                    nullOrNumberValuesOnly &= nullOrNumberValue;
+                    lexer.skipWhitespaces();
+                    final int c = lexer.current();
+                    if (c == COMMA_CODE_POINT) {
+                        lexer.advance();
+                        lexer.skipWhitespaces();
+                    } else if (c == SQUARE_BRACKET_END_CODE_POINT) {
+                        break;
+                    } else if (c == EOF) {
+                        throw new IllegalJsonFormatException("Invalid JSON! Closing ] is missing!");
+                    } else {
+                        throw new IllegalJsonFormatException("Invalid json. It contains invalid JSON array.");
+                    }
+                }
+            }
+            lexer.advance();
+            return config.toJsonArray(collected, nullOrNumberValuesOnly);
+        } finally {
+            collected.clear();
+        }
+    }
+
+    /**
+     * the current code point should be the first code point of the value.
+     *
+     * @param depth   the depth of the object or array containing the value
+     * @param inArray true if the value is an element of an array
+     * @return the value
+     */
+    private Object parseValue(final int depth, final boolean inArray) {
+        nullOrNumberValue = false;
+        switch (lexer.current()) {
+            case CURLY_BRACE_START_CODE_POINT -> {
+                return parseObject(depth + 1);
+            }
+            case SQUARE_BRACKET_START_CODE_POINT -> {
+                return parseArray(depth + 1);
+            }
+            case DOUBLE_QUOTES_CODE_POINT -> {
+                lexer.readString();
+                return lexer.parseString(
+                        inArray ? config.jsonStringValueTypeForArray() : config.jsonStringValueTypeForObject());
+            }
+            default -> {
+                lexer.readLiteral();
+                if (lexer.length() == 0) {
+                    if (lexer.current() == EOF) {
+                        throw new IllegalJsonFormatException(
+                                inArray ? "Invalid JSON! Closing ] is missing!" : "Invalid JSON! Closing } is missing!");
+                    }
+                    throw new IllegalJsonFormatException("Invalid JSON! value not found!");
+                }
+                if (lexer.isNullLiteral()) {
+                    nullOrNumberValue = true;
+                    return inArray ? config.jsonNullValueTypeForArray().nullValue()
+                            : config.jsonNullValueTypeForObject().nullValue();
+                }
+                if (lexer.isBooleanLiteral()) {
+                    return lexer.parseBoolean(
+                            inArray ? config.jsonBooleanValueTypeForArray() : config.jsonBooleanValueTypeForObject());
+                }
+                nullOrNumberValue = true;
+                return lexer.parseNumber(
+                        inArray ? config.jsonNumberValueTypeForArray() : config.jsonNumberValueTypeForObject());
+            }
+        }
+    }
+
+}
@@ -15,6 +15,8 @@
  */
 package com.webfirmframework.wffweb.json;
 
+import java.util.Arrays;
+
 /**
  * @since 12.0.4
  */
@@ -35,6 +37,11 @@ public enum JsonStringValueType {
         String parse(final int[] codePoints) {
             return JsonStringUtil.replaceEscapeCharSequenceWithJavaChars(codePoints, 0, codePoints.length);
         }
+
+        @Override
+        String parse(final int[] codePoints, final int length) {
+            return JsonStringUtil.replaceEscapeCharSequenceWithJavaChars(codePoints, 0, length);
+        }
     },
 
     /**
@@ -59,6 +66,14 @@ public enum JsonStringValueType {
             }
             return new JsonValue(codePoints, JsonValueType.ENCODED_STRING);
         }
+
+        @Override
+        JsonValue parse(final int[] codePoints, final int length) {
+            if (length == 0) {
+                return JsonValue.EMPTY_ENCODED_STRING;
+            }
+            return new JsonValue(Arrays.copyOf(codePoints, length), JsonValueType.ENCODED_STRING);
+        }
     };
 
     JsonStringValueType() {
@@ -72,5 +87,16 @@ public enum JsonStringValueType {
         throw new AssertionError();
     }
 
+    /**
+     * @param codePoints the code points of the string part, it may be a reused
+     *                   buffer larger than the string part.
+     * @param length     the number of code points of the string part from index
+     *                   0.
+     * @return the parsed value
+     */
+    Object parse(final int[] codePoints, final int length) {
+        throw new AssertionError();
+    }
+
 
 }
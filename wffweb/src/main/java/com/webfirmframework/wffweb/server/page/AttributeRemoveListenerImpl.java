@@ -18,11 +18,11 @@ package com.webfirmframework.wffweb.server.page;
 import java.io.Serial;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.webfirmframework.wffweb.internal.security.object.SecurityObject;
+import com.webfirmframework.wffweb.internal.tag.html.TagByWffIdMap;
 import com.webfirmframework.wffweb.internal.tag.html.listener.AttributeRemoveListener;
 import com.webfirmframework.wffweb.tag.html.AbstractHtml;
 import com.webfirmframework.wffweb.tag.html.attribute.core.AbstractAttribute;
@@ -38,7 +38,7 @@ public final class AttributeRemoveListenerImpl implements AttributeRemoveListene
 
     private final BrowserPage browserPage;
 
-    private final Map<String, AbstractHtml> tagByWffId;
+    private final TagByWffIdMap tagByWffId;
 
     private final SecurityObject accessObject;
 
@@ -48,7 +48,7 @@ public final class AttributeRemoveListenerImpl implements AttributeRemoveListene
     }
 
     AttributeRemoveListenerImpl(final BrowserPage browserPage, final SecurityObject accessObject,
-            final Map<String, AbstractHtml> tagByWffId) {
+            final TagByWffIdMap tagByWffId) {
         this.browserPage = browserPage;
         this.accessObject = accessObject;
         this.tagByWffId = tagByWffId;
@@ -62,7 +62,7 @@ public final class AttributeRemoveListenerImpl implements AttributeRemoveListene
             final AbstractHtml removedFromTag = event.removedFromTag();
 
             if (removedFromTag.getDataWffId() == null
-                    || !tagByWffId.containsKey(removedFromTag.getDataWffId().getValue())) {
+                    || tagByWffId.get(removedFromTag.getDataWffId()) == null) {
                 return;
             }
 
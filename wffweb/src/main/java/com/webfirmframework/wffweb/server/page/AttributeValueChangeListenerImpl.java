@@ -17,15 +17,18 @@ package com.webfirmframework.wffweb.server.page;
 
 import java.io.Serial;
 import java.nio.charset.StandardCharsets;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.webfirmframework.wffweb.internal.tag.html.TagByWffIdMap;
 import com.webfirmframework.wffweb.tag.html.AbstractHtml;
+import com.webfirmframework.wffweb.tag.html.attribute.core.AbstractAttribute;
+import com.webfirmframework.wffweb.tag.html.attribute.global.Style;
 import com.webfirmframework.wffweb.tag.html.attribute.listener.AttributeValueChangeListener;
+import com.webfirmframework.wffweb.tag.html.attribute.listener.AttributeValueChangeListener.ValueMapChange;
 import com.webfirmframework.wffweb.tag.html.html5.attribute.global.DataWffId;
 import com.webfirmframework.wffweb.util.data.NameValue;
 
@@ -38,14 +41,14 @@ final class AttributeValueChangeListenerImpl implements AttributeValueChangeList
 
     private BrowserPage browserPage;
 
-    private Map<String, AbstractHtml> tagByWffId;
+    private TagByWffIdMap tagByWffId;
 
     @SuppressWarnings("unused")
     private AttributeValueChangeListenerImpl() {
         throw new AssertionError();
     }
 
-    AttributeValueChangeListenerImpl(final BrowserPage browserPage, final Map<String, AbstractHtml> tagByWffId) {
+    AttributeValueChangeListenerImpl(final BrowserPage browserPage, final TagByWffIdMap tagByWffId) {
         this.browserPage = browserPage;
         this.tagByWffId = tagByWffId;
     }
@@ -64,7 +67,16 @@ final class AttributeValueChangeListenerImpl implements AttributeValueChangeList
             // ["C55", "S555"]}
             // @formatter:on
 
-            final NameValue task = Task.ATTRIBUTE_UPDATED.getTaskNameValue();
+            final AbstractAttribute sourceAttribute = event.sourceAttribute();
+            final ValueMapChange valueMapChange = event.valueMapChange();
+
+            // only the changed css property is sent if a single css property is
+            // changed
+            final Task taskType = valueMapChange != null && sourceAttribute instanceof Style
+                    ? Task.STYLE_PROPERTY_UPDATED
+                    : Task.ATTRIBUTE_UPDATED;
+
+            final NameValue task = taskType.getTaskNameValue();
             final NameValue nameValue = new NameValue();
 
             // should be name=somevalue
@@ -77,18 +89,24 @@ final class AttributeValueChangeListenerImpl implements AttributeValueChangeList
             // }
             // nameValue.setName(attrNameValue.getBytes(StandardCharsets.UTF_8));
 
-            nameValue.setName(event.sourceAttribute().toCompressedBytesByIndexV2(false, StandardCharsets.UTF_8));
+            if (Task.STYLE_PROPERTY_UPDATED.equals(taskType)) {
+                // cssName:cssValue or only cssName if it is removed
+                final String declaration = valueMapChange.value() != null
+                        ? valueMapChange.key().concat(":").concat(valueMapChange.value())
+                        : valueMapChange.key();
+                nameValue.setName(declaration.getBytes(StandardCharsets.UTF_8));
+            } else {
+                nameValue.setName(sourceAttribute.toCompressedBytesByIndexV2(false, StandardCharsets.UTF_8));
+            }
 
             final Set<AbstractHtml> ownerTags = new HashSet<>(event.ownerTags());
 
-            final Collection<AbstractHtml> uiTags = tagByWffId.values();
-            if (uiTags.size() > 10) {
-                // to remove ownerTags which don't exist in ui
-                // to improve performance HashSet object passed as an argument
-                ownerTags.retainAll(new HashSet<>(uiTags));
-            } else {
-                ownerTags.retainAll(uiTags);
-            }
+            // to remove ownerTags which don't exist in ui, looking up each owner tag
+            // by its data-wff-id is cheaper than copying all ui tags to a set
+            ownerTags.removeIf(ownerTag -> {
+                final DataWffId dataWffId = ownerTag.getDataWffId();
+                return dataWffId == null || tagByWffId.get(dataWffId) != ownerTag;
+            });
 
             // for (AbstractHtml ownerTag : event.getOwnerTags()) {
             // AbstractAttribute dataWffIdAttr = ownerTag
@@ -129,7 +147,17 @@ final class AttributeValueChangeListenerImpl implements AttributeValueChangeList
 
             nameValue.setValues(values);
 
-            browserPage.push(task, nameValue);
+            if (browserPage.isPushBatchingEnabled()) {
+                // a later value change of the same attribute on the same tags
+                // supersedes this one
+                // a later value change of the same css property supersedes a
+                // STYLE_PROPERTY_UPDATED task
+                final String name = Task.STYLE_PROPERTY_UPDATED.equals(taskType) ? valueMapChange.key()
+                        : sourceAttribute.getAttributeName();
+                browserPage.pushSupersedable(buildSupersedeKey(taskType, name, values), task, nameValue);
+            } else {
+                browserPage.push(task, nameValue);
+            }
         } catch (final Exception e) {
             if (LOGGER.isLoggable(Level.SEVERE)) {
                 LOGGER.log(Level.SEVERE, e.getMessage(), e);
@@ -137,4 +165,15 @@ final class AttributeValueChangeListenerImpl implements AttributeValueChangeList
         }
     }
 
+    private static String buildSupersedeKey(final Task taskType, final String name, final byte[][] dataWffIds) {
+        final String[] wffIds = new String[dataWffIds.length];
+        for (int i = 0; i < dataWffIds.length; i++) {
+            wffIds[i] = Arrays.toString(dataWffIds[i]);
+        }
+        // the owner tags are collected from a HashSet so the order is not
+        // guaranteed
+        Arrays.sort(wffIds);
+        return taskType.name() + ':' + name + ':' + String.join(",", wffIds);
+    }
+
 }
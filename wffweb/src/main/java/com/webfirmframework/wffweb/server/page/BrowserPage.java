@@ -31,6 +31,7 @@ import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.List;
@@ -53,6 +54,7 @@ import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -69,6 +71,7 @@ import com.webfirmframework.wffweb.common.URIEventMask;
 import com.webfirmframework.wffweb.internal.security.object.BrowserPageSecurity;
 import com.webfirmframework.wffweb.internal.security.object.SecurityObject;
 import com.webfirmframework.wffweb.internal.server.page.js.WffJsFile;
+import com.webfirmframework.wffweb.internal.tag.html.TagByWffIdMap;
 import com.webfirmframework.wffweb.internal.tag.html.listener.TagManipulationListener;
 import com.webfirmframework.wffweb.server.page.action.BrowserPageAction;
 import com.webfirmframework.wffweb.settings.WffConfiguration;
@@ -84,7 +87,9 @@ import com.webfirmframework.wffweb.tag.html.attribute.core.AbstractAttribute;
 import com.webfirmframework.wffweb.tag.html.attribute.core.AttributeRegistry;
 import com.webfirmframework.wffweb.tag.html.attribute.event.EventAttribute;
 import com.webfirmframework.wffweb.tag.html.attribute.event.ServerMethod;
+import com.webfirmframework.wffweb.tag.html.attributewff.CustomAttribute;
 import com.webfirmframework.wffweb.tag.html.html5.attribute.global.DataWffId;
+import com.webfirmframework.wffweb.tag.html.model.TagLockPolicy;
 import com.webfirmframework.wffweb.tag.html.programming.Script;
 import com.webfirmframework.wffweb.tag.htmlwff.NoTag;
 import com.webfirmframework.wffweb.tag.repository.TagRepository;
@@ -115,11 +120,17 @@ public abstract class BrowserPage implements Serializable {
 
     private static final boolean PRODUCTION_MODE = true;
 
+    /**
+     * the ordering key of the events for which no ordering key is given in
+     * parallel event dispatch.
+     */
+    private static final Object PAGE_ORDERING_KEY = new Object();
+
     private final String instanceId = UUID.randomUUID().toString();
 
     private final String externalDrivePath = useExternalDrivePathPvt();
 
-    private volatile Map<String, AbstractHtml> tagByWffId;
+    private volatile TagByWffIdMap tagByWffId;
 
     private volatile AbstractHtml rootTag;
 
@@ -133,6 +144,8 @@ public abstract class BrowserPage implements Serializable {
 
     private volatile DataWffId wffScriptTagId;
 
+    private volatile DataWffId wffRuntimeScriptTagId;
+
     /**
      * it's true by default since 3.0.1
      */
@@ -152,7 +165,8 @@ public abstract class BrowserPage implements Serializable {
     // ConcurrentLinkedQueue give better performance than ConcurrentLinkedDeque
     // on benchmark
     // NB: not all methods of Queue is implemented, ensure before using it.
-    private final Queue<ClientTasksWrapper> wffBMBytesHoldPushQueue = buildClientTasksWrapperQueue("out_hp");
+    // SpillingClientTasksWrapperQueue if usePushSpill is overridden
+    private final Queue<ClientTasksWrapper> wffBMBytesHoldPushQueue = buildHoldPushQueue();
 
     private volatile Path tempDirPath = null;
 
@@ -192,6 +206,14 @@ public abstract class BrowserPage implements Serializable {
 
     private static final int INITIAL_WS_DEFAULT_HEARTBEAT_TIMEOUT = 10_000;
 
+    // the max number of payloads in a single WebSocketBatchPushListener.pushAll
+    // call, it keeps the batch array and the frames of the container bounded
+    private static final int MAX_PUSH_BATCH_PAYLOADS = 256;
+
+    // the max number of payload bytes in a single
+    // WebSocketBatchPushListener.pushAll call
+    private static final int MAX_PUSH_BATCH_BYTES = 1024 * 1024;
+
     private static volatile int wsDefaultHeartbeatInterval = INITIAL_WS_DEFAULT_HEARTBEAT_INTERVAL;
 
     private static volatile int wsDefaultReconnectInterval = 2_000;
@@ -273,6 +295,25 @@ public abstract class BrowserPage implements Serializable {
             ? new Semaphore(settings.outputBufferLimit)
             : null;
 
+    private final PushBatching pushBatching = usePushBatchingPvt();
+
+    private final ClientTasksBatcher clientTasksBatcher = pushBatching != null
+            ? new ClientTasksBatcher(pushBatching.maxTasks, pushBatching.maxBytes)
+            : null;
+
+    private final PayloadBufferPool payloadBufferPool = usePayloadBufferPoolPvt();
+
+    private final transient ParallelEventDispatch parallelEventDispatch = useParallelEventDispatchPvt();
+
+    private final transient PushCompression pushCompression = usePushCompressionPvt();
+
+    private final String wffRuntimeScriptPath = useWffRuntimeScriptPathPvt();
+
+    // null after deserialization so the events will be executed one by one
+    private final transient KeyOrderedTaskExecutor keyOrderedTaskExecutor = parallelEventDispatch != null
+            ? new KeyOrderedTaskExecutor()
+            : null;
+
     // NB: this non-static initialization makes BrowserPage and PayloadProcessor
     // never to get GCd. It leads to memory leak. It seems to be a bug.
     // private final ThreadLocal<PayloadProcessor> PALYLOAD_PROCESSOR_TL =
@@ -298,12 +339,25 @@ public abstract class BrowserPage implements Serializable {
      */
     private static final record WebSocketPushListenerHolder(String sessionId,
             WebSocketPushListener webSocketPushListener, AtomicBoolean serverSideActionPerformed,
-            AtomicBoolean clientSideJSExecuted) {
+            AtomicBoolean clientSideJSExecuted, AtomicReference<PushPayloadDeflater> pushDeflater) {
 
         private WebSocketPushListenerHolder(final String sessionId, final WebSocketPushListener webSocketPushListener,
                 final boolean serverSideActionPerformed, final boolean clientSideJSExecuted) {
             this(sessionId, webSocketPushListener, new AtomicBoolean(serverSideActionPerformed),
-                    new AtomicBoolean(clientSideJSExecuted));
+                    new AtomicBoolean(clientSideJSExecuted), new AtomicReference<>());
+        }
+
+        /**
+         * the further payloads are pushed without compression through this
+         * listener.
+         *
+         * @since 12.0.13
+         */
+        private void endPushCompression() {
+            final PushPayloadDeflater deflater = pushDeflater.getAndSet(null);
+            if (deflater != null) {
+                deflater.end();
+            }
         }
 
         @Override
@@ -434,17 +488,164 @@ public abstract class BrowserPage implements Serializable {
         }
     }
 
+    /**
+     * The server changes (eg: attribute value change, child tag append etc..)
+     * made within the batching window are accumulated and pushed to the client as
+     * a single payload. If the same attribute value is changed multiple times on
+     * the same tags within the window, only the latest change will be pushed. The
+     * batch is pushed when the window elapses, when any of the given limits is
+     * reached or when {@link BrowserPage#flushPush()} is called.
+     *
+     * @param maxTasks     the maximum number of tasks in a batch, a value &lt;= 0
+     *                     represents no limit.
+     * @param maxBytes     the maximum approximate number of bytes in a batch, a
+     *                     value &lt;= 0 represents no limit.
+     * @param windowMillis the batching window in milliseconds, it must be greater
+     *                     than 0.
+     * @since 12.0.13
+     */
+    protected record PushBatching(int maxTasks, int maxBytes, long windowMillis) {
+        // should be public
+        public PushBatching {
+            if (windowMillis < 1) {
+                throw new InvalidValueException("windowMillis must be greater than 0");
+            }
+        }
+    }
+
+    /**
+     * The events from the client are executed concurrently if they have
+     * different ordering keys, the events having the same ordering key are
+     * executed in the order they are received. The {@code ServerMethod} of the
+     * events are invoked without acquiring the page wide lock which is used
+     * otherwise, so a slow {@code ServerMethod} will not delay the events having
+     * other ordering keys. The events are executed by the executor set by
+     * {@link BrowserPage#setExecutor(Executor)}, if it is not set the virtual
+     * threads are used if available otherwise the common pool. The other tasks
+     * from the client, eg: the URI change, are executed as usual.
+     *
+     * @param tagEventKey     to get the ordering key of the event from the given
+     *                        source tag, eg:
+     *                        {@code tag -> tag.getParent()} to order the
+     *                        events of the sibling tags. If it is null, the
+     *                        {@code data-wff-id} of the source tag is the
+     *                        ordering key.
+     * @param serverMethodKey to get the ordering key of the custom server method
+     *                        from its name. If it is null, the method name is the
+     *                        ordering key.
+     * @since 12.0.13
+     */
+    protected record ParallelEventDispatch(Function<AbstractHtml, Object> tagEventKey,
+            Function<String, Object> serverMethodKey) {
+
+        /**
+         * The implicit canonical constructor of a protected record is also
+         * protected so it could not be called by the subclasses of
+         * {@code BrowserPage} in other packages, that is why it is declared
+         * public.
+         *
+         * @param tagEventKey     to get the ordering key of the event from the
+         *                        given source tag or null to use the
+         *                        {@code data-wff-id} of the source tag.
+         * @param serverMethodKey to get the ordering key of the custom server
+         *                        method from its name or null to use the method
+         *                        name.
+         */
+        public ParallelEventDispatch {
+        }
+
+        /**
+         * the {@code data-wff-id} of the source tag and the custom server method
+         * name are the ordering keys.
+         */
+        public ParallelEventDispatch() {
+            this(null, null);
+        }
+    }
+
+    /**
+     * The payloads held by {@link BrowserPage#holdPush()} are kept in the heap up
+     * to the {@code heapLimit} and the further payloads are spilled to a memory
+     * mapped file of {@code spillFileSize} bytes. If {@code outputBufferLimit} is
+     * given in {@code Settings}, the payloads exceeding it are also spilled to the
+     * file instead of losing them, they are pushed to the client in order when
+     * the output buffer has enough space. A single payload larger than
+     * {@code outputBufferLimit} is never spilled as it can never fit in the output
+     * buffer, it is handled as if spilling is not enabled. The file is created in the directory of
+     * {@link BrowserPage#useExternalDrivePath()} if it is given otherwise in the
+     * default temporary-file directory, and it is deleted when this browserPage
+     * instance is removed from the context.
+     *
+     * @param heapLimit     the maximum number of bytes of the held payloads to
+     *                      keep in the heap.
+     * @param spillFileSize the size of the spill file in bytes, it must be
+     *                      greater than 0.
+     * @since 12.0.13
+     */
+    protected record PushSpill(int heapLimit, int spillFileSize) {
+        // should be public
+        public PushSpill {
+            if (heapLimit < 0) {
+                throw new InvalidValueException("heapLimit must not be negative");
+            }
+            if (spillFileSize < 1) {
+                throw new InvalidValueException("spillFileSize must be greater than 0");
+            }
+        }
+    }
+
+    /**
+     * The payloads pushed to the client are compressed with a raw deflate stream
+     * per WebSocket connection. The stream is kept open for the lifetime of the
+     * connection so a payload is compressed against the previously pushed
+     * payloads, which shrinks the repetitive tag and attribute names of the
+     * append-heavy pages far better than compressing each payload separately.
+     * The compression is negotiated on each connection, the client requests it
+     * only if the browser supports {@code DecompressionStream("deflate-raw")}
+     * otherwise the payloads are pushed as usual. It is applied to the last set
+     * or added WebSocket listener when the client requests it, so the listener
+     * should be set/added when the connection is opened.
+     *
+     * @param level          the compression level from 0 to 9 or -1 for the
+     *                       default level, a lower level uses less CPU per
+     *                       payload.
+     * @param minPayloadSize the payloads smaller than this number of bytes are
+     *                       not compressed.
+     * @since 12.0.13
+     */
+    protected record PushCompression(int level, int minPayloadSize) {
+        // should be public
+        public PushCompression {
+            if (level < -1 || level > 9) {
+                throw new InvalidValueException("level must be between -1 and 9");
+            }
+            if (minPayloadSize < 0) {
+                throw new InvalidValueException("minPayloadSize must not be negative");
+            }
+        }
+
+        /**
+         * the default compression level and the payloads of 32 bytes or more are
+         * compressed.
+         */
+        public PushCompression() {
+            this(-1, 32);
+        }
+    }
+
     public abstract String webSocketUrl();
 
     /**
      * @return the Queue
      * @since 3.0.18
+     * @since 12.0.13 segmented append-only log is used instead of one file per
+     *        message.
      */
     private Queue<byte[]> buildByteArrayQ(final String subDirName) {
 
         if (externalDrivePath != null) {
             try {
-                return new ExternalDriveByteArrayQueue(externalDrivePath, instanceId, subDirName);
+                return new ExternalDriveSegmentedByteArrayQueue(externalDrivePath, instanceId, subDirName);
             } catch (final IOException e) {
                 LOGGER.severe(
                         "The given path by useExternalDrivePath is invalid or it doesn't have read/write permission.");
@@ -488,6 +689,20 @@ public abstract class BrowserPage implements Serializable {
         return new ConcurrentLinkedQueue<>();
     }
 
+    /**
+     * @return the Queue
+     * @since 12.0.13
+     */
+    private Queue<ClientTasksWrapper> buildHoldPushQueue() {
+        final PushSpill pushSpill = usePushSpillPvt();
+        if (pushSpill != null) {
+            final Path dirPath = externalDrivePath != null ? Paths.get(externalDrivePath, instanceId, "out_hp_spill")
+                    : null;
+            return new SpillingClientTasksWrapperQueue(pushSpill.heapLimit, pushSpill.spillFileSize, dirPath);
+        }
+        return buildClientTasksWrapperQueue("out_hp");
+    }
+
     /**
      * Override and use this method to set path to write temporary files to save
      * heap space.
@@ -524,7 +739,11 @@ public abstract class BrowserPage implements Serializable {
      */
     public final void setWebSocketPushListener(final WebSocketPushListener wsListener) {
         clientMarkedBrowserPageForRemoval = false;
+        final WebSocketPushListenerHolder previousWsListener = this.wsListener;
         this.wsListener = new WebSocketPushListenerHolder(null, wsListener, false, false);
+        if (previousWsListener != null && previousWsListener.sessionId == null) {
+            previousWsListener.endPushCompression();
+        }
         if (rootTag != null) {
             rootTag.getSharedObject().setActiveWSListener(wsListener != null, ACCESS_OBJECT);
         }
@@ -576,6 +795,7 @@ public abstract class BrowserPage implements Serializable {
             // remove all
             while (wsListeners.remove(removedListener)) {
             }
+            removedListener.endPushCompression();
         }
         final WebSocketPushListenerHolder wsListenerCurrent = wsListeners.peek();
         wsListener = wsListenerCurrent;
@@ -594,6 +814,9 @@ public abstract class BrowserPage implements Serializable {
      * @since 3.0.16
      */
     final void clearWSListeners() {
+        for (final WebSocketPushListenerHolder each : wsListeners) {
+            each.endPushCompression();
+        }
         // remove all
         wsListeners.clear();
 
@@ -609,10 +832,171 @@ public abstract class BrowserPage implements Serializable {
     }
 
     final boolean push(final NameValue... nameValues) {
-        final ByteBuffer payload = buildPayload(WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues));
+        return pushSupersedable(null, nameValues);
+    }
+
+    /**
+     * pushes the task without batching, the already batched tasks are pushed
+     * before it so that the order of tasks is preserved. It is for the protocol
+     * tasks and the replies to the client which should not wait for the batching
+     * window.
+     *
+     * @param nameValues the task
+     * @return true if pushed
+     * @since 12.0.13
+     */
+    private boolean pushUnbatched(final NameValue... nameValues) {
+        return pushAfterBatch(new ClientTasksWrapper(buildPayload(nameValues)));
+    }
+
+    /**
+     * @param supersedeKey the key to identify a task which makes the previous
+     *                     unpushed task with the same key obsolete, or null. It is
+     *                     applicable only if push batching is enabled.
+     * @param nameValues   the task
+     * @return true if pushed or batched
+     * @since 12.0.13
+     */
+    final boolean pushSupersedable(final String supersedeKey, final NameValue... nameValues) {
+        final ClientTasksBatcher batcher = clientTasksBatcher;
+        if (batcher != null) {
+            final int state = batcher.add(supersedeKey, nameValues);
+            if (state == ClientTasksBatcher.LIMIT_REACHED) {
+                flushPushBatch();
+            } else if (state == ClientTasksBatcher.ADDED_AS_FIRST) {
+                schedulePushBatchFlush(batcher.batchId());
+            }
+            return true;
+        }
+        final ByteBuffer payload = buildPayload(nameValues);
         return push(new ClientTasksWrapper(payload));
     }
 
+    /**
+     * @return true if push batching is enabled
+     * @since 12.0.13
+     */
+    final boolean isPushBatchingEnabled() {
+        return clientTasksBatcher != null;
+    }
+
+    private void schedulePushBatchFlush(final long batchId) {
+        final Executor executor = this.executor;
+        final Executor activeExecutor = executor != null ? executor : WffConfiguration.getVirtualThreadExecutor();
+        final Executor delayedExecutor = activeExecutor != null
+                ? CompletableFuture.delayedExecutor(pushBatching.windowMillis, TimeUnit.MILLISECONDS, activeExecutor)
+                : CompletableFuture.delayedExecutor(pushBatching.windowMillis, TimeUnit.MILLISECONDS);
+        delayedExecutor.execute(() -> {
+            // the batch might have already been flushed by size limit or flushPush
+            if (clientTasksBatcher.batchId() == batchId && flushPushBatch() && holdPush.get() == 0) {
+                pushWffBMBytesQueue();
+            }
+        });
+    }
+
+    /**
+     * pushes the batched tasks as a single payload to the queue.
+     *
+     * @return true if there were batched tasks
+     * @since 12.0.13
+     */
+    private boolean flushPushBatch() {
+        final ClientTasksBatcher batcher = clientTasksBatcher;
+        if (batcher == null) {
+            return false;
+        }
+        final ClientTasksWrapper batchPayload;
+        final long ticket;
+        final Lock batchLock = batcher.lock();
+        batchLock.lock();
+        try {
+            batchPayload = buildBatchPayload(batcher.drain());
+            if (batchPayload == null) {
+                return false;
+            }
+            ticket = batcher.takeTicket();
+        } finally {
+            batchLock.unlock();
+        }
+        // push is called outside the batch lock as it may wait for the output
+        // buffer, the ticket keeps the order of the batches
+        batcher.awaitTurn(ticket);
+        try {
+            push(batchPayload);
+        } finally {
+            batcher.completeTurn();
+        }
+        return true;
+    }
+
+    /**
+     * @param tasks the drained tasks
+     * @return the payload of the tasks or null if there are no tasks
+     * @since 12.0.13
+     */
+    private ClientTasksWrapper buildBatchPayload(final NameValue[][] tasks) {
+        if (tasks == null) {
+            return null;
+        }
+        if (tasks.length == 1) {
+            return new ClientTasksWrapper(buildPayload(tasks[0]));
+        }
+        final NameValue invokeMultipleTasks = Task.getTaskOfTasksNameValue();
+        final byte[][] values = new byte[tasks.length][0];
+        for (int i = 0; i < tasks.length; i++) {
+            values[i] = WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(tasks[i]);
+        }
+        invokeMultipleTasks.setValues(values);
+        return new ClientTasksWrapper(buildPayload(invokeMultipleTasks));
+    }
+
+    /**
+     * Pushes the server changes accumulated in the current batching window
+     * immediately. It is applicable only if push batching is enabled by overriding
+     * {@link BrowserPage#usePushBatching()}.
+     *
+     * @since 12.0.13
+     */
+    public final void flushPush() {
+        if (flushPushBatch() && holdPush.get() == 0) {
+            pushWffBMBytesQueue();
+        }
+    }
+
+    /**
+     * pushes the given clientTasks after pushing the batched tasks so that the
+     * order of tasks is preserved.
+     *
+     * @param clientTasks
+     * @return true if pushed
+     * @since 12.0.13
+     */
+    private boolean pushAfterBatch(final ClientTasksWrapper clientTasks) {
+        final ClientTasksBatcher batcher = clientTasksBatcher;
+        if (batcher == null) {
+            return push(clientTasks);
+        }
+        final ClientTasksWrapper batchPayload;
+        final long ticket;
+        final Lock batchLock = batcher.lock();
+        batchLock.lock();
+        try {
+            batchPayload = buildBatchPayload(batcher.drain());
+            ticket = batcher.takeTicket();
+        } finally {
+            batchLock.unlock();
+        }
+        batcher.awaitTurn(ticket);
+        try {
+            if (batchPayload != null) {
+                push(batchPayload);
+            }
+            return push(clientTasks);
+        } finally {
+            batcher.completeTurn();
+        }
+    }
+
     /**
      * @param multiTasks
      * @return the wrapper class holding the byteBuffers of multiple tasks
@@ -626,23 +1010,22 @@ public abstract class BrowserPage implements Serializable {
         while ((taskNameValues = multiTasks.poll()) != null) {
             final NameValue[] nameValues = taskNameValues.toArray(new NameValue[taskNameValues.size()]);
 
-            final ByteBuffer payload = buildPayload(
-                    WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues));
+            final ByteBuffer payload = buildPayload(nameValues);
             tasks[index] = payload;
             index++;
         }
 
         final ClientTasksWrapper clientTasks = new ClientTasksWrapper(tasks);
-        if (push(clientTasks)) {
+        if (pushAfterBatch(clientTasks)) {
             return clientTasks;
         }
         return null;
     }
 
-    private void pushLockless(final ClientTasksWrapper clientTasks) {
+    private boolean pushLockless(final ClientTasksWrapper clientTasks) {
         if (holdPush.get() > 0) {
             // add method internally calls offer method in ConcurrentLinkedQueue
-            wffBMBytesHoldPushQueue.offer(clientTasks);
+            return wffBMBytesHoldPushQueue.offer(clientTasks);
         } else {
             if (!wffBMBytesHoldPushQueue.isEmpty()) {
                 copyCachedBMBytesToMainQ();
@@ -650,10 +1033,17 @@ public abstract class BrowserPage implements Serializable {
             // add method internally calls offer which internally
             // calls offerLast method in ConcurrentLinkedQueue
 
-            if (wffBMBytesQueue.offerLast(clientTasks)) {
+            if (wffBMBytesHoldPushQueue instanceof final SpillingClientTasksWrapperQueue spillingQueue
+                    && !spillingQueue.isEmpty()) {
+                // the spilled payloads waiting for the output buffer should be pushed
+                // first
+                return spillingQueue.offer(clientTasks);
+            } else if (wffBMBytesQueue.offerLast(clientTasks)) {
                 pushQueueSize.increment();
+                return true;
             }
         }
+        return false;
     }
 
     private boolean push(final ClientTasksWrapper clientTasks) {
@@ -668,9 +1058,17 @@ public abstract class BrowserPage implements Serializable {
                             : outputBufferLimitLock.tryAcquire(clientTasks.getCurrentSize(),
                                     settings.outputBufferTimeout, TimeUnit.NANOSECONDS);
                     // onPayloadLoss check should be second
-                    if (acquired || onPayloadLoss == null) {
-                        pushLockless(clientTasks);
+                    if (acquired) {
+                        return pushLockless(clientTasks);
+                    } else if (clientTasks.getCurrentSize() <= settings.outputBufferLimit
+                            && wffBMBytesHoldPushQueue instanceof final SpillingClientTasksWrapperQueue spillingQueue
+                            && spillingQueue.offer(clientTasks, true)) {
+                        // it will be moved to wffBMBytesQueue when the output buffer has
+                        // space for it, a payload larger than the limit is never queued here
+                        // as it can never get the permit and would block all further payloads
                         return true;
+                    } else if (onPayloadLoss == null) {
+                        return pushLockless(clientTasks);
                     } else {
                         if (LOGGER.isLoggable(Level.SEVERE) || LOGGER.isLoggable(Level.FINEST)) {
                             if (wsListenerCurrent != null) {
@@ -723,13 +1121,23 @@ public abstract class BrowserPage implements Serializable {
                 }
             }
         } else {
-            pushLockless(clientTasks);
-            return true;
+            return pushLockless(clientTasks);
         }
         return false;
     }
 
     private void pushWffBMBytesQueue() {
+        pushMainQueue();
+        // the payloads spilled for the lack of output buffer are moved to the main
+        // queue as the pushed payloads released the output buffer
+        while (holdPush.get() == 0 && wsListener != null
+                && wffBMBytesHoldPushQueue instanceof final SpillingClientTasksWrapperQueue spillingQueue
+                && !spillingQueue.isEmpty() && copyCachedBMBytesToMainQ()) {
+            pushMainQueue();
+        }
+    }
+
+    private void pushMainQueue() {
 
         if (wsListener != null) {
 
@@ -756,26 +1164,37 @@ public abstract class BrowserPage implements Serializable {
                     // push
 
                     ClientTasksWrapper clientTask = wffBMBytesQueue.poll();
-                    if (clientTask != null) {
+                    final WebSocketPushListenerHolder wsListenerForBatch = wsListener;
+                    if (clientTask != null && wsListenerForBatch != null
+                            && wsListenerForBatch.webSocketPushListener instanceof final WebSocketBatchPushListener batchListener) {
+                        pushMainQueueAsBatch(clientTask, wsListenerForBatch, batchListener, taskThread);
+                    } else if (clientTask != null) {
                         AtomicReferenceArray<ByteBuffer> tasks;
                         boolean taskAvailable = false;
                         ByteBuffer pong = null;
                         do {
                             pushQueueSize.decrement();
                             int totalBytesPushed = 0;
+                            final WebSocketPushListenerHolder wsListenerCurrent = wsListener;
                             try {
                                 tasks = clientTask.tasks();
+                                // null if the compression is not negotiated for the connection
+                                final PushPayloadDeflater deflater = wsListenerCurrent != null
+                                        ? wsListenerCurrent.pushDeflater.get()
+                                        : null;
                                 if (tasks != null) {
                                     final int length = tasks.length();
                                     for (int i = 0; i < length; i++) {
                                         final ByteBuffer task = tasks.get(i);
                                         if (task != null) {
                                             final int capacity = task.capacity();
-//                                            capacity == 0 represents a pong message
+                                            // capacity == 0 represents a pong message
                                             if (capacity > 0) {
-                                                wsListener.webSocketPushListener.push(buildPayloadForClient(task));
+                                                final ByteBuffer payload = buildPayloadForClient(task);
+                                                wsListenerCurrent.webSocketPushListener
+                                                        .push(deflater != null ? deflater.deflate(payload) : payload);
                                                 totalBytesPushed += capacity;
-                                                clientTask.nullifyTask(capacity, tasks, i);
+                                                clientTask.nullifyTask(capacity, tasks, i, payloadBufferPool);
                                                 taskAvailable = true;
                                             } else {
                                                 pong = task;
@@ -787,6 +1206,11 @@ public abstract class BrowserPage implements Serializable {
                                     totalBytesPushed = clientTask.getCurrentSize();
                                 }
                             } catch (final PushFailedException e) {
+                                // the client may or may not have received the compressed payload so
+                                // the compression streams of both sides cannot be in sync anymore
+                                if (wsListenerCurrent != null) {
+                                    wsListenerCurrent.endPushCompression();
+                                }
                                 if (pushQueueEnabled && wffBMBytesQueue.offerFirst(clientTask)) {
                                     rollbackServerSidePayloadId();
                                     pushQueueSize.increment();
@@ -794,6 +1218,9 @@ public abstract class BrowserPage implements Serializable {
 
                                 break;
                             } catch (final IllegalStateException | NullPointerException e) {
+                                if (wsListenerCurrent != null) {
+                                    wsListenerCurrent.endPushCompression();
+                                }
                                 if (wffBMBytesQueue.offerFirst(clientTask)) {
                                     rollbackServerSidePayloadId();
                                     pushQueueSize.increment();
@@ -846,6 +1273,157 @@ public abstract class BrowserPage implements Serializable {
         }
     }
 
+    /**
+     * pushes the payloads of the client tasks available in the queue by
+     * {@link WebSocketBatchPushListener#pushAll(ByteBuffer[])} calls, each call
+     * with at most {@link #MAX_PUSH_BATCH_PAYLOADS} payloads and
+     * {@link #maxPushBatchBytes()} bytes. It must be called only by the thread
+     * holding pushWffBMBytesQueueLock.
+     *
+     * @param firstClientTask   the client task already polled from the queue
+     * @param wsListenerCurrent the current listener holder
+     * @param batchListener     the listener of the holder
+     * @param taskThread        the current thread
+     * @since 12.0.13
+     */
+    private void pushMainQueueAsBatch(final ClientTasksWrapper firstClientTask,
+            final WebSocketPushListenerHolder wsListenerCurrent, final WebSocketBatchPushListener batchListener,
+            final Thread taskThread) {
+
+        // null if the compression is not negotiated for the connection
+        final PushPayloadDeflater deflater = wsListenerCurrent.pushDeflater.get();
+        final int maxBatchBytes = maxPushBatchBytes();
+        ByteBuffer pong = null;
+        boolean payloadsPushed = false;
+        ClientTasksWrapper clientTask = firstClientTask;
+
+        while (clientTask != null) {
+            final List<ClientTasksWrapper> clientTasksList = new ArrayList<>();
+            final List<ByteBuffer> payloads = new ArrayList<>();
+            int batchBytes = 0;
+            int totalBytesPushed = 0;
+            boolean yielded = false;
+            try {
+                do {
+                    pushQueueSize.decrement();
+                    final AtomicReferenceArray<ByteBuffer> tasks = clientTask.tasks();
+                    if (tasks != null) {
+                        clientTasksList.add(clientTask);
+                        final int length = tasks.length();
+                        for (int i = 0; i < length; i++) {
+                            final ByteBuffer task = tasks.get(i);
+                            if (task != null) {
+                                // capacity == 0 represents a pong message
+                                if (task.capacity() > 0) {
+                                    final ByteBuffer payload = buildPayloadForClient(task);
+                                    payloads.add(deflater != null ? deflater.deflate(payload) : payload);
+                                    batchBytes += task.capacity();
+                                } else {
+                                    pong = task;
+                                }
+                            }
+                        }
+                    } else {
+                        totalBytesPushed += clientTask.getCurrentSize();
+                    }
+
+                    if (pushWffBMBytesQueueLock.hasQueuedThreads()) {
+                        final Thread waitingThread = waitingThreadRef.get();
+                        if (waitingThread != null && waitingThread != taskThread
+                                && waitingThread.getPriority() >= taskThread.getPriority()) {
+                            yielded = true;
+                            break;
+                        }
+                    }
+                    // a client task is never split so a single client task
+                    // may exceed the limits
+                    if (payloads.size() >= MAX_PUSH_BATCH_PAYLOADS || batchBytes >= maxBatchBytes) {
+                        break;
+                    }
+                    clientTask = wffBMBytesQueue.poll();
+                } while (clientTask != null);
+
+                if (!payloads.isEmpty()) {
+                    batchListener.pushAll(payloads.toArray(new ByteBuffer[payloads.size()]));
+                    payloadsPushed = true;
+                }
+
+                for (final ClientTasksWrapper pushedClientTask : clientTasksList) {
+                    final AtomicReferenceArray<ByteBuffer> tasks = pushedClientTask.tasks();
+                    if (tasks != null) {
+                        final int length = tasks.length();
+                        for (int i = 0; i < length; i++) {
+                            final ByteBuffer task = tasks.get(i);
+                            if (task != null && task.capacity() > 0) {
+                                totalBytesPushed += task.capacity();
+                                pushedClientTask.nullifyTask(task.capacity(), tasks, i, payloadBufferPool);
+                            }
+                        }
+                        pushedClientTask.nullifyTasks();
+                    }
+                }
+            } catch (final PushFailedException e) {
+                // the client may or may not have received the compressed payloads so
+                // the compression streams of both sides cannot be in sync anymore
+                wsListenerCurrent.endPushCompression();
+                if (pushQueueEnabled) {
+                    requeueUnpushed(clientTasksList, payloads.size());
+                }
+                return;
+            } catch (final IllegalStateException | NullPointerException e) {
+                wsListenerCurrent.endPushCompression();
+                requeueUnpushed(clientTasksList, payloads.size());
+                return;
+            } finally {
+                // released per batch so that the producers can proceed while the
+                // next batch is pushed
+                if (outputBufferLimitLock != null && totalBytesPushed > 0) {
+                    outputBufferLimitLock.release(totalBytesPushed);
+                }
+            }
+
+            clientTask = yielded || clientTask == null ? null : wffBMBytesQueue.poll();
+        }
+
+        if (!payloadsPushed && pong != null) {
+            try {
+                wsListenerCurrent.webSocketPushListener.push(pong);
+            } catch (final Exception e) {
+                if (LOGGER.isLoggable(Level.WARNING) && !wsWarningDisabled) {
+                    LOGGER.warning("Error while pushing pong message!");
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the max number of payload bytes in a single
+     *         {@link WebSocketBatchPushListener#pushAll(ByteBuffer[])} call.
+     * @since 12.0.13
+     */
+    private int maxPushBatchBytes() {
+        return settings.outputBufferLimit > 0 ? Math.min(settings.outputBufferLimit, MAX_PUSH_BATCH_BYTES)
+                : MAX_PUSH_BATCH_BYTES;
+    }
+
+    /**
+     * adds the client tasks back to the head of the queue in the same order.
+     *
+     * @param clientTasksList the client tasks
+     * @param payloadIdsCount the number of payload ids generated for them
+     * @since 12.0.13
+     */
+    private void requeueUnpushed(final List<ClientTasksWrapper> clientTasksList, final int payloadIdsCount) {
+        for (int i = clientTasksList.size() - 1; i >= 0; i--) {
+            if (wffBMBytesQueue.offerFirst(clientTasksList.get(i))) {
+                pushQueueSize.increment();
+            }
+        }
+        if (onPayloadLoss != null) {
+            rollbackServerSidePayloadIds(payloadIdsCount);
+        }
+    }
+
     final DataWffId getNewDataWffId() {
         return rootTag.getSharedObject().getNewDataWffId(ACCESS_OBJECT);
     }
@@ -902,6 +1480,24 @@ public abstract class BrowserPage implements Serializable {
         webSocketMessagedWithoutLosslessCheck(message);
     }
 
+    /**
+     * starts a new compression stream for the current WebSocket listener as the
+     * client has opened a new inflate stream for its connection.
+     *
+     * @since 12.0.13
+     */
+    private void startPushCompression() {
+        final PushCompression pushCompression = this.pushCompression;
+        final WebSocketPushListenerHolder wsListenerCurrent = wsListener;
+        if (pushCompression != null && wsListenerCurrent != null) {
+            final PushPayloadDeflater previous = wsListenerCurrent.pushDeflater
+                    .getAndSet(new PushPayloadDeflater(pushCompression.level, pushCompression.minPayloadSize));
+            if (previous != null) {
+                previous.end();
+            }
+        }
+    }
+
     private void sendPongMessage() {
         clientMarkedBrowserPageForRemoval = false;
         // send empty message to be considered as a pong response
@@ -927,6 +1523,8 @@ public abstract class BrowserPage implements Serializable {
         if (message.length < 4) {
             if (message.length == 0) {
                 sendPongMessage();
+            } else if (message.length == 1 && message[0] == PushPayloadDeflater.CLIENT_HELLO) {
+                startPushCompression();
             }
             return;
         }
@@ -1148,11 +1746,8 @@ public abstract class BrowserPage implements Serializable {
         // @formatter:on
 
         final NameValue wffTagIdAndAttrName = nameValues.get(1);
-        final byte[] intBytes = new byte[wffTagIdAndAttrName.getName().length - 1];
-        System.arraycopy(wffTagIdAndAttrName.getName(), 1, intBytes, 0, intBytes.length);
-
-        final String wffTagId = new String(wffTagIdAndAttrName.getName(), 0, 1, StandardCharsets.UTF_8)
-                + WffBinaryMessageUtil.getIntFromOptimizedBytes(intBytes);
+        // the key is decoded directly from the prefix char byte and the int bytes
+        final long wffTagIdKey = TagByWffIdMap.key(wffTagIdAndAttrName.getName());
 
         final byte[][] values = wffTagIdAndAttrName.getValues();
 
@@ -1182,12 +1777,16 @@ public abstract class BrowserPage implements Serializable {
             wffBMObject = null;
         }
 
-        // NB: see javadoc on its declaration
-        commonLock.lock();
+        // NB: see javadoc on its declaration, the events are not serialized by
+        // commonLock in parallel event dispatch
+        final boolean commonLockRequired = keyOrderedTaskExecutor == null;
+        if (commonLockRequired) {
+            commonLock.lock();
+        }
 
         try {
 
-            final AbstractHtml methodTag = tagByWffId.get(wffTagId);
+            final AbstractHtml methodTag = tagByWffId.get(wffTagIdKey);
             if (methodTag != null) {
 
                 final AbstractAttribute attributeByName = methodTag.getAttributeByName(eventAttrName);
@@ -1229,7 +1828,7 @@ public abstract class BrowserPage implements Serializable {
                                 nameValue.setValues(new byte[][] { returnedObject.buildBytes(true) });
                             }
 
-                            push(invokePostFunTask, nameValue);
+                            pushUnbatched(invokePostFunTask, nameValue);
                             if (holdPush.get() == 0) {
                                 pushWffBMBytesQueue();
                             }
@@ -1245,15 +1844,72 @@ public abstract class BrowserPage implements Serializable {
 
             } else {
                 if (!PRODUCTION_MODE) {
-                    LOGGER.severe("No tag found for wffTagId " + wffTagId);
+                    LOGGER.severe("No tag found for wffTagId " + TagByWffIdMap.toWffId(wffTagIdKey));
                 }
             }
 
         } finally {
-            commonLock.unlock();
+            if (commonLockRequired) {
+                commonLock.unlock();
+            }
         }
     }
 
+    /**
+     * @param nameValues the invoke async method task
+     * @return the ordering key of the event
+     * @since 12.0.13
+     */
+    private Object tagEventOrderingKey(final List<NameValue> nameValues) {
+        final long wffTagIdKey = TagByWffIdMap.key(nameValues.get(1).getName());
+        final Function<AbstractHtml, Object> tagEventKey = parallelEventDispatch.tagEventKey();
+        if (tagEventKey != null) {
+            final TagByWffIdMap tagByWffId = this.tagByWffId;
+            final AbstractHtml sourceTag = tagByWffId != null ? tagByWffId.get(wffTagIdKey) : null;
+            return sourceTag != null ? orderingKeyOrDefault(tagEventKey.apply(sourceTag)) : PAGE_ORDERING_KEY;
+        }
+        return wffTagIdKey;
+    }
+
+    /**
+     * @param nameValues the invoke custom server method task
+     * @return the ordering key of the event
+     * @since 12.0.13
+     */
+    private Object serverMethodOrderingKey(final List<NameValue> nameValues) {
+        final String methodName = new String(nameValues.get(1).getName(), StandardCharsets.UTF_8);
+        final Function<String, Object> serverMethodKey = parallelEventDispatch.serverMethodKey();
+        return serverMethodKey != null ? orderingKeyOrDefault(serverMethodKey.apply(methodName)) : methodName;
+    }
+
+    private static Object orderingKeyOrDefault(final Object orderingKey) {
+        return orderingKey != null ? orderingKey : PAGE_ORDERING_KEY;
+    }
+
+    /**
+     * @param orderingKey the ordering key of the event
+     * @param eventTask   the task to invoke the event
+     * @since 12.0.13
+     */
+    private void executeInKeyOrder(final Object orderingKey, final Runnable eventTask) {
+        final Executor executor = this.executor;
+        final Executor virtualThreadExecutor = WffConfiguration.getVirtualThreadExecutor();
+        final Executor activeExecutor = executor != null ? executor
+                : (virtualThreadExecutor != null ? virtualThreadExecutor : CompletableFuture::runAsync);
+        keyOrderedTaskExecutor.execute(orderingKey, () -> {
+            try {
+                eventTask.run();
+            } catch (final RuntimeException e) {
+                if (!PRODUCTION_MODE) {
+                    e.printStackTrace();
+                }
+                if (LOGGER.isLoggable(Level.SEVERE)) {
+                    LOGGER.log(Level.SEVERE, "Could not process this data received from client.", e);
+                }
+            }
+        }, activeExecutor);
+    }
+
     private void markBrowserPageForRemoval(final List<NameValue> nameValues) {
         // @formatter:off
         // invoke custom server method task format :-
@@ -1288,8 +1944,12 @@ public abstract class BrowserPage implements Serializable {
         final NameValue methodNameAndArg = nameValues.get(1);
         final String methodName = new String(methodNameAndArg.getName(), StandardCharsets.UTF_8);
 
-        // NB: see javadoc on its declaration
-        commonLock.lock();
+        // NB: see javadoc on its declaration, the events are not serialized by
+        // commonLock in parallel event dispatch
+        final boolean commonLockRequired = keyOrderedTaskExecutor == null;
+        if (commonLockRequired) {
+            commonLock.lock();
+        }
         try {
 
             final ServerMethodWrapper serverMethod = serverMethods.get(methodName);
@@ -1327,7 +1987,7 @@ public abstract class BrowserPage implements Serializable {
                         nameValue.setValues(new byte[][] { returnedObject.buildBytes(true) });
                     }
 
-                    push(invokeCallbackFuncTask, nameValue);
+                    pushUnbatched(invokeCallbackFuncTask, nameValue);
                     if (holdPush.get() == 0) {
                         pushWffBMBytesQueue();
                     }
@@ -1339,7 +1999,9 @@ public abstract class BrowserPage implements Serializable {
                         + methodName + "\", serverMethod)");
             }
         } finally {
-            commonLock.unlock();
+            if (commonLockRequired) {
+                commonLock.unlock();
+            }
         }
 
     }
@@ -1382,11 +2044,19 @@ public abstract class BrowserPage implements Serializable {
             // IM stands for Invoke Method
             if (taskValue == Task.INVOKE_ASYNC_METHOD.getValueByte()) {
 
-                invokeAsychMethod(nameValues);
+                if (keyOrderedTaskExecutor != null) {
+                    executeInKeyOrder(tagEventOrderingKey(nameValues), () -> invokeAsychMethod(nameValues));
+                } else {
+                    invokeAsychMethod(nameValues);
+                }
 
             } else if (taskValue == Task.INVOKE_CUSTOM_SERVER_METHOD.getValueByte()) {
 
-                invokeCustomServerMethod(nameValues);
+                if (keyOrderedTaskExecutor != null) {
+                    executeInKeyOrder(serverMethodOrderingKey(nameValues), () -> invokeCustomServerMethod(nameValues));
+                } else {
+                    invokeCustomServerMethod(nameValues);
+                }
 
             } else if (taskValue == Task.REMOVE_BROWSER_PAGE.getValueByte()) {
 
@@ -1467,7 +2137,7 @@ public abstract class BrowserPage implements Serializable {
                             final NameValue nameValue = new NameValue();
                             nameValue.setName(callbackFunId.getBytes(StandardCharsets.UTF_8));
 
-                            push(invokeCallbackFuncTask, nameValue);
+                            pushUnbatched(invokeCallbackFuncTask, nameValue);
                             if (holdPush.get() == 0) {
                                 pushWffBMBytesQueue();
                             }
@@ -1642,7 +2312,7 @@ public abstract class BrowserPage implements Serializable {
                     }
                 }
             } else if (taskValue == Task.CLIENT_SIDE_PING_ON_NEW_WS_OPEN.getValueByte()) {
-                push(Task.SERVER_SIDE_PONG_ON_NEW_WS_OPEN.getTaskNameValue());
+                pushUnbatched(Task.SERVER_SIDE_PONG_ON_NEW_WS_OPEN.getTaskNameValue());
                 if (holdPush.get() == 0) {
                     pushWffBMBytesQueue();
                 }
@@ -1678,7 +2348,7 @@ public abstract class BrowserPage implements Serializable {
 
     private void invokeAfterSetURIAtClient() {
         final NameValue taskNameValue = Task.AFTER_SET_URI.getTaskNameValue();
-        push(taskNameValue);
+        pushUnbatched(taskNameValue);
         if (holdPush.get() == 0) {
             pushWffBMBytesQueue();
         }
@@ -1694,7 +2364,7 @@ public abstract class BrowserPage implements Serializable {
         event.put("o", BMValueType.STRING, "S");
         event.put("r", BMValueType.BOOLEAN, replace);
         final NameValue taskNameValue = Task.SET_URI.getTaskNameValue(event.buildBytes(true));
-        push(taskNameValue);
+        pushUnbatched(taskNameValue);
         if (holdPush.get() == 0) {
             pushWffBMBytesQueue();
         }
@@ -1721,7 +2391,7 @@ public abstract class BrowserPage implements Serializable {
         // wt for write time
         event.put("wt", BMValueType.STRING, String.valueOf(writeTime));
         final NameValue taskNameValue = Task.SET_LS_TOKEN.getTaskNameValue(event.buildBytes(true));
-        push(taskNameValue);
+        pushUnbatched(taskNameValue);
         if (holdPush.get() == 0) {
             pushWffBMBytesQueue();
         }
@@ -1742,7 +2412,7 @@ public abstract class BrowserPage implements Serializable {
         }
 
         final NameValue taskNameValue = Task.SET_LS_ITEM.getTaskNameValue(event.buildBytes(true));
-        push(taskNameValue);
+        pushUnbatched(taskNameValue);
         if (holdPush.get() == 0) {
             pushWffBMBytesQueue();
         }
@@ -1754,7 +2424,7 @@ public abstract class BrowserPage implements Serializable {
         // k for key
         event.put("k", BMValueType.STRING, key);
         final NameValue taskNameValue = Task.GET_LS_ITEM.getTaskNameValue(event.buildBytes(true));
-        push(taskNameValue);
+        pushUnbatched(taskNameValue);
         if (holdPush.get() == 0) {
             pushWffBMBytesQueue();
         }
@@ -1772,7 +2442,7 @@ public abstract class BrowserPage implements Serializable {
             event.put("cb", BMValueType.BOOLEAN, true);
         }
         final NameValue taskNameValue = Task.REMOVE_LS_ITEM.getTaskNameValue(event.buildBytes(true));
-        push(taskNameValue);
+        pushUnbatched(taskNameValue);
         if (holdPush.get() == 0) {
             pushWffBMBytesQueue();
         }
@@ -1786,7 +2456,7 @@ public abstract class BrowserPage implements Serializable {
         // k for key
         event.put("k", BMValueType.STRING, key);
         final NameValue taskNameValue = Task.REMOVE_LS_TOKEN.getTaskNameValue(event.buildBytes(true));
-        push(taskNameValue);
+        pushUnbatched(taskNameValue);
         if (holdPush.get() == 0) {
             pushWffBMBytesQueue();
         }
@@ -1801,7 +2471,7 @@ public abstract class BrowserPage implements Serializable {
         event.put("wt", BMValueType.STRING, String.valueOf(writeTime));
         event.put("cb", BMValueType.BOOLEAN, true);
         final NameValue taskNameValue = Task.REMOVE_AND_GET_LS_ITEM.getTaskNameValue(event.buildBytes(true));
-        push(taskNameValue);
+        pushUnbatched(taskNameValue);
         if (holdPush.get() == 0) {
             pushWffBMBytesQueue();
         }
@@ -1825,7 +2495,7 @@ public abstract class BrowserPage implements Serializable {
             event.put("cb", BMValueType.BOOLEAN, true);
         }
         final NameValue taskNameValue = Task.CLEAR_LS.getTaskNameValue(event.buildBytes(true));
-        push(taskNameValue);
+        pushUnbatched(taskNameValue);
         if (holdPush.get() == 0) {
             pushWffBMBytesQueue();
         }
@@ -1852,7 +2522,7 @@ public abstract class BrowserPage implements Serializable {
                     if (child.getDataWffId() == null) {
                         child.setDataWffId(getNewDataWffId());
                     }
-                    tagByWffId.put(child.getDataWffId().getValue(), child);
+                    tagByWffId.put(child.getDataWffId(), child);
                 }
 
                 final Set<AbstractHtml> subChildren = child.getChildren(ACCESS_OBJECT);
@@ -1869,7 +2539,7 @@ public abstract class BrowserPage implements Serializable {
 
     private void embedWffScriptIfRequired(final AbstractHtml abstractHtml, final String wsUrlWithInstanceId) {
 
-        if (wffScriptTagId != null && tagByWffId.containsKey(wffScriptTagId.getValue())) {
+        if (wffScriptTagId != null && tagByWffId.get(wffScriptTagId) != null) {
             // no need to add script tag if it exists in the ui
             return;
         }
@@ -1892,12 +2562,23 @@ public abstract class BrowserPage implements Serializable {
         final int wsReconnectIntervalFinal = wsReconnectInterval;
         final int wsDefaultReconnectIntervalFinal = wsDefaultReconnectInterval;
 
-        final String wffJs = WffJsFile.getAllOptimizedContent(wsUrlWithInstanceId, getInstanceId(),
-                removePrevFromBrowserContextOnTabInit, removeFromBrowserContextOnTabClose,
-                (wsHeartbeatIntervalFinal > 0 ? wsHeartbeatIntervalFinal : wsDefaultHeartbeatIntervalFinal),
-                (wsHeartbeatTimeoutFinal > 0 ? wsHeartbeatTimeoutFinal : wsDefaultHeartbeatTimeoutFinal),
-                (wsReconnectIntervalFinal > 0 ? wsReconnectIntervalFinal : wsDefaultReconnectIntervalFinal),
-                autoremoveWffScript, losslessCommunication, onPayloadLossJS);
+        final String runtimeScriptPath = wffRuntimeScriptPath;
+
+        // only the page specific values are embedded if the runtime script is
+        // served separately
+        final String wffJs = runtimeScriptPath != null
+                ? WffJsFile.getBootstrapContent(wsUrlWithInstanceId, getInstanceId(),
+                        removePrevFromBrowserContextOnTabInit, removeFromBrowserContextOnTabClose,
+                        (wsHeartbeatIntervalFinal > 0 ? wsHeartbeatIntervalFinal : wsDefaultHeartbeatIntervalFinal),
+                        (wsHeartbeatTimeoutFinal > 0 ? wsHeartbeatTimeoutFinal : wsDefaultHeartbeatTimeoutFinal),
+                        (wsReconnectIntervalFinal > 0 ? wsReconnectIntervalFinal : wsDefaultReconnectIntervalFinal),
+                        autoremoveWffScript, losslessCommunication, onPayloadLossJS, pushCompression != null)
+                : WffJsFile.getAllOptimizedContent(wsUrlWithInstanceId, getInstanceId(),
+                        removePrevFromBrowserContextOnTabInit, removeFromBrowserContextOnTabClose,
+                        (wsHeartbeatIntervalFinal > 0 ? wsHeartbeatIntervalFinal : wsDefaultHeartbeatIntervalFinal),
+                        (wsHeartbeatTimeoutFinal > 0 ? wsHeartbeatTimeoutFinal : wsDefaultHeartbeatTimeoutFinal),
+                        (wsReconnectIntervalFinal > 0 ? wsReconnectIntervalFinal : wsDefaultReconnectIntervalFinal),
+                        autoremoveWffScript, losslessCommunication, onPayloadLossJS, pushCompression != null);
 
         if (enableDeferOnWffScript) {
             // byes are in UTF-8 so charset=utf-8 is explicitly
@@ -1918,7 +2599,32 @@ public abstract class BrowserPage implements Serializable {
         wffScriptTagId = script.getDataWffId();
 
         // ConcurrentHashMap cannot contain null as value
-        tagByWffId.put(wffScriptTagId.getValue(), script);
+        tagByWffId.put(wffScriptTagId, script);
+
+        if (runtimeScriptPath != null) {
+            // the runtime must be executed after the bootstrap script and before
+            // DOMContentLoaded so it is not async
+            final DataWffId prevRuntimeScriptTagId = wffRuntimeScriptTagId;
+            final AbstractHtml prevRuntimeScript = prevRuntimeScriptTagId != null
+                    ? tagByWffId.get(prevRuntimeScriptTagId)
+                    : null;
+            if (prevRuntimeScript != null && prevRuntimeScript.getParent() != null) {
+                // it must not be executed before the new bootstrap script
+                prevRuntimeScript.getParent().removeChildren(false, List.of(prevRuntimeScript));
+            }
+            final Script runtimeScript = new Script(null, new Type(Type.TEXT_JAVASCRIPT));
+            if (enableDeferOnWffScript) {
+                runtimeScript.addAttributes(new Defer(null));
+            }
+            runtimeScript.addAttributes(new Src(runtimeScriptPath + WffRuntimeScript.getFileName()),
+                    new CustomAttribute("integrity", WffRuntimeScript.getIntegrity()));
+            if (nonceForWffScriptTag != null) {
+                runtimeScript.addAttributes(nonceForWffScriptTag);
+            }
+            scriptHolderTag.addChild(ACCESS_OBJECT, runtimeScript, false);
+            wffRuntimeScriptTagId = runtimeScript.getDataWffId();
+            tagByWffId.put(wffRuntimeScriptTagId, runtimeScript);
+        }
     }
 
     private void addTagManipulationListener(final AbstractHtml abstractHtml) {
@@ -2348,7 +3054,8 @@ public abstract class BrowserPage implements Serializable {
                     }
                     renderInvoked = true;
                     beforeRender();
-                    rootTag = render();
+                    final TagLockPolicy tagLockPolicy = useTagLockPolicyPvt();
+                    rootTag = tagLockPolicy != null ? tagLockPolicy.build(this::render) : render();
                     if (rootTag == null) {
                         renderInvoked = false;
                         throw new NullValueException(
@@ -2359,6 +3066,14 @@ public abstract class BrowserPage implements Serializable {
                     addInnerHtmlsForURLChange(rootTag);
 
                     addDataWffIdAttribute(rootTag);
+
+                    final Set<String> tagIndexAttributeNames = useTagIndexAttributeNamesPvt();
+                    if (tagIndexAttributeNames != null) {
+                        // should be after adding data-wff-id attribute as the tags are
+                        // initially taken from tagByWffId
+                        rootTag.getSharedObject().initTagIndex(tagIndexAttributeNames, ACCESS_OBJECT);
+                    }
+
                     // attribute value change listener
                     // should be added only after adding data-wff-id attribute
                     addAttrValueChangeListener(rootTag);
@@ -2383,6 +3098,9 @@ public abstract class BrowserPage implements Serializable {
 
                     unholdPushLock.acquireUninterruptibly();
                     try {
+                        if (clientTasksBatcher != null) {
+                            clientTasksBatcher.clear();
+                        }
                         wffBMBytesQueue.clear();
                         pushQueueSize.reset();
                     } finally {
@@ -2398,6 +3116,9 @@ public abstract class BrowserPage implements Serializable {
 
             unholdPushLock.acquireUninterruptibly();
             try {
+                if (clientTasksBatcher != null) {
+                    clientTasksBatcher.clear();
+                }
                 wffBMBytesQueue.clear();
                 pushQueueSize.reset();
             } finally {
@@ -2515,7 +3236,7 @@ public abstract class BrowserPage implements Serializable {
      */
     public final void performBrowserPageAction(final ByteBuffer actionByteBuffer) {
         // actionByteBuffer is already prepended by payloadId placeholder
-        push(new ClientTasksWrapper(actionByteBuffer));
+        pushAfterBatch(new ClientTasksWrapper(actionByteBuffer));
         if (holdPush.get() == 0) {
             pushWffBMBytesQueue();
         }
@@ -2597,6 +3318,9 @@ public abstract class BrowserPage implements Serializable {
             if (count < 0) {
                 holdPush.incrementAndGet();
             } else {
+                if (count == 0) {
+                    flushPushBatch();
+                }
                 // count should be second checking
                 if (copyCachedBMBytesToMainQ() || count == 0) {
                     pushWffBMBytesQueue();
@@ -2605,6 +3329,18 @@ public abstract class BrowserPage implements Serializable {
         }
     }
 
+    /**
+     * @return the head of wffBMBytesHoldPushQueue or null if it is empty or if the
+     *         output buffer has no space for the spilled payload at its head.
+     * @since 12.0.13
+     */
+    private ClientTasksWrapper pollHoldPushQueue() {
+        if (wffBMBytesHoldPushQueue instanceof final SpillingClientTasksWrapperQueue spillingQueue) {
+            return spillingQueue.poll(outputBufferLimitLock != null ? outputBufferLimitLock::tryAcquire : null);
+        }
+        return wffBMBytesHoldPushQueue.poll();
+    }
+
     private boolean copyCachedBMBytesToMainQ() {
 
         boolean copied = false;
@@ -2614,7 +3350,7 @@ public abstract class BrowserPage implements Serializable {
 
             try {
 
-                ClientTasksWrapper clientTask = wffBMBytesHoldPushQueue.poll();
+                ClientTasksWrapper clientTask = pollHoldPushQueue();
 
                 if (clientTask != null) {
 
@@ -2638,7 +3374,7 @@ public abstract class BrowserPage implements Serializable {
                             clientTask.nullifyTasks();
                         }
 
-                        clientTask = wffBMBytesHoldPushQueue.poll();
+                        clientTask = pollHoldPushQueue();
                     } while (clientTask != null);
 
                     final byte[][] values = new byte[wffBMs.size()][0];
@@ -2646,13 +3382,15 @@ public abstract class BrowserPage implements Serializable {
                     int index = 0;
                     for (final ByteBuffer eachWffBM : wffBMs) {
                         values[index] = removePayloadIdPlaceholder(eachWffBM);
+                        if (payloadBufferPool != null) {
+                            payloadBufferPool.release(eachWffBM);
+                        }
                         index++;
                     }
 
                     invokeMultipleTasks.setValues(values);
 
-                    final ByteBuffer payload = buildPayload(
-                            WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(invokeMultipleTasks));
+                    final ByteBuffer payload = buildPayload(invokeMultipleTasks);
 
                     // no need to call outputBufferLimitLock.tryAcquire as its caller methods do
                     // this locking
@@ -2730,6 +3468,12 @@ public abstract class BrowserPage implements Serializable {
         // NB: should not write compute intensive code when removed is false
         wsWarningDisabled = removed;
         if (removed) {
+            if (wffBMBytesHoldPushQueue instanceof final SpillingClientTasksWrapperQueue spillingQueue) {
+                spillingQueue.close();
+            }
+            if (taskFromClientQ instanceof final ExternalDriveSegmentedByteArrayQueue segmentedQ) {
+                segmentedQ.close();
+            }
             removedFromContext();
         }
     }
@@ -2987,6 +3731,12 @@ public abstract class BrowserPage implements Serializable {
                         wffScript.addAttributes(nonceForWffScriptTag);
                     }
                 }
+                if (wffRuntimeScriptTagId != null) {
+                    final AbstractHtml[] ownerTags = wffRuntimeScriptTagId.getOwnerTags();
+                    if (ownerTags.length > 0) {
+                        ownerTags[0].addAttributes(nonceForWffScriptTag);
+                    }
+                }
             } else {
                 nonceForWffScriptTag.setValue(value);
             }
@@ -2998,6 +3748,12 @@ public abstract class BrowserPage implements Serializable {
                     wffScript.removeAttributes(nonceForWffScriptTag);
                 }
             }
+            if (wffRuntimeScriptTagId != null && nonceForWffScriptTag != null) {
+                final AbstractHtml[] ownerTags = wffRuntimeScriptTagId.getOwnerTags();
+                if (ownerTags.length > 0) {
+                    ownerTags[0].removeAttributes(nonceForWffScriptTag);
+                }
+            }
             nonceForWffScriptTag = null;
         }
 
@@ -3446,6 +4202,294 @@ public abstract class BrowserPage implements Serializable {
         return defaultSettings;
     }
 
+    private PushBatching usePushBatchingPvt() {
+        try {
+            return usePushBatching();
+        } catch (final RuntimeException e) {
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.log(Level.SEVERE,
+                        "Exception while invoking the overridden usePushBatching method so push batching will be disabled",
+                        e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Override and return an object of {@code PushBatching} to enable push
+     * batching for this browserPage instance. Eg:
+     *
+     * <pre><code>
+     * &#64;Override
+     * protected PushBatching usePushBatching() {
+     *     return new PushBatching(500, 65536, 16);
+     * }
+     * </code></pre>
+     *
+     * @return the PushBatching object or null to disable push batching. By
+     *         default, it returns null.
+     * @since 12.0.13
+     */
+    protected PushBatching usePushBatching() {
+        return null;
+    }
+
+    private PushSpill usePushSpillPvt() {
+        try {
+            return usePushSpill();
+        } catch (final RuntimeException e) {
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.log(Level.SEVERE,
+                        "Exception while invoking the overridden usePushSpill method so the held payloads will be kept in the heap",
+                        e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Override and return an object of {@code PushSpill} to spill the held
+     * payloads and the payloads exceeding the output buffer limit to a memory
+     * mapped file. Eg:
+     *
+     * <pre><code>
+     * &#64;Override
+     * protected PushSpill usePushSpill() {
+     *     // 1MB in heap and 16MB in the file
+     *     return new PushSpill(1024 * 1024, 16 * 1024 * 1024);
+     * }
+     * </code></pre>
+     *
+     * @return the PushSpill object or null to keep the payloads only in the heap.
+     *         By default, it returns null.
+     * @since 12.0.13
+     */
+    protected PushSpill usePushSpill() {
+        return null;
+    }
+
+    private String useWffRuntimeScriptPathPvt() {
+        try {
+            return useWffRuntimeScriptPath();
+        } catch (final RuntimeException e) {
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.log(Level.SEVERE,
+                        "Exception while invoking the overridden useWffRuntimeScriptPath method so the wff script will be embedded in the page",
+                        e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Override and return the path where the app serves the
+     * {@link WffRuntimeScript}. If it is given, the page embeds only a small
+     * bootstrap script having its own values and a script tag whose src is
+     * this path followed by {@link WffRuntimeScript#getFileName()}, otherwise
+     * the whole wff script is embedded in each page. The runtime script is
+     * common for all pages so the browser can cache it. Eg:
+     *
+     * <pre><code>
+     * &#64;Override
+     * protected String useWffRuntimeScriptPath() {
+     *     return "/assets/js/";
+     * }
+     * </code></pre>
+     *
+     * @return the path, it must end with / if it is a directory, or null to
+     *         embed the whole wff script in the page. By default, it returns
+     *         null.
+     * @since 12.0.13
+     */
+    protected String useWffRuntimeScriptPath() {
+        return null;
+    }
+
+    private PushCompression usePushCompressionPvt() {
+        try {
+            return usePushCompression();
+        } catch (final RuntimeException e) {
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.log(Level.SEVERE,
+                        "Exception while invoking the overridden usePushCompression method so the payloads will not be compressed",
+                        e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Override and return an object of {@code PushCompression} to compress the
+     * payloads pushed to the client. Eg:
+     *
+     * <pre><code>
+     * &#64;Override
+     * protected PushCompression usePushCompression() {
+     *     return new PushCompression();
+     * }
+     * </code></pre>
+     *
+     * @return the PushCompression object or null to push the payloads without
+     *         compression. By default, it returns null.
+     * @since 12.0.13
+     */
+    protected PushCompression usePushCompression() {
+        return null;
+    }
+
+    private ParallelEventDispatch useParallelEventDispatchPvt() {
+        try {
+            return useParallelEventDispatch();
+        } catch (final RuntimeException e) {
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.log(Level.SEVERE,
+                        "Exception while invoking the overridden useParallelEventDispatch method so the events will be executed one by one",
+                        e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Override and return an object of {@code ParallelEventDispatch} to execute
+     * the events from the client concurrently if they have different ordering
+     * keys. Eg:
+     *
+     * <pre><code>
+     * &#64;Override
+     * protected ParallelEventDispatch useParallelEventDispatch() {
+     *     // the events of the same tag are executed in order
+     *     return new ParallelEventDispatch();
+     * }
+     * </code></pre>
+     *
+     * The {@code ServerMethod} implementations must be thread-safe when it is
+     * enabled. If the executor rejects the events of an ordering key, eg: it is
+     * shut down or its queue is full, they are executed in the thread which
+     * received them, i.e. the WebSocket thread, so the further events wait for
+     * them as if it is not enabled. Such a rejection is logged as a warning, the
+     * executor should be sized to not reject them.
+     *
+     * @return the ParallelEventDispatch object or null to execute the events one
+     *         by one. By default, it returns null.
+     * @since 12.0.13
+     */
+    protected ParallelEventDispatch useParallelEventDispatch() {
+        return null;
+    }
+
+    private PayloadBufferPool usePayloadBufferPoolPvt() {
+        try {
+            return usePayloadBufferPool();
+        } catch (final RuntimeException e) {
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.log(Level.SEVERE,
+                        "Exception while invoking the overridden usePayloadBufferPool method so payload buffers will not be pooled",
+                        e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Override and return an object of {@code PayloadBufferPool} to build the
+     * payloads pushed to the client in pooled buffers. The buffer of a payload is
+     * returned to the pool once it is pushed so the {@code WebSocketPushListener}
+     * must not use the given buffer after its push method returns. The same pool
+     * object can be returned for all browserPage instances. Eg:
+     *
+     * <pre><code>
+     * private static final PayloadBufferPool BUFFER_POOL = new PayloadBufferPool(256, 65536, 64, 4);
+     *
+     * &#64;Override
+     * protected PayloadBufferPool usePayloadBufferPool() {
+     *     return BUFFER_POOL;
+     * }
+     * </code></pre>
+     *
+     * @return the PayloadBufferPool object or null to disable pooling. By
+     *         default, it returns null.
+     * @since 12.0.13
+     */
+    protected PayloadBufferPool usePayloadBufferPool() {
+        return null;
+    }
+
+    private TagLockPolicy useTagLockPolicyPvt() {
+        try {
+            return useTagLockPolicy();
+        } catch (final RuntimeException e) {
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.log(Level.SEVERE,
+                        "Exception while invoking the overridden useTagLockPolicy method so the default policy will be used",
+                        e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Override and return the lock policy for the tags created in the
+     * {@link BrowserPage#render()} method. If the render method returns a tag
+     * created outside of it, the tag will keep its own lock policy. Eg:
+     *
+     * <pre><code>
+     * &#64;Override
+     * protected TagLockPolicy useTagLockPolicy() {
+     *     // this page is mostly searched by TagRepository and rarely modified
+     *     return TagLockPolicy.OPTIMISTIC;
+     * }
+     * </code></pre>
+     *
+     * @return the lock policy or null to use
+     *         {@link WffConfiguration#getTagLockPolicy()}. By default, it returns
+     *         null.
+     * @since 12.0.13
+     */
+    protected TagLockPolicy useTagLockPolicy() {
+        return null;
+    }
+
+    private Set<String> useTagIndexAttributeNamesPvt() {
+        try {
+            return useTagIndexAttributeNames();
+        } catch (final RuntimeException e) {
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.log(Level.SEVERE,
+                        "Exception while invoking the overridden useTagIndexAttributeNames method so tag index will be disabled",
+                        e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Override and return the attribute names to enable the tag index for the
+     * tags of this browserPage instance. When it is enabled, the
+     * {@code TagRepository} methods {@code findTagById},
+     * {@code findTagsByAttribute}, {@code findOneTagByAttribute},
+     * {@code findTagsByTagName} and {@code findOneTagByTagName} will look up the
+     * index instead of scanning all tags. The id attribute and the tag name are
+     * always indexed, the returned attribute names are indexed in addition to it.
+     * The index is incrementally updated on each change in the tags so it costs a
+     * little on each modification of the tags. Eg:
+     *
+     * <pre><code>
+     * &#64;Override
+     * protected Set&lt;String&gt; useTagIndexAttributeNames() {
+     *     return Set.of(AttributeNameConstants.NAME);
+     * }
+     * </code></pre>
+     *
+     * @return the attribute names to index in addition to id attribute, an empty
+     *         set to index only the id attribute and tag name or null to disable
+     *         the tag index. By default, it returns null.
+     * @since 12.0.13
+     */
+    protected Set<String> useTagIndexAttributeNames() {
+        return null;
+    }
+
     /**
      * @return the Settings applied to this browserPage instance
      * @since 12.0.0-beta.8
@@ -3454,34 +4498,42 @@ public abstract class BrowserPage implements Serializable {
         return settings;
     }
 
-    private ByteBuffer buildPayload(final byte[] bmMsg) {
+    /**
+     * The placeholder for the payload id is reserved while building the wff binary
+     * message so the message bytes will not be copied again to prepend it.
+     *
+     * @param nameValues the name values of the task
+     * @return the payload to push
+     * @since 12.0.13
+     */
+    private ByteBuffer buildPayload(final NameValue... nameValues) {
+        final PayloadBufferPool bufferPool = payloadBufferPool;
+        if (bufferPool != null) {
+            return WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(
+                    onPayloadLoss != null ? PLACEHOLDER_BYTE_ARRAY_FOR_PAYLOAD_ID.length : 0, bufferPool::acquire,
+                    nameValues);
+        }
         if (onPayloadLoss != null) {
-            // 4 for id bytes
-            final ByteBuffer byteBuffer = ByteBuffer
-                    .allocate(bmMsg.length + PLACEHOLDER_BYTE_ARRAY_FOR_PAYLOAD_ID.length);
-            // bmMsg never starts with 0, if it starts with 0 it means it is already
-            // prepended by id placeholder
-            if (bmMsg[0] != 0) {
-                // placeholder for id bytes
-                byteBuffer.put(PLACEHOLDER_BYTE_ARRAY_FOR_PAYLOAD_ID);
-            }
-            byteBuffer.put(bmMsg);
-            byteBuffer.rewind();
-            return byteBuffer;
+            return ByteBuffer.wrap(WffBinaryMessageUtil.VERSION_1
+                    .getWffBinaryMessageBytes(PLACEHOLDER_BYTE_ARRAY_FOR_PAYLOAD_ID.length, nameValues));
         }
-
-        return ByteBuffer.wrap(bmMsg);
+        return ByteBuffer.wrap(WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues));
     }
 
     private byte[] removePayloadIdPlaceholder(final ByteBuffer bmMsg) {
         final byte[] array = bmMsg.array();
+        // the array of a pooled buffer may be larger than the message
+        final int capacity = bmMsg.capacity();
         if (onPayloadLoss != null) {
-            final byte[] bmMsgWithoutId = new byte[array.length - PLACEHOLDER_BYTE_ARRAY_FOR_PAYLOAD_ID.length];
-            System.arraycopy(array, PLACEHOLDER_BYTE_ARRAY_FOR_PAYLOAD_ID.length, bmMsgWithoutId, 0,
-                    bmMsgWithoutId.length);
+            final byte[] bmMsgWithoutId = new byte[capacity - PLACEHOLDER_BYTE_ARRAY_FOR_PAYLOAD_ID.length];
+            System.arraycopy(array, bmMsg.arrayOffset() + PLACEHOLDER_BYTE_ARRAY_FOR_PAYLOAD_ID.length,
+                    bmMsgWithoutId, 0, bmMsgWithoutId.length);
             bmMsg.position(PLACEHOLDER_BYTE_ARRAY_FOR_PAYLOAD_ID.length);
             return bmMsgWithoutId;
         }
+        if (array.length != capacity || payloadBufferPool != null) {
+            return Arrays.copyOfRange(array, bmMsg.arrayOffset(), bmMsg.arrayOffset() + capacity);
+        }
         return array;
     }
 
@@ -3510,6 +4562,12 @@ public abstract class BrowserPage implements Serializable {
         }
     }
 
+    private void rollbackServerSidePayloadIds(final int count) {
+        for (int i = 0; i < count; i++) {
+            rollbackServerSidePayloadId();
+        }
+    }
+
     private int getClientSidePayloadId() {
         int id = clientSidePayloadIdGenerator.incrementAndGet();
         if (id == 0) {
@@ -17,13 +17,11 @@ package com.webfirmframework.wffweb.server.page;
 
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
-import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
@@ -55,33 +53,29 @@ public enum BrowserPageContext {
     private static volatile boolean DEBUG_MODE = false;
 
     /**
-     * key httpSessionId, value : BrowserPageSessionImpl
+     * the precision of the idle time based expiry
      */
-    private final Map<String, BrowserPageSessionWrapper> httpSessionIdSession;
+    private static final long EXPIRY_WHEEL_TICK_MILLIS = 1000;
 
     /**
-     * key:- unique id for BrowserPage (AKA wff instance id in terms of wff) value:-
-     * BrowserPage
+     * the auto clean runs in every maxIdleTimeout / AUTO_CLEAN_DIVISOR as it
+     * visits only the expired objects.
      */
-    private final Map<String, BrowserPage> instanceIdBrowserPage;
+    private static final int AUTO_CLEAN_DIVISOR = 4;
 
     /**
-     * key:- unique id for BrowserPage (AKA wff instance id in terms of wff) value:-
-     * BrowserPage this is only for websocket open close handling
+     * the sessions and browser pages are distributed to the shards by the hash of
+     * httpSessionId and instance id respectively.
      */
-    private final Map<String, BrowserPage> instanceIdBPForWS;
+    private final Shard[] shards;
 
-    /**
-     * key:- unique id for AbstractBrowserPage (AKA wff instance id in terms of wff)
-     * value:- httpSessionId
-     */
-    private final Map<String, String> instanceIdHttpSessionId;
+    private final int shardMask;
 
     private transient ScheduledExecutorService scheduledExecutorService;
 
     private transient ScheduledFuture<?> autoCleanScheduled;
 
-    transient volatile MinIntervalExecutor autoCleanTaskExecutor;
+    private transient volatile AutoClean autoClean;
 
     private transient final ReferenceQueue<BrowserPage> browserPageRQ;
 
@@ -106,16 +100,121 @@ public enum BrowserPageContext {
         }
     }
 
+    /**
+     * Note: Only for internal use. The browserPage and its httpSessionId are kept in
+     * a single entry so that they are looked up by one map operation.
+     *
+     * @since 12.0.13
+     */
+    private static final class InstanceEntry {
+
+        private final BrowserPage browserPage;
+
+        private final String httpSessionId;
+
+        /**
+         * true if the websocket is opened for the browserPage, it is only for
+         * websocket open close handling
+         */
+        private volatile boolean wsOpened;
+
+        private InstanceEntry(final BrowserPage browserPage, final String httpSessionId) {
+            this.browserPage = browserPage;
+            this.httpSessionId = httpSessionId;
+        }
+    }
+
+    /**
+     * @param taskExecutor   the executor of the clean task
+     * @param maxIdleTimeout the maxIdleTimeout given in the enableAutoClean method
+     * @since 12.0.13
+     */
+    private record AutoClean(MinIntervalExecutor taskExecutor, long maxIdleTimeout) {
+    }
+
+    /**
+     * Note: Only for internal use.
+     *
+     * @since 12.0.13
+     */
+    private static final class Shard {
+
+        /**
+         * key httpSessionId, value : BrowserPageSessionWrapper
+         */
+        private final Map<String, BrowserPageSessionWrapper> sessions = new ConcurrentHashMap<>();
+
+        /**
+         * key:- unique id for BrowserPage (AKA wff instance id in terms of wff) value:-
+         * InstanceEntry
+         */
+        private final Map<String, InstanceEntry> instances = new ConcurrentHashMap<>();
+
+        private final IdleTimingWheel sessionExpiryWheel = new IdleTimingWheel(EXPIRY_WHEEL_TICK_MILLIS);
+
+        private final IdleTimingWheel instanceExpiryWheel = new IdleTimingWheel(EXPIRY_WHEEL_TICK_MILLIS);
+    }
+
     BrowserPageContext() {
-        httpSessionIdSession = new ConcurrentHashMap<>();
-        instanceIdBrowserPage = new ConcurrentHashMap<>();
-        instanceIdBPForWS = new ConcurrentHashMap<>();
-        instanceIdHttpSessionId = new ConcurrentHashMap<>();
+        // power of 2 to use mask instead of modulo
+        final int shardCount = Integer.highestOneBit(Math.max(16, Runtime.getRuntime().availableProcessors() * 4));
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+        shardMask = shardCount - 1;
         browserPageRQ = new ReferenceQueue<>();
 
         initConfig();
     }
 
+    private Shard shard(final String key) {
+        final int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & shardMask];
+    }
+
+    private BrowserPageSessionWrapper getSessionWrapper(final String httpSessionId) {
+        return shard(httpSessionId).sessions.get(httpSessionId);
+    }
+
+    private BrowserPageSessionWrapper computeSessionWrapper(final String httpSessionId) {
+        final Shard shard = shard(httpSessionId);
+        final AtomicBoolean computed = new AtomicBoolean();
+        final BrowserPageSessionWrapper sessionWrapper = shard.sessions.computeIfAbsent(httpSessionId, key -> {
+            computed.set(true);
+            return new BrowserPageSessionWrapper(httpSessionId);
+        });
+        if (computed.get()) {
+            shard.sessionExpiryWheel.schedule(sessionWrapper.lastClientAccessedTime, httpSessionId);
+            shard.sessionExpiryWheel.purgeIfOversized(shard.sessions.size(), shard.sessions::containsKey);
+        }
+        return sessionWrapper;
+    }
+
+    private InstanceEntry getInstanceEntry(final String instanceId) {
+        return shard(instanceId).instances.get(instanceId);
+    }
+
+    /**
+     * @param instanceId
+     * @return the removed entry or null
+     */
+    private InstanceEntry removeInstanceEntry(final String instanceId) {
+        return shard(instanceId).instances.remove(instanceId);
+    }
+
+    private static void informRemoved(final BrowserPage bp) {
+        try {
+            bp.informRemovedFromContext(true);
+        } catch (final Throwable e) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "The overridden method BrowserPage#removedFromContext threw an exception.",
+                        e);
+            }
+        }
+        bp.clearWSListeners();
+    }
+
     private void initConfig() {
         Runtime.getRuntime().addShutdownHook(new Thread(this::triggeredJVMShutdown));
     }
@@ -124,10 +223,13 @@ public enum BrowserPageContext {
         // write all tasks to be executed on JVM shutdown
         runGCTasksForBrowserPage();
 
-        for (final BrowserPage browserPage : instanceIdBrowserPage.values()) {
-            final String externalDrivePath = browserPage.getExternalDrivePath();
-            if (externalDrivePath != null) {
-                FileUtil.removeDirRecursively(externalDrivePath, browserPage.getInstanceId());
+        for (final Shard shard : shards) {
+            for (final InstanceEntry instanceEntry : shard.instances.values()) {
+                final BrowserPage browserPage = instanceEntry.browserPage;
+                final String externalDrivePath = browserPage.getExternalDrivePath();
+                if (externalDrivePath != null) {
+                    FileUtil.removeDirRecursively(externalDrivePath, browserPage.getInstanceId());
+                }
             }
         }
     }
@@ -142,8 +244,7 @@ public enum BrowserPageContext {
      */
     public BrowserPageSession addBrowserPage(final String httpSessionId, final BrowserPage browserPage) {
 
-        final BrowserPageSessionWrapper sessionWrapper = httpSessionIdSession.computeIfAbsent(httpSessionId,
-                key -> new BrowserPageSessionWrapper(httpSessionId));
+        final BrowserPageSessionWrapper sessionWrapper = computeSessionWrapper(httpSessionId);
 
         final Map<String, BrowserPage> browserPages = sessionWrapper.browserPages;
 
@@ -153,8 +254,11 @@ public enum BrowserPageContext {
             return browserPage;
         });
         if (computed.get()) {
-            instanceIdBrowserPage.put(browserPage.getInstanceId(), browserPage);
-            instanceIdHttpSessionId.put(browserPage.getInstanceId(), httpSessionId);
+            final String instanceId = browserPage.getInstanceId();
+            final Shard shard = shard(instanceId);
+            shard.instances.put(instanceId, new InstanceEntry(browserPage, httpSessionId));
+            shard.instanceExpiryWheel.schedule(browserPage.getLastClientAccessedTime(), instanceId);
+            shard.instanceExpiryWheel.purgeIfOversized(shard.instances.size(), shard.instances::containsKey);
             browserPage.informRemovedFromContext(false);
             browserPage.setSession(sessionWrapper.session);
         }
@@ -178,7 +282,7 @@ public enum BrowserPageContext {
      */
     public BrowserPage getBrowserPage(final String httpSessionId, final String instanceId) {
 
-        final BrowserPageSessionWrapper sessionWrapper = httpSessionIdSession.get(httpSessionId);
+        final BrowserPageSessionWrapper sessionWrapper = getSessionWrapper(httpSessionId);
         if (sessionWrapper != null) {
             final Map<String, BrowserPage> browserPages = sessionWrapper.browserPages;
             return browserPages.get(instanceId);
@@ -204,17 +308,15 @@ public enum BrowserPageContext {
      */
     public BrowserPage getBrowserPageIfValid(final String httpSessionId, final String instanceId) {
 
-        final BrowserPageSessionWrapper sessionWrapper = httpSessionIdSession.get(httpSessionId);
+        final BrowserPageSessionWrapper sessionWrapper = getSessionWrapper(httpSessionId);
         if (sessionWrapper != null) {
             final Map<String, BrowserPage> browserPages = sessionWrapper.browserPages;
             final BrowserPage browserPage = browserPages.get(instanceId);
             if (browserPage != null) {
-                final MinIntervalExecutor autoCleanTaskExecutor = this.autoCleanTaskExecutor;
-                if (autoCleanTaskExecutor != null) {
-                    if ((System.currentTimeMillis() - browserPage.getLastClientAccessedTime()) >= autoCleanTaskExecutor
-                            .minInterval()) {
-                        return null;
-                    }
+                final long maxIdleTimeout = autoCleanMaxIdleTimeout();
+                if (maxIdleTimeout > 0
+                        && (System.currentTimeMillis() - browserPage.getLastClientAccessedTime()) >= maxIdleTimeout) {
+                    return null;
                 }
                 return browserPage;
             }
@@ -235,7 +337,8 @@ public enum BrowserPageContext {
      * @since 2.0.0
      */
     public BrowserPage getBrowserPage(final String instanceId) {
-        return instanceIdBrowserPage.get(instanceId);
+        final InstanceEntry instanceEntry = getInstanceEntry(instanceId);
+        return instanceEntry != null ? instanceEntry.browserPage : null;
     }
 
     /**
@@ -256,14 +359,12 @@ public enum BrowserPageContext {
      * @since 3.0.16
      */
     public BrowserPage getBrowserPageIfValid(final String instanceId) {
-        final BrowserPage browserPage = instanceIdBrowserPage.get(instanceId);
+        final BrowserPage browserPage = getBrowserPage(instanceId);
         if (browserPage != null) {
-            final MinIntervalExecutor autoCleanTaskExecutor = this.autoCleanTaskExecutor;
-            if (autoCleanTaskExecutor != null) {
-                if ((System.currentTimeMillis() - browserPage.getLastClientAccessedTime()) >= autoCleanTaskExecutor
-                        .minInterval()) {
-                    return null;
-                }
+            final long maxIdleTimeout = autoCleanMaxIdleTimeout();
+            if (maxIdleTimeout > 0
+                    && (System.currentTimeMillis() - browserPage.getLastClientAccessedTime()) >= maxIdleTimeout) {
+                return null;
             }
         }
         return browserPage;
@@ -280,7 +381,7 @@ public enum BrowserPageContext {
      */
     public Map<String, BrowserPage> getBrowserPages(final String httpSessionId) {
 
-        final BrowserPageSessionWrapper sessionWrapper = httpSessionIdSession.get(httpSessionId);
+        final BrowserPageSessionWrapper sessionWrapper = getSessionWrapper(httpSessionId);
         if (sessionWrapper != null) {
             return Map.copyOf(sessionWrapper.browserPages);
         }
@@ -314,21 +415,21 @@ public enum BrowserPageContext {
      */
     public WebSocketOpenedRecord webSocketOpened(final String wffInstanceId) {
 
-        final String httpSessionId = instanceIdHttpSessionId.get(wffInstanceId);
+        final InstanceEntry instanceEntry = getInstanceEntry(wffInstanceId);
 
-        if (httpSessionId != null) {
-            final BrowserPageSessionWrapper sessionWrapper = httpSessionIdSession.get(httpSessionId);
+        if (instanceEntry != null) {
+            final String httpSessionId = instanceEntry.httpSessionId;
+            final BrowserPageSessionWrapper sessionWrapper = getSessionWrapper(httpSessionId);
             if (sessionWrapper != null) {
-                final Map<String, BrowserPage> browserPages = sessionWrapper.browserPages;
-                final BrowserPage browserPage = browserPages.get(wffInstanceId);
+                final BrowserPage browserPage = instanceEntry.browserPage;
                 final long currentTimeMillis = System.currentTimeMillis();
                 final BrowserPage validBrowserPage;
-                if (browserPage != null) {
+                if (sessionWrapper.browserPages.get(wffInstanceId) == browserPage) {
                     if (isInvalidBrowserPage(browserPage, currentTimeMillis)) {
                         validBrowserPage = null;
                     } else {
                         validBrowserPage = browserPage;
-                        instanceIdBPForWS.put(browserPage.getInstanceId(), browserPage);
+                        instanceEntry.wsOpened = true;
                         browserPage.setLastClientAccessedTime(currentTimeMillis);
                     }
                 } else {
@@ -355,10 +456,8 @@ public enum BrowserPageContext {
      */
     private boolean isInvalidBrowserPage(final BrowserPage browserPage, final long currentTimeMillis) {
         if (browserPage.onInitialClientPingInvoked) {
-            final MinIntervalExecutor autoCleanTaskExecutor = this.autoCleanTaskExecutor;
-            if (autoCleanTaskExecutor != null
-                    && (currentTimeMillis - browserPage.getLastClientAccessedTime()) >= autoCleanTaskExecutor
-                            .minInterval()) {
+            final long maxIdleTimeout = autoCleanMaxIdleTimeout();
+            if (maxIdleTimeout > 0 && (currentTimeMillis - browserPage.getLastClientAccessedTime()) >= maxIdleTimeout) {
                 return true;
             }
         }
@@ -388,21 +487,21 @@ public enum BrowserPageContext {
         // NB: not directly saving computeHeartbeatManager to avoid GC prevention as it
         // is an external object which could have dependency over its outer class.
 
-        final String httpSessionId = instanceIdHttpSessionId.get(wffInstanceId);
+        final InstanceEntry instanceEntry = getInstanceEntry(wffInstanceId);
 
-        if (httpSessionId != null) {
-            final BrowserPageSessionWrapper sessionWrapper = httpSessionIdSession.get(httpSessionId);
+        if (instanceEntry != null) {
+            final String httpSessionId = instanceEntry.httpSessionId;
+            final BrowserPageSessionWrapper sessionWrapper = getSessionWrapper(httpSessionId);
             if (sessionWrapper != null) {
-                final Map<String, BrowserPage> browserPages = sessionWrapper.browserPages;
-                final BrowserPage browserPage = browserPages.get(wffInstanceId);
+                final BrowserPage browserPage = instanceEntry.browserPage;
                 final long currentTimeMillis = System.currentTimeMillis();
                 final BrowserPage validBrowserPage;
-                if (browserPage != null) {
+                if (sessionWrapper.browserPages.get(wffInstanceId) == browserPage) {
                     if (isInvalidBrowserPage(browserPage, currentTimeMillis)) {
                         validBrowserPage = null;
                     } else {
                         validBrowserPage = browserPage;
-                        instanceIdBPForWS.put(browserPage.getInstanceId(), browserPage);
+                        instanceEntry.wsOpened = true;
                         browserPage.setLastClientAccessedTime(currentTimeMillis);
                     }
                 } else {
@@ -431,10 +530,10 @@ public enum BrowserPageContext {
      */
     public void removeBrowserPage(final String wffInstanceId) {
 
-        final String httpSessionId = instanceIdHttpSessionId.get(wffInstanceId);
+        final InstanceEntry instanceEntry = getInstanceEntry(wffInstanceId);
 
-        if (httpSessionId != null) {
-            final BrowserPageSessionWrapper sessionWrapper = httpSessionIdSession.get(httpSessionId);
+        if (instanceEntry != null) {
+            final BrowserPageSessionWrapper sessionWrapper = getSessionWrapper(instanceEntry.httpSessionId);
             if (sessionWrapper != null) {
                 final Map<String, BrowserPage> browserPages = sessionWrapper.browserPages;
 
@@ -445,18 +544,8 @@ public enum BrowserPageContext {
                 });
                 final BrowserPage bp = bpRef.get();
                 if (bp != null) {
-                    instanceIdHttpSessionId.remove(wffInstanceId);
-                    instanceIdBrowserPage.remove(wffInstanceId);
-                    instanceIdBPForWS.remove(wffInstanceId);
-                    try {
-                        bp.informRemovedFromContext(true);
-                    } catch (final Throwable e) {
-                        if (LOGGER.isLoggable(Level.WARNING)) {
-                            LOGGER.log(Level.WARNING,
-                                    "The overridden method BrowserPage#removedFromContext threw an exception.", e);
-                        }
-                    }
-                    bp.clearWSListeners();
+                    removeInstanceEntry(wffInstanceId);
+                    informRemoved(bp);
                 }
             }
         }
@@ -475,99 +564,147 @@ public enum BrowserPageContext {
      *                       session. It should be greater than the minInterval
      *                       given in the {@code HeartbeatManager}.
      * @since 3.0.16
+     * @since 12.0.13 only the objects which might have been idle for the given
+     *        {@code maxIdleTimeout} are visited instead of all objects.
      */
     public void clean(final long maxIdleTimeout) {
 
         final long currentTime = System.currentTimeMillis();
+        final long maxTime = currentTime - maxIdleTimeout;
+
+        // browser pages should be cleaned before sessions as the expiry of the
+        // heartbeatManager of a session depends on its browser pages
+        for (final Shard shard : shards) {
+            for (final String instanceId : shard.instanceExpiryWheel.advance(maxTime)) {
+                cleanInstance(shard, instanceId, currentTime, maxIdleTimeout);
+            }
+        }
 
-        final Queue<String> expiredHttpSessionIds = new ArrayDeque<>();
+        for (final Shard shard : shards) {
+            for (final String httpSessionId : shard.sessionExpiryWheel.advance(maxTime)) {
+                cleanSession(shard, httpSessionId, currentTime, maxIdleTimeout);
+            }
+        }
 
-        for (final Entry<String, BrowserPageSessionWrapper> entry : httpSessionIdSession.entrySet()) {
+        runGCTasksForBrowserPage();
+    }
 
-            final String httpSessionId = entry.getKey();
+    /**
+     * removes the browserPage if it is expired otherwise reschedules its expiry.
+     *
+     * @param shard          the shard of the instance id
+     * @param instanceId     the instance id of the browserPage
+     * @param currentTime
+     * @param maxIdleTimeout
+     * @since 12.0.13
+     */
+    private void cleanInstance(final Shard shard, final String instanceId, final long currentTime,
+            final long maxIdleTimeout) {
 
-            final BrowserPageSessionWrapper sessionWrapper = entry.getValue();
+        final InstanceEntry instanceEntry = shard.instances.get(instanceId);
+        if (instanceEntry == null) {
+            // already removed
+            return;
+        }
 
-            final HeartbeatManager heartbeatManager = sessionWrapper.heartbeatManagerRef.get();
+        final BrowserPage browserPage = instanceEntry.browserPage;
+        final BrowserPageSessionWrapper sessionWrapper = getSessionWrapper(instanceEntry.httpSessionId);
 
-            if (heartbeatManager == null || heartbeatManager.minInterval() < maxIdleTimeout) {
+        final boolean expired;
+        if (sessionWrapper != null && sessionWrapper.browserPages.get(instanceId) == browserPage) {
 
-                final Map<String, BrowserPage> browserPages = sessionWrapper.browserPages;
+            final HeartbeatManager heartbeatManager = sessionWrapper.heartbeatManagerRef.get();
+            if (heartbeatManager != null && heartbeatManager.minInterval() >= maxIdleTimeout) {
+                shard.instanceExpiryWheel.schedule(currentTime, instanceId);
+                return;
+            }
 
-                final List<String> expiredWffInstanceIds = new LinkedList<>();
-                boolean hbmExpired = true;
-                for (final Entry<String, BrowserPage> bpEntry : browserPages.entrySet()) {
-                    final long lastClientAccessedTime = bpEntry.getValue().getLastClientAccessedTime();
-                    sessionWrapper.lastClientAccessedTime = Math.max(lastClientAccessedTime,
-                            sessionWrapper.lastClientAccessedTime);
-                    if ((currentTime - lastClientAccessedTime) < maxIdleTimeout) {
-                        if (hbmExpired) {
-                            hbmExpired = false;
-                        }
-                    } else {
-                        expiredWffInstanceIds.add(bpEntry.getKey());
-                    }
+            final AtomicReference<BrowserPage> bpRef = new AtomicReference<>();
+            sessionWrapper.browserPages.computeIfPresent(instanceId, (k, bp) -> {
+                final long lastClientAccessedTime = bp.getLastClientAccessedTime();
+                sessionWrapper.lastClientAccessedTime = Math.max(lastClientAccessedTime,
+                        sessionWrapper.lastClientAccessedTime);
+                if ((currentTime - lastClientAccessedTime) >= maxIdleTimeout) {
+                    bpRef.set(bp);
+                    return null;
                 }
+                return bp;
+            });
+            expired = bpRef.get() != null;
+        } else {
+            // its session is already removed
+            expired = (currentTime - browserPage.getLastClientAccessedTime()) >= maxIdleTimeout;
+        }
 
-                for (final String wffInstanceId : expiredWffInstanceIds) {
-                    final AtomicReference<BrowserPage> bpRef = new AtomicReference<>();
-                    browserPages.computeIfPresent(wffInstanceId, (k, bp) -> {
-                        final long lastClientAccessedTime = bp.getLastClientAccessedTime();
-                        sessionWrapper.lastClientAccessedTime = Math.max(lastClientAccessedTime,
-                                sessionWrapper.lastClientAccessedTime);
-                        if ((currentTime - lastClientAccessedTime) >= maxIdleTimeout) {
-                            bpRef.set(bp);
-                            return null;
-                        }
-                        return bp;
-                    });
-                    final BrowserPage bp = bpRef.get();
-                    if (bp != null) {
-                        instanceIdHttpSessionId.remove(wffInstanceId);
-                        instanceIdBrowserPage.remove(wffInstanceId);
-                        instanceIdBPForWS.remove(wffInstanceId);
-                        try {
-                            bp.informRemovedFromContext(true);
-                        } catch (final Throwable e) {
-                            if (LOGGER.isLoggable(Level.WARNING)) {
-                                LOGGER.log(Level.WARNING,
-                                        "The overridden method BrowserPage#removedFromContext threw an exception.", e);
-                            }
-                        }
-                        bp.clearWSListeners();
-                    }
-                }
+        if (expired) {
+            if (shard.instances.remove(instanceId, instanceEntry)) {
+                informRemoved(browserPage);
+            }
+        } else {
+            shard.instanceExpiryWheel.schedule(browserPage.getLastClientAccessedTime(), instanceId);
+        }
+    }
+
+    /**
+     * removes the session if it is expired otherwise reschedules its expiry.
+     *
+     * @param shard          the shard of the httpSessionId
+     * @param httpSessionId
+     * @param currentTime
+     * @param maxIdleTimeout
+     * @since 12.0.13
+     */
+    private void cleanSession(final Shard shard, final String httpSessionId, final long currentTime,
+            final long maxIdleTimeout) {
 
-                if (hbmExpired) {
-                    // to atomically remove hbm if expired
-                    sessionWrapper.heartbeatManagerRef.updateAndGet(hbm -> {
-                        if (hbm != null && (currentTime - hbm.getLastAccessedTime()) >= maxIdleTimeout
-                                && hbm.minInterval() < maxIdleTimeout) {
-                            return null;
-                        }
+        final BrowserPageSessionWrapper sessionWrapper = shard.sessions.get(httpSessionId);
+        if (sessionWrapper == null) {
+            // already removed
+            return;
+        }
 
-                        return hbm;
-                    });
-                }
+        final HeartbeatManager heartbeatManager = sessionWrapper.heartbeatManagerRef.get();
+
+        if (heartbeatManager == null || heartbeatManager.minInterval() < maxIdleTimeout) {
 
+            boolean hbmExpired = true;
+            for (final BrowserPage browserPage : sessionWrapper.browserPages.values()) {
+                final long lastClientAccessedTime = browserPage.getLastClientAccessedTime();
+                sessionWrapper.lastClientAccessedTime = Math.max(lastClientAccessedTime,
+                        sessionWrapper.lastClientAccessedTime);
+                if ((currentTime - lastClientAccessedTime) < maxIdleTimeout) {
+                    hbmExpired = false;
+                }
             }
 
-            if (maxIdleTimeout > 0 && (currentTime - sessionWrapper.lastClientAccessedTime) >= maxIdleTimeout) {
-                expiredHttpSessionIds.add(httpSessionId);
+            if (hbmExpired) {
+                // to atomically remove hbm if expired
+                sessionWrapper.heartbeatManagerRef.updateAndGet(hbm -> {
+                    if (hbm != null && (currentTime - hbm.getLastAccessedTime()) >= maxIdleTimeout
+                            && hbm.minInterval() < maxIdleTimeout) {
+                        return null;
+                    }
+
+                    return hbm;
+                });
             }
         }
 
-        String expiredHttpSessionId;
-        while ((expiredHttpSessionId = expiredHttpSessionIds.poll()) != null) {
-            httpSessionIdSession.computeIfPresent(expiredHttpSessionId, (k, v) -> {
+        if (maxIdleTimeout > 0 && (currentTime - sessionWrapper.lastClientAccessedTime) >= maxIdleTimeout) {
+            final AtomicBoolean removed = new AtomicBoolean();
+            shard.sessions.computeIfPresent(httpSessionId, (k, v) -> {
                 if ((currentTime - v.lastClientAccessedTime) >= maxIdleTimeout) {
+                    removed.set(true);
                     return null;
                 }
                 return v;
             });
+            if (removed.get()) {
+                return;
+            }
         }
 
-        runGCTasksForBrowserPage();
+        shard.sessionExpiryWheel.schedule(sessionWrapper.lastClientAccessedTime, httpSessionId);
     }
 
     private void runGCTasksForBrowserPage() {
@@ -614,12 +751,15 @@ public enum BrowserPageContext {
      *                       milliseconds if the session tracking is enabled and the
      *                       app depends on the session tracking.
      * @since 3.0.16
+     * @since 12.0.13 the clean operation may run up to four times in the
+     *        {@code maxIdleTimeout} as it visits only the expired objects.
      */
     public void enableAutoClean(final long maxIdleTimeout) {
         if (maxIdleTimeout <= 0) {
             throw new InvalidValueException("maxIdleTimeout must be greater than 0");
         }
-        autoCleanTaskExecutor = new MinIntervalExecutor(maxIdleTimeout, () -> clean(maxIdleTimeout));
+        autoClean = new AutoClean(new MinIntervalExecutor(autoCleanInterval(maxIdleTimeout), () -> clean(maxIdleTimeout)),
+                maxIdleTimeout);
     }
 
     /**
@@ -641,19 +781,42 @@ public enum BrowserPageContext {
      *                       obtained to run the clean process.
      * @since 3.0.16
      * @since 3.0.18 bug fix
+     * @since 12.0.13 the clean operation may run up to four times in the
+     *        {@code maxIdleTimeout} as it visits only the expired objects.
      */
     public void enableAutoClean(final long maxIdleTimeout, final Executor executor) {
         if (maxIdleTimeout <= 0) {
             throw new InvalidValueException("maxIdleTimeout must be greater than 0");
         }
-        autoCleanTaskExecutor = new MinIntervalExecutor(executor, maxIdleTimeout, () -> clean(maxIdleTimeout));
+        autoClean = new AutoClean(
+                new MinIntervalExecutor(executor, autoCleanInterval(maxIdleTimeout), () -> clean(maxIdleTimeout)),
+                maxIdleTimeout);
+    }
+
+    /**
+     * @param maxIdleTimeout
+     * @return the min interval between two auto clean runs
+     * @since 12.0.13
+     */
+    private static long autoCleanInterval(final long maxIdleTimeout) {
+        return Math.max(EXPIRY_WHEEL_TICK_MILLIS, maxIdleTimeout / AUTO_CLEAN_DIVISOR);
+    }
+
+    /**
+     * @return the maxIdleTimeout given in the {@code enableAutoClean} method or 0
+     *         if the auto clean is disabled.
+     * @since 12.0.13
+     */
+    long autoCleanMaxIdleTimeout() {
+        final AutoClean autoClean = this.autoClean;
+        return autoClean != null ? autoClean.maxIdleTimeout : 0;
     }
 
     /**
      * @since 3.0.16
      */
     public void disableAutoClean() {
-        autoCleanTaskExecutor = null;
+        autoClean = null;
     }
 
     /**
@@ -661,7 +824,7 @@ public enum BrowserPageContext {
      * @since 3.0.16
      */
     public boolean isAutoCleanEnabled() {
-        return autoCleanTaskExecutor != null;
+        return autoClean != null;
     }
 
     /**
@@ -674,9 +837,9 @@ public enum BrowserPageContext {
      */
     public void runAutoClean() {
         runGCTasksForBrowserPage();
-        final MinIntervalExecutor autoCleanTaskExecutor = this.autoCleanTaskExecutor;
-        if (autoCleanTaskExecutor != null) {
-            autoCleanTaskExecutor.runAsync();
+        final AutoClean autoClean = this.autoClean;
+        if (autoClean != null) {
+            autoClean.taskExecutor.runAsync();
         }
     }
 
@@ -727,18 +890,15 @@ public enum BrowserPageContext {
      */
     public HeartbeatManager getHeartbeatManagerForHttpSession(final String httpSessionId) {
 
-        final BrowserPageSessionWrapper sessionWrapper = httpSessionIdSession.get(httpSessionId);
+        final BrowserPageSessionWrapper sessionWrapper = getSessionWrapper(httpSessionId);
         if (sessionWrapper != null) {
             return sessionWrapper.heartbeatManagerRef.updateAndGet(hbm -> {
                 if (hbm != null) {
-                    final MinIntervalExecutor autoCleanTaskExecutor = this.autoCleanTaskExecutor;
+                    final long maxIdleTimeout = autoCleanMaxIdleTimeout();
                     final long currentTime = System.currentTimeMillis();
-                    if (autoCleanTaskExecutor != null) {
-                        final long maxIdleTimeout = autoCleanTaskExecutor.minInterval();
-                        if ((currentTime - hbm.getLastAccessedTime()) >= maxIdleTimeout
-                                && hbm.minInterval() < maxIdleTimeout) {
-                            return null;
-                        }
+                    if (maxIdleTimeout > 0 && (currentTime - hbm.getLastAccessedTime()) >= maxIdleTimeout
+                            && hbm.minInterval() < maxIdleTimeout) {
+                        return null;
                     }
                     hbm.setLastAccessedTime(currentTime);
                 }
@@ -761,9 +921,9 @@ public enum BrowserPageContext {
      * @since 3.0.16
      */
     public HeartbeatManager getHeartbeatManagerForBrowserPage(final String wffInstanceId) {
-        final String httpSessionId = instanceIdHttpSessionId.get(wffInstanceId);
-        if (httpSessionId != null) {
-            return getHeartbeatManagerForHttpSession(httpSessionId);
+        final InstanceEntry instanceEntry = getInstanceEntry(wffInstanceId);
+        if (instanceEntry != null) {
+            return getHeartbeatManagerForHttpSession(instanceEntry.httpSessionId);
         }
         return null;
     }
@@ -781,15 +941,17 @@ public enum BrowserPageContext {
      * @since 2.1.0
      */
     public BrowserPage webSocketClosed(final String wffInstanceId, final String sessionId) {
-        final BrowserPage bp = instanceIdBPForWS.get(wffInstanceId);
-        if (bp != null) {
+        final InstanceEntry instanceEntry = getInstanceEntry(wffInstanceId);
+        if (instanceEntry != null && instanceEntry.wsOpened) {
+            final BrowserPage bp = instanceEntry.browserPage;
             bp.removeWebSocketPushListener(sessionId);
             if (bp.getWsListener() == null) {
-                instanceIdBPForWS.remove(wffInstanceId);
+                instanceEntry.wsOpened = false;
             }
+            return bp;
         }
 
-        return bp;
+        return null;
     }
 
     /**
@@ -803,24 +965,14 @@ public enum BrowserPageContext {
     public void httpSessionClosed(final String httpSessionId) {
 
         if (httpSessionId != null) {
-            final BrowserPageSessionWrapper sessionWrapper = httpSessionIdSession.remove(httpSessionId);
+            final BrowserPageSessionWrapper sessionWrapper = shard(httpSessionId).sessions.remove(httpSessionId);
             if (sessionWrapper != null) {
                 final Map<String, BrowserPage> browserPages = sessionWrapper.browserPages;
 
                 for (final String instanceId : browserPages.keySet()) {
-                    instanceIdHttpSessionId.remove(instanceId);
-                    final BrowserPage removedBrowserPage = instanceIdBrowserPage.remove(instanceId);
-                    instanceIdBPForWS.remove(instanceId);
-                    if (removedBrowserPage != null) {
-                        try {
-                            removedBrowserPage.informRemovedFromContext(true);
-                        } catch (final Throwable e) {
-                            if (LOGGER.isLoggable(Level.WARNING)) {
-                                LOGGER.log(Level.WARNING,
-                                        "The overridden method BrowserPage#removedFromContext threw an exception.", e);
-                            }
-                        }
-                        removedBrowserPage.clearWSListeners();
+                    final InstanceEntry removedEntry = removeInstanceEntry(instanceId);
+                    if (removedEntry != null) {
+                        informRemoved(removedEntry.browserPage);
                     }
                 }
                 browserPages.clear();
@@ -847,7 +999,7 @@ public enum BrowserPageContext {
      */
     public BrowserPage webSocketMessaged(final String wffInstanceId, final byte[] message) {
 
-        final BrowserPage browserPage = instanceIdBrowserPage.get(wffInstanceId);
+        final BrowserPage browserPage = getBrowserPage(wffInstanceId);
 
         if (browserPage != null) {
             browserPage.webSocketMessaged(message);
@@ -868,9 +1020,11 @@ public enum BrowserPageContext {
      */
     void removeBrowserPage(final String callerInstanceId, final String instanceId) {
 
-        final String callerHttpSessionId = instanceIdHttpSessionId.get(callerInstanceId);
+        final InstanceEntry callerInstanceEntry = getInstanceEntry(callerInstanceId);
+        final String callerHttpSessionId = callerInstanceEntry != null ? callerInstanceEntry.httpSessionId : null;
 
-        final String httpSessionId = instanceIdHttpSessionId.get(instanceId);
+        final InstanceEntry instanceEntry = getInstanceEntry(instanceId);
+        final String httpSessionId = instanceEntry != null ? instanceEntry.httpSessionId : null;
 
         if (httpSessionId != null) {
             // this is a security checking
@@ -879,7 +1033,7 @@ public enum BrowserPageContext {
             // otherwise it's considered as a hacking.
             if (httpSessionId.equals(callerHttpSessionId)) {
 
-                final BrowserPageSessionWrapper sessionWrapper = httpSessionIdSession.get(httpSessionId);
+                final BrowserPageSessionWrapper sessionWrapper = getSessionWrapper(httpSessionId);
 
                 if (sessionWrapper != null) {
                     final Map<String, BrowserPage> browserPages = sessionWrapper.browserPages;
@@ -892,18 +1046,8 @@ public enum BrowserPageContext {
                     });
                     final BrowserPage bp = bpRef.get();
                     if (bp != null) {
-                        instanceIdBrowserPage.remove(instanceId);
-                        instanceIdHttpSessionId.remove(instanceId);
-                        instanceIdBPForWS.remove(instanceId);
-                        try {
-                            bp.informRemovedFromContext(true);
-                        } catch (final Throwable e) {
-                            if (LOGGER.isLoggable(Level.WARNING)) {
-                                LOGGER.log(Level.WARNING,
-                                        "The overridden method BrowserPage#removedFromContext threw an exception.", e);
-                            }
-                        }
-                        bp.clearWSListeners();
+                        removeInstanceEntry(instanceId);
+                        informRemoved(bp);
                     }
                 }
             } else {
@@ -929,7 +1073,7 @@ public enum BrowserPageContext {
         if (browserPage == null) {
             throw new NullValueException("browserPage instance cannot be null");
         }
-        return browserPage.equals(instanceIdBrowserPage.get(browserPage.getInstanceId()));
+        return browserPage.equals(getBrowserPage(browserPage.getInstanceId()));
     }
 
     /**
@@ -958,15 +1102,13 @@ public enum BrowserPageContext {
         if (browserPage.hasHitBufferOutOfMemory()) {
             return false;
         }
-        final MinIntervalExecutor autoCleanTaskExecutor = this.autoCleanTaskExecutor;
-        if (autoCleanTaskExecutor != null) {
-            if ((System.currentTimeMillis() - browserPage.getLastClientAccessedTime()) >= autoCleanTaskExecutor
-                    .minInterval()) {
-                return false;
-            }
+        final long maxIdleTimeout = autoCleanMaxIdleTimeout();
+        if (maxIdleTimeout > 0
+                && (System.currentTimeMillis() - browserPage.getLastClientAccessedTime()) >= maxIdleTimeout) {
+            return false;
         }
 
-        return browserPage.equals(instanceIdBrowserPage.get(browserPage.getInstanceId()));
+        return browserPage.equals(getBrowserPage(browserPage.getInstanceId()));
     }
 
     /**
@@ -991,7 +1133,7 @@ public enum BrowserPageContext {
      * @since 12.0.0-beta.4
      */
     public BrowserPageSession getSession(final String httpSessionId) {
-        final BrowserPageSessionWrapper sessionWrapper = httpSessionIdSession.get(httpSessionId);
+        final BrowserPageSessionWrapper sessionWrapper = getSessionWrapper(httpSessionId);
         if (sessionWrapper != null) {
             return sessionWrapper.session;
         }
@@ -1006,10 +1148,9 @@ public enum BrowserPageContext {
      */
     public BrowserPageSession getSession(final String httpSessionId, final boolean create) {
         if (create) {
-            return httpSessionIdSession.computeIfAbsent(httpSessionId,
-                    key -> new BrowserPageSessionWrapper(httpSessionId)).session;
+            return computeSessionWrapper(httpSessionId).session;
         }
-        final BrowserPageSessionWrapper sessionWrapper = httpSessionIdSession.get(httpSessionId);
+        final BrowserPageSessionWrapper sessionWrapper = getSessionWrapper(httpSessionId);
         if (sessionWrapper != null) {
             return sessionWrapper.session;
         }
@@ -1026,9 +1167,9 @@ public enum BrowserPageContext {
     }
 
     BrowserPageSessionImpl getSessionImplByInstanceId(final String instanceId) {
-        final String httpSessionId = instanceIdHttpSessionId.get(instanceId);
-        if (httpSessionId != null) {
-            final BrowserPageSessionWrapper sessionWrapper = httpSessionIdSession.get(httpSessionId);
+        final InstanceEntry instanceEntry = getInstanceEntry(instanceId);
+        if (instanceEntry != null) {
+            final BrowserPageSessionWrapper sessionWrapper = getSessionWrapper(instanceEntry.httpSessionId);
             if (sessionWrapper != null) {
                 return sessionWrapper.session;
             }
@@ -1041,7 +1182,11 @@ public enum BrowserPageContext {
      * @since 12.0.0-beta.4
      */
     public Set<String> getSessionIds() {
-        return Set.copyOf(httpSessionIdSession.keySet());
+        final Collection<String> sessionIds = new ArrayList<>();
+        for (final Shard shard : shards) {
+            sessionIds.addAll(shard.sessions.keySet());
+        }
+        return Set.copyOf(sessionIds);
     }
 
     /**
@@ -1050,8 +1195,10 @@ public enum BrowserPageContext {
      */
     public Set<BrowserPageSession> getSessions() {
         final Collection<BrowserPageSession> sessions = new LinkedList<>();
-        for (final BrowserPageSessionWrapper each : httpSessionIdSession.values()) {
-            sessions.add(each.session);
+        for (final Shard shard : shards) {
+            for (final BrowserPageSessionWrapper each : shard.sessions.values()) {
+                sessions.add(each.session);
+            }
         }
         return Set.copyOf(sessions);
     }
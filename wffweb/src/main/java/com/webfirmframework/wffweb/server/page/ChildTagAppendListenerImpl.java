@@ -21,7 +21,6 @@ import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.LinkedHashSet;
-import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -30,6 +29,7 @@ import com.webfirmframework.wffweb.InvalidTagException;
 import com.webfirmframework.wffweb.MethodNotImplementedException;
 import com.webfirmframework.wffweb.internal.security.object.SecurityObject;
 import com.webfirmframework.wffweb.internal.server.page.js.WffJsFile;
+import com.webfirmframework.wffweb.internal.tag.html.TagByWffIdMap;
 import com.webfirmframework.wffweb.internal.tag.html.listener.ChildTagAppendListener;
 import com.webfirmframework.wffweb.tag.html.AbstractHtml;
 import com.webfirmframework.wffweb.tag.html.TagUtil;
@@ -48,7 +48,7 @@ public final class ChildTagAppendListenerImpl implements ChildTagAppendListener
 
     private final BrowserPage browserPage;
 
-    private final Map<String, AbstractHtml> tagByWffId;
+    private final TagByWffIdMap tagByWffId;
 
     @SuppressWarnings("unused")
     private ChildTagAppendListenerImpl() {
@@ -56,7 +56,7 @@ public final class ChildTagAppendListenerImpl implements ChildTagAppendListener
     }
 
     ChildTagAppendListenerImpl(final BrowserPage browserPage, final SecurityObject accessObject,
-            final Map<String, AbstractHtml> tagByWffId) {
+            final TagByWffIdMap tagByWffId) {
         this.browserPage = browserPage;
         this.accessObject = accessObject;
         this.tagByWffId = tagByWffId;
@@ -83,7 +83,7 @@ public final class ChildTagAppendListenerImpl implements ChildTagAppendListener
                         if (child.getDataWffId() == null) {
                             child.setDataWffId(browserPage.getNewDataWffId());
                         }
-                        tagByWffId.put(child.getDataWffId().getValue(), child);
+                        tagByWffId.put(child.getDataWffId(), child);
                     }
 
                     final Set<AbstractHtml> subChildren = child.getChildren(accessObject);
@@ -156,7 +156,7 @@ public final class ChildTagAppendListenerImpl implements ChildTagAppendListener
                     if (child.getDataWffId() == null) {
                         child.setDataWffId(browserPage.getNewDataWffId());
                     }
-                    tagByWffId.put(child.getDataWffId().getValue(), child);
+                    tagByWffId.put(child.getDataWffId(), child);
                 }
 
                 final Set<AbstractHtml> subChildren = child.getChildren(accessObject);
@@ -245,7 +245,7 @@ public final class ChildTagAppendListenerImpl implements ChildTagAppendListener
                     final DataWffId wffIdAttr = child.getDataWffId();
 
                     if (wffIdAttr != null) {
-                        tagByWffId.put(wffIdAttr.getValue(), child);
+                        tagByWffId.put(wffIdAttr, child);
                     }
                 }
 
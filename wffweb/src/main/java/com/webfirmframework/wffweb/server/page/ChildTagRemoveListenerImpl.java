@@ -18,11 +18,11 @@ package com.webfirmframework.wffweb.server.page;
 import java.io.Serial;
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
 
 import com.webfirmframework.wffweb.internal.security.object.SecurityObject;
+import com.webfirmframework.wffweb.internal.tag.html.TagByWffIdMap;
 import com.webfirmframework.wffweb.internal.tag.html.listener.ChildTagRemoveListener;
 import com.webfirmframework.wffweb.tag.html.AbstractHtml;
 import com.webfirmframework.wffweb.tag.html.html5.attribute.global.DataWffId;
@@ -39,7 +39,7 @@ public final class ChildTagRemoveListenerImpl implements ChildTagRemoveListener
 
     private final SecurityObject accessObject;
 
-    private final Map<String, AbstractHtml> tagByWffId;
+    private final TagByWffIdMap tagByWffId;
 
     @SuppressWarnings("unused")
     private ChildTagRemoveListenerImpl() {
@@ -47,7 +47,7 @@ public final class ChildTagRemoveListenerImpl implements ChildTagRemoveListener
     }
 
     ChildTagRemoveListenerImpl(final BrowserPage browserPage, final SecurityObject accessObject,
-            final Map<String, AbstractHtml> tagByWffId) {
+            final TagByWffIdMap tagByWffId) {
         this.browserPage = browserPage;
         this.accessObject = accessObject;
         this.tagByWffId = tagByWffId;
@@ -66,12 +66,7 @@ public final class ChildTagRemoveListenerImpl implements ChildTagRemoveListener
 
                     final DataWffId dataWffId = child.getDataWffId();
                     if (dataWffId != null) {
-                        tagByWffId.computeIfPresent(dataWffId.getValue(), (k, v) -> {
-                            if (child.equals(v)) {
-                                return null;
-                            }
-                            return v;
-                        });
+                        tagByWffId.removeTag(dataWffId, child);
                     }
 
                     final Set<AbstractHtml> subChildren = child.getChildren(accessObject);
@@ -0,0 +1,264 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.webfirmframework.wffweb.util.data.NameValue;
+
+/**
+ * Accumulates the task NameValues of {@code BrowserPage#push} within a batching
+ * window so that they can be sent as a single {@code TASK_OF_TASKS} payload. A
+ * task added with a supersede key replaces the previously added task having the
+ * same key in the same batch.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+final class ClientTasksBatcher {
+
+    /**
+     * the task is added to the existing batch
+     */
+    static final int ADDED = 0;
+
+    /**
+     * the task is added as the first task of a new batch, a timed flush should be
+     * scheduled for this batch.
+     */
+    static final int ADDED_AS_FIRST = 1;
+
+    /**
+     * the task is added and the batch has reached its size limit, it should be
+     * flushed.
+     */
+    static final int LIMIT_REACHED = 2;
+
+    // approximate overhead of a name value in the wff binary message
+    private static final int NAME_VALUE_OVERHEAD = 8;
+
+    private final int maxTasks;
+
+    private final int maxBytes;
+
+    // NB: ReentrantLock is used instead of synchronized block to support virtual
+    // threads, fair may be false
+    private final Lock lock = new ReentrantLock(false);
+
+    // a superseded task will be null
+    private final List<NameValue[]> tasks = new ArrayList<>();
+
+    private final Map<String, Integer> taskIndexBySupersedeKey = new HashMap<>();
+
+    private int taskCount;
+
+    private int totalBytes;
+
+    private long batchId;
+
+    // the drained batches are pushed outside the lock, in the order of these
+    // tickets, so that a push waiting for the output buffer does not block the
+    // threads adding tasks
+    private final Lock turnLock = new ReentrantLock(false);
+
+    private final Condition turnChanged = turnLock.newCondition();
+
+    private long nextTicket;
+
+    private long servedTicket;
+
+    /**
+     * @param maxTasks the maximum number of tasks in a batch, a value &lt;= 0
+     *                 represents no limit.
+     * @param maxBytes the maximum approximate number of bytes in a batch, a value
+     *                 &lt;= 0 represents no limit.
+     */
+    ClientTasksBatcher(final int maxTasks, final int maxBytes) {
+        this.maxTasks = maxTasks;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the lock to be held while draining the batch and taking its ticket
+     *         by {@link #takeTicket()}.
+     */
+    Lock lock() {
+        return lock;
+    }
+
+    /**
+     * should be called while holding {@link #lock()}, the returned ticket must be
+     * completed by {@link #completeTurn()} after {@link #awaitTurn(long)}.
+     *
+     * @return the ticket for the push of the drained batch.
+     */
+    long takeTicket() {
+        lock.lock();
+        try {
+            final long ticket = nextTicket;
+            nextTicket++;
+            return ticket;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * waits until the pushes of all the tickets taken before the given ticket are
+     * completed.
+     *
+     * @param ticket the ticket returned by {@link #takeTicket()}
+     */
+    void awaitTurn(final long ticket) {
+        turnLock.lock();
+        try {
+            while (servedTicket != ticket) {
+                // uninterruptible as a skipped ticket would block all further pushes
+                turnChanged.awaitUninterruptibly();
+            }
+        } finally {
+            turnLock.unlock();
+        }
+    }
+
+    /**
+     * completes the turn of the current ticket, should be called in a finally
+     * block after {@link #awaitTurn(long)}.
+     */
+    void completeTurn() {
+        turnLock.lock();
+        try {
+            servedTicket++;
+            turnChanged.signalAll();
+        } finally {
+            turnLock.unlock();
+        }
+    }
+
+    /**
+     * @param supersedeKey the key to identify a task which makes the previous task
+     *                     with the same key obsolete, or null if it cannot be
+     *                     superseded.
+     * @param nameValues   the task
+     * @return {@link #ADDED}, {@link #ADDED_AS_FIRST} or {@link #LIMIT_REACHED}
+     */
+    int add(final String supersedeKey, final NameValue... nameValues) {
+        lock.lock();
+        try {
+            final boolean first = tasks.isEmpty();
+
+            if (supersedeKey != null) {
+                final Integer previousIndex = taskIndexBySupersedeKey.put(supersedeKey, tasks.size());
+                if (previousIndex != null) {
+                    final NameValue[] previous = tasks.set(previousIndex, null);
+                    if (previous != null) {
+                        taskCount--;
+                        totalBytes -= estimateBytes(previous);
+                    }
+                }
+            }
+
+            tasks.add(nameValues);
+            taskCount++;
+            totalBytes += estimateBytes(nameValues);
+
+            if ((maxTasks > 0 && taskCount >= maxTasks) || (maxBytes > 0 && totalBytes >= maxBytes)) {
+                return LIMIT_REACHED;
+            }
+            return first ? ADDED_AS_FIRST : ADDED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the id of the current batch.
+     */
+    long batchId() {
+        lock.lock();
+        try {
+            return batchId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the live tasks of the current batch in the order or null if the
+     *         batch is empty. A new batch will be started after this call.
+     */
+    NameValue[][] drain() {
+        lock.lock();
+        try {
+            if (taskCount == 0) {
+                resetLockless();
+                return null;
+            }
+            final NameValue[][] drained = new NameValue[taskCount][];
+            int index = 0;
+            for (final NameValue[] task : tasks) {
+                if (task != null) {
+                    drained[index] = task;
+                    index++;
+                }
+            }
+            resetLockless();
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * discards the current batch.
+     */
+    void clear() {
+        lock.lock();
+        try {
+            resetLockless();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resetLockless() {
+        if (!tasks.isEmpty()) {
+            batchId++;
+        }
+        tasks.clear();
+        taskIndexBySupersedeKey.clear();
+        taskCount = 0;
+        totalBytes = 0;
+    }
+
+    private static int estimateBytes(final NameValue[] nameValues) {
+        int bytes = 0;
+        for (final NameValue nameValue : nameValues) {
+            bytes += NAME_VALUE_OVERHEAD + nameValue.getName().length;
+            for (final byte[] value : nameValue.getValues()) {
+                bytes += value.length;
+            }
+        }
+        return bytes;
+    }
+
+}
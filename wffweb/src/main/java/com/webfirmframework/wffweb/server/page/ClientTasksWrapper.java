@@ -64,12 +64,19 @@ public final class ClientTasksWrapper {
      * @param taskLength the length of the nullifying task at the given index
      * @param tasks      the tasks to nullify at given index
      * @param index      the index where to nullify
+     * @param bufferPool   the pool to which the nullified task has to be
+     *                     returned, or null if pooling is disabled.
      * @since 12.0.0-beta.8
+     * @since 12.0.13 bufferPool param is added.
      */
-    void nullifyTask(final int taskLength, final AtomicReferenceArray<ByteBuffer> tasks, final int index) {
+    void nullifyTask(final int taskLength, final AtomicReferenceArray<ByteBuffer> tasks, final int index,
+            final PayloadBufferPool bufferPool) {
         // tasks should be passed from argument as the instance tasks may be nullified
         // by other thread at any time
-        tasks.set(index, null);
+        final ByteBuffer task = tasks.getAndSet(index, null);
+        if (bufferPool != null) {
+            bufferPool.release(task);
+        }
         // should be locally initialized first
         final int sizeLocal = currentSize;
         currentSize = sizeLocal - taskLength;
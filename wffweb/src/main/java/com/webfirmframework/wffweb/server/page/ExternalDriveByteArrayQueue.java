@@ -35,7 +35,8 @@ import com.webfirmframework.wffweb.util.FileUtil;
 /**
  * Note: Designed only for {@code BrowserPage} requirements, all methods are not
  * implemented and some methods are partially implemented just to satisfy the
- * requirement.
+ * requirement. It creates and deletes a file per message so
+ * {@code BrowserPage} uses {@link ExternalDriveSegmentedByteArrayQueue} instead.
  *
  * @author WFF
  * @since 3.0.18
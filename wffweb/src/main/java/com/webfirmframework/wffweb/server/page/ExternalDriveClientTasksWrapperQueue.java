@@ -20,6 +20,7 @@ import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -238,7 +239,10 @@ class ExternalDriveClientTasksWrapperQueue implements Queue<ClientTasksWrapper>
         final byte[][] byteArrayTasks = new byte[length][0];
 
         for (int i = 0; i < length; i++) {
-            byteArrayTasks[i] = tasks.get(i).array();
+            final ByteBuffer task = tasks.get(i);
+            // the array of a pooled buffer may be larger than the task
+            byteArrayTasks[i] = task.array().length == task.capacity() ? task.array()
+                    : Arrays.copyOfRange(task.array(), task.arrayOffset(), task.arrayOffset() + task.capacity());
         }
 
         final Path filePath = Paths.get(basePath, dirName, subDirName, fileNamePrefix + id + fileNameSuffix);
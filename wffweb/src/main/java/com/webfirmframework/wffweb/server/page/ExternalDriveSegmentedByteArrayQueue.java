@@ -0,0 +1,443 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.webfirmframework.wffweb.InvalidValueException;
+import com.webfirmframework.wffweb.MethodNotImplementedException;
+import com.webfirmframework.wffweb.util.FileUtil;
+
+/**
+ * An append-only log of {@code byte[]} records stored in pre-allocated,
+ * memory-mapped segment files. Each record is written as a 4 bytes length
+ * prefix followed by the bytes of the record. A fully consumed segment is
+ * recycled for the upcoming writes instead of being deleted so there will be
+ * no file create/delete per message as in the deprecated
+ * {@link ExternalDriveByteArrayQueue}.
+ * <br>
+ * Note: Designed only for {@code BrowserPage} requirements, all methods are not
+ * implemented and some methods are partially implemented just to satisfy the
+ * requirement.
+ *
+ * @author WFF
+ * @since 12.0.13
+ *
+ */
+class ExternalDriveSegmentedByteArrayQueue implements Queue<byte[]> {
+
+    private static final Logger LOGGER = Logger.getLogger(ExternalDriveSegmentedByteArrayQueue.class.getName());
+
+    private static final String fileNamePrefix = "segment-";
+
+    private static final String fileNameSuffix = ".wff.log";
+
+    // 1024 * 1024 = 1048576 i.e. 1MB, it is the default inputBufferLimit in
+    // BrowserPage.Settings
+    static final int DEFAULT_SEGMENT_SIZE = 1048576;
+
+    static final int DEFAULT_MAX_IDLE_SEGMENTS = 2;
+
+    private static final int RECORD_HEADER_LENGTH = 4;
+
+    private final AtomicLong readCount = new AtomicLong();
+
+    private final AtomicLong writeCount = new AtomicLong();
+
+    private final AtomicLong segmentIdGenerator = new AtomicLong();
+
+    // NB: ReentrantLock is used instead of synchronized block to support virtual
+    // threads
+    private final Lock writeLock = new ReentrantLock(false);
+
+    private final Lock readLock = new ReentrantLock(false);
+
+    // segments in the order of writing, the first one is the segment currently
+    // being read and the last one is the segment currently being written
+    private final Deque<Segment> segments = new ConcurrentLinkedDeque<>();
+
+    // accessed only under idleSegmentsLock
+    private final Deque<Segment> idleSegments = new ArrayDeque<>();
+
+    private final Lock idleSegmentsLock = new ReentrantLock(false);
+
+    private final String basePath;
+
+    private final String dirName;
+
+    private final String subDirName;
+
+    private final int segmentSize;
+
+    private final int maxIdleSegments;
+
+    private static final class Segment {
+
+        private final Path path;
+
+        // nullified on close so that the mapping is not reachable from this queue
+        private MappedByteBuffer buffer;
+
+        private final boolean oversized;
+
+        // accessed only under writeLock
+        private int writePosition;
+
+        // accessed only under readLock
+        private int readPosition;
+
+        // -1 means the segment is still open for writing
+        private volatile int sealedLimit = -1;
+
+        private Segment(final Path path, final int size, final boolean oversized) throws IOException {
+            this.path = path;
+            this.oversized = oversized;
+            // the mapping stays valid after closing the channel so the channel is
+            // closed right after mapping, no file descriptor is held per segment
+            try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // mapping the channel with the given size pre-allocates the file
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        }
+
+        private int remaining() {
+            return buffer.capacity() - writePosition;
+        }
+
+        private void reset() {
+            writePosition = 0;
+            readPosition = 0;
+            sealedLimit = -1;
+        }
+
+        private void close() {
+            // there is no API to unmap, the mapping is released when the buffer is
+            // GCd
+            buffer = null;
+            try {
+                Files.deleteIfExists(path);
+            } catch (final IOException e) {
+                // the mapped file may not be deletable on some OS until the buffer is GCd
+                path.toFile().deleteOnExit();
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.log(Level.FINE, "Unable to delete the segment file, it will be deleted on exit.", e);
+                }
+            }
+        }
+    }
+
+    ExternalDriveSegmentedByteArrayQueue(final String basePath, final String dirName, final String subDirName)
+            throws IOException {
+        this(basePath, dirName, subDirName, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_IDLE_SEGMENTS);
+    }
+
+    /**
+     * @param basePath        the base path
+     * @param dirName         the directory name under base path
+     * @param subDirName      the sub directory name under dirName
+     * @param segmentSize     the size of each segment file in bytes. A record
+     *                        bigger than this size will be written to a
+     *                        separate oversized segment which will not be
+     *                        recycled.
+     * @param maxIdleSegments the maximum number of consumed segments to keep for
+     *                        reuse.
+     * @throws IOException if the directory structure could not be created.
+     */
+    ExternalDriveSegmentedByteArrayQueue(final String basePath, final String dirName, final String subDirName,
+            final int segmentSize, final int maxIdleSegments) throws IOException {
+        if (segmentSize <= RECORD_HEADER_LENGTH) {
+            throw new InvalidValueException("segmentSize must be greater than " + RECORD_HEADER_LENGTH);
+        }
+        this.basePath = basePath;
+        this.dirName = dirName;
+        this.subDirName = subDirName;
+        this.segmentSize = segmentSize;
+        this.maxIdleSegments = maxIdleSegments;
+        createInitialDirStructure();
+        segments.add(newSegment(segmentSize, false));
+    }
+
+    private boolean createInitialDirStructure() throws IOException {
+        final Path dirPath = Paths.get(basePath, dirName, subDirName);
+        if (Files.notExists(dirPath)) {
+            Files.createDirectories(dirPath);
+            return true;
+        }
+        return false;
+    }
+
+    private Segment newSegment(final int size, final boolean oversized) throws IOException {
+        final Path filePath = Paths.get(basePath, dirName, subDirName,
+                fileNamePrefix + segmentIdGenerator.incrementAndGet() + fileNameSuffix);
+        return new Segment(filePath, size, oversized);
+    }
+
+    private Segment takeSegment(final int recordLength) throws IOException {
+        if (recordLength > segmentSize) {
+            return newSegment(recordLength, true);
+        }
+        idleSegmentsLock.lock();
+        try {
+            final Segment idleSegment = idleSegments.poll();
+            if (idleSegment != null) {
+                return idleSegment;
+            }
+        } finally {
+            idleSegmentsLock.unlock();
+        }
+        return newSegment(segmentSize, false);
+    }
+
+    private void recycle(final Segment segment) {
+        if (!segment.oversized) {
+            idleSegmentsLock.lock();
+            try {
+                if (idleSegments.size() < maxIdleSegments) {
+                    segment.reset();
+                    idleSegments.offer(segment);
+                    return;
+                }
+            } finally {
+                idleSegmentsLock.unlock();
+            }
+        }
+        segment.close();
+    }
+
+    /**
+     * Deletes all segment files of this queue, the queue will not accept any
+     * further record after this call. Called when the owning {@code BrowserPage}
+     * is removed from the context.
+     */
+    void close() {
+        writeLock.lock();
+        readLock.lock();
+        try {
+            Segment segment;
+            while ((segment = segments.poll()) != null) {
+                segment.close();
+            }
+            idleSegmentsLock.lock();
+            try {
+                while ((segment = idleSegments.poll()) != null) {
+                    segment.close();
+                }
+            } finally {
+                idleSegmentsLock.unlock();
+            }
+            readCount.set(writeCount.get());
+        } finally {
+            readLock.unlock();
+            writeLock.unlock();
+        }
+    }
+
+    void deleteBaseDirStructure() {
+        close();
+        FileUtil.removeDirRecursively(basePath, dirName);
+    }
+
+    @Override
+    public boolean offer(final byte[] bytes) {
+        final int recordLength = RECORD_HEADER_LENGTH + bytes.length;
+
+        writeLock.lock();
+        try {
+            Segment segment = segments.peekLast();
+            if (segment == null) {
+                // close or deleteBaseDirStructure is already called
+                return false;
+            }
+            if (segment.remaining() < recordLength) {
+                final Segment nextSegment = takeSegment(recordLength);
+                // should be sealed before adding the next segment so that the reader
+                // could move to the next segment
+                segment.sealedLimit = segment.writePosition;
+                segments.offerLast(nextSegment);
+                segment = nextSegment;
+            }
+            final int position = segment.writePosition;
+            segment.buffer.putInt(position, bytes.length);
+            segment.buffer.put(position + RECORD_HEADER_LENGTH, bytes);
+            segment.writePosition = position + recordLength;
+            // volatile write, the written bytes will be visible to the reader thread
+            writeCount.incrementAndGet();
+            return true;
+        } catch (final IOException e) {
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.log(Level.SEVERE, e.getMessage(), e);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        return false;
+    }
+
+    /**
+     * NB: should be called only under readLock and only if there is an unread
+     * record.
+     *
+     * @return the segment containing the next unread record
+     */
+    private Segment nextReadableSegment() {
+        Segment segment = segments.peekFirst();
+        int sealedLimit;
+        while (segment != null && (sealedLimit = segment.sealedLimit) != -1
+                && segment.readPosition >= sealedLimit) {
+            // only the reader removes from the first
+            segments.pollFirst();
+            recycle(segment);
+            segment = segments.peekFirst();
+        }
+        return segment;
+    }
+
+    @Override
+    public byte[] poll() {
+        readLock.lock();
+        try {
+            // volatile read should be before reading the segments
+            if (readCount.get() < writeCount.get()) {
+                final Segment segment = nextReadableSegment();
+                if (segment != null) {
+                    final int position = segment.readPosition;
+                    final int length = segment.buffer.getInt(position);
+                    final byte[] bytes = new byte[length];
+                    segment.buffer.get(position + RECORD_HEADER_LENGTH, bytes);
+                    segment.readPosition = position + RECORD_HEADER_LENGTH + length;
+                    readCount.incrementAndGet();
+                    return bytes;
+                }
+            }
+        } finally {
+            readLock.unlock();
+        }
+        return null;
+    }
+
+    @Override
+    public boolean add(final byte[] bytes) {
+        return offer(bytes);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int size() {
+        return (int) (writeCount.get() - readCount.get());
+    }
+
+    @Override
+    public void clear() {
+        readLock.lock();
+        try {
+            while (readCount.get() < writeCount.get()) {
+                final Segment segment = nextReadableSegment();
+                if (segment == null) {
+                    break;
+                }
+                final int position = segment.readPosition;
+                final int length = segment.buffer.getInt(position);
+                segment.readPosition = position + RECORD_HEADER_LENGTH + length;
+                readCount.incrementAndGet();
+            }
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        throw new MethodNotImplementedException();
+    }
+
+    @Override
+    public Iterator<byte[]> iterator() {
+        throw new MethodNotImplementedException();
+    }
+
+    @Override
+    public Object[] toArray() {
+        throw new MethodNotImplementedException();
+    }
+
+    @Override
+    public <T> T[] toArray(final T[] a) {
+        throw new MethodNotImplementedException();
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        throw new MethodNotImplementedException();
+    }
+
+    @Override
+    public boolean containsAll(final Collection<?> c) {
+        throw new MethodNotImplementedException();
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends byte[]> c) {
+        throw new MethodNotImplementedException();
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> c) {
+        throw new MethodNotImplementedException();
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> c) {
+        throw new MethodNotImplementedException();
+    }
+
+    @Override
+    public byte[] remove() {
+        throw new MethodNotImplementedException();
+    }
+
+    @Override
+    public byte[] element() {
+        throw new MethodNotImplementedException();
+    }
+
+    @Override
+    public byte[] peek() {
+        throw new MethodNotImplementedException();
+    }
+
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * A hierarchical timing wheel of keys scheduled by the time from which they may
+ * become idle, i.e. their last accessed time. The wheel is advanced to
+ * {@code currentTime - maxIdleTimeout} so that only the keys which might have
+ * been idle for {@code maxIdleTimeout} are visited. A key is neither removed
+ * nor rescheduled when its object is accessed or removed, the caller has to
+ * check the actual last accessed time of the returned keys and schedule them
+ * again if they are not idle. So updating the last accessed time costs nothing
+ * for the wheel and each key is visited at most once in every
+ * {@code maxIdleTimeout} unless it is expired.
+ *
+ * Note: Only for internal use.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+final class IdleTimingWheel {
+
+    private static final int WHEEL_BITS = 6;
+
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private static final int LEVELS = 4;
+
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+
+    private final Lock lock = new ReentrantLock();
+
+    private final List<Expiry>[][] wheels;
+
+    /**
+     * the keys scheduled before the current tick, they will be returned by the
+     * next advance.
+     */
+    private List<Expiry> overdue = new ArrayList<>();
+
+    private long currentTick;
+
+    private int size;
+
+    /**
+     * @param tick the tick of the time in milliseconds
+     * @param key  the instance id or httpSessionId
+     */
+    private record Expiry(long tick, String key) {
+    }
+
+    /**
+     * @param tickMillis the duration of a tick, a key is returned at most one tick
+     *                   later than its time.
+     */
+    // a generic array cannot be created without a raw type
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    IdleTimingWheel(final long tickMillis) {
+        this.tickMillis = tickMillis;
+        wheels = new List[LEVELS][WHEEL_SIZE];
+        currentTick = Math.floorDiv(System.currentTimeMillis(), tickMillis);
+    }
+
+    /**
+     * @param time the time in milliseconds from which the object of the key may
+     *             become idle.
+     * @param key  the key
+     */
+    void schedule(final long time, final String key) {
+        final Expiry expiry = new Expiry(Math.floorDiv(time, tickMillis), key);
+        lock.lock();
+        try {
+            insert(expiry);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * should be called under lock.
+     *
+     * @param expiry
+     */
+    private void insert(final Expiry expiry) {
+        final long delta = expiry.tick - currentTick;
+        if (delta < 0) {
+            overdue.add(expiry);
+            return;
+        }
+        // the ticks beyond the range of the wheels are kept in the last level, they
+        // will be placed correctly when cascaded.
+        final long tick = delta > MAX_DELTA ? currentTick + MAX_DELTA : expiry.tick;
+        final long limitedDelta = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && (limitedDelta >>> (WHEEL_BITS * (level + 1))) != 0) {
+            level++;
+        }
+        final int index = (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        List<Expiry> slot = wheels[level][index];
+        if (slot == null) {
+            slot = new ArrayList<>(4);
+            wheels[level][index] = slot;
+        }
+        slot.add(expiry);
+    }
+
+    /**
+     * should be called under lock.
+     *
+     * @param level
+     * @param index
+     * @return the index
+     */
+    private int cascade(final int level, final int index) {
+        final List<Expiry> slot = wheels[level][index];
+        if (slot != null && !slot.isEmpty()) {
+            wheels[level][index] = null;
+            for (final Expiry expiry : slot) {
+                insert(expiry);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * advances the wheel to the given time and removes the keys scheduled before
+     * it.
+     *
+     * @param maxTime the time in milliseconds
+     * @return the removed keys having time before the given time (with the
+     *         precision of a tick) and the keys scheduled before the time of the
+     *         previous advance.
+     */
+    List<String> advance(final long maxTime) {
+        final long targetTick = Math.floorDiv(maxTime, tickMillis);
+        List<String> keys = null;
+        lock.lock();
+        try {
+            if (!overdue.isEmpty()) {
+                keys = new ArrayList<>(overdue.size());
+                for (final Expiry expiry : overdue) {
+                    keys.add(expiry.key);
+                }
+                size -= overdue.size();
+                overdue = new ArrayList<>();
+            }
+
+            while (currentTick < targetTick) {
+                if (size == 0) {
+                    // no need to visit the empty slots
+                    currentTick = targetTick;
+                    break;
+                }
+                final int index = (int) (currentTick & WHEEL_MASK);
+                if (index == 0) {
+                    for (int level = 1; level < LEVELS; level++) {
+                        if (cascade(level, (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK)) != 0) {
+                            break;
+                        }
+                    }
+                }
+                final List<Expiry> slot = wheels[0][index];
+                if (slot != null && !slot.isEmpty()) {
+                    wheels[0][index] = null;
+                    if (keys == null) {
+                        keys = new ArrayList<>(slot.size());
+                    }
+                    for (final Expiry expiry : slot) {
+                        keys.add(expiry.key);
+                    }
+                    size -= slot.size();
+                }
+                currentTick++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return keys != null ? keys : List.of();
+    }
+
+    /**
+     * removes the keys of the removed objects if the wheel is too large compared
+     * to the number of the existing objects, eg: when the wheel is not advanced as
+     * the auto clean is not enabled.
+     *
+     * @param existingCount the number of existing objects
+     * @param exists        to check if the object of the key exists
+     */
+    void purgeIfOversized(final int existingCount, final Predicate<String> exists) {
+        lock.lock();
+        try {
+            if (size > (existingCount << 1) + 16) {
+                final Predicate<Expiry> removed = expiry -> !exists.test(expiry.key);
+                overdue.removeIf(removed);
+                int newSize = overdue.size();
+                for (final List<Expiry>[] wheel : wheels) {
+                    for (final List<Expiry> slot : wheel) {
+                        if (slot != null) {
+                            slot.removeIf(removed);
+                            newSize += slot.size();
+                        }
+                    }
+                }
+                size = newSize;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of scheduled keys
+     */
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
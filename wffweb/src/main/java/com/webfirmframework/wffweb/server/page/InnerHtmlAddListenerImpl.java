@@ -20,7 +20,6 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Deque;
-import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.logging.Level;
@@ -29,6 +28,7 @@ import java.util.logging.Logger;
 import com.webfirmframework.wffweb.InvalidTagException;
 import com.webfirmframework.wffweb.internal.security.object.SecurityObject;
 import com.webfirmframework.wffweb.internal.server.page.js.WffJsFile;
+import com.webfirmframework.wffweb.internal.tag.html.TagByWffIdMap;
 import com.webfirmframework.wffweb.internal.tag.html.listener.InnerHtmlAddListener;
 import com.webfirmframework.wffweb.tag.html.AbstractHtml;
 import com.webfirmframework.wffweb.tag.html.TagUtil;
@@ -46,7 +46,7 @@ public final class InnerHtmlAddListenerImpl implements InnerHtmlAddListener {
 
     private final SecurityObject accessObject;
 
-    private final Map<String, AbstractHtml> tagByWffId;
+    private final TagByWffIdMap tagByWffId;
 
     @SuppressWarnings("unused")
     private InnerHtmlAddListenerImpl() {
@@ -54,7 +54,7 @@ public final class InnerHtmlAddListenerImpl implements InnerHtmlAddListener {
     }
 
     InnerHtmlAddListenerImpl(final BrowserPage browserPage, final SecurityObject accessObject,
-            final Map<String, AbstractHtml> tagByWffId) {
+            final TagByWffIdMap tagByWffId) {
         this.browserPage = browserPage;
         this.accessObject = accessObject;
         this.tagByWffId = tagByWffId;
@@ -81,7 +81,7 @@ public final class InnerHtmlAddListenerImpl implements InnerHtmlAddListener {
                 if (TagUtil.isTagged(child)) {
                     final DataWffId wffIdAttr = child.getDataWffId();
                     if (wffIdAttr != null) {
-                        tagByWffId.put(wffIdAttr.getValue(), child);
+                        tagByWffId.put(wffIdAttr, child);
                     }
                 }
 
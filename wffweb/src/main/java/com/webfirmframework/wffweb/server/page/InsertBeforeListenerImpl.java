@@ -19,7 +19,6 @@ import java.io.Serial;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -27,6 +26,7 @@ import java.util.logging.Logger;
 import com.webfirmframework.wffweb.InvalidTagException;
 import com.webfirmframework.wffweb.internal.security.object.SecurityObject;
 import com.webfirmframework.wffweb.internal.server.page.js.WffJsFile;
+import com.webfirmframework.wffweb.internal.tag.html.TagByWffIdMap;
 import com.webfirmframework.wffweb.internal.tag.html.listener.InsertBeforeListener;
 import com.webfirmframework.wffweb.tag.html.AbstractHtml;
 import com.webfirmframework.wffweb.tag.html.TagUtil;
@@ -50,7 +50,7 @@ public final class InsertBeforeListenerImpl implements InsertBeforeListener {
 
     private final SecurityObject accessObject;
 
-    private final Map<String, AbstractHtml> tagByWffId;
+    private final TagByWffIdMap tagByWffId;
 
     @SuppressWarnings("unused")
     private InsertBeforeListenerImpl() {
@@ -58,7 +58,7 @@ public final class InsertBeforeListenerImpl implements InsertBeforeListener {
     }
 
     InsertBeforeListenerImpl(final BrowserPage browserPage, final SecurityObject accessObject,
-            final Map<String, AbstractHtml> tagByWffId) {
+            final TagByWffIdMap tagByWffId) {
         this.browserPage = browserPage;
         this.accessObject = accessObject;
         this.tagByWffId = tagByWffId;
@@ -85,7 +85,7 @@ public final class InsertBeforeListenerImpl implements InsertBeforeListener {
                 if (TagUtil.isTagged(child)) {
                     final DataWffId wffIdAttr = child.getDataWffId();
                     if (wffIdAttr != null) {
-                        tagByWffId.put(wffIdAttr.getValue(), child);
+                        tagByWffId.put(wffIdAttr, child);
                     }
                 }
 
@@ -0,0 +1,128 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Executes the tasks having the same key in the order they are submitted and
+ * the tasks having different keys concurrently. Only one thread of the executor
+ * is used per key at a time, it is released when there is no pending task for
+ * the key. If the executor rejects the tasks of a key, they are executed in the
+ * calling thread.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+final class KeyOrderedTaskExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(KeyOrderedTaskExecutor.class.getName());
+
+    /**
+     * the head of each queue is the task being executed. The queues are modified
+     * only inside the compute methods of the map.
+     */
+    private final Map<Object, ArrayDeque<Runnable>> pendingTasks = new ConcurrentHashMap<>();
+
+    /**
+     * @param key      the ordering key of the task
+     * @param task     the task to execute
+     * @param executor the executor to run the tasks of the key if there is no
+     *                 task running for the key
+     */
+    void execute(final Object key, final Runnable task, final Executor executor) {
+        final boolean[] first = { false };
+        pendingTasks.compute(key, (k, tasks) -> {
+            if (tasks == null) {
+                tasks = new ArrayDeque<>(4);
+                first[0] = true;
+            }
+            tasks.offer(task);
+            return tasks;
+        });
+        if (first[0]) {
+            runTasksAsync(key, task, executor);
+        }
+    }
+
+    private void runTasksAsync(final Object key, final Runnable firstTask, final Executor executor) {
+        try {
+            executor.execute(() -> runTasks(key, firstTask, executor));
+        } catch (final RuntimeException e) {
+            // eg: RejectedExecutionException, the pending tasks of the key must not
+            // be stuck forever so they are executed in the calling thread which
+            // blocks it till they are done
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "The executor rejected the tasks of key " + key
+                        + " so they are executed in the calling thread " + Thread.currentThread().getName(), e);
+            }
+            runTasks(key, firstTask, executor);
+        }
+    }
+
+    private void runTasks(final Object key, final Runnable firstTask, final Executor executor) {
+        Runnable task = firstTask;
+        while (task != null) {
+            boolean errorThrown = true;
+            try {
+                task.run();
+                errorThrown = false;
+            } catch (final RuntimeException e) {
+                errorThrown = false;
+                if (LOGGER.isLoggable(Level.SEVERE)) {
+                    LOGGER.log(Level.SEVERE, "Exception while executing the task of key " + key, e);
+                }
+            } finally {
+                // the executed task must be dequeued even if an Error is thrown
+                // otherwise the further tasks of the key will never be executed
+                task = pollAndPeekNext(key);
+                if (errorThrown && task != null) {
+                    // this thread will not continue as the Error is propagated
+                    runTasksAsync(key, task, executor);
+                }
+            }
+        }
+    }
+
+    /**
+     * removes the executed task of the key.
+     *
+     * @param key
+     * @return the next task of the key or null if there is no pending task
+     */
+    private Runnable pollAndPeekNext(final Object key) {
+        final Runnable[] next = { null };
+        pendingTasks.computeIfPresent(key, (k, tasks) -> {
+            tasks.poll();
+            next[0] = tasks.peek();
+            return tasks.isEmpty() ? null : tasks;
+        });
+        return next[0];
+    }
+
+    /**
+     * @return the number of keys having pending tasks
+     */
+    int pendingKeys() {
+        return pendingTasks.size();
+    }
+
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.webfirmframework.wffweb.InvalidValueException;
+
+/**
+ * A pool of reusable byte arrays to build the payloads pushed to the client.
+ * The arrays are pooled in size classes of powers of two from
+ * {@code minBufferSize} to {@code maxBufferSize}, a payload larger than
+ * {@code maxBufferSize} is not pooled. Each thread keeps a small cache of the
+ * released arrays of each size class before returning them to the shared pool
+ * so that a thread building and pushing payloads in a loop does not contend on
+ * the shared pool. <br>
+ * An object of this class can be shared by multiple {@link BrowserPage}
+ * instances. Eg:
+ *
+ * <pre><code>
+ * private static final PayloadBufferPool BUFFER_POOL = new PayloadBufferPool(256, 65536, 64, 4);
+ *
+ * &#64;Override
+ * protected PayloadBufferPool usePayloadBufferPool() {
+ *     return BUFFER_POOL;
+ * }
+ * </code></pre>
+ *
+ * NB: the pooled payload is returned to the pool as soon as the
+ * {@link WebSocketPushListener#push(ByteBuffer)} (or
+ * {@link WebSocketBatchPushListener#pushAll(ByteBuffer[])}) method returns so
+ * the listener must not keep a reference to the given buffer after the method
+ * returns, e.g. it should not use an asynchronous send unless the send is
+ * completed before returning from the method. The thread local cache is not
+ * useful if the payloads are pushed from virtual threads, pass
+ * {@code threadCacheSize} as 0 in such case.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+public final class PayloadBufferPool {
+
+    /**
+     * the number of bytes reserved at the beginning of each pooled array, the
+     * buffer handed out by {@link #acquire(int)} starts after it. The first four
+     * bytes are the token of the pool and the next byte is the lent state of the
+     * array so that {@link #release(ByteBuffer)} can validate the array without a
+     * lock and without a lookup.
+     */
+    static final int HEADER_LENGTH = 5;
+
+    private static final int STATE_INDEX = 4;
+
+    private static final byte STATE_FREE = 0;
+
+    private static final byte STATE_LENT = 1;
+
+    private static final VarHandle ARRAY_BYTE = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    /**
+     * written in the header of each array allocated by this pool, an array of
+     * another pool or an array which is not pooled will not have it in the
+     * same place with the same length.
+     */
+    private final int token = ThreadLocalRandom.current().nextInt();
+
+    private final int minBufferSize;
+
+    private final int maxBufferSize;
+
+    private final int minSizeClassShift;
+
+    private final List<ArrayBlockingQueue<byte[]>> sharedPools;
+
+    private final int threadCacheSize;
+
+    private final ThreadLocal<ThreadCache> threadCache;
+
+    private final LongAdder allocatedCount = new LongAdder();
+
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    private final LongAdder reusedCount = new LongAdder();
+
+    private final LongAdder reusedBytes = new LongAdder();
+
+    private final LongAdder discardedCount = new LongAdder();
+
+    private static final class ThreadCache {
+
+        private final byte[][][] buffers;
+
+        private final int[] sizes;
+
+        private ThreadCache(final int sizeClassesCount, final int threadCacheSize) {
+            buffers = new byte[sizeClassesCount][threadCacheSize][];
+            sizes = new int[sizeClassesCount];
+        }
+
+        private byte[] poll(final int sizeClass) {
+            final int size = sizes[sizeClass];
+            if (size > 0) {
+                final int index = size - 1;
+                final byte[] buffer = buffers[sizeClass][index];
+                buffers[sizeClass][index] = null;
+                sizes[sizeClass] = index;
+                return buffer;
+            }
+            return null;
+        }
+
+        private boolean offer(final int sizeClass, final byte[] buffer) {
+            final int size = sizes[sizeClass];
+            final byte[][] sizeClassBuffers = buffers[sizeClass];
+            if (size < sizeClassBuffers.length) {
+                sizeClassBuffers[size] = buffer;
+                sizes[sizeClass] = size + 1;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @param minBufferSize                the size of the smallest pooled array,
+     *                                     it will be rounded up to the next power
+     *                                     of two.
+     * @param maxBufferSize                the size of the largest pooled array, it
+     *                                     will be rounded up to the next power of
+     *                                     two.
+     * @param maxPooledBuffersPerSizeClass the maximum number of arrays kept in the
+     *                                     shared pool for each size class, the
+     *                                     arrays released beyond this limit will
+     *                                     be left to the garbage collector.
+     * @param threadCacheSize              the maximum number of arrays kept in the
+     *                                     cache of each thread for each size
+     *                                     class, 0 to disable the thread local
+     *                                     cache.
+     */
+    public PayloadBufferPool(final int minBufferSize, final int maxBufferSize, final int maxPooledBuffersPerSizeClass,
+            final int threadCacheSize) {
+        if (minBufferSize < 1 || maxBufferSize < minBufferSize || maxBufferSize > (1 << 30)) {
+            throw new InvalidValueException(
+                    "minBufferSize must be greater than 0 and maxBufferSize must be from minBufferSize to 2^30");
+        }
+        if (maxPooledBuffersPerSizeClass < 1) {
+            throw new InvalidValueException("maxPooledBuffersPerSizeClass must be greater than 0");
+        }
+        if (threadCacheSize < 0) {
+            throw new InvalidValueException("threadCacheSize must not be negative");
+        }
+        this.minBufferSize = roundUpToPowerOfTwo(minBufferSize);
+        this.maxBufferSize = roundUpToPowerOfTwo(maxBufferSize);
+        minSizeClassShift = Integer.numberOfTrailingZeros(this.minBufferSize);
+
+        final int sizeClassesCount = Integer.numberOfTrailingZeros(this.maxBufferSize) - minSizeClassShift + 1;
+        final List<ArrayBlockingQueue<byte[]>> sharedPools = new ArrayList<>(sizeClassesCount);
+        for (int i = 0; i < sizeClassesCount; i++) {
+            sharedPools.add(new ArrayBlockingQueue<>(maxPooledBuffersPerSizeClass));
+        }
+        this.sharedPools = List.copyOf(sharedPools);
+
+        this.threadCacheSize = threadCacheSize;
+        threadCache = threadCacheSize > 0
+                ? ThreadLocal.withInitial(() -> new ThreadCache(sizeClassesCount, threadCacheSize))
+                : null;
+    }
+
+    private static int roundUpToPowerOfTwo(final int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * @param length
+     * @return the index of the size class or -1 if the length is not poolable
+     */
+    private int sizeClass(final int length) {
+        if (length > maxBufferSize) {
+            return -1;
+        }
+        if (length <= minBufferSize) {
+            return 0;
+        }
+        return Integer.numberOfTrailingZeros(roundUpToPowerOfTwo(length)) - minSizeClassShift;
+    }
+
+    /**
+     * @param length the length of the buffer.
+     * @return a heap buffer whose capacity is exactly the given length, its
+     *         content is not cleared. Its backing array is pooled if the length
+     *         is not greater than {@code maxBufferSize}, in which case the
+     *         buffer starts after the header of the array, i.e. its
+     *         {@code arrayOffset()} is not 0.
+     */
+    public ByteBuffer acquire(final int length) {
+        final int sizeClass = sizeClass(length);
+        if (sizeClass < 0) {
+            allocatedCount.increment();
+            allocatedBytes.add(length);
+            return ByteBuffer.allocate(length);
+        }
+
+        byte[] array = threadCache != null ? threadCache.get().poll(sizeClass) : null;
+        if (array == null) {
+            array = sharedPools.get(sizeClass).poll();
+        }
+        if (array != null) {
+            reusedCount.increment();
+            reusedBytes.add(array.length - HEADER_LENGTH);
+            // a pooled array is not reachable by any other thread until it is
+            // handed out here
+            ARRAY_BYTE.setRelease(array, STATE_INDEX, STATE_LENT);
+        } else {
+            final int bufferSize = minBufferSize << sizeClass;
+            array = new byte[HEADER_LENGTH + bufferSize];
+            writeHeader(array);
+            allocatedCount.increment();
+            allocatedBytes.add(bufferSize);
+        }
+        return ByteBuffer.wrap(array, HEADER_LENGTH, length).slice();
+    }
+
+    private void writeHeader(final byte[] array) {
+        array[0] = (byte) (token >>> 24);
+        array[1] = (byte) (token >>> 16);
+        array[2] = (byte) (token >>> 8);
+        array[3] = (byte) token;
+        array[STATE_INDEX] = STATE_LENT;
+    }
+
+    private boolean hasToken(final byte[] array) {
+        return array[0] == (byte) (token >>> 24) && array[1] == (byte) (token >>> 16)
+                && array[2] == (byte) (token >>> 8) && array[3] == (byte) token;
+    }
+
+    /**
+     * returns the backing array of the given buffer to the pool. The buffer should
+     * not be used after this call. A buffer which is not acquired from this pool,
+     * or which is already released, is ignored.
+     *
+     * @param buffer the buffer acquired by {@link #acquire(int)}.
+     */
+    public void release(final ByteBuffer buffer) {
+        if (buffer == null || !buffer.hasArray() || buffer.arrayOffset() != HEADER_LENGTH) {
+            return;
+        }
+        final byte[] array = buffer.array();
+        final int bufferSize = array.length - HEADER_LENGTH;
+        final int sizeClass = sizeClass(bufferSize);
+        if (sizeClass < 0 || (minBufferSize << sizeClass) != bufferSize || !hasToken(array)) {
+            return;
+        }
+        // only one of the concurrent or repeated releases of the same array can
+        // return it to the pool
+        if (!ARRAY_BYTE.compareAndSet(array, STATE_INDEX, STATE_LENT, STATE_FREE)) {
+            return;
+        }
+        if (threadCache != null && threadCache.get().offer(sizeClass, array)) {
+            return;
+        }
+        if (!sharedPools.get(sizeClass).offer(array)) {
+            discardedCount.increment();
+        }
+    }
+
+    /**
+     * @return the number of arrays allocated by this pool, including the arrays of
+     *         the payloads larger than {@code maxBufferSize}.
+     */
+    public long getAllocatedCount() {
+        return allocatedCount.sum();
+    }
+
+    /**
+     * @return the total number of bytes allocated by this pool.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    /**
+     * @return the number of times a pooled array was reused.
+     */
+    public long getReusedCount() {
+        return reusedCount.sum();
+    }
+
+    /**
+     * @return the total number of bytes of the reused arrays, i.e. the bytes saved
+     *         from allocation.
+     */
+    public long getReusedBytes() {
+        return reusedBytes.sum();
+    }
+
+    /**
+     * @return the number of released arrays left to the garbage collector as the
+     *         pool of its size class was full.
+     */
+    public long getDiscardedCount() {
+        return discardedCount.sum();
+    }
+
+    /**
+     * @return the size of the smallest pooled array.
+     */
+    public int getMinBufferSize() {
+        return minBufferSize;
+    }
+
+    /**
+     * @return the size of the largest pooled array.
+     */
+    public int getMaxBufferSize() {
+        return maxBufferSize;
+    }
+
+    /**
+     * @return the maximum number of arrays cached by each thread for each size
+     *         class.
+     */
+    public int getThreadCacheSize() {
+        return threadCacheSize;
+    }
+
+}
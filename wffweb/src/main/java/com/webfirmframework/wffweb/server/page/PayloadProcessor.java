@@ -25,7 +25,6 @@ import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.webfirmframework.wffweb.InvalidValueException;
-import com.webfirmframework.wffweb.concurrent.MinIntervalExecutor;
 
 /**
  * PayloadProcessor for BrowserPage WebSocket's incoming bytes
@@ -87,18 +86,34 @@ public class PayloadProcessor implements Serializable {
 
         ByteBuffer data;
         while ((data = dataArray.poll()) != null) {
-            final byte[] array = data.array();
-            System.arraycopy(array, 0, wholeData, destStartIndex, array.length);
-            destStartIndex += array.length;
-            if (destStartIndex > totalCapacity) {
+            final int length = data.capacity();
+            if (destStartIndex + length > totalCapacity) {
                 throw new ConcurrentModificationException(
                         "PayloadProcessor.webSocketMessaged method is NOT allowed to call more than one thread at a time.");
             }
+            // absolute get works for both heap and direct buffers
+            data.get(0, wholeData, destStartIndex, length);
+            destStartIndex += length;
         }
 
         return wholeData;
     }
 
+    /**
+     * @param data the heap or direct buffer
+     * @return the backing array if it is exactly the content of the buffer
+     *         otherwise the content copied to a new array.
+     * @since 12.0.13
+     */
+    private static byte[] toByteArray(final ByteBuffer data) {
+        if (data.hasArray() && data.arrayOffset() == 0 && data.array().length == data.capacity()) {
+            return data.array();
+        }
+        final byte[] bytes = new byte[data.capacity()];
+        data.get(0, bytes);
+        return bytes;
+    }
+
     /**
      * This method will be useful when the WebSocket server receives messages as
      * chucks. A WebSocket server may have a max size of byte array that can be sent
@@ -130,7 +145,7 @@ public class PayloadProcessor implements Serializable {
                 }
                 if (inputBufferLimitLock.tryAcquire(messagePart.capacity())) {
                     try {
-                        browserPage.webSocketMessaged(messagePart.array());
+                        browserPage.webSocketMessaged(toByteArray(messagePart));
                     } finally {
                         inputBufferLimitLock.release(messagePart.capacity());
                     }
@@ -139,7 +154,7 @@ public class PayloadProcessor implements Serializable {
                     throw getOutOfMemoryError(messagePart.capacity());
                 }
             } else {
-                browserPage.webSocketMessaged(messagePart.array());
+                browserPage.webSocketMessaged(toByteArray(messagePart));
             }
         } else {
             if (inputBufferLimitLock != null) {
@@ -172,7 +187,7 @@ public class PayloadProcessor implements Serializable {
     private void transferToBrowserPageWS(final ByteBuffer messagePart, final boolean last) {
         // if lossless communication is enabled
         if (wsMessageChunks.isEmpty()) {
-            final byte[] message = messagePart.array();
+            final byte[] message = toByteArray(messagePart);
             if (!browserPage.checkLosslessCommunication(message)) {
                 if (inputBufferLimitLock != null) {
                     inputBufferLimitLock.release(message.length);
@@ -182,6 +197,10 @@ public class PayloadProcessor implements Serializable {
         }
 
         if (last) {
+            // NB: the chunks are merged instead of parsing them by
+            // WffBinaryMessageReader as the message has to be queued as a single
+            // byte[] in taskFromClientQ (which may be an external drive queue) to keep
+            // the order of the client tasks and the inputBufferLimit accounting
             wsMessageChunks.add(messagePart);
             final int totalCapacity = wsMessageChunksTotalCapacity.getAndSet(0) + messagePart.capacity();
             final byte[] message = pollAndConvertToByteArray(totalCapacity, wsMessageChunks);
@@ -233,10 +252,9 @@ public class PayloadProcessor implements Serializable {
      */
     public final boolean isValid() {
         if (browserPage.wsHeartbeatInterval > 0) {
-            final MinIntervalExecutor autoCleanTaskExecutor = BrowserPageContext.INSTANCE.autoCleanTaskExecutor;
-            if (autoCleanTaskExecutor != null) {
-                return (System.currentTimeMillis() - browserPage.lastClientAccessedTime) < autoCleanTaskExecutor
-                        .minInterval();
+            final long maxIdleTimeout = BrowserPageContext.INSTANCE.autoCleanMaxIdleTimeout();
+            if (maxIdleTimeout > 0) {
+                return (System.currentTimeMillis() - browserPage.lastClientAccessedTime) < maxIdleTimeout;
             }
         }
         return true;
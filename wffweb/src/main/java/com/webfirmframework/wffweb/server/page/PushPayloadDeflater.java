@@ -0,0 +1,142 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+
+import com.webfirmframework.wffweb.util.WffBinaryMessageUtil;
+
+/**
+ * Compresses the payloads pushed through a WebSocket connection with a raw
+ * deflate stream which is kept open for the lifetime of the connection. Each
+ * payload is sync flushed so the client can inflate it on arrival, and the
+ * later payloads are compressed against the history of the earlier ones which
+ * is very effective for the repetitive tag and attribute names of the wff
+ * binary messages. The client keeps a matching inflate stream per connection
+ * so the compressed payloads must be delivered in the order they are
+ * compressed, a payload is never compressed after {@link #end()}.
+ * <p>
+ * A compressed payload is framed as {@code [0, 0, 0, 0, -1]} followed by the
+ * uncompressed length in 4 bytes and the deflated bytes. An uncompressed
+ * payload can never start with these 5 bytes as a zero payload id is always
+ * followed by a wff binary message whose first byte is between 1 and 4.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+final class PushPayloadDeflater {
+
+    /**
+     * the one byte message sent by the client on opening the connection if it
+     * can inflate the payloads.
+     */
+    static final byte CLIENT_HELLO = 127;
+
+    static final int HEADER_LENGTH = 9;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Deflater deflater;
+
+    private final int minPayloadSize;
+
+    private byte[] outputBuffer;
+
+    private boolean ended;
+
+    /**
+     * @param level          the compression level from 0 to 9 or -1 for the
+     *                       default level.
+     * @param minPayloadSize the payloads smaller than this size are not
+     *                       compressed.
+     */
+    PushPayloadDeflater(final int level, final int minPayloadSize) {
+        deflater = new Deflater(level, true);
+        this.minPayloadSize = minPayloadSize;
+    }
+
+    /**
+     * @param payload the payload, its bytes from 0 to its capacity are
+     *                compressed.
+     * @return the compressed payload or the given payload itself if it is not
+     *         compressed.
+     */
+    ByteBuffer deflate(final ByteBuffer payload) {
+        final int length = payload.capacity();
+        if (length < minPayloadSize) {
+            return payload;
+        }
+        lock.lock();
+        try {
+            if (ended) {
+                return payload;
+            }
+            deflater.setInput(payload.duplicate().clear());
+            byte[] output = outputBuffer;
+            if (output == null || output.length < HEADER_LENGTH + 64) {
+                output = new byte[Math.max(HEADER_LENGTH + 64, HEADER_LENGTH + (length >>> 1))];
+            }
+            int outputLength = HEADER_LENGTH;
+            while (true) {
+                outputLength += deflater.deflate(output, outputLength, output.length - outputLength,
+                        Deflater.SYNC_FLUSH);
+                // if the output is not filled the input is fully flushed
+                if (outputLength < output.length) {
+                    break;
+                }
+                output = Arrays.copyOf(output, output.length << 1);
+            }
+            outputBuffer = output;
+
+            final byte[] frame = Arrays.copyOf(output, outputLength);
+            frame[4] = -1;
+            final byte[] lengthBytes = WffBinaryMessageUtil.getBytesFromInt(length);
+            System.arraycopy(lengthBytes, 0, frame, 5, lengthBytes.length);
+            return ByteBuffer.wrap(frame);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * releases the native resources, the further payloads are not compressed.
+     */
+    void end() {
+        lock.lock();
+        try {
+            if (!ended) {
+                ended = true;
+                outputBuffer = null;
+                deflater.end();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isEnded() {
+        lock.lock();
+        try {
+            return ended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
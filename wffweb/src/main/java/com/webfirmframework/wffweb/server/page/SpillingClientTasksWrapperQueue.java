@@ -0,0 +1,352 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.webfirmframework.wffweb.MethodNotImplementedException;
+import com.webfirmframework.wffweb.settings.WffConfiguration;
+
+/**
+ * The hold-push queue which keeps the payloads in the heap up to a byte limit
+ * and spills the further payloads to a memory mapped ring file of a fixed size.
+ * The payloads are polled in the order they are offered irrespective of where
+ * they are stored. The file is created only when the first payload is spilled
+ * and it is deleted on {@link #close()}.
+ * <p>
+ * Note: Designed only for {@code BrowserPage} requirements, all methods are not
+ * implemented.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+final class SpillingClientTasksWrapperQueue extends AbstractQueue<ClientTasksWrapper> {
+
+    private static final Logger LOGGER = Logger.getLogger(SpillingClientTasksWrapperQueue.class.getName());
+
+    /**
+     * @param tasks       the tasks kept in the heap
+     * @param size        the size of the tasks when offered
+     * @param needsPermit true if the output buffer permit is not acquired for the
+     *                    tasks
+     */
+    private record HeapEntry(ClientTasksWrapper tasks, int size, boolean needsPermit) {
+    }
+
+    /**
+     * @param taskLengths the length of each task written in the ring file
+     * @param size        the total length
+     * @param needsPermit true if the output buffer permit is not acquired for the
+     *                    tasks
+     */
+    private record SpilledEntry(int[] taskLengths, int size, boolean needsPermit) {
+    }
+
+    /**
+     * closes and deletes the ring file, it must not refer the queue object.
+     */
+    private static final class SpillFileCleaner implements Runnable {
+
+        private final FileChannel channel;
+
+        private final Path filePath;
+
+        private SpillFileCleaner(final FileChannel channel, final Path filePath) {
+            this.channel = channel;
+            this.filePath = filePath;
+        }
+
+        @Override
+        public void run() {
+            try {
+                channel.close();
+                Files.deleteIfExists(filePath);
+            } catch (final IOException e) {
+                // the mapped file may not be deletable on some OS until the buffer is GCd
+                filePath.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // HeapEntry or SpilledEntry, it is accessed only under the lock
+    private final ArrayDeque<Object> entries = new ArrayDeque<>();
+
+    private final int heapLimit;
+
+    private final int fileSize;
+
+    private final Path dirPath;
+
+    private volatile int size;
+
+    private long heapBytes;
+
+    private MappedByteBuffer ring;
+
+    // the absolute positions of the ring, the used bytes = writePosition -
+    // readPosition
+    private long writePosition;
+
+    private long readPosition;
+
+    private Cleaner.Cleanable cleanable;
+
+    private boolean spillFailed;
+
+    private boolean closed;
+
+    /**
+     * @param heapLimit the maximum number of bytes to keep in the heap before
+     *                  spilling to the file.
+     * @param fileSize  the size of the ring file in bytes.
+     * @param dirPath   the directory to create the ring file or null to create
+     *                  it in the default temporary-file directory.
+     */
+    SpillingClientTasksWrapperQueue(final int heapLimit, final int fileSize, final Path dirPath) {
+        this.heapLimit = heapLimit;
+        this.fileSize = fileSize;
+        this.dirPath = dirPath;
+    }
+
+    @Override
+    public boolean offer(final ClientTasksWrapper clientTasks) {
+        return offer(clientTasks, false);
+    }
+
+    /**
+     * @param clientTasks the tasks to offer
+     * @param needsPermit true if the output buffer permit is not acquired for the
+     *                    tasks, such tasks are not kept in the heap beyond the
+     *                    limit.
+     * @return false if the tasks need permit and there is no space to keep them.
+     */
+    boolean offer(final ClientTasksWrapper clientTasks, final boolean needsPermit) {
+        lock.lock();
+        try {
+            final int tasksSize = clientTasks.getCurrentSize();
+            if (heapBytes + tasksSize > heapLimit && !closed) {
+                final SpilledEntry spilledEntry = spill(clientTasks, tasksSize, needsPermit);
+                if (spilledEntry != null) {
+                    entries.offer(spilledEntry);
+                    size++;
+                    return true;
+                }
+                if (needsPermit) {
+                    return false;
+                }
+            }
+            entries.offer(new HeapEntry(clientTasks, tasksSize, needsPermit));
+            heapBytes += tasksSize;
+            size++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private SpilledEntry spill(final ClientTasksWrapper clientTasks, final int tasksSize,
+            final boolean needsPermit) {
+        final AtomicReferenceArray<ByteBuffer> tasks = clientTasks.tasks();
+        if (tasks == null || tasksSize > fileSize - (writePosition - readPosition) || !createRingIfRequired()) {
+            return null;
+        }
+        final int length = tasks.length();
+        final int[] taskLengths = new int[length];
+        for (int i = 0; i < length; i++) {
+            final ByteBuffer task = tasks.get(i);
+            if (task != null) {
+                final ByteBuffer src = task.duplicate().clear();
+                taskLengths[i] = src.remaining();
+                while (src.hasRemaining()) {
+                    final int index = (int) (writePosition % fileSize);
+                    final int count = Math.min(src.remaining(), fileSize - index);
+                    ring.put(index, src, src.position(), count);
+                    src.position(src.position() + count);
+                    writePosition += count;
+                }
+            }
+        }
+        return new SpilledEntry(taskLengths, tasksSize, needsPermit);
+    }
+
+    private boolean createRingIfRequired() {
+        if (ring != null) {
+            return true;
+        }
+        if (spillFailed) {
+            return false;
+        }
+        FileChannel channel = null;
+        Path filePath = null;
+        try {
+            if (dirPath != null) {
+                Files.createDirectories(dirPath);
+                filePath = Files.createTempFile(dirPath, "hp-", ".spill");
+            } else {
+                filePath = Files.createTempFile("wff-hp-", ".spill");
+            }
+            channel = FileChannel.open(filePath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ring = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            cleanable = WffConfiguration.secondaryCleaner().register(this, new SpillFileCleaner(channel, filePath));
+            return true;
+        } catch (final IOException | RuntimeException e) {
+            spillFailed = true;
+            if (channel != null) {
+                new SpillFileCleaner(channel, filePath).run();
+            } else if (filePath != null) {
+                filePath.toFile().delete();
+            }
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.log(Level.SEVERE, "Unable to create the spill file so the payloads will be kept in the heap.",
+                        e);
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public ClientTasksWrapper poll() {
+        return poll(null);
+    }
+
+    /**
+     * @param permitAcquirer to acquire the output buffer permit for the given
+     *                       number of bytes if the head tasks need it, null if
+     *                       permit is not required.
+     * @return the head tasks or null if the queue is empty or the permit for the
+     *         head tasks could not be acquired.
+     */
+    ClientTasksWrapper poll(final IntPredicate permitAcquirer) {
+        if (size == 0) {
+            return null;
+        }
+        lock.lock();
+        try {
+            final Object entry = entries.peek();
+            if (entry == null) {
+                return null;
+            }
+            if (entry instanceof final HeapEntry heapEntry) {
+                if (heapEntry.needsPermit && permitAcquirer != null && !permitAcquirer.test(heapEntry.size)) {
+                    return null;
+                }
+                entries.poll();
+                size--;
+                heapBytes -= heapEntry.size;
+                return heapEntry.tasks;
+            }
+            final SpilledEntry spilledEntry = (SpilledEntry) entry;
+            if (spilledEntry.needsPermit && permitAcquirer != null && !permitAcquirer.test(spilledEntry.size)) {
+                return null;
+            }
+            entries.poll();
+            size--;
+            final ByteBuffer[] tasks = new ByteBuffer[spilledEntry.taskLengths.length];
+            for (int i = 0; i < tasks.length; i++) {
+                final byte[] task = new byte[spilledEntry.taskLengths[i]];
+                int offset = 0;
+                while (offset < task.length) {
+                    final int index = (int) (readPosition % fileSize);
+                    final int count = Math.min(task.length - offset, fileSize - index);
+                    ring.get(index, task, offset, count);
+                    offset += count;
+                    readPosition += count;
+                }
+                tasks[i] = ByteBuffer.wrap(task);
+            }
+            if (readPosition == writePosition) {
+                readPosition = 0;
+                writePosition = 0;
+            }
+            return new ClientTasksWrapper(tasks);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of bytes spilled to the file and not yet polled.
+     */
+    long spilledBytes() {
+        lock.lock();
+        try {
+            return writePosition - readPosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * removes all tasks and deletes the spill file, the further tasks will be
+     * kept only in the heap.
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            entries.clear();
+            size = 0;
+            heapBytes = 0;
+            readPosition = 0;
+            writePosition = 0;
+            ring = null;
+            if (cleanable != null) {
+                cleanable.clean();
+                cleanable = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public ClientTasksWrapper peek() {
+        throw new MethodNotImplementedException();
+    }
+
+    @Override
+    public Iterator<ClientTasksWrapper> iterator() {
+        throw new MethodNotImplementedException();
+    }
+
+}
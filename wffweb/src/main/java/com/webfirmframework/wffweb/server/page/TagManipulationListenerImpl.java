@@ -21,7 +21,6 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Deque;
-import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
@@ -31,6 +30,7 @@ import java.util.logging.Logger;
 import com.webfirmframework.wffweb.InvalidTagException;
 import com.webfirmframework.wffweb.internal.security.object.SecurityObject;
 import com.webfirmframework.wffweb.internal.server.page.js.WffJsFile;
+import com.webfirmframework.wffweb.internal.tag.html.TagByWffIdMap;
 import com.webfirmframework.wffweb.internal.tag.html.listener.ChildCreatedOrMovedEvent;
 import com.webfirmframework.wffweb.internal.tag.html.listener.TagManipulationListener;
 import com.webfirmframework.wffweb.tag.html.AbstractHtml;
@@ -51,10 +51,10 @@ public final class TagManipulationListenerImpl implements TagManipulationListene
 
     private final BrowserPage browserPage;
     private final SecurityObject accessObject;
-    private final Map<String, AbstractHtml> tagByWffId;
+    private final TagByWffIdMap tagByWffId;
 
     public TagManipulationListenerImpl(final BrowserPage browserPage, final SecurityObject accessObject,
-            final Map<String, AbstractHtml> tagByWffId) {
+            @SuppressWarnings("exports") final TagByWffIdMap tagByWffId) {
         this.browserPage = browserPage;
         this.accessObject = accessObject;
         this.tagByWffId = tagByWffId;
@@ -81,7 +81,7 @@ public final class TagManipulationListenerImpl implements TagManipulationListene
                     final DataWffId wffIdAttr = child.getDataWffId();
 
                     if (wffIdAttr != null) {
-                        tagByWffId.put(wffIdAttr.getValue(), child);
+                        tagByWffId.put(wffIdAttr, child);
                     }
                 }
 
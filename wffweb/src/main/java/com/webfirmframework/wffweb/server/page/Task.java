@@ -191,7 +191,15 @@ public enum Task {
      *
      * @since 12.0.9
      */
-    SERVER_SIDE_PONG_ON_NEW_WS_OPEN;
+    SERVER_SIDE_PONG_ON_NEW_WS_OPEN,
+
+    /**
+     * To set or remove a single css property in the style attribute of the
+     * tags without replacing the whole style attribute value.
+     *
+     * @since 12.0.13
+     */
+    STYLE_PROPERTY_UPDATED;
 
     private final String shortName;
 
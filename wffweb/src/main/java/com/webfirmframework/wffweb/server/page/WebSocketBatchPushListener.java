@@ -0,0 +1,63 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import java.nio.ByteBuffer;
+
+import com.webfirmframework.wffweb.PushFailedException;
+
+/**
+ * A {@link WebSocketPushListener} which receives all messages available in the
+ * push queue in a single call so that the implementation can write them at
+ * once, e.g. by a gathering write or by the batching support of the WebSocket
+ * container. <br>
+ * Eg: with Jakarta WebSocket
+ *
+ * <pre>
+ * <code>
+ * browserPage.setWebSocketPushListener(new WebSocketBatchPushListener() {
+ *
+ *     public void push(final ByteBuffer data) {
+ *         session.getBasicRemote().sendBinary(data);
+ *     }
+ *
+ *     public void pushAll(final ByteBuffer[] messages) {
+ *         final RemoteEndpoint.Basic remote = session.getBasicRemote();
+ *         remote.setBatchingAllowed(true);
+ *         for (final ByteBuffer message : messages) {
+ *             remote.sendBinary(message);
+ *         }
+ *         remote.flushBatch();
+ *     }
+ * });
+ * </code>
+ * </pre>
+ *
+ * @since 12.0.13
+ */
+public interface WebSocketBatchPushListener extends WebSocketPushListener {
+
+    /**
+     * @param messages the messages to push in the order, each element is a
+     *                 separate WebSocket binary message. The array and the
+     *                 buffers should not be modified after this call.
+     * @throws PushFailedException if the messages could not be pushed, all of
+     *                             them will be pushed again later if the push
+     *                             queue is enabled.
+     */
+    public abstract void pushAll(final ByteBuffer[] messages) throws PushFailedException;
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import com.webfirmframework.wffweb.WffRuntimeException;
+import com.webfirmframework.wffweb.internal.server.page.js.WffJsFile;
+import com.webfirmframework.wffweb.util.HashUtil;
+
+/**
+ * The wff client runtime script which is common for all pages. It is used only
+ * if {@link BrowserPage#useWffRuntimeScriptPath()} is overridden, in that case
+ * each page embeds only a small bootstrap script having its own values and
+ * refers this script by {@link #getFileName()}. The content never changes in a
+ * version of wffweb so the app can serve it with a long lived cache header,
+ * eg:
+ *
+ * <pre><code>
+ * // for the request of the path given by useWffRuntimeScriptPath() + WffRuntimeScript.getFileName()
+ * response.setContentType(WffRuntimeScript.CONTENT_TYPE);
+ * response.setHeader("Cache-Control", "public, max-age=31536000, immutable");
+ * WffRuntimeScript.writeTo(response.getOutputStream());
+ * </code></pre>
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+public final class WffRuntimeScript {
+
+    public static final String CONTENT_TYPE = "text/javascript;charset=utf-8";
+
+    private static final class Holder {
+
+        private static final byte[] BYTES = WffJsFile.getRuntimeContent().getBytes(StandardCharsets.UTF_8);
+
+        private static final String FILE_NAME;
+
+        private static final String INTEGRITY;
+
+        static {
+            try {
+                final byte[] sha256 = MessageDigest.getInstance(HashUtil.SHA_256).digest(BYTES);
+                FILE_NAME = "wff-" + HexFormat.of().formatHex(sha256, 0, 8) + ".js";
+                INTEGRITY = "sha384-"
+                        + HashUtil.base64FromUtf8Bytes(MessageDigest.getInstance(HashUtil.SHA_384).digest(BYTES));
+            } catch (final NoSuchAlgorithmException e) {
+                throw new WffRuntimeException("Make sure that the jdk supports SHA-256 and SHA-384", e);
+            }
+        }
+    }
+
+    private WffRuntimeScript() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @return the file name which contains the hash of the content so a changed
+     *         content will always have a different file name, eg:
+     *         wff-1a2b3c4d5e6f7a8b.js
+     */
+    public static String getFileName() {
+        return Holder.FILE_NAME;
+    }
+
+    /**
+     * @return the value for the integrity attribute of the script tag, eg:
+     *         sha384-base64hash
+     */
+    public static String getIntegrity() {
+        return Holder.INTEGRITY;
+    }
+
+    /**
+     * @return the number of bytes of the content.
+     */
+    public static int getContentLength() {
+        return Holder.BYTES.length;
+    }
+
+    /**
+     * @return the read-only buffer of the UTF-8 bytes of the content.
+     */
+    public static ByteBuffer getBytes() {
+        return ByteBuffer.wrap(Holder.BYTES).asReadOnlyBuffer();
+    }
+
+    /**
+     * @param os the stream to write the UTF-8 bytes of the content, it is not
+     *           closed.
+     * @throws IOException
+     */
+    public static void writeTo(final OutputStream os) throws IOException {
+        os.write(Holder.BYTES);
+    }
+
+}
@@ -24,6 +24,8 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 
+import com.webfirmframework.wffweb.tag.html.model.TagLockPolicy;
+
 /**
  * @author WFF
  * @version 1.0.0
@@ -35,6 +37,10 @@ public class WffConfiguration {
 
     private static boolean directionWarningOn;
 
+    private static volatile TagLockPolicy tagLockPolicy = TagLockPolicy.FAIR;
+
+    private static volatile boolean renderCacheEnabled;
+
     private static final Executor VIRTUAL_THREAD_EXECUTOR;
 
     private static final Cleaner SECONDARY_CLEANER;
@@ -145,6 +151,53 @@ public class WffConfiguration {
         WffConfiguration.directionWarningOn = directionWarningOn;
     }
 
+    /**
+     * @return the lock policy of the newly created tag hierarchies.
+     * @since 12.0.13
+     */
+    public static TagLockPolicy getTagLockPolicy() {
+        return tagLockPolicy;
+    }
+
+    /**
+     * The lock policy of the tag hierarchies created after this call, the
+     * existing hierarchies will keep their lock policy. See
+     * {@link TagLockPolicy#build(java.util.function.Supplier)} to apply a policy
+     * only to some tag hierarchies.
+     *
+     * @param tagLockPolicy the lock policy, the default value is
+     *                      {@link TagLockPolicy#FAIR}.
+     * @since 12.0.13
+     */
+    public static void setTagLockPolicy(final TagLockPolicy tagLockPolicy) {
+        WffConfiguration.tagLockPolicy = tagLockPolicy != null ? tagLockPolicy : TagLockPolicy.FAIR;
+    }
+
+    /**
+     * @return true if the render cache is enabled for the newly created tag
+     *         hierarchies.
+     * @since 12.0.13
+     */
+    public static boolean isRenderCacheEnabled() {
+        return renderCacheEnabled;
+    }
+
+    /**
+     * Enables or disables the render cache of the tag hierarchies created after
+     * this call, the existing hierarchies will keep their setting. If enabled, the
+     * root tag keeps the html of its last render so that {@code toHtmlString} and
+     * {@code toOutputStream} return it if nothing is modified, and rebuild only
+     * the modified subtrees otherwise. It costs the memory of the whole html for
+     * each hierarchy, eg: for each {@code BrowserPage}, so it is disabled by
+     * default.
+     *
+     * @param renderCacheEnabled true to enable the render cache.
+     * @since 12.0.13
+     */
+    public static void setRenderCacheEnabled(final boolean renderCacheEnabled) {
+        WffConfiguration.renderCacheEnabled = renderCacheEnabled;
+    }
+
     /**
      * @return the virtual thread per task executor if available otherwise null.
      * @since 12.0.0-beta.7
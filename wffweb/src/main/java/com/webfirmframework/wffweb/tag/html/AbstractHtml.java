@@ -20,7 +20,11 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -64,6 +68,9 @@ import com.webfirmframework.wffweb.internal.constants.CommonConstants;
 import com.webfirmframework.wffweb.internal.constants.IndexedClassType;
 import com.webfirmframework.wffweb.internal.security.object.AbstractHtmlSecurity;
 import com.webfirmframework.wffweb.internal.security.object.SecurityObject;
+import com.webfirmframework.wffweb.internal.tag.html.OptimisticReadWriteLock;
+import com.webfirmframework.wffweb.internal.tag.html.TagByWffIdMap;
+import com.webfirmframework.wffweb.internal.tag.html.TagIndex;
 import com.webfirmframework.wffweb.internal.tag.html.listener.AttributeAddListener;
 import com.webfirmframework.wffweb.internal.tag.html.listener.AttributeRemoveListener;
 import com.webfirmframework.wffweb.internal.tag.html.listener.ChildCreatedOrMovedEvent;
@@ -134,6 +141,13 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
      */
     private static final byte[] INDEXED_PERCENT_CHAR_BYTES;
 
+    private static final int OUTPUT_STREAM_CHUNK_SIZE = 8192;
+
+    private static final int OPTIMISTIC_READ_VALIDATION_INTERVAL = 64;
+
+    // the optimistic read of the current thread, see applyInOptimisticRead
+    private static final ThreadLocal<OptimisticRead> OPTIMISTIC_READ = new ThreadLocal<>();
+
     private volatile AbstractHtml parent;
 
     private volatile boolean parentNullifiedOnce;
@@ -166,6 +180,24 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
 
     private final StringBuilder tagBuilder = new StringBuilder();
 
+    // the start index of the html of this tag relative to the start index of the
+    // html of its parent in the last cached render, -1 if unknown
+    private transient int renderCacheOffset = -1;
+
+    private transient int renderCacheLength;
+
+    // false if this tag or any of its nested children is modified after the last
+    // cached render. NB: if it is false then it will be false for all of its
+    // ancestors
+    private transient boolean renderCacheValid;
+
+    private transient boolean openingTagCacheValid;
+
+    // only for the root tag of the shared object if the render cache is enabled,
+    // it is the html of the last render which is kept to copy the html of the
+    // unmodified subtrees in the next render
+    private transient String renderCacheHtml;
+
     private volatile AbstractAttribute[] attributes;
 
     private volatile Map<String, AbstractAttribute> attributesMap;
@@ -240,6 +272,44 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
         }
     }
 
+    private static final class OptimisticRead {
+
+        private final AbstractHtml5SharedObject sharedObject;
+
+        private final long stamp;
+
+        private int visitedCount;
+
+        private OptimisticRead(final AbstractHtml5SharedObject sharedObject, final long stamp) {
+            this.sharedObject = sharedObject;
+            this.stamp = stamp;
+        }
+
+        private void tagVisited() {
+            visitedCount++;
+            if (visitedCount % OPTIMISTIC_READ_VALIDATION_INTERVAL == 0
+                    && !validateOptimisticRead(sharedObject, stamp)) {
+                throw InvalidOptimisticReadException.INSTANCE;
+            }
+        }
+    }
+
+    /**
+     * thrown to abort an optimistic read, it has no stack trace as it is always
+     * caught by the caller of the optimistic read.
+     */
+    static final class InvalidOptimisticReadException extends RuntimeException {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private static final InvalidOptimisticReadException INSTANCE = new InvalidOptimisticReadException();
+
+        private InvalidOptimisticReadException() {
+            super("The tags are modified in the optimistic read", null, false, false);
+        }
+    }
+
     private static enum WhenURIMethodType {
 
         SUCCESS_SUPPLIER_FAIL_CONSUMER,
@@ -347,6 +417,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
 
                 if (removed) {
                     sharedObject.setChildModified(removed, ACCESS_OBJECT);
+                    invalidateRenderCache();
                 }
 
                 return removed;
@@ -357,6 +428,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
                 final boolean added = super.add(e);
                 if (added) {
                     sharedObject.setChildModified(added, ACCESS_OBJECT);
+                    invalidateRenderCache();
                 }
                 return added;
             }
@@ -415,6 +487,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
             public void clear() {
                 if (!super.isEmpty()) {
                     sharedObject.setChildModified(true, ACCESS_OBJECT);
+                    invalidateRenderCache();
                 }
                 super.clear();
             }
@@ -1459,6 +1532,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
         final boolean removedAll = children.removeAll(validChildren);
 
         if (removedAll) {
+            invalidateRenderCache();
             final List<Lock> newSOLocks = initNewSharedObjectInAllNestedTagsAndSetSuperParentNull(removedAbstractHtmls);
 
             try {
@@ -1705,7 +1779,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
      * @param tag
      * @since 3.0.7
      */
-    private static void removeFromTagByWffIdMap(final AbstractHtml tag, final Map<String, AbstractHtml> tagByWffId) {
+    private static void removeFromTagByWffIdMap(final AbstractHtml tag, final TagByWffIdMap tagByWffId) {
 
         if (!tagByWffId.isEmpty()) {
             final Deque<Set<AbstractHtml>> childrenStack = new ArrayDeque<>();
@@ -1718,13 +1792,9 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
 
                     final DataWffId dataWffId = child.dataWffId;
                     if (dataWffId != null) {
-                        tagByWffId.computeIfPresent(dataWffId.getValue(), (k, v) -> {
-                            if (child.equals(v)) {
-                                child.removeDataWffId();
-                                return null;
-                            }
-                            return v;
-                        });
+                        if (tagByWffId.removeTag(dataWffId, child)) {
+                            child.removeDataWffId();
+                        }
                     }
 
                     final Set<AbstractHtml> subChildren = child.children;
@@ -1853,6 +1923,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
         initSharedObject(child);
 
         child.parent = this;
+        child.resetRenderCachePosition();
     }
 
     private void initSharedObject(final AbstractHtml child) {
@@ -1866,6 +1937,8 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
      */
     private static void initSharedObject(final AbstractHtml child, final AbstractHtml5SharedObject sharedObject) {
 
+        final TagIndex tagIndex = sharedObject.getTagIndex(ACCESS_OBJECT);
+
         final Deque<Set<AbstractHtml>> childrenStack = new ArrayDeque<>();
         final Set<AbstractHtml> initialSet = Set.of(child);
         childrenStack.push(initialSet);
@@ -1875,8 +1948,20 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
 
             for (final AbstractHtml eachChild : children) {
 
+                final AbstractHtml5SharedObject previousSharedObject = eachChild.sharedObject;
+                if (previousSharedObject != null && !sharedObject.equals(previousSharedObject)) {
+                    final TagIndex previousTagIndex = previousSharedObject.getTagIndex(ACCESS_OBJECT);
+                    if (previousTagIndex != null) {
+                        previousTagIndex.tagRemoved(eachChild);
+                    }
+                }
+
                 eachChild.sharedObject = sharedObject;
 
+                if (tagIndex != null) {
+                    tagIndex.tagModified(eachChild);
+                }
+
                 if (eachChild.uriChangeContents != null && !eachChild.sharedObject.isWhenURIUsed()) {
                     eachChild.sharedObject.whenURIUsed(ACCESS_OBJECT);
                 }
@@ -1921,7 +2006,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
      * @since 12.0.0-beta.1 should be called only after lock and while
      *        adding/append/prepend/whenURI etc.. this tag to another tag.
      */
-    void applyURIChange(final AbstractHtml5SharedObject sharedObject, final Map<String, AbstractHtml> tagByWffId,
+    void applyURIChange(final AbstractHtml5SharedObject sharedObject, final TagByWffIdMap tagByWffId,
             final boolean updateClient) {
 
         final URIChangeTagSupplier uriChangeTagSupplier = sharedObject.getURIChangeTagSupplier(ACCESS_OBJECT);
@@ -1956,7 +2041,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
                             if (eachChild.dataWffId == null) {
                                 eachChild.setDataWffId(sharedObject.getNewDataWffId(ACCESS_OBJECT));
                             }
-                            tagByWffId.put(eachChild.dataWffId.getValue(), eachChild);
+                            tagByWffId.put(eachChild.dataWffId, eachChild);
                         }
                     }
                 }
@@ -2323,7 +2408,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
                 }
             }
 
-            final Map<String, AbstractHtml> tagByWffId = sharedObject.getTagByWffId(ACCESS_OBJECT);
+            final TagByWffIdMap tagByWffId = sharedObject.getTagByWffId(ACCESS_OBJECT);
             for (final AbstractHtml each : childrenToBeRemoved) {
                 removeFromTagByWffIdMap(each, tagByWffId);
             }
@@ -2673,6 +2758,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
         setModified(true);
 
         sharedObject.setChildModified(true, ACCESS_OBJECT);
+        markModifiedInTagIndex(sharedObject);
 
         // invokeListener
         if (updateClient) {
@@ -2687,6 +2773,19 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
         return listenerInvoked;
     }
 
+    /**
+     * marks this tag to be re-indexed if the tag index is enabled.
+     *
+     * @param sharedObject the sharedObject of this tag
+     * @since 12.0.13
+     */
+    private void markModifiedInTagIndex(final AbstractHtml5SharedObject sharedObject) {
+        final TagIndex tagIndex = sharedObject.getTagIndex(ACCESS_OBJECT);
+        if (tagIndex != null) {
+            tagIndex.tagModified(this);
+        }
+    }
+
     /**
      * @return the collection of attributes
      * @author WFF
@@ -2867,6 +2966,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
                 this.attributes = attributesMap.values().toArray(new AbstractAttribute[attributesMap.size()]);
                 setModified(true);
                 sharedObject.setChildModified(true, ACCESS_OBJECT);
+                markModifiedInTagIndex(sharedObject);
 
                 // invokeListener
                 if (updateClient) {
@@ -3043,6 +3143,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
                 attributes = attributesMap.values().toArray(new AbstractAttribute[attributesMap.size()]);
                 setModified(true);
                 sharedObject.setChildModified(true, ACCESS_OBJECT);
+                markModifiedInTagIndex(sharedObject);
 
                 // invokeListener
                 if (updateClient) {
@@ -3567,6 +3668,21 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
         }
     }
 
+    /**
+     * {@inheritDoc} A modified tag will also invalidate the cached html of its
+     * ancestors.
+     *
+     * @since 12.0.13
+     */
+    @Override
+    public void setModified(final boolean modified) {
+        super.setModified(modified);
+        if (modified) {
+            openingTagCacheValid = false;
+            invalidateRenderCache();
+        }
+    }
+
     /**
      * For internal purpose. Not recommended for external purpose.
      *
@@ -3603,6 +3719,9 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
      * @since 1.0.0
      */
     protected String getPrintStructure() {
+        if (isRenderCacheRoot()) {
+            return getPrintStructure(false);
+        }
         if (isRebuild() || isModified()) {
             final Lock lock = lockAndGetWriteLock();
             try {
@@ -3633,6 +3752,31 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
      */
     protected String getPrintStructure(final boolean rebuild) {
 
+        if (isRenderCacheRoot()) {
+            if (!rebuild) {
+                final Lock lock = lockAndGetReadLock();
+                try {
+                    final String html = getValidRenderCacheHtml();
+                    if (html != null) {
+                        return html;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            final Lock lock = lockAndGetWriteLock();
+            try {
+                if (isRenderCacheRoot()) {
+                    beforePrintStructure();
+                    final String html = buildHtmlFromRenderCache(rebuild || isRebuild());
+                    setRebuild(false);
+                    return html;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
         if (rebuild || isRebuild() || isModified()) {
 
             final Lock lock = lockAndGetWriteLock();
@@ -3662,6 +3806,116 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
         }
     }
 
+    /**
+     * @return true if this tag is the root tag of its hierarchy and the render
+     *         cache is enabled for the hierarchy, see
+     *         {@link WffConfiguration#setRenderCacheEnabled(boolean)}, so that its
+     *         html can be built from the render cache. A tag detached from its parent
+     *         is the root tag of its new shared object but it is not considered
+     *         as a root tag here.
+     */
+    private boolean isRenderCacheRoot() {
+        return parent == null && !parentNullifiedOnce && sharedObject.isRenderCacheEnabled()
+                && sharedObject.getRootTag() == this;
+    }
+
+    /**
+     * NB: should be called under read or write lock.
+     *
+     * @return the html of the last cached render if this tag is the root tag and
+     *         nothing is modified in its hierarchy after that render, otherwise
+     *         null.
+     */
+    private String getValidRenderCacheHtml() {
+        if (isRenderCacheRoot() && renderCacheValid && !isRebuild()) {
+            return renderCacheHtml;
+        }
+        return null;
+    }
+
+    /**
+     * Marks this tag and its ancestors as modified in the render cache. It stops
+     * at the first ancestor which is already marked so the cost of a repeated
+     * modification in the same subtree is constant.
+     */
+    private void invalidateRenderCache() {
+        AbstractHtml tag = this;
+        while (tag != null && tag.renderCacheValid) {
+            tag.renderCacheValid = false;
+            tag = tag.parent;
+        }
+    }
+
+    /**
+     * should be called when the parent of this tag is changed as its html cannot
+     * be copied from the cached render of its previous parent.
+     */
+    private void resetRenderCachePosition() {
+        renderCacheOffset = -1;
+        renderCacheValid = false;
+        renderCacheHtml = null;
+    }
+
+    /**
+     * NB: should be called only on the root tag of the shared object and under
+     * write lock. Only the modified subtrees are rebuilt, the html of the
+     * unmodified subtrees is copied from the previous render.
+     *
+     * @param rebuild true to rebuild the whole html discarding the previous
+     *                render.
+     * @return the html string of this tag
+     * @since 12.0.13
+     */
+    private String buildHtmlFromRenderCache(final boolean rebuild) {
+        final String previousHtml = rebuild ? null : renderCacheHtml;
+        if (renderCacheValid && previousHtml != null) {
+            return previousHtml;
+        }
+        final StringBuilder builder = new StringBuilder(previousHtml != null ? previousHtml.length() + 64 : 256);
+        recurChildrenFromRenderCache(builder, this, previousHtml, previousHtml != null ? 0 : -1, rebuild);
+        final String html = builder.toString();
+        renderCacheLength = html.length();
+        renderCacheValid = true;
+        renderCacheHtml = html;
+        return html;
+    }
+
+    /**
+     * @param builder       the builder to append the html of the tag
+     * @param tag           the modified tag whose html is to be built
+     * @param previousHtml  the html of the previous cached render of the root
+     *                      tag
+     * @param previousStart the start index of the html of the given tag in the
+     *                      previousHtml, -1 if unknown
+     * @param rebuild       true to rebuild the opening tags even if they are not
+     *                      modified
+     * @since 12.0.13
+     */
+    private static void recurChildrenFromRenderCache(final StringBuilder builder, final AbstractHtml tag,
+            final String previousHtml, final int previousStart, final boolean rebuild) {
+        if (rebuild || !tag.openingTagCacheValid) {
+            tag.buildOpeningTag(true);
+            tag.openingTagCacheValid = true;
+        }
+        final int start = builder.length();
+        builder.append(tag.openingTag);
+        for (final AbstractHtml child : tag.children) {
+            final int childStart = builder.length();
+            final int childPreviousStart = previousStart != -1 && child.renderCacheOffset != -1
+                    ? previousStart + child.renderCacheOffset
+                    : -1;
+            if (child.renderCacheValid && childPreviousStart != -1) {
+                builder.append(previousHtml, childPreviousStart, childPreviousStart + child.renderCacheLength);
+            } else {
+                recurChildrenFromRenderCache(builder, child, previousHtml, childPreviousStart, rebuild);
+            }
+            child.renderCacheOffset = childStart - start;
+            child.renderCacheLength = builder.length() - childStart;
+            child.renderCacheValid = true;
+        }
+        builder.append(tag.closingTag);
+    }
+
     /**
      * @param charset
      * @param os
@@ -3687,19 +3941,89 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
     protected int writePrintStructureToOutputStream(final OutputStream os, final boolean rebuild, final Charset charset,
             final boolean flushOnWrite) throws IOException {
 
+        final List<String> htmlSnapshot;
         final Lock lock = lockAndGetWriteLock();
         try {
 
+            // invoked under the write lock in all render paths as the overridden
+            // method may modify the tags
             beforeWritePrintStructureToOutputStream();
-            final int[] totalWritten = { 0 };
-            // passed 2 instead of 1 because the load factor is 0.75f
-            final Set<AbstractHtml> localChildren = new LinkedHashSet<>(2);
-            localChildren.add(this);
-            recurChildrenToOutputStream(totalWritten, charset, os, localChildren, rebuild, flushOnWrite);
-            return totalWritten[0];
+            // the html of the render cache is a single string so it cannot be
+            // flushed on each tag
+            if (!flushOnWrite && isRenderCacheRoot()) {
+                // it returns the cached html without rebuilding if nothing is
+                // modified
+                htmlSnapshot = List.of(buildHtmlFromRenderCache(rebuild || isRebuild()));
+                setRebuild(false);
+            } else {
+                htmlSnapshot = new ArrayList<>();
+                // passed 2 instead of 1 because the load factor is 0.75f
+                final Set<AbstractHtml> localChildren = new LinkedHashSet<>(2);
+                localChildren.add(this);
+                recurChildrenToHtmlSnapshot(htmlSnapshot, localChildren, rebuild);
+            }
         } finally {
             lock.unlock();
         }
+        // the snapshot is written after releasing the lock so that a slow
+        // OutputStream, eg: a slow client download, will not block the
+        // modifications of the tags
+        return writeHtmlToOutputStream(htmlSnapshot, charset, os, flushOnWrite);
+    }
+
+    /**
+     * Encodes the html in chunks so that the bytes of the whole html will not be
+     * allocated at once. Each string is encoded separately, i.e. the same as
+     * {@code String.getBytes(charset)}, but the bytes of the consecutive strings
+     * are written together in chunks unless flushOnWrite is true.
+     *
+     * @param htmlSnapshot the opening tag, contents and closing tag strings of the
+     *                     html in order
+     * @param charset      the charset to encode the html
+     * @param os           the OutputStream to write
+     * @param flushOnWrite true to flush after writing each string of the
+     *                     htmlSnapshot
+     * @return the total number of bytes written
+     * @throws IOException
+     * @since 12.0.13
+     */
+    private static int writeHtmlToOutputStream(final List<String> htmlSnapshot, final Charset charset,
+            final OutputStream os, final boolean flushOnWrite) throws IOException {
+        final CharsetEncoder encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        final ByteBuffer out = ByteBuffer.allocate(OUTPUT_STREAM_CHUNK_SIZE);
+        int totalWritten = 0;
+        for (final String html : htmlSnapshot) {
+            final CharBuffer in = CharBuffer.wrap(html);
+            encoder.reset();
+            while (encoder.encode(in, out, true).isOverflow()) {
+                totalWritten += writeChunk(out, os, false);
+            }
+            while (encoder.flush(out).isOverflow()) {
+                totalWritten += writeChunk(out, os, false);
+            }
+            if (flushOnWrite) {
+                // flushed on each opening tag, content and closing tag as
+                // recurChildrenToOutputStream did
+                totalWritten += writeChunk(out, os, true);
+            }
+        }
+        totalWritten += writeChunk(out, os, flushOnWrite);
+        return totalWritten;
+    }
+
+    private static int writeChunk(final ByteBuffer chunk, final OutputStream os, final boolean flushOnWrite)
+            throws IOException {
+        chunk.flip();
+        final int length = chunk.limit();
+        if (length > 0) {
+            os.write(chunk.array(), 0, length);
+            if (flushOnWrite) {
+                os.flush();
+            }
+        }
+        chunk.clear();
+        return length;
     }
 
     // for future development
@@ -3808,7 +4132,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
                     tagBuilder.delete(0, tagBuilder.length());
                 }
 
-                appendPrintStructureWithoutRecursive(tagBuilder, this, true);
+                appendPrintStructureWithoutRecursive(tagBuilder::append, this, true);
                 setRebuild(false);
                 tagBuilder.trimToSize();
                 final String html = tagBuilder.toString();
@@ -3985,21 +4309,19 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
     private int writePrintStructureToOSWithoutRecursive(final Charset charset, final OutputStream os,
             final boolean rebuild, final boolean flushOnWrite) throws IOException {
 
+        final List<String> htmlSnapshot = new ArrayList<>();
         final Lock lock = lockAndGetWriteLock();
         try {
-
             beforeWritePrintStructureToOutputStream();
-            final int[] totalWritten = { 0 };
-            writePrintStructureToOSWithoutRecursive(totalWritten, charset, os, this, rebuild, flushOnWrite);
-            return totalWritten[0];
-
+            appendPrintStructureWithoutRecursive(htmlSnapshot::add, this, rebuild);
         } finally {
             lock.unlock();
         }
+        return writeHtmlToOutputStream(htmlSnapshot, charset, os, flushOnWrite);
     }
 
-    private static void appendPrintStructureWithoutRecursive(final StringBuilder builder, final AbstractHtml topBase,
-            final boolean rebuild) {
+    private static void appendPrintStructureWithoutRecursive(final Consumer<String> appender,
+            final AbstractHtml topBase, final boolean rebuild) {
 
         AbstractHtml current = topBase;
 
@@ -4008,9 +4330,9 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
             final AbstractHtml child = current;
             current = null;
 
-            final AbstractHtml bottomChild = appendOpeningTagAndReturnBottomTag(builder, child, rebuild);
+            final AbstractHtml bottomChild = appendOpeningTagAndReturnBottomTag(appender, child, rebuild);
 
-            builder.append(bottomChild.closingTag);
+            appender.accept(bottomChild.closingTag);
 
             if (topBase.equals(bottomChild)) {
                 break;
@@ -4026,107 +4348,16 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
             } else {
 
                 if (bottomChild.parent.parent == null) {
-                    builder.append(bottomChild.parent.closingTag);
-                    break;
-                }
-
-                final List<AbstractHtml> childrenHoldingParent = List.copyOf(bottomChild.parent.parent.children);
-
-                final int indexOfNextToBottomParent = childrenHoldingParent.indexOf(bottomChild.parent) + 1;
-
-                if (indexOfNextToBottomParent < childrenHoldingParent.size()) {
-                    builder.append(bottomChild.parent.closingTag);
-
-                    if (topBase.equals(bottomChild.parent)) {
-                        break;
-                    }
-
-                    final AbstractHtml nextToParent = childrenHoldingParent.get(indexOfNextToBottomParent);
-                    current = nextToParent;
-                } else {
-                    current = appendClosingTagUptoRootReturnFirstMiddleChild(builder, topBase, bottomChild);
-                }
-
-            }
-
-        }
-
-    }
-
-    /**
-     * @param totalWritten
-     * @param charset
-     * @param os
-     * @param topBase
-     * @param rebuild
-     * @param flushOnWrite
-     * @throws IOException
-     * @author WFF
-     * @since 2.1.12
-     */
-    private static void writePrintStructureToOSWithoutRecursive(final int[] totalWritten, final Charset charset,
-            final OutputStream os, final AbstractHtml topBase, final boolean rebuild, final boolean flushOnWrite)
-            throws IOException {
-
-        AbstractHtml current = topBase;
-
-        while (current != null) {
-
-            final AbstractHtml child = current;
-            current = null;
-
-            final AbstractHtml bottomChild = writeOpeningTagAndReturnBottomTag(totalWritten, charset, os, child,
-                    rebuild);
-
-            {
-                final byte[] closingTagBytes = bottomChild.closingTag.getBytes(charset);
-                os.write(closingTagBytes);
-                if (flushOnWrite) {
-                    os.flush();
-                }
-                totalWritten[0] += closingTagBytes.length;
-
-                if (topBase.equals(bottomChild)) {
+                    appender.accept(bottomChild.parent.closingTag);
                     break;
                 }
-            }
-
-            final List<AbstractHtml> childrenHoldingBottomChild = List.copyOf(bottomChild.parent.children);
-
-            final int indexOfNextToBottomChild = childrenHoldingBottomChild.indexOf(bottomChild) + 1;
-
-            if (indexOfNextToBottomChild < childrenHoldingBottomChild.size()) {
-                final AbstractHtml nextToBottomChild = childrenHoldingBottomChild.get(indexOfNextToBottomChild);
-                current = nextToBottomChild;
-            } else {
-
-                {
-                    if (bottomChild.parent.parent == null) {
-
-                        final byte[] closingTagBytes = bottomChild.parent.closingTag.getBytes(charset);
-                        os.write(closingTagBytes);
-                        if (flushOnWrite) {
-                            os.flush();
-                        }
-
-                        totalWritten[0] += closingTagBytes.length;
-                        break;
-                    }
-                }
 
                 final List<AbstractHtml> childrenHoldingParent = List.copyOf(bottomChild.parent.parent.children);
 
                 final int indexOfNextToBottomParent = childrenHoldingParent.indexOf(bottomChild.parent) + 1;
 
                 if (indexOfNextToBottomParent < childrenHoldingParent.size()) {
-
-                    final byte[] closingTagBytes = bottomChild.parent.closingTag.getBytes(charset);
-                    os.write(closingTagBytes);
-                    if (flushOnWrite) {
-                        os.flush();
-                    }
-
-                    totalWritten[0] += closingTagBytes.length;
+                    appender.accept(bottomChild.parent.closingTag);
 
                     if (topBase.equals(bottomChild.parent)) {
                         break;
@@ -4135,8 +4366,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
                     final AbstractHtml nextToParent = childrenHoldingParent.get(indexOfNextToBottomParent);
                     current = nextToParent;
                 } else {
-                    current = writeClosingTagUptoRootReturnFirstMiddleChild(totalWritten, charset, os, topBase,
-                            bottomChild, flushOnWrite);
+                    current = appendClosingTagUptoRootReturnFirstMiddleChild(appender, topBase, bottomChild);
                 }
 
             }
@@ -4145,8 +4375,8 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
 
     }
 
-    private static AbstractHtml appendOpeningTagAndReturnBottomTag(final StringBuilder builder, final AbstractHtml base,
-            final boolean rebuild) {
+    private static AbstractHtml appendOpeningTagAndReturnBottomTag(final Consumer<String> appender,
+            final AbstractHtml base, final boolean rebuild) {
 
         AbstractHtml bottomChild = base;
 
@@ -4163,7 +4393,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
             if (iterator.hasNext()) {
                 final AbstractHtml child = iterator.next();
                 child.setRebuild(rebuild);
-                builder.append(child.getOpeningTag());
+                appender.accept(child.getOpeningTag());
                 bottomChild = child;
 
                 final Set<AbstractHtml> subChildren = child.children;
@@ -4177,45 +4407,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
         return bottomChild;
     }
 
-    private static AbstractHtml writeOpeningTagAndReturnBottomTag(final int[] totalWritten, final Charset charset,
-            final OutputStream os, final AbstractHtml base, final boolean rebuild) throws IOException {
-
-        AbstractHtml bottomChild = base;
-
-        // passed 2 instead of 1 because the load factor is 0.75f
-        Set<AbstractHtml> current = new HashSet<>(2);
-        current.add(base);
-
-        while (current != null) {
-
-            final Set<AbstractHtml> children = current;
-            current = null;
-
-            final Iterator<AbstractHtml> iterator = children.iterator();
-            // only first child is required here
-            if (iterator.hasNext()) {
-                final AbstractHtml child = iterator.next();
-
-                child.setRebuild(rebuild);
-
-                final byte[] openingTagBytes = child.getOpeningTag().getBytes(charset);
-                os.write(openingTagBytes);
-                totalWritten[0] += openingTagBytes.length;
-
-                bottomChild = child;
-
-                final Set<AbstractHtml> subChildren = child.children;
-                if (subChildren != null && !subChildren.isEmpty()) {
-                    current = subChildren;
-                }
-            }
-
-        }
-
-        return bottomChild;
-    }
-
-    private static AbstractHtml appendClosingTagUptoRootReturnFirstMiddleChild(final StringBuilder builder,
+    private static AbstractHtml appendClosingTagUptoRootReturnFirstMiddleChild(final Consumer<String> appender,
             final AbstractHtml topBase, final AbstractHtml bottomChild) {
 
         AbstractHtml current = bottomChild;
@@ -4232,44 +4424,7 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
                 if (nextIndexOfChild < childrenHoldingChild.size()) {
                     return childrenHoldingChild.get(nextIndexOfChild);
                 } else {
-                    builder.append(child.parent.closingTag);
-                    if (topBase.equals(child.parent)) {
-                        break;
-                    }
-                    current = child.parent;
-
-                }
-            }
-        }
-        return null;
-    }
-
-    private static AbstractHtml writeClosingTagUptoRootReturnFirstMiddleChild(final int[] totalWritten,
-            final Charset charset, final OutputStream os, final AbstractHtml topBase, final AbstractHtml bottomChild,
-            final boolean flushOnWrite) throws IOException {
-
-        AbstractHtml current = bottomChild;
-
-        while (current != null) {
-            final AbstractHtml child = current;
-
-            current = null;
-
-            if (child.parent != null) {
-                final List<AbstractHtml> childrenHoldingChild = List.copyOf(child.parent.children);
-
-                final int nextIndexOfChild = childrenHoldingChild.indexOf(child) + 1;
-                if (nextIndexOfChild < childrenHoldingChild.size()) {
-                    return childrenHoldingChild.get(nextIndexOfChild);
-                } else {
-                    final byte[] closingTagBytes = child.parent.closingTag.getBytes(charset);
-                    os.write(closingTagBytes);
-                    if (flushOnWrite) {
-                        os.flush();
-                    }
-
-                    totalWritten[0] += closingTagBytes.length;
-
+                    appender.accept(child.parent.closingTag);
                     if (topBase.equals(child.parent)) {
                         break;
                     }
@@ -4282,47 +4437,28 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
     }
 
     /**
-     * to form html string from the children
+     * adds the opening tag, contents and closing tag strings of the children to
+     * the snapshot. The strings are the strings cached in the tags so it does not
+     * copy the html.
      *
+     * @param htmlSnapshot
      * @param children
-     * @param rebuild      TODO
-     * @param flushOnWrite true to flush on each write to OutputStream
-     * @throws IOException
-     * @author WFF
-     * @since 1.0.0
+     * @param rebuild
+     * @since 12.0.13
      */
-    private static void recurChildrenToOutputStream(final int[] totalWritten, final Charset charset,
-            final OutputStream os, final Set<AbstractHtml> children, final boolean rebuild, final boolean flushOnWrite)
-            throws IOException {
-
+    private static void recurChildrenToHtmlSnapshot(final List<String> htmlSnapshot,
+            final Set<AbstractHtml> children, final boolean rebuild) {
         if (children != null && !children.isEmpty()) {
             for (final AbstractHtml child : children) {
                 child.setRebuild(rebuild);
-
-                byte[] openingTagBytes = child.getOpeningTag().getBytes(charset);
-                os.write(openingTagBytes);
-                if (flushOnWrite) {
-                    os.flush();
-                }
-                totalWritten[0] += openingTagBytes.length;
-                // explicitly dereferenced right after use
-                // because it's a recursive method.
-                openingTagBytes = null;
+                htmlSnapshot.add(child.getOpeningTag());
 
                 // final Set<AbstractHtml> childrenOfChildren = child.children;
                 // declaring a separate local variable childrenOfChildren will
                 // consume stack space so directly passed it as argument
-                recurChildrenToOutputStream(totalWritten, charset, os, child.children, rebuild, flushOnWrite);
+                recurChildrenToHtmlSnapshot(htmlSnapshot, child.children, rebuild);
 
-                byte[] closingTagBytes = child.closingTag.getBytes(charset);
-                os.write(closingTagBytes);
-                if (flushOnWrite) {
-                    os.flush();
-                }
-                totalWritten[0] += closingTagBytes.length;
-                // explicitly dereferenced right after use
-                // because it's a recursive method.
-                closingTagBytes = null;
+                htmlSnapshot.add(child.closingTag);
             }
         }
     }
@@ -4421,6 +4557,17 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
      */
     @Override
     public String toHtmlString() {
+        if (isRenderCacheRoot()) {
+            final Lock lock = lockAndGetReadLock();
+            try {
+                final String html = getValidRenderCacheHtml();
+                if (html != null) {
+                    return html;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
         final Lock lock = lockAndGetWriteLock();
         try {
             return toHtmlStringLockless();
@@ -4435,7 +4582,8 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
      * @return the html string
      */
     private String toHtmlStringLockless() {
-        final String printStructure = getPrintStructure(getSharedObject().isChildModified());
+        // the modified children are tracked by the render cache of the root tag
+        final String printStructure = getPrintStructure(!isRenderCacheRoot() && getSharedObject().isChildModified());
 
         if (parent == null) {
             sharedObject.setChildModified(false, ACCESS_OBJECT);
@@ -4725,6 +4873,15 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
         return sharedObject;
     }
 
+    /**
+     * @return the tag index of the sharedObject of this tag or null if it is not
+     *         enabled
+     * @since 12.0.13
+     */
+    final TagIndex getTagIndexLockless() {
+        return sharedObject.getTagIndex(ACCESS_OBJECT);
+    }
+
     /**
      * Note: Only for internal use
      *
@@ -5006,7 +5163,9 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
         }
         final List<TagContractRecord> tagContractRecords = new ArrayList<>(abstractHtmls.length);
         for (final AbstractHtml abstractHtml : abstractHtmls) {
-            tagContractRecords.add(new TagContractRecord(abstractHtml, new AbstractHtml5SharedObject(abstractHtml)));
+            // the detached tags keep the lock policy of their previous hierarchy
+            tagContractRecords.add(new TagContractRecord(abstractHtml,
+                    new AbstractHtml5SharedObject(abstractHtml, abstractHtml.sharedObject.getLockPolicy())));
         }
         tagContractRecords.sort(Comparator.comparing(TagContractRecord::objectId));
         final List<Lock> locks = new ArrayList<>(abstractHtmls.length);
@@ -5041,7 +5200,9 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
     private Lock initNewSharedObjectInAllNestedTagsAndSetSuperParentNull(final AbstractHtml abstractHtml,
             final boolean lockSO) {
 
-        final AbstractHtml5SharedObject newSharedObject = new AbstractHtml5SharedObject(abstractHtml);
+        // the detached tag keeps the lock policy of its previous hierarchy
+        final AbstractHtml5SharedObject newSharedObject = new AbstractHtml5SharedObject(abstractHtml,
+                abstractHtml.sharedObject.getLockPolicy());
         final WriteLock lock;
         if (lockSO) {
             lock = newSharedObject.getLock(ACCESS_OBJECT).writeLock();
@@ -5067,14 +5228,17 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
         // NB: the following code is never expected to make an exception otherwise on
         // exception the lock must be unlocked.
 
+        final TagIndex tagIndex = abstractHtml.sharedObject.getTagIndex(ACCESS_OBJECT);
+
         abstractHtml.sharedObject = newSharedObject;
 
         if (abstractHtml.parent != null) {
             abstractHtml.parent = null;
             abstractHtml.parentNullifiedOnce = true;
         }
+        abstractHtml.resetRenderCachePosition();
 
-        final Map<String, AbstractHtml> tagByWffId = sharedObject.getTagByWffId(ACCESS_OBJECT);
+        final TagByWffIdMap tagByWffId = sharedObject.getTagByWffId(ACCESS_OBJECT);
 
         final Deque<Set<AbstractHtml>> removedTagsStack = new ArrayDeque<>();
         final Set<AbstractHtml> initialSet = Set.of(abstractHtml);
@@ -5087,12 +5251,11 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
 
                 final DataWffId dataWffId = stackChild.dataWffId;
                 if (dataWffId != null) {
-                    tagByWffId.computeIfPresent(dataWffId.getValue(), (k, v) -> {
-                        if (stackChild.equals(v)) {
-                            return null;
-                        }
-                        return v;
-                    });
+                    tagByWffId.removeTag(dataWffId, stackChild);
+                }
+
+                if (tagIndex != null) {
+                    tagIndex.tagRemoved(stackChild);
                 }
 
                 stackChild.sharedObject = newSharedObject;
@@ -6203,10 +6366,17 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
 
         Set<AbstractHtml> children;
 
+        // not null if it is called in an optimistic read
+        final OptimisticRead optimisticRead = OPTIMISTIC_READ.get();
+
         exit: while ((children = childrenStack.poll()) != null) {
 
             for (final AbstractHtml eachChild : children) {
 
+                if (optimisticRead != null) {
+                    optimisticRead.tagVisited();
+                }
+
                 if (!nestedChild.eachChild(eachChild)) {
                     break exit;
                 }
@@ -6481,6 +6651,61 @@ public abstract non-sealed class AbstractHtml extends AbstractJsObject implement
         return sharedObject.getLock(ACCESS_OBJECT).writeLock();
     }
 
+    /**
+     * @param sharedObject from which the lock to get
+     * @return the stamp for {@link #validateOptimisticRead} or zero if the lock
+     *         of the sharedObject doesn't support optimistic read or if it is
+     *         write locked.
+     * @since 12.0.13
+     */
+    static final long tryOptimisticRead(final AbstractHtml5SharedObject sharedObject) {
+        return sharedObject.getLock(ACCESS_OBJECT) instanceof final OptimisticReadWriteLock lock
+                ? lock.tryOptimisticRead()
+                : 0L;
+    }
+
+    /**
+     * @param sharedObject from which the stamp is taken
+     * @param stamp        the stamp returned by {@link #tryOptimisticRead}
+     * @return true if the sharedObject is not write locked since the stamp was
+     *         taken.
+     * @since 12.0.13
+     */
+    static final boolean validateOptimisticRead(final AbstractHtml5SharedObject sharedObject, final long stamp) {
+        return sharedObject.getLock(ACCESS_OBJECT) instanceof final OptimisticReadWriteLock lock
+                && lock.validate(stamp);
+    }
+
+    /**
+     * Calls the reader in the optimistic read of the given stamp. The loop of
+     * {@link #loopThroughAllNestedChildren(NestedChild, boolean, AbstractHtml...)}
+     * validates the stamp on every {@value #OPTIMISTIC_READ_VALIDATION_INTERVAL}
+     * tags in this thread and aborts the reader by an exception if the tags are
+     * modified so that a concurrent modification cannot make it run arbitrarily
+     * long. The caller should still validate the stamp after this call.
+     *
+     * @param <T>          the type of the result
+     * @param sharedObject from which the stamp is taken
+     * @param stamp        the stamp returned by {@link #tryOptimisticRead}
+     * @param reader       to read the tags
+     * @return the result from the reader
+     * @since 12.0.13
+     */
+    static final <T> T applyInOptimisticRead(final AbstractHtml5SharedObject sharedObject, final long stamp,
+            final Supplier<T> reader) {
+        final OptimisticRead previous = OPTIMISTIC_READ.get();
+        OPTIMISTIC_READ.set(new OptimisticRead(sharedObject, stamp));
+        try {
+            return reader.get();
+        } finally {
+            if (previous != null) {
+                OPTIMISTIC_READ.set(previous);
+            } else {
+                OPTIMISTIC_READ.remove();
+            }
+        }
+    }
+
     /**
      * NB: without this method this.sharedObject in the later execution of nested
      * methods may be different than the lock acquired sharedObject, we have faced
@@ -20,16 +20,22 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.HashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.Stream.Builder;
 
 import com.webfirmframework.wffweb.internal.ObjectId;
+import com.webfirmframework.wffweb.internal.tag.html.TagIndex;
+import com.webfirmframework.wffweb.tag.html.AbstractHtml.InvalidOptimisticReadException;
 import com.webfirmframework.wffweb.tag.html.attribute.core.AbstractAttribute;
 import com.webfirmframework.wffweb.tag.html.model.AbstractHtml5SharedObject;
+import com.webfirmframework.wffweb.tag.html.model.TagLockPolicy;
 import com.webfirmframework.wffweb.wffbm.data.WffBMData;
 
 /**
@@ -95,6 +101,25 @@ public abstract class AbstractHtmlRepository {
         return tag.containsAttributesLockless();
     }
 
+    /**
+     * NB: should be called only under the read lock of the given tags.
+     *
+     * @param fromTags
+     * @return the tag index if the given tags represent the whole hierarchy of a
+     *         shared object having tag index enabled otherwise null
+     * @since 12.0.13
+     */
+    @SuppressWarnings("exports")
+    protected static TagIndex getTagIndexLockless(final AbstractHtml... fromTags) {
+        if (fromTags.length == 1) {
+            final AbstractHtml tag = fromTags[0];
+            if (tag != null && tag.equals(tag.getSharedObjectLockless().getRootTag())) {
+                return tag.getTagIndexLockless();
+            }
+        }
+        return null;
+    }
+
     /**
      * Old implementation of getReadLocks method. It is kept for future reference.
      *
@@ -145,6 +170,78 @@ public abstract class AbstractHtmlRepository {
         return lockAndGetLocks(true, fromTags);
     }
 
+    /**
+     * Gets the result from the reader under the read lock of the fromTags. If the
+     * lock policy of the fromTags is {@link TagLockPolicy#OPTIMISTIC}, the reader
+     * is first called without acquiring the read lock and its result is returned
+     * if the tags were not modified in between. So the reader must only read the
+     * tags and must not have any other side effect.
+     * <p>
+     * The reader gets the tag index of the fromTags only when it is called under
+     * the read lock, it is null in the optimistic read. The tag index refreshes
+     * itself while finding so it cannot be used without the read lock, and there
+     * is no optimistic read if the fromTags have a tag index. The stamp is also
+     * validated periodically while the reader loops through the nested children
+     * so a concurrent modification aborts the optimistic read early. The periodic
+     * validation works only in the calling thread so there is no optimistic read
+     * if the reader loops through the tags in parallel.
+     * <p>
+     * The reader is called again under the read lock only if the optimistic read
+     * fails with an exception which a concurrent modification can cause and the
+     * tags were really modified in between, any other exception is thrown to the
+     * caller.
+     *
+     * @param <T>      the type of the result
+     * @param parallel true if the reader loops through the tags in parallel, then
+     *                 it is called only under the read lock.
+     * @param reader   to read the tags, it may be called twice. Its argument is
+     *                 the tag index as returned by
+     *                 {@link #getTagIndexLockless(AbstractHtml...)} or null in
+     *                 the optimistic read.
+     * @param fromTags the tags to read
+     * @return the result from the reader
+     * @since 12.0.13
+     */
+    @SuppressWarnings("exports")
+    protected static <T> T readOptimistically(final boolean parallel, final Function<TagIndex, T> reader,
+            final AbstractHtml... fromTags) {
+
+        if (!parallel && fromTags.length == 1 && fromTags[0] != null && getTagIndexLockless(fromTags) == null) {
+            final AbstractHtml tag = fromTags[0];
+            final AbstractHtml5SharedObject sharedObject = tag.getSharedObjectLockless();
+            final long stamp = AbstractHtml.tryOptimisticRead(sharedObject);
+            if (stamp != 0L) {
+                try {
+                    final T result = AbstractHtml.applyInOptimisticRead(sharedObject, stamp,
+                            () -> reader.apply(null));
+                    if (AbstractHtml.validateOptimisticRead(sharedObject, stamp)
+                            && sharedObject.equals(tag.getSharedObjectLockless())) {
+                        return result;
+                    }
+                } catch (final InvalidOptimisticReadException | ConcurrentModificationException
+                        | NoSuchElementException | NullPointerException | IndexOutOfBoundsException e) {
+                    // these may be caused by a concurrent modification, if the tags
+                    // were not modified it is a real failure of the reader
+                    if (AbstractHtml.validateOptimisticRead(sharedObject, stamp)
+                            && sharedObject.equals(tag.getSharedObjectLockless())) {
+                        throw e;
+                    }
+                    // the tags were modified while reading so it will be read
+                    // again under the lock
+                }
+            }
+        }
+
+        final Collection<Lock> locks = lockAndGetReadLocks(fromTags);
+        try {
+            return reader.apply(getTagIndexLockless(fromTags));
+        } finally {
+            for (final Lock lock : locks) {
+                lock.unlock();
+            }
+        }
+    }
+
     private static Collection<Lock> lockAndGetLocks(final boolean writeLock, final AbstractHtml... fromTags) {
 
         if (fromTags == null || fromTags.length == 0) {
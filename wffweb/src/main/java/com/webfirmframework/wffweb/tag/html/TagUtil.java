@@ -23,7 +23,6 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
@@ -33,6 +32,7 @@ import com.webfirmframework.wffweb.common.URIEvent;
 import com.webfirmframework.wffweb.internal.ObjectId;
 import com.webfirmframework.wffweb.internal.constants.IndexedClassType;
 import com.webfirmframework.wffweb.internal.security.object.SecurityObject;
+import com.webfirmframework.wffweb.internal.tag.html.TagByWffIdMap;
 import com.webfirmframework.wffweb.tag.html.attribute.core.AbstractAttribute;
 import com.webfirmframework.wffweb.tag.html.attribute.core.AttributeUtil;
 import com.webfirmframework.wffweb.tag.html.model.AbstractHtml5SharedObject;
@@ -311,7 +311,7 @@ public final class TagUtil {
      * @since 12.0.0-beta.7
      */
     public static void applyURIChangeAndAddDataWffIdAttribute(final AbstractHtml tag,
-            final AbstractHtml5SharedObject sharedObject, final Map<String, AbstractHtml> tagByWffId,
+            final AbstractHtml5SharedObject sharedObject, @SuppressWarnings("exports") final TagByWffIdMap tagByWffId,
             @SuppressWarnings("exports") final SecurityObject accessObject) {
         if (accessObject == null || !(IndexedClassType.BROWSER_PAGE.equals(accessObject.forClassType()))) {
             throw new WffSecurityException("Not allowed to consume this method. This method is for internal use.");
@@ -326,4 +326,24 @@ public final class TagUtil {
         }
     }
 
+    /**
+     * NB: only for internal use. It does not acquire any lock so it should be
+     * called under the lock of the tag.
+     *
+     * @param accessObject
+     * @param tag           the tag object
+     * @param attributeName the attribute name
+     * @return the value of the attribute or null if the tag has no such attribute
+     *         or the attribute has no value.
+     * @since 12.0.13
+     */
+    public static String getAttributeValueLockless(@SuppressWarnings("exports") final SecurityObject accessObject,
+            final AbstractHtml tag, final String attributeName) {
+        if (accessObject == null || !(IndexedClassType.BROWSER_PAGE.equals(accessObject.forClassType()))) {
+            throw new WffSecurityException("Not allowed to consume this method. This method is for internal use.");
+        }
+        final AbstractAttribute attribute = tag.getAttributeByNameLockless(attributeName);
+        return attribute != null ? AttributeUtil.getAttributeValueLockless(accessObject, attribute) : null;
+    }
+
 }
@@ -42,6 +42,7 @@ import com.webfirmframework.wffweb.internal.ObjectId;
 import com.webfirmframework.wffweb.internal.constants.CommonConstants;
 import com.webfirmframework.wffweb.internal.security.object.AbstractAttributeSecurity;
 import com.webfirmframework.wffweb.internal.security.object.SecurityObject;
+import com.webfirmframework.wffweb.internal.tag.html.TagIndex;
 import com.webfirmframework.wffweb.internal.tag.html.listener.PushQueue;
 import com.webfirmframework.wffweb.tag.core.AbstractTagBase;
 import com.webfirmframework.wffweb.tag.html.AbstractHtml;
@@ -50,6 +51,7 @@ import com.webfirmframework.wffweb.tag.html.html5.attribute.global.DataWffId;
 import com.webfirmframework.wffweb.tag.html.model.AbstractHtml5SharedObject;
 import com.webfirmframework.wffweb.util.NumberUtil;
 import com.webfirmframework.wffweb.util.StringBuilderUtil;
+import com.webfirmframework.wffweb.util.StringUtil;
 import com.webfirmframework.wffweb.util.WffBinaryMessageUtil;
 
 public abstract non-sealed class AbstractAttribute extends AbstractTagBase {
@@ -728,7 +730,8 @@ public abstract non-sealed class AbstractAttribute extends AbstractTagBase {
 
             if (proceed) {
                 setModifiedLockless(true);
-                invokeValueChangeListeners(ownerTagsRecord);
+                invokeValueChangeListeners(ownerTagsRecord,
+                        new AttributeValueChangeListener.ValueMapChange(key, value));
             }
 
         } finally {
@@ -749,6 +752,20 @@ public abstract non-sealed class AbstractAttribute extends AbstractTagBase {
      * changing value
      */
     private void invokeValueChangeListeners(final OwnerTagsRecord ownerTagsRecord) {
+        invokeValueChangeListeners(ownerTagsRecord, null);
+    }
+
+    /**
+     * this method should be called after changing of attribute value not before
+     * changing value
+     *
+     * @param ownerTagsRecord
+     * @param valueMapChange  the change if only a single key of the value map is
+     *                        changed otherwise null
+     * @since 12.0.13
+     */
+    private void invokeValueChangeListeners(final OwnerTagsRecord ownerTagsRecord,
+            final AttributeValueChangeListener.ValueMapChange valueMapChange) {
 
         final Collection<AbstractHtml5SharedObject> sharedObjects = ownerTagsRecord.sharedObjects;
 
@@ -763,7 +780,7 @@ public abstract non-sealed class AbstractAttribute extends AbstractTagBase {
                 // skipped it making unmodifiable to gain
                 // performance
                 final AttributeValueChangeListener.Event event = new AttributeValueChangeListener.Event(this, ownerTags,
-                        false);
+                        false, valueMapChange);
                 valueChangeListener.valueChanged(event);
             }
         }
@@ -771,7 +788,7 @@ public abstract non-sealed class AbstractAttribute extends AbstractTagBase {
         if (valueChangeListeners != null) {
             for (final AttributeValueChangeListener listener : valueChangeListeners) {
                 final AttributeValueChangeListener.Event event = new AttributeValueChangeListener.Event(this, ownerTags,
-                        false);
+                        false, valueMapChange);
                 listener.valueChanged(event);
             }
         }
@@ -959,7 +976,8 @@ public abstract non-sealed class AbstractAttribute extends AbstractTagBase {
 
                 if (result) {
                     setModifiedLockless(true);
-                    invokeValueChangeListeners(ownerTagsRecord);
+                    invokeValueChangeListeners(ownerTagsRecord,
+                            keys.length == 1 ? new AttributeValueChangeListener.ValueMapChange(keys[0], null) : null);
                     listenerInvoked = true;
                 }
 
@@ -1070,6 +1088,34 @@ public abstract non-sealed class AbstractAttribute extends AbstractTagBase {
         return attributeValue;
     }
 
+    /**
+     * NB: only for internal use. It does not acquire any lock so it should be
+     * called under the lock of the owner tags.
+     *
+     * @return the attribute value, the value map or the value set as a string
+     *         or null if there is no value.
+     * @since 12.0.13
+     */
+    final String getAttributeValueLockless() {
+        final String attributeValue = this.attributeValue;
+        if (attributeValue != null) {
+            return attributeValue;
+        }
+        final Map<String, String> attributeValueMap = this.attributeValueMap;
+        if (attributeValueMap != null && !attributeValueMap.isEmpty()) {
+            final StringBuilder valueBuilder = new StringBuilder();
+            for (final Entry<String, String> entry : attributeValueMap.entrySet()) {
+                valueBuilder.append(entry.getKey()).append(':').append(entry.getValue()).append(';');
+            }
+            return StringBuilderUtil.getTrimmedString(valueBuilder);
+        }
+        final Set<String> attributeValueSet = this.attributeValueSet;
+        if (attributeValueSet != null && !attributeValueSet.isEmpty()) {
+            return StringUtil.join(' ', attributeValueSet);
+        }
+        return null;
+    }
+
     /**
      * @param attributeValue the attributeValue to set
      * @author WFF
@@ -1267,7 +1313,12 @@ public abstract non-sealed class AbstractAttribute extends AbstractTagBase {
             compressedBytes = null;
             for (final AbstractHtml ownerTag : ownerTags) {
                 ownerTag.setModified(modified);
-                ownerTag.getSharedObject(ACCESS_OBJECT).setChildModified(modified, ACCESS_OBJECT);
+                final AbstractHtml5SharedObject sharedObject = ownerTag.getSharedObject(ACCESS_OBJECT);
+                sharedObject.setChildModified(modified, ACCESS_OBJECT);
+                final TagIndex tagIndex = sharedObject.getTagIndex(ACCESS_OBJECT);
+                if (tagIndex != null) {
+                    tagIndex.attributeModified(ownerTag, attributeName);
+                }
             }
         }
     }
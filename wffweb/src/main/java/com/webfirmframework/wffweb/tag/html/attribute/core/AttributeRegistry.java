@@ -232,6 +232,8 @@ public class AttributeRegistry {
 
     private static volatile Map<String, Class<?>> attributeClassByAttrNameTmp = new ConcurrentHashMap<>();
 
+    private static final Map<String, Function<String, ? extends AbstractAttribute>> CUSTOM_ATTR_CREATOR_BY_ATTR_NAME;
+
     private static final List<String> SORTED_BOOLEAN_ATTR_NAMES;
 
     private static final List<String> SORTED_EVENT_ATTR_NAMES;
@@ -243,6 +245,7 @@ public class AttributeRegistry {
 
         Map<String, Class<?>> attributeClassByAttrName = new ConcurrentHashMap<>(initialCapacity);
         ATTRIBUTE_CLASS_NAME_BY_ATTR_NAME = new ConcurrentHashMap<>(initialCapacity);
+        CUSTOM_ATTR_CREATOR_BY_ATTR_NAME = new ConcurrentHashMap<>();
 
         attributeClassByAttrName = new ConcurrentHashMap<>(initialCapacity);
 
@@ -1037,30 +1040,12 @@ public class AttributeRegistry {
      * @since 3.0.2
      */
     public static AbstractAttribute getNewAttributeInstance(final String attributeName, final String attributeValue) {
-
-        final Class<?> attrClass = ATTRIBUTE_CLASS_BY_ATTR_NAME.get(attributeName);
-
-        if (attrClass == null) {
-            return null;
-        }
-
         try {
-
-            if (attributeValue == null) {
-                final AbstractAttribute newInstance = (AbstractAttribute) attrClass.getConstructor().newInstance();
-                return newInstance;
-            }
-
-            final AbstractAttribute newInstance = (AbstractAttribute) attrClass.getConstructor(String.class)
-                    .newInstance(attributeValue);
-
-            return newInstance;
-        } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
-                | NoSuchMethodException | SecurityException e) {
+            return newAttributeInstance(attributeName, attributeValue);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
             throw new InvalidValueException(
                     "The given attributeValue " + attributeValue + " is invalid for " + attributeName);
         }
-
     }
 
     /**
@@ -1071,6 +1056,47 @@ public class AttributeRegistry {
      */
     public static AbstractAttribute getNewAttributeInstanceOrNullIfFailed(final String attributeName,
             final String attributeValue) {
+        try {
+            return newAttributeInstance(attributeName, attributeValue);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            // NOP
+        }
+        return null;
+    }
+
+    /**
+     * @param attributeName
+     * @param attributeValue
+     * @return new instance or null if there is no attribute class for the
+     *         attributeName
+     * @throws ReflectiveOperationException
+     * @since 12.0.13
+     */
+    private static AbstractAttribute newAttributeInstance(final String attributeName, final String attributeValue)
+            throws ReflectiveOperationException {
+
+        // the lambdas are used instead of reflection for the pre-indexed attributes.
+        // A null attributeValue keeps the no-arg constructor path as a few of the
+        // attribute classes have no no-arg constructor, eg: For.
+        if (attributeValue != null) {
+            final Function<String, AbstractAttribute> attributeCreatorLamda = getAttributeCreatorLamda(
+                    PreIndexedAttributeName.forAttrName(attributeName));
+            if (attributeCreatorLamda != null) {
+                // a few lambdas return null for an invalid value
+                final AbstractAttribute attribute = attributeCreatorLamda.apply(attributeValue);
+                if (attribute == null) {
+                    throw new InvalidValueException(
+                            "The given attributeValue " + attributeValue + " is invalid for " + attributeName);
+                }
+                return attribute;
+            }
+        }
+
+        final Function<String, ? extends AbstractAttribute> customAttrCreator = CUSTOM_ATTR_CREATOR_BY_ATTR_NAME
+                .get(attributeName);
+        if (customAttrCreator != null) {
+            return customAttrCreator.apply(attributeValue);
+        }
 
         final Class<?> attrClass = ATTRIBUTE_CLASS_BY_ATTR_NAME.get(attributeName);
 
@@ -1078,23 +1104,42 @@ public class AttributeRegistry {
             return null;
         }
 
-        try {
-
-            if (attributeValue == null) {
-                final AbstractAttribute newInstance = (AbstractAttribute) attrClass.getConstructor().newInstance();
-                return newInstance;
-            }
+        if (attributeValue == null) {
+            return (AbstractAttribute) attrClass.getConstructor().newInstance();
+        }
 
-            final AbstractAttribute newInstance = (AbstractAttribute) attrClass.getConstructor(String.class)
-                    .newInstance(attributeValue);
+        return (AbstractAttribute) attrClass.getConstructor(String.class).newInstance(attributeValue);
+    }
 
-            return newInstance;
-        } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
-                | NoSuchMethodException | SecurityException e) {
-            // NOP
+    /**
+     * Registers the creator of a custom attribute class. It is used to create the
+     * attribute object while parsing the html string and the wff binary message
+     * bytes instead of a {@code CustomAttribute} for the attribute name. Eg:
+     *
+     * <pre><code>
+     * AttributeRegistry.register("data-tooltip", DataTooltip::new);
+     * </code></pre>
+     *
+     * @param attrName    the attribute name
+     * @param attrCreator the function to create the attribute object from the
+     *                    attribute value, the value will be null if the attribute
+     *                    has no value. Pass null to remove the creator registered
+     *                    for the attrName.
+     * @throws InvalidValueException if the attrName is the name of a built-in
+     *                               attribute.
+     * @since 12.0.13
+     */
+    public static void register(final String attrName,
+            final Function<String, ? extends AbstractAttribute> attrCreator) {
+        if (PreIndexedAttributeName.forAttrName(attrName) != null
+                || ATTRIBUTE_CLASS_BY_ATTR_NAME.containsKey(attrName)) {
+            throw new InvalidValueException(attrName + " is a built-in attribute");
+        }
+        if (attrCreator != null) {
+            CUSTOM_ATTR_CREATOR_BY_ATTR_NAME.put(attrName, attrCreator);
+        } else {
+            CUSTOM_ATTR_CREATOR_BY_ATTR_NAME.remove(attrName);
         }
-
-        return null;
     }
 
     /**
@@ -539,4 +539,21 @@ public final class AttributeUtil {
         attribute.setOwnerTagLockless(ownerTag);
     }
 
+    /**
+     * for internal use only. It does not acquire any lock so it should be called
+     * under the lock of the owner tags.
+     *
+     * @param accessObject
+     * @param attribute
+     * @return the attribute value or null if there is no value
+     * @since 12.0.13
+     */
+    public static String getAttributeValueLockless(@SuppressWarnings("exports") final SecurityObject accessObject,
+            final AbstractAttribute attribute) {
+        if (accessObject == null || !(IndexedClassType.BROWSER_PAGE.equals(accessObject.forClassType()))) {
+            throw new WffSecurityException("Not allowed to consume this method. This method is for internal use.");
+        }
+        return attribute.getAttributeValueLockless();
+    }
+
 }
@@ -32,6 +32,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -423,6 +424,12 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
      */
     private static final Map<String, Class<?>> CSSPROPERTY_CLASSES = new ConcurrentHashMap<>();
 
+    /**
+     * key as style name, and value as the creator of the object of the class in
+     * {@link #CSSPROPERTY_CLASSES} to avoid reflection.
+     */
+    private static final Map<String, CssPropertyCreator> CSSPROPERTY_CREATORS = new ConcurrentHashMap<>();
+
     /**
      * style name as key and value as object of {@code AbstractCssProperty}
      */
@@ -434,8 +441,24 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
     // for internal use
     private final Set<CssProperty> cssProperties = ConcurrentHashMap.newKeySet();
 
+    /**
+     * the css names whose {@code CssProperty} objects are not created yet, they
+     * are created only when requested.
+     */
+    private final Set<String> pendingCssNames = ConcurrentHashMap.newKeySet();
+
     private static final PreIndexedAttributeName PRE_INDEXED_ATTR_NAME = PreIndexedAttributeName.STYLE;
 
+    /**
+     * @param cssClass the class of the object created by the creator, the
+     *                 creator is used only if it is the class in
+     *                 {@link #CSSPROPERTY_CLASSES} for the style name.
+     * @param creator  the creator
+     * @since 12.0.13
+     */
+    private record CssPropertyCreator(Class<?> cssClass, Supplier<? extends AbstractCssProperty<?>> creator) {
+    }
+
     static {
 
         CSSPROPERTY_CLASSES.put(CssNameConstants.ALIGN_CONTENT, AlignContent.class);
@@ -510,107 +533,111 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
         CSSPROPERTY_CLASSES.put(CssNameConstants.WEBKIT_COLUMN_SPAN, WebkitColumnSpan.class);
         CSSPROPERTY_CLASSES.put(CssNameConstants.FONT_WEIGHT, FontWeight.class);
 
-        CSSPROPERTY_CLASSES.put(CssNameConstants.CURSOR, Cursor.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.WIDTH, WidthCss.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.HEIGHT, HeightCss.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MIN_WIDTH, MinWidth.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MAX_WIDTH, MaxWidth.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MIN_HEIGHT, MinHeight.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MAX_HEIGHT, MaxHeight.class);
+        putCssPropertyClass(CssNameConstants.CURSOR, Cursor.class, Cursor::new);
+        putCssPropertyClass(CssNameConstants.WIDTH, WidthCss.class, WidthCss::new);
+        putCssPropertyClass(CssNameConstants.HEIGHT, HeightCss.class, HeightCss::new);
+        putCssPropertyClass(CssNameConstants.MIN_WIDTH, MinWidth.class, MinWidth::new);
+        putCssPropertyClass(CssNameConstants.MAX_WIDTH, MaxWidth.class, MaxWidth::new);
+        putCssPropertyClass(CssNameConstants.MIN_HEIGHT, MinHeight.class, MinHeight::new);
+        putCssPropertyClass(CssNameConstants.MAX_HEIGHT, MaxHeight.class, MaxHeight::new);
         CSSPROPERTY_CLASSES.put(CssNameConstants.LIST_STYLE_TYPE, ListStyleType.class);
         CSSPROPERTY_CLASSES.put(CssNameConstants.LIST_STYLE_POSITION, ListStylePosition.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.LIST_STYLE_IMAGE, ListStyleImage.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.WORD_SPACING, WordSpacing.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_BOTTOM_WIDTH, BorderBottomWidth.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_LEFT_WIDTH, BorderLeftWidth.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_RIGHT_WIDTH, BorderRightWidth.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_TOP_WIDTH, BorderTopWidth.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.COLUMN_RULE_WIDTH, ColumnRuleWidth.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.WEBKIT_COLUMN_RULE_WIDTH, WebkitColumnRuleWidth.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MOZ_COLUMN_RULE_WIDTH, MozColumnRuleWidth.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.COLUMN_WIDTH, ColumnWidth.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.WEBKIT_COLUMN_WIDTH, WebkitColumnWidth.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MOZ_COLUMN_WIDTH, MozColumnWidth.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.COLUMN_RULE_COLOR, ColumnRuleColor.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.WEBKIT_COLUMN_RULE_COLOR, WebkitColumnRuleColor.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MOZ_COLUMN_RULE_COLOR, MozColumnRuleColor.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.COLUMN_RULE, ColumnRule.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.WEBKIT_COLUMN_RULE, WebkitColumnRule.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MOZ_COLUMN_RULE, MozColumnRule.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BACKGROUND_COLOR, BackgroundColor.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_BOTTOM_COLOR, BorderBottomColor.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_TOP_COLOR, BorderTopColor.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_LEFT_COLOR, BorderLeftColor.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_RIGHT_COLOR, BorderRightColor.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_COLOR, BorderColor.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.COLOR, Color.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.OUTLINE_COLOR, OutlineColor.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.OUTLINE_WIDTH, OutlineWidth.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.OUTLINE_OFFSET, OutlineOffset.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_WIDTH, BorderWidth.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER, Border.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.PADDING_TOP, PaddingTop.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.PADDING_RIGHT, PaddingRight.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.PADDING_BOTTOM, PaddingBottom.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.PADDING_LEFT, PaddingLeft.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.PADDING, Padding.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_TOP, BorderTop.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_RIGHT, BorderRight.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_BOTTOM, BorderBottom.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_LEFT, BorderLeft.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MARGIN_TOP, MarginTop.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MARGIN_RIGHT, MarginRight.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MARGIN_BOTTOM, MarginBottom.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MARGIN_LEFT, MarginLeft.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MARGIN, Margin.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.OUTLINE, Outline.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.TOP, Top.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.RIGHT, Right.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BOTTOM, Bottom.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.LEFT, Left.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.COLUMN_GAP, ColumnGap.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MOZ_COLUMN_GAP, MozColumnGap.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.WEBKIT_COLUMN_GAP, WebkitColumnGap.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.LETTER_SPACING, LetterSpacing.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.LINE_HEIGHT, LineHeight.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_SPACING, BorderSpacing.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BACKGROUND_SIZE, BackgroundSize.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.WEBKIT_BACKGROUND_SIZE, WebkitBackgroundSize.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MOZ_BACKGROUND_SIZE, MozBackgroundSize.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.O_BACKGROUND_SIZE, OBackgroundSize.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.OPACITY, Opacity.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.PERSPECTIVE, Perspective.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.PERSPECTIVE_ORIGIN, PerspectiveOrigin.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BACKGROUND_IMAGE, BackgroundImage.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.ICON, Icon.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.FLEX_BASIS, FlexBasis.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.WEBKIT_FLEX_BASIS, WebkitFlexBasis.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MOZ_FLEX_BASIS, MozFlexBasis.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.ANIMATION_ITERATION_COUNT, AnimationIterationCount.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.FLEX_GROW, FlexGrow.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MOZ_FLEX_GROW, MozFlexGrow.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.WEBKIT_FLEX_GROW, WebkitFlexGrow.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.FLEX_SHRINK, FlexShrink.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MOZ_FLEX_SHRINK, MozFlexShrink.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.WEBKIT_FLEX_SHRINK, WebkitFlexShrink.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.FONT_SIZE_ADJUST, FontSizeAdjust.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.COLUMN_COUNT, ColumnCount.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MOZ_COLUMN_COUNT, MozColumnCount.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.WEBKIT_COLUMN_COUNT, WebkitColumnCount.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.FLEX, Flex.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.WEBKIT_FLEX, WebkitFlex.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MOZ_FLEX, MozFlex.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.MS_FLEX, MsFlex.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.FONT_FAMILY, FontFamily.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.FONT_SIZE, FontSize.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.FONT, Font.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.COLUMNS, Columns.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_IMAGE_REPEAT, BorderImageRepeat.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_IMAGE_WIDTH, BorderImageWidth.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_IMAGE_OUTSET, BorderImageOutset.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_IMAGE_SLICE, BorderImageSlice.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.BORDER_IMAGE_SOURCE, BorderImageSource.class);
-        CSSPROPERTY_CLASSES.put(CssNameConstants.UNICODE_RANGE, UnicodeRange.class);
+        putCssPropertyClass(CssNameConstants.LIST_STYLE_IMAGE, ListStyleImage.class, ListStyleImage::new);
+        putCssPropertyClass(CssNameConstants.WORD_SPACING, WordSpacing.class, WordSpacing::new);
+        putCssPropertyClass(CssNameConstants.BORDER_BOTTOM_WIDTH, BorderBottomWidth.class, BorderBottomWidth::new);
+        putCssPropertyClass(CssNameConstants.BORDER_LEFT_WIDTH, BorderLeftWidth.class, BorderLeftWidth::new);
+        putCssPropertyClass(CssNameConstants.BORDER_RIGHT_WIDTH, BorderRightWidth.class, BorderRightWidth::new);
+        putCssPropertyClass(CssNameConstants.BORDER_TOP_WIDTH, BorderTopWidth.class, BorderTopWidth::new);
+        putCssPropertyClass(CssNameConstants.COLUMN_RULE_WIDTH, ColumnRuleWidth.class, ColumnRuleWidth::new);
+        putCssPropertyClass(CssNameConstants.WEBKIT_COLUMN_RULE_WIDTH, WebkitColumnRuleWidth.class,
+                WebkitColumnRuleWidth::new);
+        putCssPropertyClass(CssNameConstants.MOZ_COLUMN_RULE_WIDTH, MozColumnRuleWidth.class, MozColumnRuleWidth::new);
+        putCssPropertyClass(CssNameConstants.COLUMN_WIDTH, ColumnWidth.class, ColumnWidth::new);
+        putCssPropertyClass(CssNameConstants.WEBKIT_COLUMN_WIDTH, WebkitColumnWidth.class, WebkitColumnWidth::new);
+        putCssPropertyClass(CssNameConstants.MOZ_COLUMN_WIDTH, MozColumnWidth.class, MozColumnWidth::new);
+        putCssPropertyClass(CssNameConstants.COLUMN_RULE_COLOR, ColumnRuleColor.class, ColumnRuleColor::new);
+        putCssPropertyClass(CssNameConstants.WEBKIT_COLUMN_RULE_COLOR, WebkitColumnRuleColor.class,
+                WebkitColumnRuleColor::new);
+        putCssPropertyClass(CssNameConstants.MOZ_COLUMN_RULE_COLOR, MozColumnRuleColor.class, MozColumnRuleColor::new);
+        putCssPropertyClass(CssNameConstants.COLUMN_RULE, ColumnRule.class, ColumnRule::new);
+        putCssPropertyClass(CssNameConstants.WEBKIT_COLUMN_RULE, WebkitColumnRule.class, WebkitColumnRule::new);
+        putCssPropertyClass(CssNameConstants.MOZ_COLUMN_RULE, MozColumnRule.class, MozColumnRule::new);
+        putCssPropertyClass(CssNameConstants.BACKGROUND_COLOR, BackgroundColor.class, BackgroundColor::new);
+        putCssPropertyClass(CssNameConstants.BORDER_BOTTOM_COLOR, BorderBottomColor.class, BorderBottomColor::new);
+        putCssPropertyClass(CssNameConstants.BORDER_TOP_COLOR, BorderTopColor.class, BorderTopColor::new);
+        putCssPropertyClass(CssNameConstants.BORDER_LEFT_COLOR, BorderLeftColor.class, BorderLeftColor::new);
+        putCssPropertyClass(CssNameConstants.BORDER_RIGHT_COLOR, BorderRightColor.class, BorderRightColor::new);
+        putCssPropertyClass(CssNameConstants.BORDER_COLOR, BorderColor.class, BorderColor::new);
+        putCssPropertyClass(CssNameConstants.COLOR, Color.class, Color::new);
+        putCssPropertyClass(CssNameConstants.OUTLINE_COLOR, OutlineColor.class, OutlineColor::new);
+        putCssPropertyClass(CssNameConstants.OUTLINE_WIDTH, OutlineWidth.class, OutlineWidth::new);
+        putCssPropertyClass(CssNameConstants.OUTLINE_OFFSET, OutlineOffset.class, OutlineOffset::new);
+        putCssPropertyClass(CssNameConstants.BORDER_WIDTH, BorderWidth.class, BorderWidth::new);
+        putCssPropertyClass(CssNameConstants.BORDER, Border.class, Border::new);
+        putCssPropertyClass(CssNameConstants.PADDING_TOP, PaddingTop.class, PaddingTop::new);
+        putCssPropertyClass(CssNameConstants.PADDING_RIGHT, PaddingRight.class, PaddingRight::new);
+        putCssPropertyClass(CssNameConstants.PADDING_BOTTOM, PaddingBottom.class, PaddingBottom::new);
+        putCssPropertyClass(CssNameConstants.PADDING_LEFT, PaddingLeft.class, PaddingLeft::new);
+        putCssPropertyClass(CssNameConstants.PADDING, Padding.class, Padding::new);
+        putCssPropertyClass(CssNameConstants.BORDER_TOP, BorderTop.class, BorderTop::new);
+        putCssPropertyClass(CssNameConstants.BORDER_RIGHT, BorderRight.class, BorderRight::new);
+        putCssPropertyClass(CssNameConstants.BORDER_BOTTOM, BorderBottom.class, BorderBottom::new);
+        putCssPropertyClass(CssNameConstants.BORDER_LEFT, BorderLeft.class, BorderLeft::new);
+        putCssPropertyClass(CssNameConstants.MARGIN_TOP, MarginTop.class, MarginTop::new);
+        putCssPropertyClass(CssNameConstants.MARGIN_RIGHT, MarginRight.class, MarginRight::new);
+        putCssPropertyClass(CssNameConstants.MARGIN_BOTTOM, MarginBottom.class, MarginBottom::new);
+        putCssPropertyClass(CssNameConstants.MARGIN_LEFT, MarginLeft.class, MarginLeft::new);
+        putCssPropertyClass(CssNameConstants.MARGIN, Margin.class, Margin::new);
+        putCssPropertyClass(CssNameConstants.OUTLINE, Outline.class, Outline::new);
+        putCssPropertyClass(CssNameConstants.TOP, Top.class, Top::new);
+        putCssPropertyClass(CssNameConstants.RIGHT, Right.class, Right::new);
+        putCssPropertyClass(CssNameConstants.BOTTOM, Bottom.class, Bottom::new);
+        putCssPropertyClass(CssNameConstants.LEFT, Left.class, Left::new);
+        putCssPropertyClass(CssNameConstants.COLUMN_GAP, ColumnGap.class, ColumnGap::new);
+        putCssPropertyClass(CssNameConstants.MOZ_COLUMN_GAP, MozColumnGap.class, MozColumnGap::new);
+        putCssPropertyClass(CssNameConstants.WEBKIT_COLUMN_GAP, WebkitColumnGap.class, WebkitColumnGap::new);
+        putCssPropertyClass(CssNameConstants.LETTER_SPACING, LetterSpacing.class, LetterSpacing::new);
+        putCssPropertyClass(CssNameConstants.LINE_HEIGHT, LineHeight.class, LineHeight::new);
+        putCssPropertyClass(CssNameConstants.BORDER_SPACING, BorderSpacing.class, BorderSpacing::new);
+        putCssPropertyClass(CssNameConstants.BACKGROUND_SIZE, BackgroundSize.class, BackgroundSize::new);
+        putCssPropertyClass(CssNameConstants.WEBKIT_BACKGROUND_SIZE, WebkitBackgroundSize.class,
+                WebkitBackgroundSize::new);
+        putCssPropertyClass(CssNameConstants.MOZ_BACKGROUND_SIZE, MozBackgroundSize.class, MozBackgroundSize::new);
+        putCssPropertyClass(CssNameConstants.O_BACKGROUND_SIZE, OBackgroundSize.class, OBackgroundSize::new);
+        putCssPropertyClass(CssNameConstants.OPACITY, Opacity.class, Opacity::new);
+        putCssPropertyClass(CssNameConstants.PERSPECTIVE, Perspective.class, Perspective::new);
+        putCssPropertyClass(CssNameConstants.PERSPECTIVE_ORIGIN, PerspectiveOrigin.class, PerspectiveOrigin::new);
+        putCssPropertyClass(CssNameConstants.BACKGROUND_IMAGE, BackgroundImage.class, BackgroundImage::new);
+        putCssPropertyClass(CssNameConstants.ICON, Icon.class, Icon::new);
+        putCssPropertyClass(CssNameConstants.FLEX_BASIS, FlexBasis.class, FlexBasis::new);
+        putCssPropertyClass(CssNameConstants.WEBKIT_FLEX_BASIS, WebkitFlexBasis.class, WebkitFlexBasis::new);
+        putCssPropertyClass(CssNameConstants.MOZ_FLEX_BASIS, MozFlexBasis.class, MozFlexBasis::new);
+        putCssPropertyClass(CssNameConstants.ANIMATION_ITERATION_COUNT, AnimationIterationCount.class,
+                AnimationIterationCount::new);
+        putCssPropertyClass(CssNameConstants.FLEX_GROW, FlexGrow.class, FlexGrow::new);
+        putCssPropertyClass(CssNameConstants.MOZ_FLEX_GROW, MozFlexGrow.class, MozFlexGrow::new);
+        putCssPropertyClass(CssNameConstants.WEBKIT_FLEX_GROW, WebkitFlexGrow.class, WebkitFlexGrow::new);
+        putCssPropertyClass(CssNameConstants.FLEX_SHRINK, FlexShrink.class, FlexShrink::new);
+        putCssPropertyClass(CssNameConstants.MOZ_FLEX_SHRINK, MozFlexShrink.class, MozFlexShrink::new);
+        putCssPropertyClass(CssNameConstants.WEBKIT_FLEX_SHRINK, WebkitFlexShrink.class, WebkitFlexShrink::new);
+        putCssPropertyClass(CssNameConstants.FONT_SIZE_ADJUST, FontSizeAdjust.class, FontSizeAdjust::new);
+        putCssPropertyClass(CssNameConstants.COLUMN_COUNT, ColumnCount.class, ColumnCount::new);
+        putCssPropertyClass(CssNameConstants.MOZ_COLUMN_COUNT, MozColumnCount.class, MozColumnCount::new);
+        putCssPropertyClass(CssNameConstants.WEBKIT_COLUMN_COUNT, WebkitColumnCount.class, WebkitColumnCount::new);
+        putCssPropertyClass(CssNameConstants.FLEX, Flex.class, Flex::new);
+        putCssPropertyClass(CssNameConstants.WEBKIT_FLEX, WebkitFlex.class, WebkitFlex::new);
+        putCssPropertyClass(CssNameConstants.MOZ_FLEX, MozFlex.class, MozFlex::new);
+        putCssPropertyClass(CssNameConstants.MS_FLEX, MsFlex.class, MsFlex::new);
+        putCssPropertyClass(CssNameConstants.FONT_FAMILY, FontFamily.class, FontFamily::new);
+        putCssPropertyClass(CssNameConstants.FONT_SIZE, FontSize.class, FontSize::new);
+        putCssPropertyClass(CssNameConstants.FONT, Font.class, Font::new);
+        putCssPropertyClass(CssNameConstants.COLUMNS, Columns.class, Columns::new);
+        putCssPropertyClass(CssNameConstants.BORDER_IMAGE_REPEAT, BorderImageRepeat.class, BorderImageRepeat::new);
+        putCssPropertyClass(CssNameConstants.BORDER_IMAGE_WIDTH, BorderImageWidth.class, BorderImageWidth::new);
+        putCssPropertyClass(CssNameConstants.BORDER_IMAGE_OUTSET, BorderImageOutset.class, BorderImageOutset::new);
+        putCssPropertyClass(CssNameConstants.BORDER_IMAGE_SLICE, BorderImageSlice.class, BorderImageSlice::new);
+        putCssPropertyClass(CssNameConstants.BORDER_IMAGE_SOURCE, BorderImageSource.class, BorderImageSource::new);
+        putCssPropertyClass(CssNameConstants.UNICODE_RANGE, UnicodeRange.class, UnicodeRange::new);
         CSSPROPERTY_CLASSES.put(CssNameConstants.SRC, Src.class);
     }
 
@@ -724,6 +751,30 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
         }
     }
 
+    /**
+     * adds support for a new custom css class which is created by the given
+     * creator instead of reflection, eg:
+     * {@code Style.addSupportForNewCustomCssClass("custom-css", CustomCss.class, CustomCss::new)}.
+     *
+     * @param <T>        the type of the css class
+     * @param cssName    the css name
+     * @param cssClass   the class which extends {@code AbstractCssProperty}
+     * @param cssCreator the creator of the object of the cssClass
+     * @since 12.0.13
+     */
+    public static <T extends AbstractCssProperty<?>> void addSupportForNewCustomCssClass(final String cssName,
+            final Class<T> cssClass, final Supplier<T> cssCreator) {
+        if (cssName != null && cssClass != null && cssCreator != null) {
+            putCssPropertyClass(cssName, cssClass, cssCreator);
+        }
+    }
+
+    private static <T extends AbstractCssProperty<?>> void putCssPropertyClass(final String cssName,
+            final Class<T> cssClass, final Supplier<T> cssCreator) {
+        CSSPROPERTY_CREATORS.put(cssName, new CssPropertyCreator(cssClass, cssCreator));
+        CSSPROPERTY_CLASSES.put(cssName, cssClass);
+    }
+
     /**
      * removes the support for the class from {@code Style class} or its extended
      * class.
@@ -737,6 +788,7 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
             for (final Entry<String, Class<?>> entry : CSSPROPERTY_CLASSES.entrySet()) {
                 if (entry.getValue() == cssClass) {
                     CSSPROPERTY_CLASSES.remove(entry.getKey());
+                    CSSPROPERTY_CREATORS.remove(entry.getKey());
                     break;
                 }
             }
@@ -840,9 +892,8 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
             if (addAllToAttributeValueMap) {
                 final Set<String> cssNames = cssProperties.keySet();
                 for (final String cssName : cssNames) {
-                    // to save the corresponding
-                    // object to abstractCssPropertyClassObjects
-                    getCssPropertyLockless(cssName);
+                    // the object will be created only when requested
+                    discardCssPropertyLockless(cssName);
                 }
             }
             return addAllToAttributeValueMap;
@@ -884,9 +935,8 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
 
             final boolean addToAttributeValueMap = super.addToAttributeValueMap(strippedCssName, cssValue);
             if (addToAttributeValueMap) {
-                // to save the corresponding
-                // object to abstractCssPropertyClassObjects
-                getCssPropertyLockless(strippedCssName);
+                // the object will be created only when requested
+                discardCssPropertyLockless(strippedCssName);
             }
             return addToAttributeValueMap;
         } finally {
@@ -1048,6 +1098,7 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
                 // .setStateChangeInformer(this);
             }
             cssProperties.add(sameOrCloneCssProperty);
+            pendingCssNames.remove(sameOrCloneCssProperty.getCssName());
             return sameOrCloneCssProperty;
         }
         return null;
@@ -1236,6 +1287,7 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
         try {
             cssProperties.clear();
             abstractCssPropertyClassObjects.clear();
+            pendingCssNames.clear();
             super.removeAllFromAttributeValueMap();
         } finally {
             lock.unlockWrite(stamp);
@@ -1255,6 +1307,7 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
         try {
             cssProperties.clear();
             abstractCssPropertyClassObjects.clear();
+            pendingCssNames.clear();
             super.removeAllFromAttributeValueMap(force);
         } finally {
             lock.unlockWrite(stamp);
@@ -1269,6 +1322,7 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
      * @since 3.0.1
      */
     public boolean contains(final CssProperty cssProperty) {
+        createPendingCssProperties();
         final long stamp = lock.readLock();
         try {
             return cssProperties.contains(cssProperty);
@@ -1375,12 +1429,11 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
                 if (clearExisting) {
                     cssProperties.clear();
                     abstractCssPropertyClassObjects.clear();
+                    pendingCssNames.clear();
                 }
                 for (final String cssName : cssPropertiesToAdd.keySet()) {
-                    // to save the
-                    // corresponding object to
-                    // abstractCssPropertyClassObjects
-                    getCssPropertyLockless(cssName);
+                    // the object will be created only when requested
+                    discardCssPropertyLockless(cssName);
                 }
             }
         }
@@ -1493,6 +1546,7 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
      */
     @SuppressWarnings("unchecked")
     private CssProperty getCssPropertyLockless(final String cssName) {
+        pendingCssNames.remove(cssName);
         // given priority for optimization rather than coding standard.
 
         @SuppressWarnings("rawtypes")
@@ -1556,7 +1610,10 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
 
                 // must be set setCssValue before putting to
                 // abstractCssPropertyClassObjects
-                abstractCssProperty = (AbstractCssProperty<?>) classClass.getConstructor().newInstance();
+                final CssPropertyCreator cssPropertyCreator = CSSPROPERTY_CREATORS.get(cssName);
+                abstractCssProperty = cssPropertyCreator != null && cssPropertyCreator.cssClass == classClass
+                        ? cssPropertyCreator.creator.get()
+                        : (AbstractCssProperty<?>) classClass.getConstructor().newInstance();
                 abstractCssProperty.setCssValue(value);
 
                 abstractCssPropertyClassObjects.put(cssName, abstractCssProperty);
@@ -1620,6 +1677,7 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
      * @author WFF
      */
     public Collection<CssProperty> getCssProperties() {
+        createPendingCssProperties();
         final long stamp = lock.readLock();
         try {
             return Set.copyOf(cssProperties);
@@ -1633,6 +1691,7 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
      * @since 3.0.1
      */
     public int getCssPropertiesSize() {
+        createPendingCssProperties();
         final long stamp = lock.readLock();
         try {
             return cssProperties.size();
@@ -1646,6 +1705,7 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
      * @since 3.0.1
      */
     public boolean isCssPropertiesEmpty() {
+        createPendingCssProperties();
         final long stamp = lock.readLock();
         try {
             return cssProperties.isEmpty();
@@ -1654,6 +1714,43 @@ public class Style extends AbstractAttribute implements GlobalAttributable, Stat
         }
     }
 
+    /**
+     * removes the {@code CssProperty} object of the cssName if it is already
+     * created so that it will be created with the new value only when it is
+     * requested.
+     *
+     * @param cssName the css name
+     * @since 12.0.13
+     */
+    private void discardCssPropertyLockless(final String cssName) {
+        if (pendingCssNames.add(cssName)) {
+            final AbstractCssProperty<?> removedObj = abstractCssPropertyClassObjects.remove(cssName);
+            if (removedObj != null) {
+                cssProperties.remove(removedObj);
+            } else {
+                cssProperties.removeIf(cssProperty -> cssName.equals(cssProperty.getCssName()));
+            }
+        }
+    }
+
+    /**
+     * creates the {@code CssProperty} objects which are not yet created.
+     *
+     * @since 12.0.13
+     */
+    private void createPendingCssProperties() {
+        if (!pendingCssNames.isEmpty()) {
+            final long stamp = lock.writeLock();
+            try {
+                for (final String cssName : List.copyOf(pendingCssNames)) {
+                    getCssPropertyLockless(cssName);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
     @Override
     public void stateChanged(final CssProperty stateChangedObject) {
         super.addToAttributeValueMap(stateChangedObject.getCssName(), stateChangedObject.getCssValue());
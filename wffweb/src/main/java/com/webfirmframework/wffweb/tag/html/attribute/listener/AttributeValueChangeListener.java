@@ -23,8 +23,30 @@ import com.webfirmframework.wffweb.tag.html.attribute.core.AbstractAttribute;
 
 public interface AttributeValueChangeListener extends Serializable {
 
+    /**
+     * @param sourceAttribute the attribute whose value is changed
+     * @param ownerTags       the owner tags of the attribute
+     * @param changedByClient true if the value is changed by the client
+     * @param valueMapChange  the change if only a single key of the value map
+     *                        is changed, eg: a single css property of the style
+     *                        attribute, otherwise null.
+     */
     public static record Event(AbstractAttribute sourceAttribute, Set<AbstractHtml> ownerTags,
-            boolean changedByClient) {
+            boolean changedByClient, ValueMapChange valueMapChange) {
+
+        public Event(final AbstractAttribute sourceAttribute, final Set<AbstractHtml> ownerTags,
+                final boolean changedByClient) {
+            this(sourceAttribute, ownerTags, changedByClient, null);
+        }
+    }
+
+    /**
+     * @param key   the key in the value map, eg: the css name in the style
+     *              attribute
+     * @param value the new value or null if the key is removed
+     * @since 12.0.13
+     */
+    public static record ValueMapChange(String key, String value) {
 
     }
 
@@ -19,6 +19,7 @@ import java.io.Serial;
 
 import com.webfirmframework.wffweb.WffSecurityException;
 import com.webfirmframework.wffweb.internal.constants.IndexedClassType;
+import com.webfirmframework.wffweb.internal.tag.html.TagByWffIdMap;
 import com.webfirmframework.wffweb.internal.security.object.SecurityObject;
 import com.webfirmframework.wffweb.tag.html.attribute.AttributeNameConstants;
 import com.webfirmframework.wffweb.tag.html.attribute.core.PreIndexedAttributeName;
@@ -45,6 +46,11 @@ public class DataWffId extends DataAttribute {
 
     private final byte[] attributeValueIntBytes;
 
+    /**
+     * the key of the value in {@code TagByWffIdMap}
+     */
+    private final long key;
+
     private static final PreIndexedAttributeName PRE_INDEXED_ATTR_NAME = PreIndexedAttributeName.DATA_WFF_ID;
 
     public static final String[] VALUE_PREFIXES = { "S", "C" };
@@ -59,6 +65,7 @@ public class DataWffId extends DataAttribute {
         attributeValuePrefix = 0;
         attributeValueIntBytes = null;
         attributeValue = value;
+        key = value != null ? TagByWffIdMap.key(value) : TagByWffIdMap.NO_KEY;
     }
 
     /**
@@ -77,6 +84,7 @@ public class DataWffId extends DataAttribute {
         this.attributeValuePrefix = attributeValuePrefix;
         this.attributeValueIntBytes = attributeValueIntBytes;
         attributeValue = value;
+        key = TagByWffIdMap.key(value);
         if (accessObject == null
                 || !IndexedClassType.ABSTRACT_HTML5_SHARED_OBJECT.equals(accessObject.forClassType())) {
             throw new WffSecurityException("Not allowed to call this constructor. This class is for internal use.");
@@ -170,4 +178,15 @@ public class DataWffId extends DataAttribute {
         }
         return attributeValueIntBytes;
     }
+
+    /**
+     * Note: Only for internal use.
+     *
+     * @return the primitive key of the value, eg: the key of S55 is made of 'S'
+     *         and 55.
+     * @since 12.0.13
+     */
+    public final long key() {
+        return key;
+    }
 }
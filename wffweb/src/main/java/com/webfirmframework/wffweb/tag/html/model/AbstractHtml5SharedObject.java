@@ -18,8 +18,7 @@ package com.webfirmframework.wffweb.tag.html.model;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Collection;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -31,6 +30,8 @@ import com.webfirmframework.wffweb.internal.ObjectId;
 import com.webfirmframework.wffweb.internal.constants.IndexedClassType;
 import com.webfirmframework.wffweb.internal.security.object.AbstractHtml5SharedObjectSecurity;
 import com.webfirmframework.wffweb.internal.security.object.SecurityObject;
+import com.webfirmframework.wffweb.internal.tag.html.TagByWffIdMap;
+import com.webfirmframework.wffweb.internal.tag.html.TagIndex;
 import com.webfirmframework.wffweb.internal.tag.html.listener.AttributeAddListener;
 import com.webfirmframework.wffweb.internal.tag.html.listener.AttributeRemoveListener;
 import com.webfirmframework.wffweb.internal.tag.html.listener.ChildTagAppendListener;
@@ -45,6 +46,7 @@ import com.webfirmframework.wffweb.internal.tag.html.listener.TagManipulationLis
 import com.webfirmframework.wffweb.internal.tag.html.listener.URIChangeTagSupplier;
 import com.webfirmframework.wffweb.internal.tag.html.listener.WffBMDataDeleteListener;
 import com.webfirmframework.wffweb.internal.tag.html.listener.WffBMDataUpdateListener;
+import com.webfirmframework.wffweb.settings.WffConfiguration;
 import com.webfirmframework.wffweb.tag.html.AbstractHtml;
 import com.webfirmframework.wffweb.tag.html.attribute.listener.AttributeValueChangeListener;
 import com.webfirmframework.wffweb.tag.html.html5.attribute.global.DataWffId;
@@ -101,7 +103,14 @@ public final class AbstractHtml5SharedObject implements Serializable {
     /**
      * key : "S" + dataWffId and value : abstractHtml tag
      */
-    private final Map<String, AbstractHtml> tagByWffId = new ConcurrentHashMap<>();
+    private final TagByWffIdMap tagByWffId = new TagByWffIdMap();
+
+    /**
+     * null if the tag index is not enabled
+     *
+     * @since 12.0.13
+     */
+    private transient volatile TagIndex tagIndex;
 
     private AttributeValueChangeListener valueChangeListener;
 
@@ -147,11 +156,24 @@ public final class AbstractHtml5SharedObject implements Serializable {
      * If the lock is a {@code StampedLock} then the code will block at
      * <code>lock.readLock().lock()&#59;</code> even in the same thread. But
      * {@code ReentrantReadWriteLock} will not block in the same thread, it will
-     * print both system print.
+     * print both system print. The {@link TagLockPolicy#OPTIMISTIC} policy adds
+     * the optimistic read of {@code StampedLock} to a
+     * {@code ReentrantReadWriteLock} for the same reason.
      *
      * @since 3.0.1
+     * @since 12.0.13 it is created as per the {@link TagLockPolicy}
+     */
+    private final transient ReentrantReadWriteLock lock;
+
+    /**
+     * @since 12.0.13
+     */
+    private final TagLockPolicy lockPolicy;
+
+    /**
+     * @since 12.0.13
      */
-    private final transient ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+    private final boolean renderCacheEnabled;
 
     private volatile boolean activeWSListener;
 
@@ -166,8 +188,21 @@ public final class AbstractHtml5SharedObject implements Serializable {
     private volatile boolean whenURIUsed;
 
     public AbstractHtml5SharedObject(final AbstractHtml rootTag) {
+        this(rootTag, TagLockPolicy.current());
+    }
+
+    /**
+     * @param rootTag    the root tag
+     * @param lockPolicy the lock policy, eg: the policy of the hierarchy from
+     *                   which the rootTag is detached.
+     * @since 12.0.13
+     */
+    public AbstractHtml5SharedObject(final AbstractHtml rootTag, final TagLockPolicy lockPolicy) {
         this.rootTag = rootTag;
         objectId = SharedObjectIdGenerator.nextId();
+        this.lockPolicy = lockPolicy;
+        lock = lockPolicy.newLock();
+        renderCacheEnabled = WffConfiguration.isRenderCacheEnabled();
     }
 
     /**
@@ -196,14 +231,11 @@ public final class AbstractHtml5SharedObject implements Serializable {
                 int newDataWffId = incrementedDataWffId < 0 ? ((incrementedDataWffId - Integer.MAX_VALUE) - 1)
                         : incrementedDataWffId;
 
-                String id = "S" + (newDataWffId);
-
-                while (tagByWffId.containsKey(id)) {
+                while (tagByWffId.containsKey(TagByWffIdMap.key('S', newDataWffId))) {
                     newDataWffId++;
                     if (newDataWffId < 0) {
                         newDataWffId = (newDataWffId - Integer.MAX_VALUE) - 1;
                     }
-                    id = "S" + newDataWffId;
                 }
 
                 if (dataWffId.compareAndSet(incrementedDataWffId, newDataWffId)) {
@@ -235,6 +267,23 @@ public final class AbstractHtml5SharedObject implements Serializable {
         return lock;
     }
 
+    /**
+     * @return the policy of the lock returned by {@code getLock}.
+     * @since 12.0.13
+     */
+    public TagLockPolicy getLockPolicy() {
+        return lockPolicy;
+    }
+
+    /**
+     * @return true if the root tag of this hierarchy keeps the html of its last
+     *         render, see {@link WffConfiguration#setRenderCacheEnabled(boolean)}.
+     * @since 12.0.13
+     */
+    public boolean isRenderCacheEnabled() {
+        return renderCacheEnabled;
+    }
+
     public int getLastDataWffId(@SuppressWarnings("exports") final SecurityObject accessObject) {
 
         if (accessObject == null || !((IndexedClassType.ABSTRACT_HTML.equals(accessObject.forClassType())))) {
@@ -441,7 +490,8 @@ public final class AbstractHtml5SharedObject implements Serializable {
      * @since 2.0.0
      * @author WFF
      */
-    public Map<String, AbstractHtml> getTagByWffId(@SuppressWarnings("exports") final SecurityObject accessObject) {
+    @SuppressWarnings("exports")
+    public TagByWffIdMap getTagByWffId(final SecurityObject accessObject) {
         if (accessObject == null || !((IndexedClassType.ABSTRACT_HTML.equals(accessObject.forClassType()))
                 || (IndexedClassType.BROWSER_PAGE.equals(accessObject.forClassType())))) {
             throw new WffSecurityException("Not allowed to consume this method. This method is for internal use.");
@@ -455,13 +505,55 @@ public final class AbstractHtml5SharedObject implements Serializable {
      * @author WFF
      * @return the map containing wffid and tag
      */
-    public Map<String, AbstractHtml> initTagByWffId(@SuppressWarnings("exports") final SecurityObject accessObject) {
+    @SuppressWarnings("exports")
+    public TagByWffIdMap initTagByWffId(final SecurityObject accessObject) {
         if (accessObject == null || !(IndexedClassType.BROWSER_PAGE.equals(accessObject.forClassType()))) {
             throw new WffSecurityException("Not allowed to consume this method. This method is for internal use.");
         }
         return tagByWffId;
     }
 
+    /**
+     * Enables the tag index for the tags in this hierarchy. The tags in the
+     * tagByWffId map and the root tag are initially indexed, the tags added later
+     * are indexed as and when they are added to this hierarchy.
+     *
+     * @param attributeNames the attribute names to be indexed in addition to the
+     *                       id attribute.
+     * @param accessObject
+     * @return the tag index
+     * @since 12.0.13
+     */
+    @SuppressWarnings("exports")
+    public TagIndex initTagIndex(final Collection<String> attributeNames, final SecurityObject accessObject) {
+        if (accessObject == null || !(IndexedClassType.BROWSER_PAGE.equals(accessObject.forClassType()))) {
+            throw new WffSecurityException("Not allowed to consume this method. This method is for internal use.");
+        }
+        final TagIndex tagIndex = new TagIndex(attributeNames, accessObject);
+        // should be assigned before marking the existing tags so that a tag added
+        // in between will also be indexed
+        this.tagIndex = tagIndex;
+        tagIndex.tagModified(rootTag);
+        for (final AbstractHtml tag : tagByWffId.values()) {
+            tagIndex.tagModified(tag);
+        }
+        return tagIndex;
+    }
+
+    /**
+     * @param accessObject
+     * @return the tag index or null if it is not enabled
+     * @since 12.0.13
+     */
+    @SuppressWarnings("exports")
+    public TagIndex getTagIndex(final SecurityObject accessObject) {
+        if (accessObject == null || !((IndexedClassType.ABSTRACT_HTML.equals(accessObject.forClassType()))
+                || (IndexedClassType.ABSTRACT_ATTRIBUTE.equals(accessObject.forClassType())))) {
+            throw new WffSecurityException("Not allowed to consume this method. This method is for internal use.");
+        }
+        return tagIndex;
+    }
+
     /**
      * NB:- This listener is used for internal purpose and should not be consumed.
      * Instead, use addValueChangeListener and getValueChangeListeners methods.
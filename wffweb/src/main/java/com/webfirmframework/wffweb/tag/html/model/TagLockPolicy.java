@@ -0,0 +1,105 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.tag.html.model;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import com.webfirmframework.wffweb.internal.tag.html.OptimisticReadWriteLock;
+import com.webfirmframework.wffweb.settings.WffConfiguration;
+
+/**
+ * The policy of the lock which guards a tag hierarchy. A tag hierarchy uses
+ * the lock of its root tag so the policy applied when creating the root tag is
+ * the policy of the whole hierarchy. The default policy is taken from
+ * {@link WffConfiguration#getTagLockPolicy()}, it can be overridden for the
+ * tags created in a block of code by {@link #build(Supplier)}. Eg:
+ *
+ * <pre><code>
+ * Html html = TagLockPolicy.OPTIMISTIC.build(() -&gt; new Html(null) {{
+ *     new Body(this);
+ * }});
+ * </code></pre>
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+public enum TagLockPolicy {
+
+    /**
+     * a fair {@code ReentrantReadWriteLock}, the threads acquire the lock in the
+     * arrival order. It is the default policy.
+     */
+    FAIR,
+
+    /**
+     * a non-fair {@code ReentrantReadWriteLock}, it gives better throughput than
+     * {@link #FAIR} but a thread may have to wait longer to acquire the lock.
+     */
+    NON_FAIR,
+
+    /**
+     * a non-fair {@code ReentrantReadWriteLock} which also supports optimistic
+     * read like {@code StampedLock}. The {@code TagRepository} finders first
+     * search the tags without acquiring the read lock and acquire it only if
+     * the tags are modified in between. It suits the hierarchies which are
+     * mostly searched and rarely modified.
+     */
+    OPTIMISTIC;
+
+    private static final ThreadLocal<TagLockPolicy> SCOPED_POLICY = new ThreadLocal<>();
+
+    /**
+     * The tags created in the current thread by the given tagsBuilder will use
+     * this lock policy. The policy of the tags created in the nested
+     * {@code build} calls will be the policy of the nested call.
+     *
+     * @param <T>         the type of the object returned by the tagsBuilder
+     * @param tagsBuilder the builder which creates the tags
+     * @return the object returned by the tagsBuilder
+     */
+    public <T> T build(final Supplier<T> tagsBuilder) {
+        final TagLockPolicy previous = SCOPED_POLICY.get();
+        SCOPED_POLICY.set(this);
+        try {
+            return tagsBuilder.get();
+        } finally {
+            if (previous != null) {
+                SCOPED_POLICY.set(previous);
+            } else {
+                SCOPED_POLICY.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the policy for the newly created shared object in the current
+     *         thread
+     */
+    static TagLockPolicy current() {
+        final TagLockPolicy scopedPolicy = SCOPED_POLICY.get();
+        return scopedPolicy != null ? scopedPolicy : WffConfiguration.getTagLockPolicy();
+    }
+
+    ReentrantReadWriteLock newLock() {
+        return switch (this) {
+        case FAIR -> new ReentrantReadWriteLock(true);
+        case NON_FAIR -> new ReentrantReadWriteLock(false);
+        case OPTIMISTIC -> new OptimisticReadWriteLock(false);
+        };
+    }
+
+}
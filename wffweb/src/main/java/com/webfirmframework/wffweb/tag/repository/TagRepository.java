@@ -37,6 +37,7 @@ import com.webfirmframework.wffweb.NullValueException;
 import com.webfirmframework.wffweb.WffSecurityException;
 import com.webfirmframework.wffweb.internal.constants.IndexedClassType;
 import com.webfirmframework.wffweb.internal.security.object.SecurityObject;
+import com.webfirmframework.wffweb.internal.tag.html.TagIndex;
 import com.webfirmframework.wffweb.server.page.BrowserPage;
 import com.webfirmframework.wffweb.server.page.action.BrowserPageAction;
 import com.webfirmframework.wffweb.tag.html.AbstractHtml;
@@ -152,9 +153,11 @@ public class TagRepository extends AbstractHtmlRepository implements Serializabl
             throw new NullValueException("The fromTags should not be null");
         }
 
-        final Collection<Lock> locks = lockAndGetReadLocks(fromTags);
+        return readOptimistically(parallel, tagIndex -> {
+            if (tagIndex != null && tagIndex.isIndexed(AttributeNameConstants.ID)) {
+                return tagIndex.findOneTagByAttribute(AttributeNameConstants.ID, id);
+            }
 
-        try {
             if (parallel) {
                 final Stream<AbstractHtml> stream = getAllNestedChildrenIncludingParent(parallel, fromTags);
 
@@ -180,11 +183,7 @@ public class TagRepository extends AbstractHtmlRepository implements Serializabl
             }, true, fromTags);
 
             return foundTag[0];
-        } finally {
-            for (final Lock lock : locks) {
-                lock.unlock();
-            }
-        }
+        }, fromTags);
     }
 
     /**
@@ -276,20 +275,18 @@ public class TagRepository extends AbstractHtmlRepository implements Serializabl
             throw new NullValueException("The fromTags should not be null");
         }
 
-        final Collection<Lock> locks = lockAndGetReadLocks(fromTags);
+        return readOptimistically(parallel, tagIndex -> {
+            if (tagIndex != null && tagIndex.isIndexed(attributeName)) {
+                return tagIndex.findTagsByAttribute(attributeName, attributeValue);
+            }
 
-        try {
             return getAllNestedChildrenIncludingParent(parallel, fromTags).filter(child -> {
 
                 final AbstractAttribute attribute = getAttributeByNameLockless(child, attributeName);
 
                 return attribute != null && attributeValue.equals(attribute.getAttributeValue());
             }).collect(Collectors.toSet());
-        } finally {
-            for (final Lock lock : locks) {
-                lock.unlock();
-            }
-        }
+        }, fromTags);
     }
 
     /**
@@ -337,16 +334,14 @@ public class TagRepository extends AbstractHtmlRepository implements Serializabl
             throw new NullValueException("The fromTags should not be null");
         }
 
-        final Collection<Lock> locks = lockAndGetReadLocks(fromTags);
+        return readOptimistically(parallel, tagIndex -> {
+            if (tagIndex != null) {
+                return tagIndex.findTagsByTagName(tagName);
+            }
 
-        try {
             return getAllNestedChildrenIncludingParent(parallel, fromTags)
                     .filter(child -> tagName.equals(child.getTagName())).collect(Collectors.toSet());
-        } finally {
-            for (final Lock lock : locks) {
-                lock.unlock();
-            }
-        }
+        }, fromTags);
     }
 
     /**
@@ -591,9 +586,10 @@ public class TagRepository extends AbstractHtmlRepository implements Serializabl
             throw new NullValueException("The fromTags should not be null");
         }
 
-        final Collection<Lock> locks = lockAndGetReadLocks(fromTags);
-
-        try {
+        return readOptimistically(parallel, tagIndex -> {
+            if (tagIndex != null && tagIndex.isIndexed(attributeName)) {
+                return tagIndex.findOneTagByAttribute(attributeName, attributeValue);
+            }
 
             if (parallel) {
                 final Stream<AbstractHtml> stream = getAllNestedChildrenIncludingParent(parallel, fromTags);
@@ -620,11 +616,7 @@ public class TagRepository extends AbstractHtmlRepository implements Serializabl
             }, true, fromTags);
 
             return foundTag[0];
-        } finally {
-            for (final Lock lock : locks) {
-                lock.unlock();
-            }
-        }
+        }, fromTags);
     }
 
     /**
@@ -671,9 +663,11 @@ public class TagRepository extends AbstractHtmlRepository implements Serializabl
             throw new NullValueException("The fromTags should not be null");
         }
 
-        final Collection<Lock> locks = lockAndGetReadLocks(fromTags);
+        return readOptimistically(parallel, tagIndex -> {
+            if (tagIndex != null) {
+                return tagIndex.findOneTagByTagName(tagName);
+            }
 
-        try {
             if (parallel) {
                 final Optional<AbstractHtml> any = getAllNestedChildrenIncludingParent(parallel, fromTags)
                         .filter(tag -> tagName.equals(tag.getTagName())).findAny();
@@ -690,11 +684,7 @@ public class TagRepository extends AbstractHtmlRepository implements Serializabl
             }, true, fromTags);
 
             return foundTag[0];
-        } finally {
-            for (final Lock lock : locks) {
-                lock.unlock();
-            }
-        }
+        }, fromTags);
     }
 
     /**
@@ -1200,6 +1190,11 @@ public class TagRepository extends AbstractHtmlRepository implements Serializabl
         final Collection<Lock> locks = lockAndGetReadLocks(rootTags);
 
         try {
+            final TagIndex tagIndex = getTagIndexLockless(rootTags);
+            if (tagIndex != null && tagIndex.isIndexed(attributeName)) {
+                return tagIndex.findTagsByAttribute(attributeName, attributeValue);
+            }
+
             return buildAllTagsStream(parallel).filter(tag -> {
 
                 final AbstractAttribute attribute = getAttributeByNameLockless(tag, attributeName);
@@ -1253,6 +1248,11 @@ public class TagRepository extends AbstractHtmlRepository implements Serializabl
         final Collection<Lock> locks = lockAndGetReadLocks(rootTags);
 
         try {
+            final TagIndex tagIndex = getTagIndexLockless(rootTags);
+            if (tagIndex != null) {
+                return tagIndex.findTagsByTagName(tagName);
+            }
+
             return buildAllTagsStream(parallel).filter(tag -> tagName.equals(tag.getTagName()))
                     .collect(Collectors.toSet());
         } finally {
@@ -1536,6 +1536,11 @@ public class TagRepository extends AbstractHtmlRepository implements Serializabl
         final Collection<Lock> locks = lockAndGetReadLocks(rootTags);
 
         try {
+            final TagIndex tagIndex = getTagIndexLockless(rootTags);
+            if (tagIndex != null && tagIndex.isIndexed(attributeName)) {
+                return tagIndex.findOneTagByAttribute(attributeName, attributeValue);
+            }
+
             final Stream<AbstractHtml> stream = buildAllTagsStream(parallel);
 
             final Optional<AbstractHtml> any = stream.filter(tag -> {
@@ -1591,6 +1596,11 @@ public class TagRepository extends AbstractHtmlRepository implements Serializabl
         final Collection<Lock> locks = lockAndGetReadLocks(rootTags);
 
         try {
+            final TagIndex tagIndex = getTagIndexLockless(rootTags);
+            if (tagIndex != null) {
+                return tagIndex.findOneTagByTagName(tagName);
+            }
+
             final Optional<AbstractHtml> any = buildAllTagsStream(parallel)
                     .filter(tag -> tagName.equals(tag.getTagName())).findAny();
 
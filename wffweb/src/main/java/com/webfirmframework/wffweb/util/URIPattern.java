@@ -0,0 +1,313 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.util;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.webfirmframework.wffweb.InvalidValueException;
+import com.webfirmframework.wffweb.common.URIEvent;
+
+/**
+ * A uri pattern compiled by {@link URIPatterns#add(String)}. It matches the
+ * same uris as {@link URIUtil#patternMatches(String, String)} does for the
+ * pattern but the matching is done only once per uri for all patterns of the
+ * {@code URIPatterns}. It can be directly used as the predicate of
+ * {@code whenURI}, eg:
+ *
+ * <pre><code>
+ * private static final URIPatterns ROUTES = new URIPatterns();
+ * private static final URIPattern ITEM_VIEW = ROUTES.add("/user/items/view/{itemId:long}");
+ *
+ * div.whenURI(ITEM_VIEW, () -&gt; new AbstractHtml[] { new ItemView(ITEM_VIEW.parse(browserPage.getURI())) });
+ * </code></pre>
+ *
+ * A variable may be typed as <code>{itemId:int}</code> or
+ * <code>{itemId:long}</code>, it matches only the path segment which is a
+ * decimal number in the range of the type. The name of a typed variable in
+ * the parsed path parameters is the name without the type, eg: itemId.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+public final class URIPattern implements Predicate<URIEvent> {
+
+    enum SegmentType {
+        LITERAL, VARIABLE, INT_VARIABLE, LONG_VARIABLE, MULTI_VARIABLE;
+
+        boolean singleVariable() {
+            return this == VARIABLE || this == INT_VARIABLE || this == LONG_VARIABLE;
+        }
+    }
+
+    /**
+     * @param type  the type
+     * @param value the literal or the variable name
+     */
+    record Segment(SegmentType type, String value) {
+
+        boolean accepts(final String uriPart) {
+            return switch (type) {
+            case LITERAL -> value.equals(uriPart);
+            case VARIABLE, MULTI_VARIABLE -> true;
+            case INT_VARIABLE -> isNumber(uriPart, 10) && isInt(uriPart);
+            case LONG_VARIABLE -> isNumber(uriPart, 19) && isLong(uriPart);
+            };
+        }
+
+        private static boolean isNumber(final String s, final int maxDigits) {
+            final int start = s.length() > 1 && s.charAt(0) == '-' ? 1 : 0;
+            final int digits = s.length() - start;
+            if (digits == 0 || digits > maxDigits) {
+                return false;
+            }
+            for (int i = start; i < s.length(); i++) {
+                final char c = s.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isInt(final String s) {
+            try {
+                Integer.parseInt(s);
+                return true;
+            } catch (final NumberFormatException e) {
+                return false;
+            }
+        }
+
+        private static boolean isLong(final String s) {
+            try {
+                Long.parseLong(s);
+                return true;
+            } catch (final NumberFormatException e) {
+                return false;
+            }
+        }
+    }
+
+    private final URIPatterns patterns;
+
+    private final int id;
+
+    private final String pattern;
+
+    private final String pathname;
+
+    private final Segment[] segments;
+
+    private final int firstMultiIndex;
+
+    URIPattern(final URIPatterns patterns, final int id, final String pattern) {
+        this.patterns = patterns;
+        this.id = id;
+        this.pattern = pattern;
+        pathname = URIUtil.toURIInfo(pattern).pathname();
+        final String[] patternParts = StringUtil.split(pathname, '/');
+        segments = new Segment[patternParts.length];
+        final Set<String> variableNames = new HashSet<>(Math.min(patternParts.length, 16));
+        int firstMultiIndex = -1;
+        for (int i = 0; i < patternParts.length; i++) {
+            final Segment segment = toSegment(patternParts[i]);
+            if (!SegmentType.LITERAL.equals(segment.type) && !variableNames.add(segment.value)) {
+                throw new InvalidValueException(
+                        "duplicate variable name %s found in the uri pattern".formatted(segment.value));
+            }
+            if (SegmentType.MULTI_VARIABLE.equals(segment.type) && firstMultiIndex == -1) {
+                firstMultiIndex = i;
+            }
+            segments[i] = segment;
+        }
+        this.firstMultiIndex = firstMultiIndex;
+    }
+
+    private static Segment toSegment(final String patternPart) {
+        if (patternPart.length() > 1 && patternPart.charAt(0) == '{'
+                && patternPart.charAt(patternPart.length() - 1) == '}') {
+            final String variable = patternPart.substring(1, patternPart.length() - 1);
+            if (variable.endsWith(":int")) {
+                return new Segment(SegmentType.INT_VARIABLE, variable.substring(0, variable.length() - 4));
+            }
+            if (variable.endsWith(":long")) {
+                return new Segment(SegmentType.LONG_VARIABLE, variable.substring(0, variable.length() - 5));
+            }
+            return new Segment(SegmentType.VARIABLE, variable);
+        }
+        if (patternPart.length() > 1 && patternPart.charAt(0) == '['
+                && patternPart.charAt(patternPart.length() - 1) == ']') {
+            return new Segment(SegmentType.MULTI_VARIABLE, patternPart.substring(1, patternPart.length() - 1));
+        }
+        return new Segment(SegmentType.LITERAL, patternPart);
+    }
+
+    /**
+     * @return the pattern string given to {@link URIPatterns#add(String)}
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @param uri the uri to match
+     * @return true if the path of the uri matches with this pattern
+     */
+    public boolean matches(final String uri) {
+        return patterns.matchedIds(uri).get(id);
+    }
+
+    /**
+     * @param uriEvent the uri event
+     * @return true if the {@code uriAfter} of the event matches with this
+     *         pattern
+     */
+    @Override
+    public boolean test(final URIEvent uriEvent) {
+        final String uriAfter = uriEvent.uriAfter();
+        return uriAfter != null && matches(uriAfter);
+    }
+
+    /**
+     * Parses the uri like {@link URIUtil#parse(String, String)}.
+     *
+     * @param uri the uri to parse
+     * @return the {@code ParsedURI} which contains parsed info of the uri.
+     * @throws InvalidValueException if the uri doesn't match with this pattern
+     */
+    public ParsedURI parse(final String uri) {
+        final URIUtil.URIInfo uriInfo = URIUtil.toURIInfo(uri);
+        final String[] uriParts = StringUtil.split(uriInfo.pathname(), '/');
+        final Map<String, String> pathParameters = new HashMap<>(Math.min(segments.length, 16));
+        if (!matchesFrom(uriParts, 0, 0, uriInfo.pathname(), pathParameters)) {
+            throw new InvalidValueException("The pattern doesn't match with the uri");
+        }
+        return new ParsedURI(uriInfo.pathname(), Map.copyOf(pathParameters),
+                URIUtil.parseQueryParameters(uri), URLDecoder.decode(uriInfo.hash(), StandardCharsets.UTF_8));
+    }
+
+    int id() {
+        return id;
+    }
+
+    String pathname() {
+        return pathname;
+    }
+
+    Segment[] segments() {
+        return segments;
+    }
+
+    /**
+     * @return the index of the first multi segment variable or -1 if there is
+     *         no such variable.
+     */
+    int firstMultiIndex() {
+        return firstMultiIndex;
+    }
+
+    /**
+     * Matches the uri parts from the given segment index with the same steps of
+     * {@link URIUtil#patternMatches(String, String)}, the segments before it
+     * must already be matched with the uri parts before the given uri part
+     * index.
+     *
+     * @param uriParts       the uri pathname split by /
+     * @param segmentIndex   the index of the segment to start
+     * @param uriPartIndex   the index of the uri part to start
+     * @param uriPathname    the uri pathname
+     * @param pathParameters to collect the path parameters or null if not
+     *                       required
+     * @return true if matched
+     */
+    boolean matchesFrom(final String[] uriParts, final int segmentIndex, final int uriPartIndex,
+            final String uriPathname, final Map<String, String> pathParameters) {
+
+        if (firstMultiIndex != -1 ? segments.length > uriParts.length : segments.length != uriParts.length) {
+            return false;
+        }
+        if (segmentIndex == 0 && uriPathname.startsWith("/") && !pathname.startsWith("/")) {
+            return false;
+        }
+
+        final int lastSegmentIndex = segments.length - 1;
+        for (int i = segmentIndex, j = uriPartIndex; i < segments.length; i++, j++) {
+            if (j >= uriParts.length) {
+                return false;
+            }
+            final Segment segment = segments[i];
+            if (segment.type.singleVariable()) {
+                if (i == lastSegmentIndex && j < uriParts.length - 1) {
+                    return false;
+                }
+                final String uriValue = pathParameters != null || !SegmentType.VARIABLE.equals(segment.type)
+                        ? URLDecoder.decode(uriParts[j], StandardCharsets.UTF_8)
+                        : uriParts[j];
+                if (!segment.accepts(uriValue)) {
+                    return false;
+                }
+                if (pathParameters != null) {
+                    pathParameters.put(segment.value, uriValue);
+                }
+            } else if (SegmentType.MULTI_VARIABLE.equals(segment.type)) {
+                final int startIndex = j;
+                final boolean valuePresent;
+                if (i < lastSegmentIndex) {
+                    final Segment nextSegment = segments[i + 1];
+                    if (!SegmentType.LITERAL.equals(nextSegment.type)) {
+                        j = Math.max(j, uriParts.length - (segments.length - (i + 1)) - 1);
+                        valuePresent = true;
+                    } else {
+                        int k = j;
+                        while (k < uriParts.length && !uriParts[k].equals(nextSegment.value)) {
+                            k++;
+                        }
+                        valuePresent = k > j;
+                        j = valuePresent ? k - 1 : j;
+                    }
+                } else {
+                    j = uriParts.length - 1;
+                    valuePresent = true;
+                }
+                if (pathParameters != null && valuePresent) {
+                    final StringBuilder valueBuilder = new StringBuilder();
+                    for (int k = startIndex; k <= j; k++) {
+                        if (k > startIndex) {
+                            valueBuilder.append('/');
+                        }
+                        valueBuilder.append(URLDecoder.decode(uriParts[k], StandardCharsets.UTF_8));
+                    }
+                    pathParameters.put(segment.value, valueBuilder.toString());
+                }
+            } else if (!segment.value.equals(uriParts[j])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+}
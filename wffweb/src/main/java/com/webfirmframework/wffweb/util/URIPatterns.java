@@ -0,0 +1,245 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.util;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A set of uri patterns compiled into a trie of path segments. A uri is
+ * matched with all patterns in a single walk of the trie and the result is
+ * kept in the current thread until a different uri is matched in it, so
+ * testing the {@link URIPattern} objects of the same {@code URIPatterns} for
+ * the same uri costs only a bit lookup irrespective of the number of patterns.
+ * The {@code whenURI} predicates of a uri change are tested in the same
+ * thread, so the concurrent uri changes of different pages do not discard the
+ * result of each other. It is suitable to keep all routes of an app in one
+ * static {@code URIPatterns} object and use its {@code URIPattern} objects in
+ * {@code whenURI}. It is thread-safe.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+public final class URIPatterns {
+
+    private static final URIPattern.Segment INT_SEGMENT = new URIPattern.Segment(URIPattern.SegmentType.INT_VARIABLE,
+            "");
+
+    private static final URIPattern.Segment LONG_SEGMENT = new URIPattern.Segment(
+            URIPattern.SegmentType.LONG_VARIABLE, "");
+
+    private static final class Node {
+
+        private final Map<String, Node> literals = new HashMap<>(4);
+
+        private Node variable;
+
+        private Node intVariable;
+
+        private Node longVariable;
+
+        // the patterns having no more segments
+        private final List<URIPattern> ends = new ArrayList<>(1);
+
+        // the patterns having a multi segment variable as the next segment
+        private final List<URIPattern> multiTails = new ArrayList<>(1);
+    }
+
+    /**
+     * the trie is not modified after it is published.
+     */
+    private record Snapshot(Node root, Map<String, List<URIPattern>> byPathname) {
+    }
+
+    private record LastMatch(Snapshot snapshot, String uri, BitSet matchedIds) {
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<String, URIPattern> patterns = new LinkedHashMap<>();
+
+    private volatile Snapshot snapshot = new Snapshot(new Node(), Map.of());
+
+    // per thread as a shared last match would be replaced by the concurrent uri
+    // changes of the other pages
+    private final ThreadLocal<LastMatch> lastMatch = new ThreadLocal<>();
+
+    /**
+     * Creates an empty set of uri patterns, the patterns can be added by
+     * {@link #add(String)}.
+     */
+    public URIPatterns() {
+        // NOP
+    }
+
+    /**
+     * Compiles and adds the pattern. The pattern syntax is the same as of
+     * {@link URIUtil#patternMatches(String, String)}, additionally a variable
+     * can be typed as <code>{itemId:int}</code> or <code>{itemId:long}</code>.
+     *
+     * @param pattern the uri pattern, eg: /user/items/view/{itemId}
+     * @return the compiled pattern, the same object is returned if the same
+     *         pattern is already added.
+     * @throws com.webfirmframework.wffweb.InvalidValueException if the pattern
+     *                                                           contains
+     *                                                           duplicate
+     *                                                           variable
+     *                                                           names
+     */
+    public URIPattern add(final String pattern) {
+        lock.lock();
+        try {
+            URIPattern uriPattern = patterns.get(pattern);
+            if (uriPattern == null) {
+                uriPattern = new URIPattern(this, patterns.size(), pattern);
+                patterns.put(pattern, uriPattern);
+                snapshot = buildSnapshot(patterns.values());
+            }
+            return uriPattern;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Snapshot buildSnapshot(final Iterable<URIPattern> uriPatterns) {
+        final Node root = new Node();
+        final Map<String, List<URIPattern>> byPathname = new HashMap<>();
+        for (final URIPattern uriPattern : uriPatterns) {
+            byPathname.computeIfAbsent(uriPattern.pathname(), k -> new ArrayList<>(1)).add(uriPattern);
+
+            final URIPattern.Segment[] segments = uriPattern.segments();
+            final int trieLength = uriPattern.firstMultiIndex() != -1 ? uriPattern.firstMultiIndex()
+                    : segments.length;
+            Node node = root;
+            for (int i = 0; i < trieLength; i++) {
+                final URIPattern.Segment segment = segments[i];
+                node = switch (segment.type()) {
+                case LITERAL -> node.literals.computeIfAbsent(segment.value(), k -> new Node());
+                case VARIABLE -> node.variable != null ? node.variable : (node.variable = new Node());
+                case INT_VARIABLE -> node.intVariable != null ? node.intVariable : (node.intVariable = new Node());
+                case LONG_VARIABLE -> node.longVariable != null ? node.longVariable
+                        : (node.longVariable = new Node());
+                case MULTI_VARIABLE -> throw new AssertionError();
+                };
+            }
+            if (uriPattern.firstMultiIndex() != -1) {
+                node.multiTails.add(uriPattern);
+            } else {
+                node.ends.add(uriPattern);
+            }
+        }
+        return new Snapshot(root, byPathname);
+    }
+
+    /**
+     * @param uri the uri to match
+     * @return the patterns which match with the path of the uri in the order
+     *         they are added.
+     */
+    public List<URIPattern> match(final String uri) {
+        final BitSet matchedIds = matchedIds(uri);
+        final List<URIPattern> matched = new ArrayList<>(matchedIds.cardinality());
+        lock.lock();
+        try {
+            for (final URIPattern uriPattern : patterns.values()) {
+                if (matchedIds.get(uriPattern.id())) {
+                    matched.add(uriPattern);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return matched;
+    }
+
+    /**
+     * @param uri
+     * @return the ids of the patterns which match with the uri, it must not be
+     *         modified.
+     */
+    BitSet matchedIds(final String uri) {
+        final Snapshot snapshot = this.snapshot;
+        final LastMatch lastMatch = this.lastMatch.get();
+        if (lastMatch != null && lastMatch.snapshot == snapshot && lastMatch.uri.equals(uri)) {
+            return lastMatch.matchedIds;
+        }
+
+        final String uriPathname = URIUtil.toURIInfo(uri).pathname();
+        final String[] uriParts = StringUtil.split(uriPathname, '/');
+        final BitSet matchedIds = new BitSet();
+
+        final List<URIPattern> samePathname = snapshot.byPathname.get(uriPathname);
+        if (samePathname != null) {
+            for (final URIPattern uriPattern : samePathname) {
+                matchedIds.set(uriPattern.id());
+            }
+        }
+        collectMatches(snapshot.root, uriParts, 0, uriPathname, matchedIds);
+
+        this.lastMatch.set(new LastMatch(snapshot, uri, matchedIds));
+        return matchedIds;
+    }
+
+    private static void collectMatches(final Node node, final String[] uriParts, final int depth,
+            final String uriPathname, final BitSet matchedIds) {
+
+        for (final URIPattern uriPattern : node.multiTails) {
+            if (uriPattern.matchesFrom(uriParts, depth, depth, uriPathname, null)) {
+                matchedIds.set(uriPattern.id());
+            }
+        }
+
+        if (depth == uriParts.length) {
+            for (final URIPattern uriPattern : node.ends) {
+                matchedIds.set(uriPattern.id());
+            }
+            return;
+        }
+
+        final String uriPart = uriParts[depth];
+        final Node literal = node.literals.get(uriPart);
+        if (literal != null) {
+            collectMatches(literal, uriParts, depth + 1, uriPathname, matchedIds);
+        }
+
+        // a uri starting with / matches only with a pattern starting with /
+        if (depth == 0 && uriPathname.startsWith("/")) {
+            return;
+        }
+
+        if (node.variable != null) {
+            collectMatches(node.variable, uriParts, depth + 1, uriPathname, matchedIds);
+        }
+        if (node.intVariable != null && isAccepted(INT_SEGMENT, uriPart)) {
+            collectMatches(node.intVariable, uriParts, depth + 1, uriPathname, matchedIds);
+        }
+        if (node.longVariable != null && isAccepted(LONG_SEGMENT, uriPart)) {
+            collectMatches(node.longVariable, uriParts, depth + 1, uriPathname, matchedIds);
+        }
+    }
+
+    private static boolean isAccepted(final URIPattern.Segment typeSegment, final String uriPart) {
+        return typeSegment.accepts(URLDecoder.decode(uriPart, StandardCharsets.UTF_8));
+    }
+
+}
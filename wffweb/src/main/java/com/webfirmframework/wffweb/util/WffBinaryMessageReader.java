@@ -0,0 +1,209 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.util;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.webfirmframework.wffweb.util.data.NameValue;
+
+/**
+ * A pull parser of the wff binary message (see
+ * {@link WffBinaryMessageUtil#VERSION_1}) which reads the message from a
+ * sequence of {@code ByteBuffer} chunks, heap or direct, without merging them
+ * into a single array. The name and values of the current name-value pair are
+ * exposed as slices of the chunks, a name or value is copied only if it spans
+ * across two chunks. <br>
+ * Eg:
+ *
+ * <pre>
+ * <code>
+ * final WffBinaryMessageReader reader = new WffBinaryMessageReader(chunk1, chunk2);
+ * while (reader.next()) {
+ *     final ByteBuffer name = reader.name();
+ *     for (int i = 0; i &lt; reader.valuesCount(); i++) {
+ *         final ByteBuffer value = reader.value(i);
+ *     }
+ * }
+ * </code>
+ * </pre>
+ *
+ * NB: the bytes of the given chunks from their position to limit are read,
+ * their position and limit will not be changed by the reader. The slices share
+ * the content of the chunks so the chunks should not be modified while the
+ * slices are in use. This class is not thread-safe. <br>
+ * NB: {@code PayloadProcessor} still merges the chunks of a client message as
+ * {@code BrowserPage} queues each client message as a single {@code byte[]}
+ * before executing it.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+public final class WffBinaryMessageReader {
+
+    private final ByteBuffer[] chunks;
+
+    private int chunkIndex;
+
+    private final int nameLengthBytesLength;
+
+    private final int valueLengthBytesLength;
+
+    private ByteBuffer name;
+
+    private final List<ByteBuffer> values = new ArrayList<>();
+
+    /**
+     * @param chunks the chunks of the wff binary message in the order.
+     */
+    public WffBinaryMessageReader(final ByteBuffer... chunks) {
+        this.chunks = new ByteBuffer[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            this.chunks[i] = chunks[i].duplicate();
+        }
+        nameLengthBytesLength = readByte();
+        valueLengthBytesLength = readByte();
+    }
+
+    /**
+     * moves to the next name-value pair.
+     *
+     * @return true if there is a next name-value pair, otherwise false.
+     * @throws BufferUnderflowException if the message is incomplete.
+     */
+    public boolean next() {
+        values.clear();
+        if (!hasRemaining()) {
+            name = null;
+            return false;
+        }
+        name = read(readInt(nameLengthBytesLength));
+
+        final int valuesLength = readInt(valueLengthBytesLength);
+        int consumed = 0;
+        while (consumed < valuesLength) {
+            final int valueLength = readInt(valueLengthBytesLength);
+            values.add(read(valueLength));
+            consumed += valueLengthBytesLength + valueLength;
+        }
+        return true;
+    }
+
+    /**
+     * @return the name of the current name-value pair, it is a slice of the
+     *         message so it should not be modified.
+     */
+    public ByteBuffer name() {
+        return name;
+    }
+
+    /**
+     * @return the number of values in the current name-value pair.
+     */
+    public int valuesCount() {
+        return values.size();
+    }
+
+    /**
+     * @param index the index of the value
+     * @return the value at the given index of the current name-value pair, it is a
+     *         slice of the message so it should not be modified.
+     */
+    public ByteBuffer value(final int index) {
+        return values.get(index);
+    }
+
+    /**
+     * @return the current name-value pair copied to a new {@code NameValue}
+     *         object.
+     */
+    public NameValue toNameValue() {
+        final byte[][] valuesBytes = new byte[values.size()][];
+        for (int i = 0; i < valuesBytes.length; i++) {
+            valuesBytes[i] = toByteArray(values.get(i));
+        }
+        return new NameValue(toByteArray(name), valuesBytes);
+    }
+
+    private static byte[] toByteArray(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(buffer.position(), bytes);
+        return bytes;
+    }
+
+    private boolean hasRemaining() {
+        for (int i = chunkIndex; i < chunks.length; i++) {
+            if (chunks[i].hasRemaining()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the chunk having remaining bytes
+     */
+    private ByteBuffer currentChunk() {
+        while (chunkIndex < chunks.length) {
+            final ByteBuffer chunk = chunks[chunkIndex];
+            if (chunk.hasRemaining()) {
+                return chunk;
+            }
+            chunkIndex++;
+        }
+        throw new BufferUnderflowException();
+    }
+
+    private int readByte() {
+        return currentChunk().get() & 0xFF;
+    }
+
+    /**
+     * reads the given number of bytes as a big-endian int, it is equivalent to
+     * {@link WffBinaryMessageUtil#getIntFromOptimizedBytes(byte[])}.
+     */
+    private int readInt(final int noOfBytes) {
+        int value = 0;
+        for (int i = 0; i < noOfBytes; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    private ByteBuffer read(final int length) {
+        if (length == 0) {
+            return ByteBuffer.allocate(0);
+        }
+        final ByteBuffer chunk = currentChunk();
+        final int position = chunk.position();
+        if (chunk.remaining() >= length) {
+            chunk.position(position + length);
+            return chunk.slice(position, length);
+        }
+        // spans across chunks so it has to be copied
+        final ByteBuffer copy = ByteBuffer.allocate(length);
+        while (copy.hasRemaining()) {
+            final ByteBuffer current = currentChunk();
+            final int count = Math.min(copy.remaining(), current.remaining());
+            copy.put(current.slice(current.position(), count));
+            current.position(current.position() + count);
+        }
+        return copy.flip();
+    }
+
+}
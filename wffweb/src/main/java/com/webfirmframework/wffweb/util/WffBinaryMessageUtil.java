@@ -15,10 +15,14 @@
  */
 package com.webfirmframework.wffweb.util;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.IntFunction;
 
+import com.webfirmframework.wffweb.InvalidValueException;
 import com.webfirmframework.wffweb.util.data.NameValue;
 
 public enum WffBinaryMessageUtil {
@@ -78,6 +82,18 @@ public enum WffBinaryMessageUtil {
 
         @Override
         public byte[] getWffBinaryMessageBytes(final NameValue... nameValues) {
+            return getWffBinaryMessageBytes(0, nameValues);
+        }
+
+        @Override
+        public byte[] getWffBinaryMessageBytes(final int reservedLeadingBytes, final NameValue... nameValues) {
+            // the array of the allocated buffer is exactly of the message length
+            return getWffBinaryMessageBytes(reservedLeadingBytes, ByteBuffer::allocate, nameValues).array();
+        }
+
+        @Override
+        public ByteBuffer getWffBinaryMessageBytes(final int reservedLeadingBytes,
+                final IntFunction<ByteBuffer> allocator, final NameValue... nameValues) {
 
             int maxNoOfNameBytes = 0;
             int maxNoOfValuesBytes = 0;
@@ -148,12 +164,23 @@ public enum WffBinaryMessageUtil {
 
             }
 
-            final byte[] wffBinaryMessageBytes = new byte[totalLengthOfBinaryMessage];
+            final int totalLength = reservedLeadingBytes + totalLengthOfBinaryMessage;
+            final ByteBuffer wffBinaryMessageBuffer = allocator.apply(totalLength);
+            if (!wffBinaryMessageBuffer.hasArray() || wffBinaryMessageBuffer.capacity() != totalLength) {
+                throw new InvalidValueException(
+                        "The allocator must return a heap ByteBuffer with the capacity " + totalLength);
+            }
+
+            final byte[] wffBinaryMessageBytes = wffBinaryMessageBuffer.array();
+            final int arrayOffset = wffBinaryMessageBuffer.arrayOffset();
 
-            wffBinaryMessageBytes[0] = maxNoNameLengthBytes;
-            wffBinaryMessageBytes[1] = maxNoValueLengthBytes;
+            // a reused buffer may contain the bytes of a previous message
+            Arrays.fill(wffBinaryMessageBytes, arrayOffset, arrayOffset + reservedLeadingBytes, (byte) 0);
 
-            int wffBinaryMessageBytesIndex = 2;
+            wffBinaryMessageBytes[arrayOffset + reservedLeadingBytes] = maxNoNameLengthBytes;
+            wffBinaryMessageBytes[arrayOffset + reservedLeadingBytes + 1] = maxNoValueLengthBytes;
+
+            int wffBinaryMessageBytesIndex = arrayOffset + reservedLeadingBytes + 2;
 
             for (final NameValue nameValue : nameValues) {
 
@@ -210,7 +237,7 @@ public enum WffBinaryMessageUtil {
 
             }
 
-            return wffBinaryMessageBytes;
+            return wffBinaryMessageBuffer;
         }
 
         @Override
@@ -220,101 +247,22 @@ public enum WffBinaryMessageUtil {
 
         @Override
         public List<NameValue> parse(final byte[] message, final int offset, final int length) {
-
-            // needs to optimize this code to find the total no. of name values.
             final List<NameValue> nameValues = new LinkedList<>();
-
-            final byte[] nameLengthBytes = new byte[message[offset]];
-            final byte[] valueLengthBytes = new byte[message[offset + 1]];
-
-            final int nameLengthBytesLength = nameLengthBytes.length;
-            final int valueLengthBytesLength = valueLengthBytes.length;
-
-            final int endIndex = offset + length - 1;
-            for (int messageIndex = offset + 2; messageIndex <= endIndex; messageIndex++) {
-
-                final NameValue nameValue = new NameValue();
-
-                System.arraycopy(message, messageIndex, nameLengthBytes, 0, nameLengthBytesLength);
-                messageIndex = messageIndex + nameLengthBytesLength;
-                // nameToFetch = false;
-                // valueToFetch = true;
-
-                int fromByteArray = getIntFromOptimizedBytes(nameLengthBytes);
-                final byte[] nameBytes = new byte[fromByteArray];
-
-                System.arraycopy(message, messageIndex, nameBytes, 0, nameBytes.length);
-                messageIndex = messageIndex + nameBytes.length;
-
-                nameValue.setName(nameBytes);
-
-                System.arraycopy(message, messageIndex, valueLengthBytes, 0, valueLengthBytesLength);
-                messageIndex = messageIndex + valueLengthBytesLength;
-                fromByteArray = getIntFromOptimizedBytes(valueLengthBytes);
-                final byte[] valueBytes = new byte[fromByteArray];
-
-                System.arraycopy(message, messageIndex, valueBytes, 0, valueBytes.length);
-                messageIndex = messageIndex + valueBytes.length - 1;
-
-                // process array values
-                final byte[][] extractEachValueBytes = extractValuesFromArray(valueLengthBytes, valueLengthBytesLength,
-                        valueBytes);
-                nameValue.setValues(extractEachValueBytes);
-
-                nameValues.add(nameValue);
-
+            // the reader gives the values as slices of the message so each value is
+            // copied only once
+            final WffBinaryMessageReader reader = new WffBinaryMessageReader(
+                    ByteBuffer.wrap(message, offset, length));
+            while (reader.next()) {
+                nameValues.add(reader.toNameValue());
             }
-
             return nameValues;
         }
 
-        private byte[][] extractValuesFromArray(final byte[] valueLengthBytes, final int valueLengthBytesLength,
-                final byte[] valueBytes) {
-            final int[] valueBytesIndex = { 0 };
-            final int[] eachValueBytesCount = { 0 };
-            final int[] finalValuesIndex = { 0 };
-            final byte[][][] finalValues = new byte[1][0][0];
-
-            final byte[][] extractEachValueBytes = extractEachValueBytes(valueLengthBytes, valueLengthBytesLength,
-                    valueBytes, valueBytesIndex, eachValueBytesCount, finalValues, finalValuesIndex);
-            return extractEachValueBytes;
-        }
-
     };
 
     private WffBinaryMessageUtil() {
     }
 
-    private static byte[][] extractEachValueBytes(final byte[] valueLengthBytes, final int valueLengthBytesLength,
-            final byte[] valueBytes, final int[] valueBytesIndex, final int[] eachValueBytesCount,
-            final byte[][][] finalValues, final int[] finalValuesIndex) {
-
-        for (; valueBytesIndex[0] < valueBytes.length; valueBytesIndex[0]++) {
-            System.arraycopy(valueBytes, valueBytesIndex[0], valueLengthBytes, 0, valueLengthBytesLength);
-            valueBytesIndex[0] += valueLengthBytesLength;
-            final int eachValueBytesLength = getIntFromOptimizedBytes(valueLengthBytes);
-            final byte[] eachValueBytes = new byte[eachValueBytesLength];
-
-            System.arraycopy(valueBytes, valueBytesIndex[0], eachValueBytes, 0, eachValueBytes.length);
-            eachValueBytesCount[0]++;
-
-            valueBytesIndex[0] += eachValueBytesLength - 1;
-
-            valueBytesIndex[0]++;
-            extractEachValueBytes(valueLengthBytes, valueLengthBytesLength, valueBytes, valueBytesIndex,
-                    eachValueBytesCount, finalValues, finalValuesIndex);
-            if (finalValues[0].length == 0) {
-                finalValuesIndex[0] = eachValueBytesCount[0] - 1;
-                finalValues[0] = new byte[eachValueBytesCount[0]][1];
-            }
-
-            finalValues[0][finalValuesIndex[0]] = eachValueBytes;
-            finalValuesIndex[0] = finalValuesIndex[0] - 1;
-        }
-
-        return finalValues[0];
-    }
-
     /**
      * @param message the wff binary message bytes
      * @param offset  the start index
@@ -357,6 +305,42 @@ public enum WffBinaryMessageUtil {
         throw new AssertionError();
     }
 
+    /**
+     * @param reservedLeadingBytes the number of bytes to be left as zero in the
+     *                             beginning of the returned array, eg: to write a
+     *                             header later without copying the message.
+     * @param nameValues
+     * @return the wff binary message bytes for the given name value pairs
+     *         prepended by the given number of zero bytes.
+     * @since 12.0.13
+     */
+    public byte[] getWffBinaryMessageBytes(final int reservedLeadingBytes, final NameValue... nameValues) {
+        throw new AssertionError();
+    }
+
+    /**
+     * writes the wff binary message into the buffer returned by the given
+     * allocator, eg: to write it into a pooled buffer.
+     *
+     * @param reservedLeadingBytes the number of bytes to be left as zero in the
+     *                             beginning of the buffer.
+     * @param allocator            the function to get a heap {@code ByteBuffer}
+     *                             for the length given as its argument. The
+     *                             capacity of the returned buffer must be exactly
+     *                             the given length, its content will be
+     *                             overwritten.
+     * @param nameValues
+     * @return the buffer returned by the allocator containing the wff binary
+     *         message from index 0 to its capacity.
+     * @throws InvalidValueException if the allocator returns a direct buffer or a
+     *                               buffer with a different capacity.
+     * @since 12.0.13
+     */
+    public ByteBuffer getWffBinaryMessageBytes(final int reservedLeadingBytes, final IntFunction<ByteBuffer> allocator,
+            final NameValue... nameValues) {
+        throw new AssertionError();
+    }
+
     /**
      * @param bytes from which the integer value will be obtained
      * @return the integer value from the given bytes
@@ -572,6 +556,31 @@ public enum WffBinaryMessageUtil {
         return getOptimizedBytesFromLong(Double.doubleToLongBits(value));
     }
 
+    /**
+     * @param bytes the bytes returned by {@link #getOptimizedBytesFromDouble(double)}
+     * @return the double value
+     * @since 12.0.13
+     */
+    public static double getDoubleFromOptimizedBytes(final byte[] bytes) {
+        return getDoubleFromOptimizedBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * @param bytes  the array containing the bytes returned by
+     *               {@link #getOptimizedBytesFromDouble(double)}
+     * @param offset the index of the first byte
+     * @param length the number of bytes, it should not be greater than 8
+     * @return the double value
+     * @since 12.0.13
+     */
+    public static double getDoubleFromOptimizedBytes(final byte[] bytes, final int offset, final int length) {
+        long bits = 0;
+        for (int i = offset; i < offset + length; i++) {
+            bits = (bits << 8) | (bytes[i] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
     /**
      * @param value
      * @return the bytes for the given long value
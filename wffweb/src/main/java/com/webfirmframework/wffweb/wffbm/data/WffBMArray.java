@@ -15,17 +15,18 @@
  */
 package com.webfirmframework.wffweb.wffbm.data;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serial;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
 
 import com.webfirmframework.wffweb.InvalidValueException;
 import com.webfirmframework.wffweb.WffRuntimeException;
@@ -108,14 +109,25 @@ import com.webfirmframework.wffweb.util.data.NameValue;
  * bmObject.put("objectArray", BMValueType.BM_ARRAY, objectArray);
  * </code></pre>
  *
+ * For a large array of numbers, eg: a chart series, use
+ * {@link WffBMDoubleArray}, {@link WffBMLongArray} or {@link WffBMIntArray}
+ * which keep the values in a primitive array instead of boxing each of them.
+ * <br>
+ * NB: since 12.0.13 it extends {@code ArrayList} instead of
+ * {@code LinkedList}, the {@code Deque} methods such as {@code push},
+ * {@code pop}, {@code peek} and {@code poll} are still available but it is no
+ * longer an instance of {@code Deque} or {@code Queue}.
+ *
  * @author WFF
  * @see WffBMByteArray
  * @see WffBMObject
  */
-public class WffBMArray extends LinkedList<Object> implements WffBMData {
+public class WffBMArray extends ArrayList<Object> implements WffBMData {
 
+    // changed from 1L as it extends ArrayList instead of LinkedList since
+    // 12.0.13 so the serialized form is different
     @Serial
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
     private boolean outer;
 
@@ -192,8 +204,7 @@ public class WffBMArray extends LinkedList<Object> implements WffBMData {
                 }
                 case NUMBER -> {
                     for (final byte[] value : values) {
-                        final double doubleValue = ByteBuffer.wrap(value).getDouble(0);
-                        this.add(doubleValue);
+                        this.add(WffBinaryMessageUtil.getDoubleFromOptimizedBytes(value));
                     }
                     yield valueType;
                 }
@@ -259,90 +270,22 @@ public class WffBMArray extends LinkedList<Object> implements WffBMData {
      */
     @Override
     public byte[] buildBytes(final boolean outer) {
-        final BMValueType valueType = this.valueType;
-        final Deque<NameValue> nameValues = new ArrayDeque<>(outer ? 2 : 1);
-
-        if (outer) {
-            final NameValue typeNameValue = new NameValue();
-            typeNameValue.setName(new byte[] { BMType.ARRAY.getType() });
-            nameValues.add(typeNameValue);
-        }
-
-        final NameValue nameValue = new NameValue();
-        final byte valueTypeByte = valueType.getType();
-        nameValue.setName(valueTypeByte);
-
-        nameValues.add(nameValue);
-
-        final byte[][] values = new byte[size()][0];
-        nameValue.setValues(values);
+        // the nested objects and arrays are encoded into the same array
+        return WffBMEncoder.encode(this, outer);
+    }
 
-        return switch (valueType) {
-        case STRING, REG_EXP, FUNCTION -> {
-            int count = 0;
-            for (final Object eachValue : this) {
-                final String value = (String) eachValue;
-                values[count] = value.getBytes(StandardCharsets.UTF_8);
-                count++;
-            }
-            yield WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
-        }
-        case NUMBER -> {
-            int count = 0;
-            for (final Object eachValue : this) {
-                final Number value = (Number) eachValue;
-                values[count] = WffBinaryMessageUtil.getOptimizedBytesFromDouble(value.doubleValue());
-                count++;
-            }
-            yield WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
-        }
-        case UNDEFINED, NULL -> {
-            for (int i = 0; i < size(); i++) {
-                values[i] = new byte[] {};
-            }
-            yield WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
-        }
-        case BOOLEAN -> {
-            int count = 0;
-            for (final Object eachValue : this) {
-                final Boolean value = (Boolean) eachValue;
-                final byte[] valueBytes = { (byte) (value.booleanValue() ? 1 : 0) };
-                values[count] = valueBytes;
-                count++;
-            }
-            yield WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
-        }
-        case BM_OBJECT -> {
-            int count = 0;
-            for (final Object eachValue : this) {
-                final WffBMObject value = (WffBMObject) eachValue;
-                values[count] = value.buildBytes(false);
-                count++;
-            }
-            yield WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
-        }
-        case BM_ARRAY -> {
-            int count = 0;
-            for (final Object eachValue : this) {
-                final WffBMArray value = (WffBMArray) eachValue;
-                values[count] = value.buildBytes(false);
-                count++;
-            }
-            yield WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
-        }
-        case BM_BYTE_ARRAY -> {
-            int count = 0;
-            for (final Object eachValue : this) {
-                @SuppressWarnings("resource")
-                final WffBMByteArray value = (WffBMByteArray) eachValue;
-                values[count] = value.build(false);
-                count++;
-            }
-            yield WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
-        }
-        case INTERNAL_BYTE -> throw new WffRuntimeException(
-                "BMValueType.BYTE is only for internal use, use WffBMByteArray for row bytes.");
-        };
+    /**
+     * writes the bytes of {@link #buildBytes(boolean)} to the given stream
+     * without building them as a whole.
+     *
+     * @param out   the stream to write the bytes
+     * @param outer
+     * @throws IOException if thrown by the given stream
+     * @since 12.0.13
+     */
+    @Override
+    public void writeBytes(final OutputStream out, final boolean outer) throws IOException {
+        WffBMEncoder.encode(this, outer, out);
     }
 
     /**
@@ -405,9 +348,9 @@ public class WffBMArray extends LinkedList<Object> implements WffBMData {
     public void addNumberFirst(final Number value) {
         if (BMValueType.NUMBER.equals(valueType)) {
             if (value instanceof final Float f) {
-                super.addFirst(floatToDouble(f));
+                super.add(0, floatToDouble(f));
             } else {
-                super.addFirst(value);
+                super.add(0, value);
             }
         } else {
             throw new InvalidValueException("Number value is allowed to add only in BMValueType.NUMBER type array.");
@@ -423,15 +366,251 @@ public class WffBMArray extends LinkedList<Object> implements WffBMData {
     public void addNumberLast(final Number value) {
         if (BMValueType.NUMBER.equals(valueType)) {
             if (value instanceof final Float f) {
-                super.addLast(floatToDouble(f));
+                super.add(floatToDouble(f));
             } else {
-                super.addLast(value);
+                super.add(value);
             }
         } else {
             throw new InvalidValueException("Number value is allowed to add only in BMValueType.NUMBER type array.");
         }
     }
 
+    /**
+     * Inserts the specified element at the beginning of this array.
+     *
+     * @param e the element to insert.
+     * @since 12.0.13
+     */
+    public void addFirst(final Object e) {
+        add(0, e);
+    }
+
+    /**
+     * Appends the specified element to the end of this array.
+     *
+     * @param e the element to append.
+     * @since 12.0.13
+     */
+    public void addLast(final Object e) {
+        add(e);
+    }
+
+    /**
+     * @return the first element.
+     * @throws NoSuchElementException if this array is empty.
+     * @since 12.0.13
+     */
+    public Object getFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return get(0);
+    }
+
+    /**
+     * @return the last element.
+     * @throws NoSuchElementException if this array is empty.
+     * @since 12.0.13
+     */
+    public Object getLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return get(size() - 1);
+    }
+
+    /**
+     * @return the removed first element.
+     * @throws NoSuchElementException if this array is empty.
+     * @since 12.0.13
+     */
+    public Object removeFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return remove(0);
+    }
+
+    /**
+     * @return the removed last element.
+     * @throws NoSuchElementException if this array is empty.
+     * @since 12.0.13
+     */
+    public Object removeLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return remove(size() - 1);
+    }
+
+    /**
+     * Appends the specified element to the end of this array.
+     *
+     * @param e the element to append.
+     * @return true
+     * @since 12.0.13
+     */
+    public boolean offer(final Object e) {
+        return add(e);
+    }
+
+    /**
+     * Inserts the specified element at the beginning of this array.
+     *
+     * @param e the element to insert.
+     * @return true
+     * @since 12.0.13
+     */
+    public boolean offerFirst(final Object e) {
+        addFirst(e);
+        return true;
+    }
+
+    /**
+     * Appends the specified element to the end of this array.
+     *
+     * @param e the element to append.
+     * @return true
+     * @since 12.0.13
+     */
+    public boolean offerLast(final Object e) {
+        addLast(e);
+        return true;
+    }
+
+    /**
+     * Inserts the specified element at the beginning of this array.
+     *
+     * @param e the element to push.
+     * @since 12.0.13
+     */
+    public void push(final Object e) {
+        addFirst(e);
+    }
+
+    /**
+     * @return the removed first element.
+     * @throws NoSuchElementException if this array is empty.
+     * @since 12.0.13
+     */
+    public Object pop() {
+        return removeFirst();
+    }
+
+    /**
+     * @return the removed first element.
+     * @throws NoSuchElementException if this array is empty.
+     * @since 12.0.13
+     */
+    public Object remove() {
+        return removeFirst();
+    }
+
+    /**
+     * @return the first element.
+     * @throws NoSuchElementException if this array is empty.
+     * @since 12.0.13
+     */
+    public Object element() {
+        return getFirst();
+    }
+
+    /**
+     * @return the first element or null if this array is empty.
+     * @since 12.0.13
+     */
+    public Object peek() {
+        return peekFirst();
+    }
+
+    /**
+     * @return the first element or null if this array is empty.
+     * @since 12.0.13
+     */
+    public Object peekFirst() {
+        return isEmpty() ? null : get(0);
+    }
+
+    /**
+     * @return the last element or null if this array is empty.
+     * @since 12.0.13
+     */
+    public Object peekLast() {
+        return isEmpty() ? null : get(size() - 1);
+    }
+
+    /**
+     * @return the removed first element or null if this array is empty.
+     * @since 12.0.13
+     */
+    public Object poll() {
+        return pollFirst();
+    }
+
+    /**
+     * @return the removed first element or null if this array is empty.
+     * @since 12.0.13
+     */
+    public Object pollFirst() {
+        return isEmpty() ? null : remove(0);
+    }
+
+    /**
+     * @return the removed last element or null if this array is empty.
+     * @since 12.0.13
+     */
+    public Object pollLast() {
+        return isEmpty() ? null : remove(size() - 1);
+    }
+
+    /**
+     * @param o the element to be removed.
+     * @return true if the element was removed.
+     * @since 12.0.13
+     */
+    public boolean removeFirstOccurrence(final Object o) {
+        return remove(o);
+    }
+
+    /**
+     * @param o the element to be removed.
+     * @return true if the element was removed.
+     * @since 12.0.13
+     */
+    public boolean removeLastOccurrence(final Object o) {
+        final int index = lastIndexOf(o);
+        if (index == -1) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    /**
+     * @return an iterator over the elements in this array in reverse order.
+     * @since 12.0.13
+     */
+    public Iterator<Object> descendingIterator() {
+        final ListIterator<Object> listIterator = listIterator(size());
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return listIterator.hasPrevious();
+            }
+
+            @Override
+            public Object next() {
+                return listIterator.previous();
+            }
+
+            @Override
+            public void remove() {
+                listIterator.remove();
+            }
+        };
+    }
+
     /**
      * @param value converts the float value to double without loosing precision.
      * @return the double value.
@@ -17,6 +17,7 @@ package com.webfirmframework.wffweb.wffbm.data;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayDeque;
@@ -178,4 +179,22 @@ public class WffBMByteArray extends ByteArrayOutputStream implements Serializabl
         return WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
     }
 
+    /**
+     * @param dest   the array to copy the bytes
+     * @param offset the offset in the dest
+     * @param length the number of bytes to copy from the beginning
+     */
+    synchronized void copyBytesTo(final byte[] dest, final int offset, final int length) {
+        System.arraycopy(buf, 0, dest, offset, length);
+    }
+
+    /**
+     * @param out    the stream to write the bytes
+     * @param length the number of bytes to write from the beginning
+     * @throws IOException
+     */
+    synchronized void writeBytesTo(final OutputStream out, final int length) throws IOException {
+        out.write(buf, 0, length);
+    }
+
 }
@@ -15,6 +15,9 @@
  */
 package com.webfirmframework.wffweb.wffbm.data;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 /**
  * @author WFF
  * @since 2.1.8
@@ -38,4 +41,16 @@ public interface WffBMData extends WffData {
      */
     public abstract byte[] buildBytes(boolean outer);
 
+    /**
+     * writes the bytes of {@link #buildBytes(boolean)} to the given stream.
+     *
+     * @param out   the stream to write the bytes
+     * @param outer
+     * @throws IOException if thrown by the given stream
+     * @since 12.0.13
+     */
+    public default void writeBytes(final OutputStream out, final boolean outer) throws IOException {
+        out.write(buildBytes(outer));
+    }
+
 }
@@ -0,0 +1,543 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.wffbm.data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Map.Entry;
+
+import com.webfirmframework.wffweb.WffRuntimeException;
+import com.webfirmframework.wffweb.util.WffBinaryMessageUtil;
+
+/**
+ * Encodes a {@link WffBMObject}, a {@link WffBMArray} or a
+ * {@link WffBMPrimitiveNumberArray} including all of its nested objects and
+ * arrays without building the bytes of each nested one separately. The first
+ * pass measures the length of each nested message and the number of bytes of
+ * its name and value lengths in the traversal order, the second pass writes the
+ * whole message in the same order either into an array of the exact length or
+ * through a small buffer into an {@code OutputStream}. The strings are encoded
+ * to UTF-8 directly into the output. The output is the same as the one built by
+ * composing the bytes of each nested object with
+ * {@link WffBinaryMessageUtil#VERSION_1}.
+ *
+ * Note: Only for internal use. An object of this class is for a single encode.
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+final class WffBMEncoder {
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    /**
+     * the measured lengths in the traversal order. A message takes three ints,
+     * i.e. its total length, the number of bytes of the name lengths and the
+     * number of bytes of the value lengths, followed by the lengths of its
+     * string values and names and its nested messages.
+     */
+    private int[] lengths = new int[64];
+
+    private int lengthsSize;
+
+    private int lengthsIndex;
+
+    private byte[] buffer;
+
+    private int position;
+
+    private OutputStream out;
+
+    private WffBMEncoder() {
+    }
+
+    /**
+     * @param data  the WffBMObject or WffBMArray
+     * @param outer true to encode it as an outer object or array
+     * @return the bytes same as {@code data.buildBytes(outer)}
+     */
+    static byte[] encode(final WffBMData data, final boolean outer) {
+        final WffBMEncoder encoder = new WffBMEncoder();
+        final int length = encoder.measure(data, outer);
+        encoder.buffer = new byte[length];
+        try {
+            encoder.write(data, outer);
+        } catch (final IOException e) {
+            // not possible as there is no OutputStream
+            throw new WffRuntimeException(e.getMessage(), e);
+        }
+        return encoder.buffer;
+    }
+
+    /**
+     * @param data  the WffBMObject or WffBMArray
+     * @param outer true to encode it as an outer object or array
+     * @param out   to write the bytes same as {@code data.buildBytes(outer)}
+     * @throws IOException if thrown by the given OutputStream
+     */
+    static void encode(final WffBMData data, final boolean outer, final OutputStream out) throws IOException {
+        final WffBMEncoder encoder = new WffBMEncoder();
+        final int length = encoder.measure(data, outer);
+        encoder.buffer = new byte[Math.min(length, STREAM_BUFFER_SIZE)];
+        encoder.out = out;
+        encoder.write(data, outer);
+        encoder.flush();
+    }
+
+    private int measure(final WffBMData data, final boolean outer) {
+        if (data instanceof final WffBMObject object) {
+            return measureObject(object, outer);
+        }
+        if (data instanceof final WffBMArray array) {
+            return measureArray(array, outer);
+        }
+        if (data instanceof final WffBMPrimitiveNumberArray<?> array) {
+            return measurePrimitiveArray(array, outer);
+        }
+        throw new WffRuntimeException("Unsupported WffBMData " + data.getClass().getName());
+    }
+
+    private void write(final WffBMData data, final boolean outer) throws IOException {
+        if (data instanceof final WffBMObject object) {
+            writeObject(object, outer);
+        } else if (data instanceof final WffBMArray array) {
+            writeArray(array, outer);
+        } else {
+            writePrimitiveArray((WffBMPrimitiveNumberArray<?>) data, outer);
+        }
+    }
+
+    private int reserveMessageLengths() {
+        final int index = lengthsSize;
+        addLength(0);
+        addLength(0);
+        addLength(0);
+        return index;
+    }
+
+    private void addLength(final int length) {
+        if (lengthsSize == lengths.length) {
+            lengths = Arrays.copyOf(lengths, lengthsSize << 1);
+        }
+        lengths[lengthsSize++] = length;
+    }
+
+    private int nextLength() {
+        return lengths[lengthsIndex++];
+    }
+
+    private int setMessageLengths(final int index, final int totalLength, final int nameLengthBytes,
+            final int valueLengthBytes) {
+        lengths[index] = totalLength;
+        lengths[index + 1] = nameLengthBytes;
+        lengths[index + 2] = valueLengthBytes;
+        return totalLength;
+    }
+
+    /**
+     * @param valueTypeByte the value type of the value
+     * @param value         the value
+     * @return the length of the bytes of the value
+     */
+    private int measureValue(final byte valueTypeByte, final Object value) {
+        return switch (BMValueType.getInstanceByType(valueTypeByte)) {
+        case STRING, REG_EXP, FUNCTION -> {
+            final int length = utf8Length((String) value);
+            addLength(length);
+            yield length;
+        }
+        case NUMBER -> numberLength(Double.doubleToLongBits(((Number) value).doubleValue()));
+        case UNDEFINED, NULL -> 0;
+        case BOOLEAN -> 1;
+        case BM_OBJECT -> measureObject((WffBMObject) value, false);
+        case BM_ARRAY -> measure((WffBMData) value, false);
+        case BM_BYTE_ARRAY -> measureByteArray((WffBMByteArray) value);
+        case INTERNAL_BYTE -> throw new WffRuntimeException(
+                "BMValueType.BYTE is only for internal use, use WffBMByteArray for row bytes.");
+        };
+    }
+
+    private void writeValue(final byte valueTypeByte, final Object value) throws IOException {
+        switch (BMValueType.getInstanceByType(valueTypeByte)) {
+        case STRING, REG_EXP, FUNCTION -> {
+            // the length is already written
+            lengthsIndex++;
+            writeUtf8((String) value);
+        }
+        case NUMBER -> writeNumber(Double.doubleToLongBits(((Number) value).doubleValue()));
+        case UNDEFINED, NULL -> {
+        }
+        case BOOLEAN -> writeByte((byte) (((Boolean) value).booleanValue() ? 1 : 0));
+        case BM_OBJECT -> writeObject((WffBMObject) value, false);
+        case BM_ARRAY -> write((WffBMData) value, false);
+        case BM_BYTE_ARRAY -> writeByteArray((WffBMByteArray) value);
+        case INTERNAL_BYTE -> throw new WffRuntimeException(
+                "BMValueType.BYTE is only for internal use, use WffBMByteArray for row bytes.");
+        }
+    }
+
+    /**
+     * the length of the value written by {@link #writeValue(byte, Object)} which
+     * is measured by {@link #measureValue(byte, Object)}, it doesn't consume the
+     * measured lengths.
+     */
+    private int writtenValueLength(final byte valueTypeByte, final Object value) {
+        return switch (BMValueType.getInstanceByType(valueTypeByte)) {
+        case STRING, REG_EXP, FUNCTION, BM_OBJECT, BM_ARRAY, BM_BYTE_ARRAY -> lengths[lengthsIndex];
+        case NUMBER -> numberLength(Double.doubleToLongBits(((Number) value).doubleValue()));
+        case UNDEFINED, NULL -> 0;
+        case BOOLEAN -> 1;
+        case INTERNAL_BYTE -> throw new WffRuntimeException(
+                "BMValueType.BYTE is only for internal use, use WffBMByteArray for row bytes.");
+        };
+    }
+
+    /*
+     * An object is a message of a name-value for each entry, the name is the key
+     * and the values are the value type and the value. An outer object has an
+     * additional first name-value with the object type as name and no values.
+     */
+    private int measureObject(final WffBMObject object, final boolean outer) {
+        final int index = reserveMessageLengths();
+
+        int maxNameLength = outer ? 1 : 0;
+        int maxValuesLength = 0;
+        int namesAndValuesLength = 0;
+        int count = 0;
+
+        for (final Entry<String, ValueValueType> entry : object.entrySet()) {
+            final int nameLength = utf8Length(entry.getKey());
+            addLength(nameLength);
+            final ValueValueType valueValueType = entry.getValue();
+            final int valueLength = measureValue(valueValueType.getValueTypeByte(), valueValueType.getValue());
+
+            if (nameLength > maxNameLength) {
+                maxNameLength = nameLength;
+            }
+            final int valuesLength = 1 + valueLength;
+            final int totalValuesLength = valuesLength
+                    + 2 * WffBinaryMessageUtil.getLengthOfOptimizedBytesFromInt(valuesLength);
+            if (totalValuesLength > maxValuesLength) {
+                maxValuesLength = totalValuesLength;
+            }
+            namesAndValuesLength += nameLength + valueLength;
+            count++;
+        }
+
+        final int nameLengthBytes = WffBinaryMessageUtil.getLengthOfOptimizedBytesFromInt(maxNameLength);
+        final int valueLengthBytes = WffBinaryMessageUtil.getLengthOfOptimizedBytesFromInt(maxValuesLength);
+
+        // each entry has the name length, the total length of the values and the
+        // length of its two values, the first value is the value type byte
+        int totalLength = 2 + namesAndValuesLength + count * (nameLengthBytes + 3 * valueLengthBytes + 1);
+        if (outer) {
+            totalLength += nameLengthBytes + 1 + valueLengthBytes;
+        }
+        return setMessageLengths(index, totalLength, nameLengthBytes, valueLengthBytes);
+    }
+
+    private void writeObject(final WffBMObject object, final boolean outer) throws IOException {
+        lengthsIndex++;
+        final int nameLengthBytes = nextLength();
+        final int valueLengthBytes = nextLength();
+
+        ensure(2);
+        buffer[position++] = (byte) nameLengthBytes;
+        buffer[position++] = (byte) valueLengthBytes;
+
+        if (outer) {
+            writeInt(1, nameLengthBytes);
+            writeByte(BMType.OBJECT.getType());
+            writeInt(0, valueLengthBytes);
+        }
+
+        for (final Entry<String, ValueValueType> entry : object.entrySet()) {
+            final int nameLength = nextLength();
+            writeInt(nameLength, nameLengthBytes);
+            writeUtf8(entry.getKey());
+
+            final ValueValueType valueValueType = entry.getValue();
+            final byte valueTypeByte = valueValueType.getValueTypeByte();
+            final Object value = valueValueType.getValue();
+            final int valueLength = writtenValueLength(valueTypeByte, value);
+
+            writeInt(1 + valueLength + 2 * valueLengthBytes, valueLengthBytes);
+            writeInt(1, valueLengthBytes);
+            writeByte(valueTypeByte);
+            writeInt(valueLength, valueLengthBytes);
+            writeValue(valueTypeByte, value);
+        }
+    }
+
+    /*
+     * An array is a message of a single name-value, the name is the value type
+     * and the values are the elements. An outer array has an additional first
+     * name-value with the array type as name and no values.
+     */
+    private int measureArray(final WffBMArray array, final boolean outer) {
+        final int index = reserveMessageLengths();
+        final byte valueTypeByte = array.getValueType().getType();
+
+        int valuesLength = 0;
+        int count = 0;
+        for (final Object value : array) {
+            valuesLength += measureValue(valueTypeByte, value);
+            count++;
+        }
+        return setArrayMessageLengths(index, count, valuesLength, outer);
+    }
+
+    private int setArrayMessageLengths(final int index, final int count, final int valuesLength,
+            final boolean outer) {
+        final int valueLengthBytes = WffBinaryMessageUtil.getLengthOfOptimizedBytesFromInt(count == 0 ? 0
+                : valuesLength + count * WffBinaryMessageUtil.getLengthOfOptimizedBytesFromInt(valuesLength));
+
+        // the name length byte, the value type name and the total length of the
+        // values or the zero length if there is no value
+        int totalLength = 2 + 1 + 1 + valueLengthBytes + count * valueLengthBytes + valuesLength;
+        if (outer) {
+            totalLength += 1 + 1 + valueLengthBytes;
+        }
+        return setMessageLengths(index, totalLength, 1, valueLengthBytes);
+    }
+
+    private void writeArray(final WffBMArray array, final boolean outer) throws IOException {
+        final int totalLength = nextLength();
+        lengthsIndex++;
+        final int valueLengthBytes = nextLength();
+        final byte valueTypeByte = array.getValueType().getType();
+
+        if (writeArrayHeader(totalLength, valueLengthBytes, valueTypeByte, array.isEmpty(), outer)) {
+            for (final Object value : array) {
+                writeInt(writtenValueLength(valueTypeByte, value), valueLengthBytes);
+                writeValue(valueTypeByte, value);
+            }
+        }
+    }
+
+    /**
+     * writes the array message up to its first value.
+     *
+     * @return true if the values are to be written.
+     */
+    private boolean writeArrayHeader(final int totalLength, final int valueLengthBytes, final byte valueTypeByte,
+            final boolean empty, final boolean outer) throws IOException {
+        ensure(2);
+        buffer[position++] = 1;
+        buffer[position++] = (byte) valueLengthBytes;
+
+        if (outer) {
+            writeByte((byte) 1);
+            writeByte(BMType.ARRAY.getType());
+            writeInt(0, valueLengthBytes);
+        }
+
+        writeByte((byte) 1);
+        writeByte(valueTypeByte);
+
+        if (empty) {
+            writeInt(0, valueLengthBytes);
+            return false;
+        }
+
+        // the total length of the values is the remaining length of the message
+        final int headerLength = 2 + (outer ? 2 + valueLengthBytes : 0) + 2 + valueLengthBytes;
+        writeInt(totalLength - headerLength, valueLengthBytes);
+        return true;
+    }
+
+    private int measurePrimitiveArray(final WffBMPrimitiveNumberArray<?> array, final boolean outer) {
+        final int index = reserveMessageLengths();
+        final int count = array.size();
+        addLength(count);
+        int valuesLength = 0;
+        for (int i = 0; i < count; i++) {
+            valuesLength += numberLength(Double.doubleToLongBits(array.doubleValueAt(i)));
+        }
+        return setArrayMessageLengths(index, count, valuesLength, outer);
+    }
+
+    private void writePrimitiveArray(final WffBMPrimitiveNumberArray<?> array, final boolean outer)
+            throws IOException {
+        final int totalLength = nextLength();
+        lengthsIndex++;
+        final int valueLengthBytes = nextLength();
+        final int count = nextLength();
+
+        if (writeArrayHeader(totalLength, valueLengthBytes, BMValueType.NUMBER.getType(), count == 0, outer)) {
+            for (int i = 0; i < count; i++) {
+                final long bits = Double.doubleToLongBits(array.doubleValueAt(i));
+                writeInt(numberLength(bits), valueLengthBytes);
+                writeNumber(bits);
+            }
+        }
+    }
+
+    /*
+     * the bytes of WffBMByteArray.build(false), i.e. a message of a single
+     * name-value having the byte type as name and all bytes as its only value.
+     */
+    private int measureByteArray(final WffBMByteArray byteArray) {
+        final int index = reserveMessageLengths();
+        final int length = byteArray.size();
+        addLength(length);
+        final int valueLengthBytes = WffBinaryMessageUtil
+                .getLengthOfOptimizedBytesFromInt(length + WffBinaryMessageUtil.getLengthOfOptimizedBytesFromInt(length));
+        return setMessageLengths(index, 2 + 1 + 1 + 2 * valueLengthBytes + length, 1, valueLengthBytes);
+    }
+
+    private void writeByteArray(final WffBMByteArray byteArray) throws IOException {
+        lengthsIndex += 2;
+        final int valueLengthBytes = nextLength();
+        final int length = nextLength();
+
+        ensure(4);
+        buffer[position++] = 1;
+        buffer[position++] = (byte) valueLengthBytes;
+        buffer[position++] = 1;
+        buffer[position++] = byteArray.getValueType().getType();
+        writeInt(length + valueLengthBytes, valueLengthBytes);
+        writeInt(length, valueLengthBytes);
+
+        if (out != null && length > buffer.length - position) {
+            flush();
+            if (length > buffer.length) {
+                byteArray.writeBytesTo(out, length);
+                return;
+            }
+        }
+        byteArray.copyBytesTo(buffer, position, length);
+        position += length;
+    }
+
+    private void ensure(final int length) throws IOException {
+        if (out != null && position + length > buffer.length) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void writeByte(final byte b) throws IOException {
+        ensure(1);
+        buffer[position++] = b;
+    }
+
+    /**
+     * writes the last bytes of the value as in
+     * {@link WffBinaryMessageUtil#getLastBytesFromInt(int, int)}.
+     */
+    private void writeInt(final int value, final int noOfBytes) throws IOException {
+        ensure(noOfBytes);
+        for (int shift = (noOfBytes - 1) << 3; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >> shift);
+        }
+    }
+
+    /**
+     * @param bits the bits of the double value
+     * @return the length of
+     *         {@link WffBinaryMessageUtil#getOptimizedBytesFromLong(long)}
+     */
+    private static int numberLength(final long bits) {
+        return Math.max(1, (71 - Long.numberOfLeadingZeros(bits)) >> 3);
+    }
+
+    private void writeNumber(final long bits) throws IOException {
+        final int length = numberLength(bits);
+        ensure(length);
+        for (int shift = (length - 1) << 3; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (bits >> shift);
+        }
+    }
+
+    /**
+     * @param s the string
+     * @return the length of {@code s.getBytes(StandardCharsets.UTF_8)}
+     */
+    private static int utf8Length(final String s) {
+        final int length = s.length();
+        int utf8Length = length;
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                utf8Length++;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                utf8Length += 2;
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                utf8Length += 2;
+            }
+            // an unpaired surrogate is encoded as '?'
+        }
+        return utf8Length;
+    }
+
+    /**
+     * writes the same bytes as {@code s.getBytes(StandardCharsets.UTF_8)}.
+     *
+     * @param s the string
+     * @throws IOException
+     */
+    private void writeUtf8(final String s) throws IOException {
+        final int length = s.length();
+        int i = 0;
+        ascii: while (i < length) {
+            ensure(1);
+            final int end = Math.min(length, i + buffer.length - position);
+            while (i < end) {
+                final char c = s.charAt(i);
+                if (c >= 0x80) {
+                    break ascii;
+                }
+                buffer[position++] = (byte) c;
+                i++;
+            }
+        }
+        for (; i < length; i++) {
+            ensure(4);
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.wffbm.data;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A number array which keeps its values in an {@code int[]}. The values are
+ * encoded as double, the same as the values of a {@link WffBMNumberArray}. The
+ * decoded values are narrowed to int. <br>
+ * Sample :- <br>
+ *
+ * <pre><code>
+ * WffBMIntArray series = new WffBMIntArray(points.length);
+ * for (Point point : points) {
+ *     series.addInt(point.y());
+ * }
+ * bmObject.put("series", BMValueType.BM_ARRAY, series);
+ * </code></pre>
+ *
+ * @author WFF
+ * @since 12.0.13
+ */
+public final class WffBMIntArray extends WffBMPrimitiveNumberArray<Integer> {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private int[] values;
+
+    public WffBMIntArray() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity the initial capacity of the array.
+     */
+    public WffBMIntArray(final int initialCapacity) {
+        super(false);
+        values = new int[initialCapacity];
+    }
+
+    /**
+     * @param values the values to copy into this array.
+     */
+    public WffBMIntArray(final int... values) {
+        super(false);
+        this.values = values.clone();
+        size = values.length;
+    }
+
+    /**
+     * @param bmArrayBytes the bytes of an outer number array.
+     */
+    public WffBMIntArray(final byte[] bmArrayBytes) {
+        this(bmArrayBytes, true);
+    }
+
+    /**
+     * @param bmArrayBytes the bytes of a number array.
+     * @param outer        true if the bytes are of an outer array.
+     */
+    public WffBMIntArray(final byte[] bmArrayBytes, final boolean outer) {
+        this(DEFAULT_CAPACITY);
+        initFromBytes(bmArrayBytes, outer);
+    }
+
+    @Override
+    double doubleValueAt(final int index) {
+        return values[index];
+    }
+
+    @Override
+    void addDecodedValue(final double value) {
+        addInt((int) value);
+    }
+
+    @Override
+    void ensureCapacity(final int minCapacity) {
+        if (minCapacity > values.length) {
+            values = Arrays.copyOf(values, newCapacity(values.length, minCapacity));
+        }
+    }
+
+    /**
+     * @param index the index of the value.
+     * @return the value at the index.
+     */
+    public int getInt(final int index) {
+        Objects.checkIndex(index, size);
+        return values[index];
+    }
+
+    /**
+     * @param index the index of the value.
+     * @param value the value to set.
+     * @return the previous value at the index.
+     */
+    public int setInt(final int index, final int value) {
+        Objects.checkIndex(index, size);
+        final int previous = values[index];
+        values[index] = value;
+        return previous;
+    }
+
+    /**
+     * @param value the value to append.
+     */
+    public void addInt(final int value) {
+        modCount++;
+        ensureCapacity(size + 1);
+        values[size++] = value;
+    }
+
+    /**
+     * @param index the index to insert the value.
+     * @param value the value to insert.
+     */
+    public void addInt(final int index, final int value) {
+        checkPositionIndex(index);
+        modCount++;
+        ensureCapacity(size + 1);
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+    }
+
+    /**
+     * @param values the values to append.
+     */
+    public void addAllInts(final int... values) {
+        modCount++;
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, this.values, size, values.length);
+        size += values.length;
+    }
+
+    /**
+     * @param index the index of the value to remove.
+     * @return the removed value.
+     */
+    public int removeInt(final int index) {
+        Objects.checkIndex(index, size);
+        modCount++;
+        final int removed = values[index];
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return removed;
+    }
+
+    /**
+     * @return a copy of the values.
+     */
+    public int[] toIntArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    @Override
+    public Integer get(final int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public Integer set(final int index, final Integer element) {
+        return setInt(index, element);
+    }
+
+    @Override
+    public void add(final int index, final Integer element) {
+        addInt(index, element);
+    }
+
+    @Override
+    public Integer remove(final int index) {
+        return removeInt(index);
+    }
+
+}
@@ -15,19 +15,17 @@
  */
 package com.webfirmframework.wffweb.wffbm.data;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serial;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.Set;
 import java.util.function.Predicate;
 
 import com.webfirmframework.wffweb.InvalidValueException;
@@ -139,70 +137,22 @@ public class WffBMObject extends LinkedHashMap<String, ValueValueType> implement
      */
     @Override
     public byte[] buildBytes(final boolean outer) {
+        // the nested objects and arrays are encoded into the same array
+        return WffBMEncoder.encode(this, outer);
+    }
 
-        final Set<Entry<String, ValueValueType>> superEntrySet = super.entrySet();
-
-        final int capacity = outer ? superEntrySet.size() + 1 : superEntrySet.size();
-
-        final Deque<NameValue> nameValues = new ArrayDeque<>(capacity);
-
-        if (outer) {
-            final NameValue typeNameValue = new NameValue();
-            typeNameValue.setName(BMType.OBJECT.getType());
-            nameValues.add(typeNameValue);
-        }
-
-        for (final Entry<String, ValueValueType> entry : superEntrySet) {
-            final String key = entry.getKey();
-            final ValueValueType valueValueType = entry.getValue();
-            final byte valueType = valueValueType.getValueTypeByte();
-
-            final NameValue nameValue = new NameValue();
-            nameValue.setName(key.getBytes(StandardCharsets.UTF_8));
-
-            nameValues.add(nameValue);
-
-            switch (BMValueType.getInstanceByType(valueType)) {
-            case STRING, REG_EXP, FUNCTION -> {
-                final String value = (String) valueValueType.getValue();
-                nameValue.setValues(new byte[] { valueType }, value.getBytes(StandardCharsets.UTF_8));
-            }
-            case NUMBER -> {
-                final Number value = (Number) valueValueType.getValue();
-                final byte[] valueBytes = WffBinaryMessageUtil.getOptimizedBytesFromDouble(value.doubleValue());
-                nameValue.setValues(new byte[] { valueType }, valueBytes);
-            }
-            case UNDEFINED, NULL -> {
-                final byte[] valueBytes = {};
-                nameValue.setValues(new byte[] { valueType }, valueBytes);
-            }
-            case BOOLEAN -> {
-                final Boolean value = (Boolean) valueValueType.getValue();
-                final byte[] valueBytes = { (byte) (value.booleanValue() ? 1 : 0) };
-                nameValue.setValues(new byte[] { valueType }, valueBytes);
-            }
-            case BM_OBJECT -> {
-                final WffBMObject value = (WffBMObject) valueValueType.getValue();
-                final byte[] valueBytes = value.buildBytes(false);
-                nameValue.setValues(new byte[] { valueType }, valueBytes);
-            }
-            case BM_ARRAY -> {
-                final WffBMArray value = (WffBMArray) valueValueType.getValue();
-                final byte[] valueBytes = value.buildBytes(false);
-                nameValue.setValues(new byte[] { valueType }, valueBytes);
-            }
-            case BM_BYTE_ARRAY -> {
-                final WffBMByteArray value = (WffBMByteArray) valueValueType.getValue();
-                final byte[] valueBytes = value.build(false);
-                nameValue.setValues(new byte[] { valueType }, valueBytes);
-            }
-            case INTERNAL_BYTE -> throw new WffRuntimeException(
-                    "BMValueType.BYTE is only for internal use, use WffBMByteArray for row bytes.");
-
-            }
-        }
-
-        return WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
+    /**
+     * writes the bytes of {@link #buildBytes(boolean)} to the given stream
+     * without building them as a whole.
+     *
+     * @param out   the stream to write the bytes
+     * @param outer
+     * @throws IOException if thrown by the given stream
+     * @since 12.0.13
+     */
+    @Override
+    public void writeBytes(final OutputStream out, final boolean outer) throws IOException {
+        WffBMEncoder.encode(this, outer, out);
     }
 
     /**
@@ -241,7 +191,7 @@ public class WffBMObject extends LinkedHashMap<String, ValueValueType> implement
                     wffBMObject.put(name, valueValueType);
                 }
                 case NUMBER -> {
-                    final double doubleValue = ByteBuffer.wrap(value).getDouble(0);
+                    final double doubleValue = WffBinaryMessageUtil.getDoubleFromOptimizedBytes(value);
                     final ValueValueType valueValueType = new ValueValueType(name, valueType, doubleValue);
                     wffBMObject.put(name, valueValueType);
                 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.wffbm.data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serial;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+import com.webfirmframework.wffweb.WffRuntimeException;
+import com.webfirmframework.wffweb.util.WffBinaryMessageUtil;
+
+/**
+ * The base class of the number arrays which keep their values in a primitive
+ * array. It is encoded as a {@link BMValueType#NUMBER} array, i.e. the same as
+ * a {@link WffBMNumberArray} having the same values, so it can be put as a
+ * {@link BMValueType#BM_ARRAY} value in a {@link WffBMObject} or a
+ * {@link WffBMArray}. The {@code List} methods box the values, use the
+ * primitive methods of the subclasses to avoid it.
+ *
+ * @param <T> the boxed type of the values
+ * @author WFF
+ * @since 12.0.13
+ * @see WffBMDoubleArray
+ * @see WffBMLongArray
+ * @see WffBMIntArray
+ */
+public abstract sealed class WffBMPrimitiveNumberArray<T extends Number> extends AbstractList<T>
+        implements WffBMData, RandomAccess permits WffBMDoubleArray, WffBMLongArray, WffBMIntArray {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    static final int DEFAULT_CAPACITY = 10;
+
+    private boolean outer;
+
+    int size;
+
+    WffBMPrimitiveNumberArray(final boolean outer) {
+        this.outer = outer;
+    }
+
+    /**
+     * @param index the index which is already checked
+     * @return the value at the index as double
+     */
+    abstract double doubleValueAt(int index);
+
+    /**
+     * adds the decoded value to the end.
+     *
+     * @param value
+     */
+    abstract void addDecodedValue(double value);
+
+    /**
+     * @param minCapacity the required capacity of the primitive array
+     */
+    abstract void ensureCapacity(int minCapacity);
+
+    /**
+     * @param capacity    the current capacity
+     * @param minCapacity the required capacity
+     * @return the new capacity
+     */
+    static int newCapacity(final int capacity, final int minCapacity) {
+        final int newCapacity = capacity + (capacity >> 1) + 1;
+        return newCapacity - minCapacity < 0 || newCapacity < 0 ? minCapacity : newCapacity;
+    }
+
+    void checkPositionIndex(final int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * adds the values from the bytes built by {@link #buildBytes(boolean)} of a
+     * number array without parsing the bytes into name-values.
+     *
+     * @param bmArrayBytes
+     * @param outer
+     */
+    final void initFromBytes(final byte[] bmArrayBytes, final boolean outer) {
+        if (bmArrayBytes.length == 0 && !outer) {
+            // an empty inner array
+            return;
+        }
+        try {
+            final int nameLengthBytes = bmArrayBytes[0];
+            final int valueLengthBytes = bmArrayBytes[1];
+            int index = 2;
+
+            if (outer) {
+                final int nameLength = readInt(bmArrayBytes, index, nameLengthBytes);
+                index += nameLengthBytes;
+                if (nameLength != 1 || bmArrayBytes[index] != BMType.ARRAY.getType()) {
+                    throw new WffRuntimeException("Not a valid Wff BM Array bytes");
+                }
+                index += nameLength;
+                index += valueLengthBytes + readInt(bmArrayBytes, index, valueLengthBytes);
+                this.outer = true;
+            }
+
+            if (index == bmArrayBytes.length) {
+                return;
+            }
+
+            final int nameLength = readInt(bmArrayBytes, index, nameLengthBytes);
+            index += nameLengthBytes;
+            if (nameLength != 1 || bmArrayBytes[index] != BMValueType.NUMBER.getType()) {
+                throw new WffRuntimeException("The array value is not number type");
+            }
+            index += nameLength;
+
+            final int end = index + valueLengthBytes + readInt(bmArrayBytes, index, valueLengthBytes);
+            index += valueLengthBytes;
+
+            // counts the values to allocate the primitive array only once
+            int count = 0;
+            for (int i = index; i < end; i += valueLengthBytes + readInt(bmArrayBytes, i, valueLengthBytes)) {
+                count++;
+            }
+            ensureCapacity(size + count);
+
+            while (index < end) {
+                final int length = readInt(bmArrayBytes, index, valueLengthBytes);
+                index += valueLengthBytes;
+                addDecodedValue(WffBinaryMessageUtil.getDoubleFromOptimizedBytes(bmArrayBytes, index, length));
+                index += length;
+            }
+        } catch (final ArrayIndexOutOfBoundsException e) {
+            throw new WffRuntimeException("Invalid Wff BM Array bytes", e);
+        }
+    }
+
+    private static int readInt(final byte[] bytes, final int offset, final int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        size = 0;
+    }
+
+    public boolean isOuter() {
+        return outer;
+    }
+
+    public void setOuter(final boolean outer) {
+        this.outer = outer;
+    }
+
+    @Override
+    public BMType getBMType() {
+        return BMType.ARRAY;
+    }
+
+    /**
+     * @return {@link BMValueType#NUMBER}
+     */
+    public BMValueType getValueType() {
+        return BMValueType.NUMBER;
+    }
+
+    /**
+     * @return the bytes of this array as outer array if {@link #isOuter()} is
+     *         true.
+     */
+    public byte[] buildBytes() {
+        return buildBytes(outer);
+    }
+
+    @Override
+    public byte[] buildBytes(final boolean outer) {
+        return WffBMEncoder.encode(this, outer);
+    }
+
+    @Override
+    public void writeBytes(final OutputStream out, final boolean outer) throws IOException {
+        WffBMEncoder.encode(this, outer, out);
+    }
+
+    /**
+     * @param other the other array for similarity checking.
+     * @return true if the other array also contains the same data otherwise false.
+     */
+    public boolean similar(final WffBMPrimitiveNumberArray<?> other) {
+        return Arrays.equals(buildBytes(true), other.buildBytes(true));
+    }
+
+}
@@ -75,6 +75,39 @@ new function() {
 
 			}
 
+		} else if (taskValue == wffGlobal.taskValues.STYLE_PROPERTY_UPDATED) {
+			console.log('taskValue == "STYLE_PROPERTY_UPDATED"');
+
+			for (var i = 1; i < nameValues.length; i++) {
+				// cssName:cssValue or only cssName if the css property is removed
+				var attrNameValue = getStringFromBytes(nameValues[i].name);
+				var indexOfSeparator = attrNameValue.indexOf(':');
+				var attrName = indexOfSeparator != -1 ? attrNameValue.substring(0, indexOfSeparator) : attrNameValue;
+				var attrValue = indexOfSeparator != -1 ? attrNameValue.substring(indexOfSeparator + 1) : null;
+				var priority = '';
+				if (attrValue != null) {
+					var indexOfImportant = attrValue.toLowerCase().lastIndexOf('!important');
+					if (indexOfImportant != -1) {
+						attrValue = attrValue.substring(0, indexOfImportant).trim();
+						priority = 'important';
+					}
+				}
+
+				var wffIds = nameValues[i].values;
+				for (var j = 0; j < wffIds.length; j++) {
+					var wffId = wffTagUtil.getWffIdFromWffIdBytes(wffIds[j]);
+					var applicableTag = wffTagUtil.getTagByWffId(wffId);
+					if (!applicableTag) {
+						continue;
+					}
+					if (attrValue != null) {
+						applicableTag.style.setProperty(attrName, attrValue, priority);
+					} else {
+						applicableTag.style.removeProperty(attrName);
+					}
+				}
+			}
+
 		} else if (taskValue == wffGlobal.taskValues.REMOVED_TAGS) {
 
 			console.log('wffGlobal.taskValues.REMOVED_TAGS nameValues.length '
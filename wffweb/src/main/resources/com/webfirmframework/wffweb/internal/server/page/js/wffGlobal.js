@@ -67,6 +67,8 @@ new function() {
 	this.WS_HRTBT = "${WS_HRTBT}";
 	this.WS_HRTBT_TMT = "${WS_HRTBT_TMT}";
 	this.LOSSLESS_COMM = "${LOSSLESS_COMM}";
+	//true if the server compresses the pushed payloads on request
+	this.PUSH_CMPRS = "${PUSH_CMPRS}";
 	//should not call this.onPLI as this object is frozen by wffGlobalConst
 	this.onPayloadLoss = function() {if (!onPLI) { onPLI = true; "${ON_PAYLOAD_LOSS}"}};
 
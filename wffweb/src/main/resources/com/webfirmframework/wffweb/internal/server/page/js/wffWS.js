@@ -19,6 +19,80 @@ new function() {
 	var lastWSPingTime = getTime();
 	//websocket re-openable by hearbeat internal
 
+	// a compressed payload is framed as [0, 0, 0, 0, -1, uncompressed length
+	// in 4 bytes, deflated bytes]
+	var isCmprsd = function(binary) {
+		return binary.length > 9 && binary[0] == 0 && binary[1] == 0
+				&& binary[2] == 0 && binary[3] == 0 && binary[4] == -1;
+	};
+
+	// returns a function to process the payloads of a connection in order,
+	// the compressed payloads are inflated by a stream kept open for the
+	// connection. returns null if the payloads cannot be inflated.
+	var newInflater = function(onErr) {
+		if (!wffGlobal.PUSH_CMPRS || typeof DecompressionStream === 'undefined') {
+			return null;
+		}
+		var ds;
+		try {
+			ds = new DecompressionStream('deflate-raw');
+		} catch (e) {
+			return null;
+		}
+		var writer = ds.writable.getWriter();
+		var reader = ds.readable.getReader();
+		var rmng = null;
+		var failed = false;
+		var chain = Promise.resolve();
+
+		var inflate = function(binary) {
+			var len = wffBMUtil.getIntFromOptimizedBytes([binary[5], binary[6], binary[7], binary[8]]);
+			var out = new Int8Array(len);
+			var filled = 0;
+			var fill = function(chunk) {
+				var n = Math.min(chunk.length, len - filled);
+				out.set(new Int8Array(chunk.buffer, chunk.byteOffset, n), filled);
+				filled += n;
+				rmng = n < chunk.length ? chunk.subarray(n) : null;
+			};
+			var readNext = function() {
+				if (filled >= len) {
+					return out;
+				}
+				return reader.read().then(function(r) {
+					if (r.done) {
+						throw new Error('inflate stream closed');
+					}
+					fill(r.value);
+					return readNext();
+				});
+			};
+			writer.write(new Uint8Array(binary.buffer, binary.byteOffset + 9, binary.length - 9)).catch(function(e){});
+			if (rmng !== null) {
+				fill(rmng);
+			}
+			return readNext();
+		};
+
+		return function(binary, process) {
+			chain = chain.then(function() {
+				if (failed) {
+					return null;
+				}
+				return isCmprsd(binary) ? inflate(binary) : binary;
+			}).then(function(bin) {
+				if (bin !== null) {
+					process(bin);
+				}
+			}).catch(function(e) {
+				// the further payloads of the connection cannot be inflated
+				failed = true;
+				wffLog(e);
+				onErr();
+			});
+		};
+	};
+
 	this.ping = function() {
         if (wffGlobal.WS_HRTBT > 0 && wffGlobal.WS_HRTBT_TMT > 0) {
             if (prevTmt !== null) {
@@ -52,6 +126,10 @@ new function() {
 
 		// Create a new instance of websocket
 		webSocket = new WebSocket(wsUrl);
+		var thisWS = webSocket;
+		var inflater = newInflater(function() {
+			try{thisWS.close();}catch(e){wffLog(e);}
+		});
 		
 		sendQData = function() {
 			if (webSocket !== null && webSocket.readyState === WebSocket.OPEN) {
@@ -88,6 +166,11 @@ new function() {
 				}
 				
 				wffBMClientEvents.wffRemovePrevBPInstance();
+
+				if (inflater !== null) {
+					// requests the server to compress the payloads of this connection
+					webSocket.send(new Int8Array([127]).buffer);
+				}
 				
 				if (sendQData !== null) {
 					sendQData();	
@@ -131,11 +214,8 @@ new function() {
 			}
 		};
 
-		webSocket.onmessage = function(event) {
+		var onMsg = function(binary) {
 			try {
-				var binary = new Int8Array(event.data);
-				console.log(binary);
-				
 				if (binary.length < 4) {
 				    if (binary.length == 0) {
 				        lastWSPingTime = getTime();
@@ -209,6 +289,24 @@ new function() {
 				wffLog(e);
 			}
 		};
+
+		webSocket.onmessage = function(event) {
+			try {
+				var binary = new Int8Array(event.data);
+				console.log(binary);
+
+				if (inflater !== null) {
+					inflater(binary, onMsg);
+				} else if (isCmprsd(binary)) {
+					// cannot be inflated so reconnect to renegotiate
+					thisWS.close();
+				} else {
+					onMsg(binary);
+				}
+			}catch(e){
+				wffLog(e);
+			}
+		};
 		
 		webSocket.onclose = function(event) {
 			if(prevIntvl !== null) {
@@ -139,6 +139,7 @@ import com.webfirmframework.wffweb.lang.UnicodeStringTest;
 import com.webfirmframework.wffweb.server.page.ExternalDriveByteArrayQueueTest;
 import com.webfirmframework.wffweb.server.page.ExternalDriveClientTasksWrapperDequeTest;
 import com.webfirmframework.wffweb.server.page.ExternalDriveClientTasksWrapperQueueTest;
+import com.webfirmframework.wffweb.server.page.ExternalDriveSegmentedByteArrayQueueTest;
 import com.webfirmframework.wffweb.server.page.TaskTest;
 import com.webfirmframework.wffweb.server.page.action.BrowserPageActionTest;
 import com.webfirmframework.wffweb.settings.WffConfigurationTest;
@@ -230,7 +231,8 @@ import com.webfirmframework.wffweb.wffbm.data.WffBMObjectTest;
         SharedTagContentTest.class, CssColorNameTest.class, TaskTest.class, WffJsFileTest.class,
         StringBuilderUtilTest.class, SecurityClassConstantsTest.class, ReentrantStampedLockTest.class,
         UnicodeStringTest.class, ExternalDriveByteArrayQueueTest.class, ExternalDriveClientTasksWrapperDequeTest.class,
-        ExternalDriveClientTasksWrapperQueueTest.class, AttributeIdGeneratorTest.class,
+        ExternalDriveClientTasksWrapperQueueTest.class, ExternalDriveSegmentedByteArrayQueueTest.class,
+        AttributeIdGeneratorTest.class,
         SharedObjectIdGeneratorTest.class, WhenURIUseCaseTest.class, URIUtilTest.class, EventInitiatorTest.class,
         ImmutableCustomAttributeTest.class, BrowserPageActionTest.class, WffConfigurationTest.class,
         TagContentTest.class, WffBMObjectTest.class, WffBMArrayTest.class, TagCompressedWffBMBytesParserTest.class,
@@ -19,9 +19,12 @@ import static org.junit.Assert.*;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import org.junit.Test;
 
+import com.webfirmframework.wffweb.css.BackgroundColor;
+import com.webfirmframework.wffweb.css.FontStyle;
 import com.webfirmframework.wffweb.css.FontWeight;
 
 public class CssFileTest {
@@ -124,4 +127,70 @@ public class CssFileTest {
         assertEquals("@CHARSET \"UTF-8\";\ntest-class1{font-style:normal;background-color:green;}test-class11{font-style:normal;background-color:green;}test-class2{font-style:oblique;}", cssString);
     }
 
+    @Test
+    public void testRegisterCssBlocks() throws IOException {
+        final SampleRegisteredCssFile cssFile = new SampleRegisteredCssFile(true);
+        assertEquals("test-class1{font-style:normal;background-color:blue;}test-class2{background-color:green;}", cssFile.toCssString());
+
+        final SampleRegisteredCssFile cssFile2 = new SampleRegisteredCssFile(false);
+        assertEquals("test-class1{font-style:normal;}test-class2{background-color:green;}test-class1{background-color:blue;}", cssFile2.toCssString());
+    }
+
+    @Test
+    public void testIncrementalUpdate() throws IOException {
+        for (final boolean optimize : new boolean[] { true, false }) {
+            final SampleRegisteredCssFile cssFile = new SampleRegisteredCssFile(optimize);
+            final String cssString = cssFile.toCssString();
+
+            cssFile.block2.getCssProperties().add(FontStyle.ITALIC);
+            final String modifiedCssString = cssFile.toCssString();
+            assertEquals(cssString.replace("test-class2{background-color:green;}", "test-class2{background-color:green;font-style:italic;}"), modifiedCssString);
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            cssFile.toOutputStream(baos, StandardCharsets.UTF_8);
+            assertEquals(modifiedCssString, baos.toString(StandardCharsets.UTF_8));
+
+            cssFile.getCssBlocks().remove(cssFile.block3);
+            final String removedCssString = cssFile.toCssString();
+            assertFalse(removedCssString.contains("blue"));
+
+            baos = new ByteArrayOutputStream();
+            cssFile.toOutputStream(baos, StandardCharsets.UTF_8);
+            assertEquals(removedCssString, baos.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testCssPropertyValueChangeAndExclude() throws IOException {
+        for (final boolean optimize : new boolean[] { true, false }) {
+            final BackgroundColor bgColor = new BackgroundColor("green");
+            final InlineCssBlock block = InlineCssBlock.load("test-class5", cssProperties -> cssProperties.add(bgColor));
+            final CssFile cssFile = new CssFile() {
+
+                private static final long serialVersionUID = 1L;
+
+                {
+                    setOptimizeCssString(optimize);
+                    registerCssBlocks(block);
+                }
+            };
+            assertEquals("test-class5{background-color:green;}", cssFile.toCssString());
+
+            bgColor.setCssValue("red");
+            assertEquals("test-class5{background-color:red;}", cssFile.toCssString());
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            cssFile.toOutputStream(baos, StandardCharsets.UTF_8);
+            assertEquals("test-class5{background-color:red;}", baos.toString(StandardCharsets.UTF_8));
+
+            block.setExclude(true);
+            assertEquals("", cssFile.toCssString());
+            baos = new ByteArrayOutputStream();
+            cssFile.toOutputStream(baos, StandardCharsets.UTF_8);
+            assertEquals("", baos.toString(StandardCharsets.UTF_8));
+
+            block.setExclude(false);
+            assertEquals("test-class5{background-color:red;}", cssFile.toCssString());
+        }
+    }
+
 }
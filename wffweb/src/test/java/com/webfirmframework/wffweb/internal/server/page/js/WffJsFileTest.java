@@ -16,6 +16,7 @@
 package com.webfirmframework.wffweb.internal.server.page.js;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -64,7 +65,7 @@ public class WffJsFileTest {
             id = ++clientPIdGen;} else if (id > MAX_INT_VALUE) {
             id = id * -1;}
             return id;};this.getAndUpdateLocation = function() {
-            var prevCLoc = cLoc;var l = window.location;var h = l.href.endsWith('#') ? '#' : l.hash;cLoc = {pathname: l.pathname, search: l.search, hash: h};return prevCLoc;};this.SM = (function(){return !this;})();this.CPRSD_DATA = true;this.NDXD_TGS = ["#","$","%","@","a","b","i","p","q","s","u","br","dd","dl","dt","em","h1","h2","h3","h4","h5","h6","hr","li","ol","rp","rt","td","th","tr","ul","bdi","bdo","col","del","dfn","div","img","ins","kbd","map","nav","pre","qfn","sub","sup","svg","var","wbr","abbr","area","base","body","cite","code","data","form","head","html","line","link","main","mark","math","menu","meta","path","rect","ruby","samp","span","text","time","aside","audio","embed","input","label","meter","param","small","style","table","tbody","tfoot","thead","title","track","video","button","canvas","circle","dialog","figure","footer","header","hgroup","iframe","keygen","legend","object","option","output","script","select","source","strong","address","article","caption","details","ellipse","picture","polygon","section","summary","basefont","colgroup","datalist","fieldset","menuitem","noscript","optgroup","polyline","progress","template","textarea","blockquote","figcaption"];this.NDXD_ATRBS = ["id","alt","dir","for","low","max","min","rel","rev","src","cols","face","form","high","href","lang","list","loop","name","open","role","rows","size","step","type","wrap","align","async","class","color","defer","ismap","media","muted","nonce","oncut","scope","shape","sizes","style","title","value","width","accept","action","border","coords","height","hidden","method","nohref","onblur","oncopy","ondrag","ondrop","onload","onplay","onshow","poster","sorted","srcset","target","usemap","charset","checked","colspan","content","default","dirname","enctype","headers","onabort","onclick","onended","onerror","onfocus","oninput","onkeyup","onpaste","onpause","onreset","onwheel","optimum","pattern","preload","rowspan","sandbox","autoplay","controls","datetime","disabled","download","dropzone","hreflang","multiple","onchange","ononline","onresize","onscroll","onsearch","onseeked","onselect","onsubmit","ontoggle","onunload","readonly","required","reversed","selected","tabindex","accesskey","autofocus","draggable","maxlength","minlength","oncanplay","ondragend","onemptied","onfocusin","oninvalid","onkeydown","onmouseup","onoffline","onplaying","onseeking","onstalled","onstorage","onsuspend","onwaiting","translate","formaction","formmethod","formtarget","http-equiv","ondblclick","ondragover","onfocusout","onkeypress","onmouseout","onpagehide","onpageshow","onpopstate","onprogress","ontouchend","spellcheck","cellpadding","cellspacing","contextmenu","data-wff-id","formenctype","ondragenter","ondragleave","ondragstart","onloadstart","onmousedown","onmousemove","onmouseover","ontouchmove","placeholder","animationend","autocomplete","onafterprint","onhashchange","onloadeddata","onmouseenter","onmouseleave","onratechange","ontimeupdate","ontouchstart","onbeforeprint","oncontextmenu","ontouchcancel","transitionend","accept-charset","animationstart","formnovalidate","onbeforeunload","onvolumechange","contenteditable","oncanplaythrough","ondurationchange","onloadedmetadata","animationiteration"];this.NDXD_VNT_ATRBS = ["oncut","onblur","oncopy","ondrag","ondrop","onload","onplay","onshow","onabort","onclick","onended","onerror","onfocus","oninput","onkeyup","onpaste","onpause","onreset","onwheel","onchange","ononline","onresize","onscroll","onsearch","onseeked","onselect","onsubmit","ontoggle","onunload","oncanplay","ondragend","onemptied","onfocusin","oninvalid","onkeydown","onmouseup","onoffline","onplaying","onseeking","onstalled","onstorage","onsuspend","onwaiting","ondblclick","ondragover","onfocusout","onkeypress","onmouseout","onpagehide","onpageshow","onpopstate","onprogress","ontouchend","ondragenter","ondragleave","ondragstart","onloadstart","onmousedown","onmousemove","onmouseover","ontouchmove","onafterprint","onhashchange","onloadeddata","onmouseenter","onmouseleave","onratechange","ontimeupdate","ontouchstart","onbeforeprint","oncontextmenu","ontouchcancel","onbeforeunload","onvolumechange","oncanplaythrough","ondurationchange","onloadedmetadata"];this.NDXD_BLN_ATRBS = ["open","async","defer","ismap","hidden","checked","default","controls","disabled","multiple","readonly","reversed","selected"];this.WFF_ID_PFXS = ["S","C"];this.taskValues = {T0:0,T1:1,T2:2,T3:3,T4:4,T5:5,T6:6,T7:7,T8:8,T9:9,T10:10,T11:11,T12:12,T13:13,T14:14,T15:15,T16:16,T17:17,T18:18,T19:19,T20:20,T21:21,T22:22,T23:23,T24:24,T25:25,T26:26,T27:27,T28:28,T29:29,T30:30,T31:31,T32:32,T33:33,T34:34,T35:35,T36:36,T37:37,T38:38,T39:39,T40:40,T41:41,T42:42,T43:43,T44:44,T45:45,T46:46,T47:47,T48:48};this.uriEventInitiator = {SERVER_CODE:0,CLIENT_CODE:1,BROWSER:2,size:3};this.WS_URL = "ws://webfirmframework.com";this.INSTANCE_ID = "instance-id-1234585-451";this.NODE_ID = "0ea15019-8fc8-44d1-97f1-2b357a217dbd";this.REMOVE_PREV_BP_ON_INITTAB = true;this.REMOVE_PREV_BP_ON_TABCLOSE = true;this.WS_RECON = 2000;this.WS_HRTBT = 1000;this.WS_HRTBT_TMT = 5000;this.LOSSLESS_COMM = true;this.onPayloadLoss = function() {if (!onPLI) { onPLI = true; location.reload();}};if ((typeof TextEncoder) === "undefined") {
+            var prevCLoc = cLoc;var l = window.location;var h = l.href.endsWith('#') ? '#' : l.hash;cLoc = {pathname: l.pathname, search: l.search, hash: h};return prevCLoc;};this.SM = (function(){return !this;})();this.CPRSD_DATA = true;this.NDXD_TGS = ["#","$","%","@","a","b","i","p","q","s","u","br","dd","dl","dt","em","h1","h2","h3","h4","h5","h6","hr","li","ol","rp","rt","td","th","tr","ul","bdi","bdo","col","del","dfn","div","img","ins","kbd","map","nav","pre","qfn","sub","sup","svg","var","wbr","abbr","area","base","body","cite","code","data","form","head","html","line","link","main","mark","math","menu","meta","path","rect","ruby","samp","span","text","time","aside","audio","embed","input","label","meter","param","small","style","table","tbody","tfoot","thead","title","track","video","button","canvas","circle","dialog","figure","footer","header","hgroup","iframe","keygen","legend","object","option","output","script","select","source","strong","address","article","caption","details","ellipse","picture","polygon","section","summary","basefont","colgroup","datalist","fieldset","menuitem","noscript","optgroup","polyline","progress","template","textarea","blockquote","figcaption"];this.NDXD_ATRBS = ["id","alt","dir","for","low","max","min","rel","rev","src","cols","face","form","high","href","lang","list","loop","name","open","role","rows","size","step","type","wrap","align","async","class","color","defer","ismap","media","muted","nonce","oncut","scope","shape","sizes","style","title","value","width","accept","action","border","coords","height","hidden","method","nohref","onblur","oncopy","ondrag","ondrop","onload","onplay","onshow","poster","sorted","srcset","target","usemap","charset","checked","colspan","content","default","dirname","enctype","headers","onabort","onclick","onended","onerror","onfocus","oninput","onkeyup","onpaste","onpause","onreset","onwheel","optimum","pattern","preload","rowspan","sandbox","autoplay","controls","datetime","disabled","download","dropzone","hreflang","multiple","onchange","ononline","onresize","onscroll","onsearch","onseeked","onselect","onsubmit","ontoggle","onunload","readonly","required","reversed","selected","tabindex","accesskey","autofocus","draggable","maxlength","minlength","oncanplay","ondragend","onemptied","onfocusin","oninvalid","onkeydown","onmouseup","onoffline","onplaying","onseeking","onstalled","onstorage","onsuspend","onwaiting","translate","formaction","formmethod","formtarget","http-equiv","ondblclick","ondragover","onfocusout","onkeypress","onmouseout","onpagehide","onpageshow","onpopstate","onprogress","ontouchend","spellcheck","cellpadding","cellspacing","contextmenu","data-wff-id","formenctype","ondragenter","ondragleave","ondragstart","onloadstart","onmousedown","onmousemove","onmouseover","ontouchmove","placeholder","animationend","autocomplete","onafterprint","onhashchange","onloadeddata","onmouseenter","onmouseleave","onratechange","ontimeupdate","ontouchstart","onbeforeprint","oncontextmenu","ontouchcancel","transitionend","accept-charset","animationstart","formnovalidate","onbeforeunload","onvolumechange","contenteditable","oncanplaythrough","ondurationchange","onloadedmetadata","animationiteration"];this.NDXD_VNT_ATRBS = ["oncut","onblur","oncopy","ondrag","ondrop","onload","onplay","onshow","onabort","onclick","onended","onerror","onfocus","oninput","onkeyup","onpaste","onpause","onreset","onwheel","onchange","ononline","onresize","onscroll","onsearch","onseeked","onselect","onsubmit","ontoggle","onunload","oncanplay","ondragend","onemptied","onfocusin","oninvalid","onkeydown","onmouseup","onoffline","onplaying","onseeking","onstalled","onstorage","onsuspend","onwaiting","ondblclick","ondragover","onfocusout","onkeypress","onmouseout","onpagehide","onpageshow","onpopstate","onprogress","ontouchend","ondragenter","ondragleave","ondragstart","onloadstart","onmousedown","onmousemove","onmouseover","ontouchmove","onafterprint","onhashchange","onloadeddata","onmouseenter","onmouseleave","onratechange","ontimeupdate","ontouchstart","onbeforeprint","oncontextmenu","ontouchcancel","onbeforeunload","onvolumechange","oncanplaythrough","ondurationchange","onloadedmetadata"];this.NDXD_BLN_ATRBS = ["open","async","defer","ismap","hidden","checked","default","controls","disabled","multiple","readonly","reversed","selected"];this.WFF_ID_PFXS = ["S","C"];this.taskValues = {T0:0,T1:1,T2:2,T3:3,T4:4,T5:5,T6:6,T7:7,T8:8,T9:9,T10:10,T11:11,T12:12,T13:13,T14:14,T15:15,T16:16,T17:17,T18:18,T19:19,T20:20,T21:21,T22:22,T23:23,T24:24,T25:25,T26:26,T27:27,T28:28,T29:29,T30:30,T31:31,T32:32,T33:33,T34:34,T35:35,T36:36,T37:37,T38:38,T39:39,T40:40,T41:41,T42:42,T43:43,T44:44,T45:45,T46:46,T47:47,T48:48,T49:49};this.uriEventInitiator = {SERVER_CODE:0,CLIENT_CODE:1,BROWSER:2,size:3};this.WS_URL = "ws://webfirmframework.com";this.INSTANCE_ID = "instance-id-1234585-451";this.NODE_ID = "0ea15019-8fc8-44d1-97f1-2b357a217dbd";this.REMOVE_PREV_BP_ON_INITTAB = true;this.REMOVE_PREV_BP_ON_TABCLOSE = true;this.WS_RECON = 2000;this.WS_HRTBT = 1000;this.WS_HRTBT_TMT = 5000;this.LOSSLESS_COMM = true;this.PUSH_CMPRS = false;this.onPayloadLoss = function() {if (!onPLI) { onPLI = true; location.reload();}};if ((typeof TextEncoder) === "undefined") {
             this.encoder = new function TextEncoder(charset) {
             if (charset === "utf-8") {
             this.encode = function(text) {
@@ -376,6 +377,20 @@ public class WffJsFileTest {
             v50[v93] = v88;v50.setAttribute(v93, v88);}
             }
             }
+            }else if(taskValue == wffGlobal.taskValues.T49){
+            for (var i = 1; i < v77.length; i++){
+            var v57 = f32(v77[i].name);var v31 = v57.indexOf(':');var v93 = v31 != -1 ? v57.substring(0, v31) : v57;var v88 = v31 != -1 ? v57.substring(v31 + 1) : null;var priority = '';if(v88 != null){
+            var indexOfImportant = v88.toLowerCase().lastIndexOf('!important');if(indexOfImportant != -1){
+            v88 = v88.substring(0, indexOfImportant).trim();priority = 'important';}
+            }
+            var v100 = v77[i].values;for (var j = 0; j < v100.length; j++){
+            var v101 = wffTagUtil.f25(v100[j]);var v50 = wffTagUtil.f42(v101);if(!v50){
+            continue;}
+            if(v88 != null){
+            v50.style.setProperty(v93, v88, priority);}else{
+            v50.style.removeProperty(v93);}
+            }
+            }
             }else if(taskValue == wffGlobal.taskValues.T5){
             for (var i = 1; i < v77.length; i++){
             var v101 = wffTagUtil
@@ -1041,7 +1056,33 @@ public class WffJsFileTest {
             wffGlobalConst('wffWS',
             new function(){
             var encoder = wffGlobal.encoder;var decoder = wffGlobal.decoder;var getTime = function(){
-            return Date.now ? Date.now() : new Date().getTime();};var prevTmt = null;var prevIntvl = null;var webSocket = null;var inDataQ = [];var sendQData = null;var v40 = getTime();this.ping = function(){
+            return Date.now ? Date.now() : new Date().getTime();};var prevTmt = null;var prevIntvl = null;var webSocket = null;var inDataQ = [];var sendQData = null;var v40 = getTime();var isCmprsd = function(binary){
+            return binary.length > 9 && binary[0] == 0 && binary[1] == 0
+            && binary[2] == 0 && binary[3] == 0 && binary[4] == -1;};var newInflater = function(onErr){
+            if(!wffGlobal.PUSH_CMPRS || typeof DecompressionStream === 'undefined'){
+            return null;}
+            var ds;try {
+            ds = new DecompressionStream('deflate-raw');} catch (e){
+            return null;}
+            var writer = ds.writable.getWriter();var reader = ds.readable.getReader();var rmng = null;var failed = false;var chain = Promise.resolve();var inflate = function(binary){
+            var len = wffBMUtil.f16([binary[5], binary[6], binary[7], binary[8]]);var out = new Int8Array(len);var filled = 0;var fill = function(chunk){
+            var n = Math.min(chunk.length, len - filled);out.set(new Int8Array(chunk.buffer, chunk.byteOffset, n), filled);filled += n;rmng = n < chunk.length ? chunk.subarray(n) : null;};var readNext = function(){
+            if(filled >= len){
+            return out;}
+            return reader.read().then(function(r){
+            if(r.done){
+            throw new Error('inflate stream closed');}
+            fill(r.value);return readNext();});};writer.write(new Uint8Array(binary.buffer, binary.byteOffset + 9, binary.length - 9)).catch(function(e){});if(rmng !== null){
+            fill(rmng);}
+            return readNext();};return function(binary, process){
+            chain = chain.then(function(){
+            if(failed){
+            return null;}
+            return isCmprsd(binary) ? inflate(binary) : binary;}).then(function(bin){
+            if(bin !== null){
+            process(bin);}
+            }).catch(function(e){
+            failed = true;wffLog(e);onErr();});};};this.ping = function(){
             if(wffGlobal.WS_HRTBT > 0 && wffGlobal.WS_HRTBT_TMT > 0){
             if(prevTmt !== null){
             clearTimeout(prevTmt);}
@@ -1055,7 +1096,9 @@ public class WffJsFileTest {
             return;}
             if(webSocket){
             var fn = function(event){};webSocket.onopen = fn;webSocket.onmessage = fn;webSocket.onclose = fn;webSocket.onerror = fn;}
-            webSocket = new WebSocket(wsUrl);sendQData = function(){
+            webSocket = new WebSocket(wsUrl);var thisWS = webSocket;var inflater = newInflater(function(){
+            try{thisWS.close();}catch(e){wffLog(e);}
+            });sendQData = function(){
             if(webSocket !== null && webSocket.readyState === WebSocket.OPEN){
             var inData = [];var ndx = 0;var xp = false;for (ndx = 0; ndx < inDataQ.length; ndx++){
             var each = inDataQ[ndx];if(!xp){
@@ -1070,7 +1113,9 @@ public class WffJsFileTest {
             try {
             if(prevIntvl !== null){
             clearInterval(prevIntvl);prevIntvl = null;}
-            wffBMClientEvents.f22();if(sendQData !== null){
+            wffBMClientEvents.f22();if(inflater !== null){
+            webSocket.send(new Int8Array([127]).buffer);}
+            if(sendQData !== null){
             sendQData();}
             if(typeof event.data === 'undefined'){
             return;}
@@ -1088,9 +1133,9 @@ public class WffJsFileTest {
             wffClientCRUDUtil.f44(binary);}
             v40 = getTime();wffWS.ping();}catch(e){
             wffLog(e);}
-            };webSocket.onmessage = function(event){
+            };var onMsg = function(binary){
             try {
-            var binary = new Int8Array(event.data);if(binary.length < 4){
+            if(binary.length < 4){
             if(binary.length == 0){
             v40 = getTime();wffWS.ping();}
             return;}
@@ -1107,6 +1152,14 @@ public class WffJsFileTest {
             wffWS.ping();}
             }catch(e){
             wffLog(e);}
+            };webSocket.onmessage = function(event){
+            try {
+            var binary = new Int8Array(event.data);if(inflater !== null){
+            inflater(binary, onMsg);}else if(isCmprsd(binary)){
+            thisWS.close();}else{
+            onMsg(binary);}
+            }catch(e){
+            wffLog(e);}
             };webSocket.onclose = function(event){
             if(prevIntvl !== null){
             clearInterval(prevIntvl);prevIntvl = null;}
@@ -1242,4 +1295,37 @@ public class WffJsFileTest {
         Assert.assertFalse(WffJsFile.DEV_MODE);
     }
 
+    @Test
+    public void testGetRuntimeAndBootstrapContent() {
+        final String inlineContent = WffJsFile.getAllOptimizedContent("ws://webfirmframework.com",
+                "instance-id-1234585-451", true, false, 0, 5000, 2000, false, true, "location.reload()", true);
+        final int indexOfNodeId = inlineContent.indexOf("this.NODE_ID = \"") + 16;
+        final String nodeId = inlineContent.substring(indexOfNodeId, inlineContent.indexOf('"', indexOfNodeId));
+
+        final String runtimeContent = WffJsFile.getRuntimeContent();
+        assertSame(runtimeContent, WffJsFile.getRuntimeContent());
+        Assert.assertFalse(runtimeContent.contains("${"));
+        Assert.assertFalse(runtimeContent.contains(nodeId));
+        Assert.assertTrue(runtimeContent.endsWith(
+                "if(wffBtCfg.h > 0){setInterval(function(){wffWS.checkCon();},wffBtCfg.h);}if(wffBtCfg.ar){document.currentScript.parentNode.removeChild(document.currentScript);}"));
+
+        // the runtime with the bootstrap values must be the same as the inline content
+        final String runtimeWithValues = runtimeContent.substring(0, runtimeContent.indexOf("if(wffBtCfg.h > 0)"))
+                .replace("wffBtCfg.pl();", "location.reload();").replace("wffBtCfg.u;", "\"ws://webfirmframework.com\";")
+                .replace("wffBtCfg.i;", "\"instance-id-1234585-451\";").replace("wffBtCfg.n;", "\"" + nodeId + "\";")
+                .replace("wffBtCfg.ri;", "true;").replace("wffBtCfg.rc;", "false;").replace("wffBtCfg.r;", "2000;")
+                .replace("wffBtCfg.h;", "0;").replace("wffBtCfg.ht;", "5000;").replace("wffBtCfg.l;", "true;")
+                .replace("wffBtCfg.c;", "true;");
+        assertEquals(inlineContent, runtimeWithValues);
+
+        final String bootstrapContent = WffJsFile.getBootstrapContent("ws://webfirmframework.com",
+                "instance-id-1234585-451", true, false, 0, 5000, 2000, false, true, "location.reload()", true);
+        assertEquals("var wffBtCfg = {u:\"ws://webfirmframework.com\",i:\"instance-id-1234585-451\",n:\"" + nodeId
+                + "\",ri:true,rc:false,r:2000,h:0,ht:5000,l:true,c:true,ar:false,pl:function(){location.reload();}};",
+                bootstrapContent);
+        Assert.assertTrue(WffJsFile.getBootstrapContent("ws://webfirmframework.com", "instance-id-1234585-451", true,
+                false, 1000, 5000, 2000, true, false, "", false)
+                .endsWith("document.currentScript.parentNode.removeChild(document.currentScript);"));
+    }
+
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.internal.tag.html;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class OptimisticReadWriteLockTest {
+
+    @Test
+    public void testValidate() {
+        final OptimisticReadWriteLock lock = new OptimisticReadWriteLock(false);
+
+        final long stamp = lock.tryOptimisticRead();
+        assertNotEquals(0L, stamp);
+        assertTrue(lock.validate(stamp));
+        assertFalse(lock.validate(0L));
+
+        // the read lock doesn't invalidate the stamp
+        lock.readLock().lock();
+        lock.readLock().unlock();
+        assertTrue(lock.validate(stamp));
+
+        lock.writeLock().lock();
+        assertEquals(0L, lock.tryOptimisticRead());
+        assertFalse(lock.validate(stamp));
+
+        // reentrant lock and unlock are not counted
+        lock.writeLock().lock();
+        lock.readLock().lock();
+        lock.readLock().unlock();
+        lock.writeLock().unlock();
+        assertEquals(0L, lock.tryOptimisticRead());
+
+        lock.writeLock().unlock();
+        assertFalse(lock.validate(stamp));
+
+        final long newStamp = lock.tryOptimisticRead();
+        assertNotEquals(0L, newStamp);
+        assertNotEquals(stamp, newStamp);
+        assertTrue(lock.validate(newStamp));
+
+        assertTrue(lock.writeLock().tryLock());
+        assertFalse(lock.validate(newStamp));
+        lock.writeLock().unlock();
+        assertFalse(lock.writeLock().isHeldByCurrentThread());
+    }
+
+}
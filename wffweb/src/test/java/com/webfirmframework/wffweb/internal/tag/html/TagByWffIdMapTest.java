@@ -0,0 +1,161 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.internal.tag.html;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.webfirmframework.wffweb.tag.html.AbstractHtml;
+import com.webfirmframework.wffweb.tag.html.html5.attribute.global.DataWffId;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Div;
+import com.webfirmframework.wffweb.util.WffBinaryMessageUtil;
+
+public class TagByWffIdMapTest {
+
+    private static byte[] wffIdBytes(final char prefix, final int id) {
+        final byte[] intBytes = WffBinaryMessageUtil.getOptimizedBytesFromInt(id);
+        final byte[] bytes = new byte[intBytes.length + 1];
+        bytes[0] = (byte) prefix;
+        System.arraycopy(intBytes, 0, bytes, 1, intBytes.length);
+        return bytes;
+    }
+
+    @Test
+    public void testKey() {
+        for (final int id : new int[] { 0, 1, 9, 255, 256, 65535, 65536, 16777216, Integer.MAX_VALUE }) {
+            final long key = TagByWffIdMap.key('S', id);
+            assertEquals(key, TagByWffIdMap.key("S" + id));
+            assertEquals(key, TagByWffIdMap.key(wffIdBytes('S', id)));
+            assertEquals("S" + id, TagByWffIdMap.toWffId(key));
+            assertEquals(TagByWffIdMap.key('C', id), TagByWffIdMap.key(wffIdBytes('C', id)));
+        }
+        assertEquals(TagByWffIdMap.key('C', -5), TagByWffIdMap.key("C-5"));
+        assertEquals("C-5", TagByWffIdMap.toWffId(TagByWffIdMap.key("C-5")));
+        assertEquals("S-2147483648", TagByWffIdMap.toWffId(TagByWffIdMap.key("S-2147483648")));
+
+        for (final String wffId : new String[] { "", "S", "S-", "S01", "S-0", "S1a", "S2147483648", "S 1",
+                "S-2147483649" }) {
+            assertEquals(wffId, TagByWffIdMap.NO_KEY, TagByWffIdMap.key(wffId));
+        }
+        assertEquals(TagByWffIdMap.NO_KEY, TagByWffIdMap.key(new byte[] { 'S' }));
+        assertEquals(TagByWffIdMap.NO_KEY, TagByWffIdMap.key("é1".getBytes(StandardCharsets.UTF_8)));
+        assertNull(TagByWffIdMap.toWffId(TagByWffIdMap.NO_KEY));
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        final TagByWffIdMap map = new TagByWffIdMap();
+        final Map<String, AbstractHtml> expected = new HashMap<>();
+        final DataWffId[] dataWffIds = new DataWffId[1000];
+        for (int i = 0; i < dataWffIds.length; i++) {
+            dataWffIds[i] = new DataWffId((i % 2 == 0 ? "S" : "C") + i);
+            final Div div = new Div(null);
+            assertNull(map.put(dataWffIds[i], div));
+            expected.put(dataWffIds[i].getValue(), div);
+        }
+        final Div other = new Div(null);
+        map.put("custom-id", other);
+        expected.put("custom-id", other);
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map);
+        assertEquals(new HashSet<>(expected.values()), new HashSet<>(map.values()));
+        assertSame(other, map.get(new DataWffId("custom-id")));
+
+        for (int i = 0; i < dataWffIds.length; i++) {
+            final AbstractHtml tag = expected.get(dataWffIds[i].getValue());
+            assertSame(tag, map.get(dataWffIds[i]));
+            assertSame(tag, map.get(TagByWffIdMap.key(wffIdBytes(i % 2 == 0 ? 'S' : 'C', i))));
+            assertSame(tag, map.get(dataWffIds[i].getValue()));
+        }
+
+        // removes only if it is mapped to the same tag
+        assertFalse(map.removeTag(dataWffIds[0], other));
+        for (int i = 0; i < dataWffIds.length; i += 2) {
+            assertTrue(map.removeTag(dataWffIds[i], expected.remove(dataWffIds[i].getValue())));
+            assertNull(map.get(dataWffIds[i]));
+        }
+        assertTrue(map.removeTag(new DataWffId("custom-id"), expected.remove("custom-id")));
+        assertEquals(expected, map);
+
+        // the removed slots are reused after rehashing
+        for (int i = 0; i < dataWffIds.length; i += 2) {
+            final Div div = new Div(null);
+            map.put(dataWffIds[i], div);
+            expected.put(dataWffIds[i].getValue(), div);
+        }
+        assertEquals(expected, map);
+
+        final Div replaced = new Div(null);
+        assertSame(expected.get("C1"), map.put("C1", replaced));
+        assertSame(replaced, map.remove("C1"));
+        assertFalse(map.containsKey("C1"));
+        assertEquals(expected.size() - 1, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(dataWffIds[2]));
+    }
+
+    @Test
+    public void testConcurrentGet() throws InterruptedException {
+        final TagByWffIdMap map = new TagByWffIdMap();
+        final DataWffId stableId = new DataWffId("S0");
+        final Div stableTag = new Div(null);
+        map.put(stableId, stableTag);
+
+        final Set<Throwable> errors = new HashSet<>();
+        final Thread writer = new Thread(() -> {
+            for (int i = 1; i < 100000; i++) {
+                final DataWffId dataWffId = new DataWffId("S" + i);
+                final Div div = new Div(null);
+                map.put(dataWffId, div);
+                if (i % 3 != 0) {
+                    map.removeTag(dataWffId, div);
+                }
+            }
+        });
+        final Thread reader = new Thread(() -> {
+            try {
+                while (writer.isAlive()) {
+                    assertSame(stableTag, map.get(stableId.key()));
+                }
+            } catch (final Throwable e) {
+                synchronized (errors) {
+                    errors.add(e);
+                }
+            }
+        });
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+        assertTrue(errors.toString(), errors.isEmpty());
+        assertEquals(100000 / 3 + 1, map.size());
+    }
+
+}
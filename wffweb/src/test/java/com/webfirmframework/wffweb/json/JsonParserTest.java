@@ -1563,4 +1563,188 @@ public class JsonParserTest {
         Assert.assertEquals("value1", customJsonList.getValueAsString(0));
         Assert.assertEquals("value2", customJsonList.getValueAsString(1));
     }
+
+    private static void assertSameParsedJson(final Object expected, final Object actual) {
+        if (expected == null) {
+            Assert.assertNull(actual);
+            return;
+        }
+        Assert.assertNotNull(actual);
+        Assert.assertEquals(expected.getClass(), actual.getClass());
+        if (expected instanceof Map<?, ?> expectedMap) {
+            final Map<?, ?> actualMap = (Map<?, ?>) actual;
+            Assert.assertEquals(new ArrayList<>(expectedMap.keySet()), new ArrayList<>(actualMap.keySet()));
+            for (final Map.Entry<?, ?> entry : expectedMap.entrySet()) {
+                assertSameParsedJson(entry.getValue(), actualMap.get(entry.getKey()));
+            }
+        } else if (expected instanceof List<?> expectedList) {
+            final List<?> actualList = (List<?>) actual;
+            Assert.assertEquals(expectedList.size(), actualList.size());
+            for (int i = 0; i < expectedList.size(); i++) {
+                assertSameParsedJson(expectedList.get(i), actualList.get(i));
+            }
+        } else if (expected instanceof JsonValue expectedValue) {
+            final JsonValue actualValue = (JsonValue) actual;
+            Assert.assertEquals(expectedValue.valueType(), actualValue.valueType());
+            Assert.assertArrayEquals(expectedValue.codePoints(), actualValue.codePoints());
+        } else {
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    private static void assertSameParsedJsonFromAllInputs(final JsonParser jsonParser, final String json)
+            throws IOException {
+        final Object expected = jsonParser.parseJson(json);
+        final byte[] utf8Bytes = json.getBytes(StandardCharsets.UTF_8);
+        assertSameParsedJson(expected, jsonParser.parseJson(utf8Bytes));
+
+        final byte[] paddedBytes = new byte[utf8Bytes.length + 4];
+        System.arraycopy(utf8Bytes, 0, paddedBytes, 2, utf8Bytes.length);
+        final java.nio.ByteBuffer heapBuffer = java.nio.ByteBuffer.wrap(paddedBytes, 2, utf8Bytes.length).slice();
+        assertSameParsedJson(expected, jsonParser.parseJson(heapBuffer));
+        Assert.assertEquals(0, heapBuffer.position());
+
+        final java.nio.ByteBuffer directBuffer = java.nio.ByteBuffer.allocateDirect(utf8Bytes.length);
+        directBuffer.put(utf8Bytes).flip();
+        assertSameParsedJson(expected, jsonParser.parseJson(directBuffer));
+
+        // a stream giving a byte at a time to split the multibyte chars
+        final java.io.InputStream inputStream = new java.io.ByteArrayInputStream(utf8Bytes) {
+            @Override
+            public synchronized int read(final byte[] b, final int off, final int len) {
+                return super.read(b, off, Math.min(1, len));
+            }
+        };
+        assertSameParsedJson(expected, jsonParser.parseJson(inputStream));
+        assertSameParsedJson(expected, jsonParser.parseJson(new java.io.StringReader(json)));
+    }
+
+    @Test
+    public void testParseJsonFromBytesAndStreams() throws IOException {
+        final String[] jsons = {
+                """
+                {
+                "key1": "value1", "key2" : -12.5e3, "key3": [1, 2.5, null, 9223372036854775807, 1e2],
+                "key4": {"k": [true, false, null, [], {}], "empty": ""},
+                "escaped \\" key": "line1\\nline2 \\"quoted\\" \\\\ \\/ \\u00e9 \\t",
+                "unicode": "ಕನ್ನಡ 😀 é", "n": null, "b": true, "big": 123456789012345678901234567890
+                }
+                """,
+                "  [1, 2, 3, 4294967296, null]  ",
+                "[1.5, 2, null]",
+                "[\"a\", 1, true, {\"x\": [\"y\"]}]",
+                "[]",
+                " { } ",
+                "\"a json string \\\" value 😀\"",
+                " 12.50 ",
+                "true",
+                "false"};
+
+        final List<JsonParser> jsonParsers = List.of(new JsonParser(),
+                JsonParser.newBuilder().jsonObjectType(JsonObjectType.UNMODIFIABLE_MAP)
+                        .jsonArrayType(JsonArrayType.UNMODIFIABLE_LIST).validateEscapeSequence(true).build(),
+                JsonParser.newBuilder().jsonObjectType(JsonObjectType.JSON_LINKED_MAP)
+                        .jsonArrayType(JsonArrayType.JSON_LINKED_LIST)
+                        .jsonNumberValueTypeForArray(JsonNumberValueType.AUTO_INTEGER_LONG_DOUBLE)
+                        .jsonNumberArrayUniformValueType(true).build(),
+                JsonParser.newBuilder().jsonObjectType(JsonObjectType.JSON_CONCURRENT_SKIP_LIST_MAP)
+                        .jsonNumberValueTypeForObject(JsonNumberValueType.JSON_VALUE)
+                        .jsonNumberValueTypeForArray(JsonNumberValueType.AUTO_INTEGER_LONG_BIG_DECIMAL)
+                        .jsonNumberArrayUniformValueType(true)
+                        .jsonStringValueTypeForObject(JsonStringValueType.JSON_VALUE)
+                        .jsonStringValueTypeForArray(JsonStringValueType.JSON_VALUE)
+                        .jsonBooleanValueTypeForObject(JsonBooleanValueType.JSON_VALUE)
+                        .jsonBooleanValueTypeForArray(JsonBooleanValueType.JSON_VALUE)
+                        .jsonNullValueTypeForObject(JsonNullValueType.JSON_VALUE).build(),
+                JsonParser.newBuilder().jsonStringValueTypeForArray(JsonStringValueType.JSON_VALUE)
+                        .jsonBooleanValueTypeForArray(JsonBooleanValueType.JSON_VALUE)
+                        .jsonNullValueTypeForArray(JsonNullValueType.JSON_VALUE).build());
+
+        for (final JsonParser jsonParser : jsonParsers) {
+            for (final String json : jsons) {
+                assertSameParsedJsonFromAllInputs(jsonParser, json);
+            }
+        }
+    }
+
+    @Test
+    public void testParseJsonFromBytesSizeAwareFactories() {
+        final List<Integer> mapSizes = new ArrayList<>();
+        final List<Integer> listSizes = new ArrayList<>();
+        final JsonParser jsonParser = JsonParser.newBuilder()
+                .jsonObjectType(JsonObjectType.CUSTOM_JSON_MAP_SIZE_AWARE).jsonMapFactorySizeAware(size -> {
+                    mapSizes.add(size);
+                    return new JsonMap(size);
+                }).jsonArrayType(JsonArrayType.CUSTOM_JSON_LIST_SIZE_AWARE).jsonListFactorySizeAware(size -> {
+                    listSizes.add(size);
+                    return new JsonList(size);
+                }).build();
+        final String json = "{\"a\": [1, 2, 3], \"b\": {\"c\": []}}";
+        jsonParser.parseJson(json);
+        final List<Integer> expectedMapSizes = List.copyOf(mapSizes);
+        final List<Integer> expectedListSizes = List.copyOf(listSizes);
+        mapSizes.clear();
+        listSizes.clear();
+        jsonParser.parseJson(json.getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(expectedListSizes, listSizes);
+        Assert.assertEquals(new HashSet<>(expectedMapSizes), new HashSet<>(mapSizes));
+    }
+
+    @Test
+    public void testParseJsonFromBytesInvalidJson() {
+        final JsonParser jsonParser = JsonParser.newBuilder().validateEscapeSequence(true).build();
+        final String[] invalidJsons = {"", "  ", "{", "[1, 2", "{\"a\": 1,}", "[1,]", "{\"a\" 1}", "{a: 1}",
+                "{\"a\": 1} x", "{\"a\": 1, \"a\": 2}", "[\"abc]", "[\"\\x\"]", "[\"\\u12\"]", "[1 2]",
+                "[abc]", "null", "tru"};
+        for (final String invalidJson : invalidJsons) {
+            try {
+                jsonParser.parseJson(invalidJson.getBytes(StandardCharsets.UTF_8));
+                Assert.fail("IllegalJsonFormatException expected for " + invalidJson);
+            } catch (final IllegalJsonFormatException e) {
+                // expected
+            }
+        }
+        try {
+            jsonParser.parseJson(new byte[] {'[', '"', (byte) 0xC3, '"', ']'});
+            Assert.fail("IllegalJsonFormatException expected for malformed UTF-8 bytes");
+        } catch (final IllegalJsonFormatException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testParseJsonFromBytesStricterThanString() throws IOException {
+        final JsonParser jsonParser = new JsonParser();
+
+        // the String path is lenient on these malformed JSONs
+        final Map<?, ?> unquotedKey = (Map<?, ?>) jsonParser.parseJson("{a:1}");
+        Assert.assertEquals(1, unquotedKey.size());
+        Assert.assertTrue(unquotedKey.containsKey(""));
+        try {
+            jsonParser.parseJson("[1 2]");
+            Assert.fail("NumberFormatException expected for [1 2]");
+        } catch (final NumberFormatException e) {
+            // expected
+        }
+
+        // the other paths reject both of them
+        for (final String invalidJson : new String[] {"{a:1}", "[1 2]"}) {
+            final byte[] utf8Bytes = invalidJson.getBytes(StandardCharsets.UTF_8);
+            final List<java.util.concurrent.Callable<Object>> parsers = List.of(
+                    () -> jsonParser.parseJson(utf8Bytes),
+                    () -> jsonParser.parseJson(java.nio.ByteBuffer.wrap(utf8Bytes)),
+                    () -> jsonParser.parseJson(new java.io.ByteArrayInputStream(utf8Bytes)),
+                    () -> jsonParser.parseJson(new java.io.StringReader(invalidJson)));
+            for (final java.util.concurrent.Callable<Object> parser : parsers) {
+                try {
+                    parser.call();
+                    Assert.fail("IllegalJsonFormatException expected for " + invalidJson);
+                } catch (final IllegalJsonFormatException e) {
+                    // expected
+                } catch (final Exception e) {
+                    Assert.fail("IllegalJsonFormatException expected for " + invalidJson + " but was " + e);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,220 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.webfirmframework.wffweb.InvalidValueException;
+import com.webfirmframework.wffweb.wffbm.data.BMValueType;
+import com.webfirmframework.wffweb.wffbm.data.WffBMArray;
+import com.webfirmframework.wffweb.wffbm.data.WffBMNumberArray;
+import com.webfirmframework.wffweb.wffbm.data.WffBMObject;
+
+public class JsonReaderTest {
+
+    private static final String JSON = """
+            {
+            "name": "wff",
+            "count": 2,
+            "items": [{"id": 1, "name": "one", "tags": ["a"]}, {"id": 2, "name": "t/w~o", "tags": []}],
+            "active": true,
+            "nothing": null
+            }
+            """;
+
+    private static byte[] bytes(final String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testEventsAndPointers() {
+        final JsonReader reader = new JsonParser().newReader(bytes("{\"a\": [1, \"x\", {\"b/c\": false}], \"d\": null}"));
+        final List<String> events = new ArrayList<>();
+        JsonEvent event;
+        while ((event = reader.next()) != null) {
+            events.add(event + " " + reader.pointer() + " " + reader.depth());
+        }
+        assertEquals(List.of("START_OBJECT  1", "KEY /a 1", "START_ARRAY /a 2", "NUMBER /a/0 2", "STRING /a/1 2",
+                "START_OBJECT /a/2 3", "KEY /a/2/b~1c 3", "BOOLEAN /a/2/b~1c 3", "END_OBJECT /a/2 2",
+                "END_ARRAY /a 1", "KEY /d 1", "NULL /d 1", "END_OBJECT  0"), events);
+        assertNull(reader.event());
+    }
+
+    @Test
+    public void testValueAndKey() {
+        final JsonReader reader = new JsonParser().newReader(new StringReader(JSON));
+        assertEquals(JsonEvent.START_OBJECT, reader.next());
+        assertEquals(JsonEvent.KEY, reader.next());
+        assertEquals("name", reader.key());
+        assertEquals("name", reader.value());
+        assertEquals(JsonEvent.STRING, reader.next());
+        assertEquals("name", reader.key());
+        assertEquals("wff", reader.value());
+        assertEquals("wff", reader.stringValue());
+        assertEquals(JsonEvent.KEY, reader.next());
+        assertEquals(JsonEvent.NUMBER, reader.next());
+        assertEquals(2, reader.value());
+        assertEquals(-1, reader.index());
+
+        final JsonParser parser = JsonParser.newBuilder().jsonNumberValueTypeForObject(JsonNumberValueType.BIG_DECIMAL)
+                .build();
+        final JsonReader bigDecimalReader = parser.newReader(bytes("{\"n\": 2}"));
+        assertTrue(bigDecimalReader.moveTo("/n"));
+        assertEquals(new BigDecimal("2"), bigDecimalReader.value());
+    }
+
+    @Test
+    public void testReadValue() {
+        final List<JsonParser> parsers = List.of(new JsonParser(),
+                JsonParser.newBuilder().jsonObjectType(JsonObjectType.JSON_LINKED_MAP)
+                        .jsonArrayType(JsonArrayType.UNMODIFIABLE_LIST)
+                        .jsonNumberValueTypeForArray(JsonNumberValueType.AUTO_INTEGER_LONG_DOUBLE)
+                        .jsonNumberArrayUniformValueType(true).build());
+        final String json = "{\"a\": [1, 2.5, null], \"b\": {\"c\": [true, \"x\"]}, \"d\": \"e\"}";
+        for (final JsonParser parser : parsers) {
+            final Object expected = parser.parseJson(json);
+            final JsonReader reader = parser.newReader(bytes(json));
+            reader.next();
+            final Object actual = reader.readValue();
+            assertEquals(expected, actual);
+            assertEquals(expected.getClass(), actual.getClass());
+            assertEquals(JsonEvent.END_OBJECT, reader.event());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void testMoveToAndForEachElement() {
+        final JsonReader reader = new JsonParser().newReader(new ByteArrayInputStream(bytes(JSON)));
+        assertTrue(reader.moveTo("/items/1/name"));
+        assertEquals("t/w~o", reader.value());
+        assertEquals("/items/1/name", reader.pointer());
+        assertTrue(reader.moveTo("/active"));
+        assertEquals(Boolean.TRUE, reader.value());
+        assertFalse(reader.moveTo("/count"));
+
+        final JsonReader itemsReader = new JsonParser().newReader(bytes(JSON));
+        assertTrue(itemsReader.moveTo("/items"));
+        final List<Object> names = new ArrayList<>();
+        itemsReader.forEachElement(item -> names.add(((Map<?, ?>) item).get("name")));
+        assertEquals(List.of("one", "t/w~o"), names);
+        assertEquals(JsonEvent.END_ARRAY, itemsReader.event());
+        assertEquals(JsonEvent.KEY, itemsReader.next());
+        assertEquals("active", itemsReader.key());
+
+        assertTrue(new JsonParser().newReader(bytes(JSON)).moveTo(""));
+    }
+
+    @Test
+    public void testSkipValueAndHandler() {
+        final JsonReader reader = new JsonParser().newReader(bytes(JSON));
+        final List<String> keys = new ArrayList<>();
+        reader.read((event, r) -> {
+            if (event == JsonEvent.KEY) {
+                keys.add(r.key());
+                if ("items".equals(r.key())) {
+                    r.skipValue();
+                }
+            }
+        });
+        assertEquals(List.of("name", "count", "items", "active", "nothing"), keys);
+    }
+
+    @Test
+    public void testReadWffBMObject() {
+        final JsonReader reader = new JsonParser().newReader(bytes(JSON));
+        reader.next();
+        final WffBMObject bmObject = reader.readWffBMObject();
+        assertEquals("wff", bmObject.getValue("name"));
+        assertEquals(2, bmObject.getValueAsInteger("count").intValue());
+        assertEquals(Boolean.TRUE, bmObject.getValue("active"));
+        assertEquals(BMValueType.NULL, bmObject.getValueType("nothing"));
+
+        final WffBMArray items = bmObject.getValueAsWffBMArray("items");
+        assertEquals(BMValueType.BM_OBJECT, items.getValueType());
+        final WffBMObject item = items.getValueAsWffBMObject(1);
+        assertEquals("t/w~o", item.getValue("name"));
+        assertEquals(BMValueType.STRING, item.getValueAsWffBMArray("tags").getValueType());
+
+        // should be the same after encoding and decoding
+        final WffBMObject decoded = new WffBMObject(bmObject.buildBytes(true));
+        assertTrue(bmObject.similar(decoded));
+
+        final JsonReader numbersReader = new JsonParser().newReader(bytes("[1, 2.5, 3]"));
+        numbersReader.next();
+        final WffBMArray numbers = numbersReader.readWffBMArray();
+        assertTrue(numbers instanceof WffBMNumberArray);
+        assertEquals(3, numbers.size());
+
+        final JsonReader mixedReader = new JsonParser().newReader(bytes("[1, \"a\"]"));
+        mixedReader.next();
+        try {
+            mixedReader.readWffBMArray();
+            fail("InvalidValueException expected");
+        } catch (final InvalidValueException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testReadRootScalarValue() {
+        final JsonParser parser = new JsonParser();
+        final String[] jsons = {"12", "2.5", "true", "\"a\\tb\""};
+        for (final String json : jsons) {
+            final Object expected = parser.parseJson(json);
+            final JsonReader reader = parser.newReader(bytes(json));
+            reader.next();
+            final Object actual = reader.readValue();
+            assertEquals(expected, actual);
+            assertEquals(expected.getClass(), actual.getClass());
+            assertNull(reader.next());
+        }
+        final JsonReader nullReader = parser.newReader(bytes("null"));
+        assertEquals(JsonEvent.NULL, nullReader.next());
+        assertNull(nullReader.readValue());
+    }
+
+    @Test
+    public void testInvalidJson() {
+        final String[] invalidJsons = {"", "{", "{\"a\" 1}", "[1 2]", "{\"a\": 1} x", "[1,]", "{a: 1}"};
+        for (final String invalidJson : invalidJsons) {
+            final JsonReader reader = new JsonParser().newReader(bytes(invalidJson));
+            try {
+                while (reader.next() != null) {
+                    // reads all
+                }
+                fail("IllegalJsonFormatException expected for " + invalidJson);
+            } catch (final IllegalJsonFormatException e) {
+                // expected
+            }
+        }
+    }
+
+}
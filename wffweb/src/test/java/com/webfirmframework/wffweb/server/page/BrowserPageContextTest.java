@@ -0,0 +1,108 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.webfirmframework.wffweb.tag.html.AbstractHtml;
+import com.webfirmframework.wffweb.tag.html.Html;
+
+public class BrowserPageContextTest {
+
+    private static BrowserPage newBrowserPage() {
+        return new BrowserPage() {
+
+            @Override
+            public String webSocketUrl() {
+                return "wss://webfirmframework.com/ws-con";
+            }
+
+            @Override
+            public AbstractHtml render() {
+                return new Html(null);
+            }
+        };
+    }
+
+    @Test
+    public void testAddAndRemoveBrowserPage() {
+        final BrowserPageContext context = BrowserPageContext.INSTANCE;
+        final String httpSessionId = UUID.randomUUID().toString();
+        final BrowserPage browserPage1 = newBrowserPage();
+        final BrowserPage browserPage2 = newBrowserPage();
+
+        final BrowserPageSession session = context.addBrowserPage(httpSessionId, browserPage1);
+        context.addBrowserPage(httpSessionId, browserPage2);
+
+        assertSame(session, context.getSession(httpSessionId));
+        assertSame(session, context.getSessionByInstanceId(browserPage2.getInstanceId()));
+        assertSame(browserPage1, context.getBrowserPage(browserPage1.getInstanceId()));
+        assertSame(browserPage1, context.getBrowserPage(httpSessionId, browserPage1.getInstanceId()));
+        assertEquals(2, context.getBrowserPages(httpSessionId).size());
+        assertTrue(context.getSessionIds().contains(httpSessionId));
+        assertTrue(context.exists(browserPage2));
+
+        final WebSocketOpenedRecord openedRecord = context.webSocketOpened(browserPage1.getInstanceId());
+        assertSame(browserPage1, openedRecord.browserPage());
+        assertSame(browserPage1, context.webSocketClosed(browserPage1.getInstanceId(), "ws1"));
+        assertNull(context.webSocketClosed(browserPage2.getInstanceId(), "ws2"));
+
+        context.removeBrowserPage(browserPage1.getInstanceId());
+        assertNull(context.getBrowserPage(browserPage1.getInstanceId()));
+        assertFalse(context.exists(browserPage1));
+        assertTrue(context.exists(browserPage2));
+
+        context.httpSessionClosed(httpSessionId);
+        assertNull(context.getBrowserPage(browserPage2.getInstanceId()));
+        assertNull(context.getSession(httpSessionId));
+    }
+
+    @Test
+    public void testClean() {
+        final BrowserPageContext context = BrowserPageContext.INSTANCE;
+        final String httpSessionId = UUID.randomUUID().toString();
+        final BrowserPage idleBrowserPage = newBrowserPage();
+        final BrowserPage activeBrowserPage = newBrowserPage();
+
+        final long currentTime = System.currentTimeMillis();
+        idleBrowserPage.setLastClientAccessedTime(currentTime - 20_000);
+        activeBrowserPage.setLastClientAccessedTime(currentTime - 5_000);
+
+        context.addBrowserPage(httpSessionId, idleBrowserPage);
+        context.addBrowserPage(httpSessionId, activeBrowserPage);
+
+        context.clean(10_000);
+        assertNull(context.getBrowserPage(idleBrowserPage.getInstanceId()));
+        assertSame(activeBrowserPage, context.getBrowserPage(activeBrowserPage.getInstanceId()));
+        assertNotNull(context.getSession(httpSessionId));
+
+        // the rescheduled page should be expired in a later clean
+        context.clean(1_000);
+        assertNull(context.getBrowserPage(activeBrowserPage.getInstanceId()));
+
+        context.httpSessionClosed(httpSessionId);
+    }
+
+}
@@ -32,23 +32,33 @@ import java.lang.ref.Reference;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Inflater;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import com.webfirmframework.wffweb.NotRenderedException;
 import com.webfirmframework.wffweb.NullValueException;
+import com.webfirmframework.wffweb.PushFailedException;
 import com.webfirmframework.wffweb.common.SampleBrowserPage;
 import com.webfirmframework.wffweb.server.page.BrowserPage.Settings;
 import com.webfirmframework.wffweb.tag.html.AbstractHtml;
 import com.webfirmframework.wffweb.tag.html.Body;
 import com.webfirmframework.wffweb.tag.html.Html;
+import com.webfirmframework.wffweb.tag.html.attribute.global.Id;
 import com.webfirmframework.wffweb.tag.html.metainfo.Head;
 import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Div;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Span;
+import com.webfirmframework.wffweb.util.WffBinaryMessageUtil;
+import com.webfirmframework.wffweb.util.data.NameValue;
 import com.webfirmframework.wffweb.wffbm.data.WffBMObject;
 
 @SuppressWarnings("serial")
@@ -449,4 +459,453 @@ public class BrowserPageTest {
 
     }
 
+    @Test
+    public void testPushBatching() {
+        final Id id = new Id("id0");
+        final Div div = new Div(null, id);
+
+        final BrowserPage browserPage = new BrowserPage() {
+
+            @Override
+            public String webSocketUrl() {
+                return "wss://webfirmframework.com/ws-con";
+            }
+
+            @Override
+            public AbstractHtml render() {
+                return new Html(null).give(html -> {
+                    new Head(html);
+                    new Body(html).appendChild(div);
+                });
+            }
+
+            @Override
+            protected PushBatching usePushBatching() {
+                // a long window so that the batch is pushed only by flushPush
+                return new PushBatching(0, 0, 600_000);
+            }
+        };
+
+        browserPage.toHtmlString();
+
+        final List<ByteBuffer> frames = new ArrayList<>();
+        browserPage.setWebSocketPushListener(frames::add);
+
+        for (int i = 1; i <= 500; i++) {
+            id.setValue("id" + i);
+        }
+        div.appendChild(new Span(null));
+
+        assertTrue(frames.isEmpty());
+        browserPage.flushPush();
+        assertEquals(1, frames.size());
+
+        final ByteBuffer frame = frames.get(0);
+        final byte[] payload = new byte[frame.remaining()];
+        frame.get(payload);
+        // the first 4 bytes are payload id as onPayloadLoss is enabled by default
+        final List<NameValue> nameValues = WffBinaryMessageUtil.VERSION_1.parse(payload, 4, payload.length - 4);
+        assertEquals(Task.TASK_OF_TASKS.getValueByte(), nameValues.get(0).getName()[0]);
+        // 500 attribute value changes are superseded by the last one and the appended
+        // child task
+        assertEquals(2, nameValues.get(0).getValues().length);
+
+        // flushing an empty batch should not push anything
+        browserPage.flushPush();
+        assertEquals(1, frames.size());
+    }
+
+    @Test
+    public void testPushBatchingReplyIsNotBatched() {
+        final Id id = new Id("id0");
+        final Div div = new Div(null, id);
+
+        final BrowserPage browserPage = new BrowserPage() {
+
+            @Override
+            public String webSocketUrl() {
+                return "wss://webfirmframework.com/ws-con";
+            }
+
+            @Override
+            public AbstractHtml render() {
+                return new Html(null).give(html -> {
+                    new Head(html);
+                    new Body(html).appendChild(div);
+                });
+            }
+
+            @Override
+            protected PushBatching usePushBatching() {
+                return new PushBatching(0, 0, 600_000);
+            }
+        };
+
+        browserPage.toHtmlString();
+
+        final List<ByteBuffer> frames = new ArrayList<>();
+        browserPage.setWebSocketPushListener(frames::add);
+
+        id.setValue("id1");
+        assertTrue(frames.isEmpty());
+
+        // the first 4 bytes are the client side payload id
+        final byte[] ping = WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(4,
+                Task.CLIENT_SIDE_PING_ON_NEW_WS_OPEN.getTaskNameValue());
+        ping[3] = 1;
+        browserPage.webSocketMessaged(ping);
+
+        // the batched task is pushed before the reply
+        assertEquals(2, frames.size());
+        final byte[] payload = new byte[frames.get(1).remaining()];
+        frames.get(1).get(payload);
+        final List<NameValue> nameValues = WffBinaryMessageUtil.VERSION_1.parse(payload, 4, payload.length - 4);
+        assertEquals(Task.SERVER_SIDE_PONG_ON_NEW_WS_OPEN.getValueByte(), nameValues.get(0).getValues()[0][0]);
+    }
+
+    @Test
+    public void testPushSpillPayloadLargerThanOutputBufferLimit() {
+        final Id id = new Id("id0");
+        final Div div = new Div(null, id);
+
+        final BrowserPage browserPage = new BrowserPage() {
+
+            @Override
+            public String webSocketUrl() {
+                return "wss://webfirmframework.com/ws-con";
+            }
+
+            @Override
+            public AbstractHtml render() {
+                return new Html(null).give(html -> {
+                    new Head(html);
+                    new Body(html).appendChild(div);
+                });
+            }
+
+            @Override
+            protected Settings useSettings() {
+                final Settings settings = defaultSettings();
+                return new Settings(settings.inputBufferLimit(), settings.inputBufferTimeout(), 200,
+                        TimeUnit.MILLISECONDS.toNanos(1), null);
+            }
+
+            @Override
+            protected PushSpill usePushSpill() {
+                return new PushSpill(0, 4096);
+            }
+        };
+
+        browserPage.toHtmlString();
+
+        final List<ByteBuffer> frames = new ArrayList<>();
+        browserPage.setWebSocketPushListener(frames::add);
+
+        // larger than the outputBufferLimit so it can never get the permit
+        id.setValue("x".repeat(500));
+        assertEquals(1, frames.size());
+
+        // the large payload must not block the further payloads
+        id.setValue("id1");
+        assertEquals(2, frames.size());
+        final byte[] payload = new byte[frames.get(1).remaining()];
+        frames.get(1).get(payload);
+        final List<NameValue> nameValues = WffBinaryMessageUtil.VERSION_1.parse(payload);
+        assertEquals(Task.ATTRIBUTE_UPDATED.getValueByte(), nameValues.get(0).getValues()[0][0]);
+    }
+
+    @Test
+    public void testWebSocketBatchPushListener() {
+        final Id id = new Id("id0");
+        final Div div = new Div(null, id);
+
+        final BrowserPage browserPage = new BrowserPage() {
+
+            @Override
+            public String webSocketUrl() {
+                return "wss://webfirmframework.com/ws-con";
+            }
+
+            @Override
+            public AbstractHtml render() {
+                return new Html(null).give(html -> {
+                    new Head(html);
+                    new Body(html).appendChild(div);
+                });
+            }
+        };
+
+        browserPage.toHtmlString();
+
+        final List<ByteBuffer> singleFrames = new ArrayList<>();
+        final List<ByteBuffer[]> batches = new ArrayList<>();
+        final boolean[] failNext = { true };
+        browserPage.setWebSocketPushListener(new WebSocketBatchPushListener() {
+
+            @Override
+            public void push(final ByteBuffer data) {
+                singleFrames.add(data);
+            }
+
+            @Override
+            public void pushAll(final ByteBuffer[] messages) throws PushFailedException {
+                if (failNext[0]) {
+                    failNext[0] = false;
+                    throw new PushFailedException("test failure");
+                }
+                batches.add(messages);
+            }
+        });
+
+        // the failed payload stays in the queue
+        id.setValue("id1");
+        assertTrue(batches.isEmpty());
+
+        // all payloads in the queue are pushed by a single call
+        div.appendChild(new Span(null));
+
+        assertTrue(singleFrames.isEmpty());
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).length);
+
+        int previousPayloadId = 0;
+        for (final ByteBuffer frame : batches.get(0)) {
+            final byte[] payload = new byte[frame.remaining()];
+            frame.get(payload);
+            // the first 4 bytes are payload id as onPayloadLoss is enabled by default
+            final int payloadId = WffBinaryMessageUtil.getIntFromBytes(new byte[] { payload[0], payload[1],
+                    payload[2], payload[3] });
+            assertEquals(previousPayloadId + 1, payloadId);
+            previousPayloadId = payloadId;
+            final List<NameValue> nameValues = WffBinaryMessageUtil.VERSION_1.parse(payload, 4, payload.length - 4);
+            assertFalse(nameValues.isEmpty());
+        }
+    }
+
+    @Test
+    public void testWebSocketBatchPushListenerBatchLimit() {
+        final Id id = new Id("id0");
+        final Div div = new Div(null, id);
+
+        final BrowserPage browserPage = new BrowserPage() {
+
+            @Override
+            public String webSocketUrl() {
+                return "wss://webfirmframework.com/ws-con";
+            }
+
+            @Override
+            public AbstractHtml render() {
+                return new Html(null).give(html -> {
+                    new Head(html);
+                    new Body(html).appendChild(div);
+                });
+            }
+        };
+
+        browserPage.toHtmlString();
+
+        final List<ByteBuffer[]> batches = new ArrayList<>();
+        final boolean[] failPush = { true };
+        browserPage.setWebSocketPushListener(new WebSocketBatchPushListener() {
+
+            @Override
+            public void push(final ByteBuffer data) {
+                fail("push must not be called for the payloads");
+            }
+
+            @Override
+            public void pushAll(final ByteBuffer[] messages) throws PushFailedException {
+                if (failPush[0]) {
+                    throw new PushFailedException("test failure");
+                }
+                batches.add(messages);
+            }
+        });
+
+        // the failed payloads stay in the queue
+        for (int i = 1; i <= 300; i++) {
+            id.setValue("id" + i);
+        }
+        assertTrue(batches.isEmpty());
+
+        failPush[0] = false;
+        id.setValue("id301");
+
+        assertEquals(2, batches.size());
+        assertEquals(256, batches.get(0).length);
+        assertEquals(45, batches.get(1).length);
+
+        int previousPayloadId = 0;
+        for (final ByteBuffer[] batch : batches) {
+            for (final ByteBuffer frame : batch) {
+                final byte[] payload = new byte[frame.remaining()];
+                frame.get(payload);
+                final int payloadId = WffBinaryMessageUtil.getIntFromBytes(new byte[] { payload[0], payload[1],
+                        payload[2], payload[3] });
+                assertEquals(previousPayloadId + 1, payloadId);
+                previousPayloadId = payloadId;
+            }
+        }
+    }
+
+    @Test
+    public void testPayloadBufferPool() {
+        final Id id = new Id("id0");
+        final Div div = new Div(null, id);
+        final PayloadBufferPool bufferPool = new PayloadBufferPool(64, 4096, 4, 0);
+
+        final BrowserPage browserPage = new BrowserPage() {
+
+            @Override
+            public String webSocketUrl() {
+                return "wss://webfirmframework.com/ws-con";
+            }
+
+            @Override
+            public AbstractHtml render() {
+                return new Html(null).give(html -> {
+                    new Head(html);
+                    new Body(html).appendChild(div);
+                });
+            }
+
+            @Override
+            protected PayloadBufferPool usePayloadBufferPool() {
+                return bufferPool;
+            }
+        };
+
+        browserPage.toHtmlString();
+
+        // the pooled buffer may be reused after push so its content is copied
+        final List<byte[]> payloads = new ArrayList<>();
+        browserPage.setWebSocketPushListener(data -> {
+            final byte[] payload = new byte[data.remaining()];
+            data.get(payload);
+            payloads.add(payload);
+        });
+
+        for (int i = 1; i <= 5; i++) {
+            id.setValue("id" + i);
+        }
+
+        assertEquals(5, payloads.size());
+        assertEquals(1, bufferPool.getAllocatedCount());
+        assertEquals(4, bufferPool.getReusedCount());
+
+        int previousPayloadId = 0;
+        for (final byte[] payload : payloads) {
+            final int payloadId = WffBinaryMessageUtil.getIntFromBytes(new byte[] { payload[0], payload[1],
+                    payload[2], payload[3] });
+            assertEquals(previousPayloadId + 1, payloadId);
+            previousPayloadId = payloadId;
+            assertFalse(WffBinaryMessageUtil.VERSION_1.parse(payload, 4, payload.length - 4).isEmpty());
+        }
+    }
+
+    @Test
+    public void testPushCompression() throws Exception {
+        final Id id = new Id("id0");
+        final Div div = new Div(null, id);
+
+        final BrowserPage browserPage = new BrowserPage() {
+
+            @Override
+            public String webSocketUrl() {
+                return "wss://webfirmframework.com/ws-con";
+            }
+
+            @Override
+            public AbstractHtml render() {
+                return new Html(null).give(html -> {
+                    new Head(html);
+                    new Body(html).appendChild(div);
+                });
+            }
+
+            @Override
+            protected PushCompression usePushCompression() {
+                return new PushCompression(-1, 0);
+            }
+        };
+
+        // the client requests the compression only if it is enabled at the server
+        final String html = browserPage.toHtmlString();
+        final int scriptStart = html.indexOf("base64,") + 7;
+        final String wffScript = new String(
+                Base64.getDecoder().decode(html.substring(scriptStart, html.indexOf('"', scriptStart))),
+                StandardCharsets.UTF_8);
+        assertTrue(wffScript.contains("this.PUSH_CMPRS = true;"));
+
+        final List<ByteBuffer> frames = new ArrayList<>();
+        browserPage.setWebSocketPushListener(frames::add);
+
+        // not compressed until the client requests it
+        id.setValue("id1");
+        assertEquals(1, frames.size());
+        assertNotEquals(-1, frames.get(0).get(4));
+
+        browserPage.webSocketMessaged(new byte[] { PushPayloadDeflater.CLIENT_HELLO });
+
+        final Inflater inflater = new Inflater(true);
+        for (int i = 2; i < 5; i++) {
+            id.setValue("id" + i);
+            assertEquals(i, frames.size());
+            final byte[] payload = PushPayloadDeflaterTest.inflate(inflater, frames.get(i - 1));
+            // the first 4 bytes are payload id as onPayloadLoss is enabled by default
+            final List<NameValue> nameValues = WffBinaryMessageUtil.VERSION_1.parse(payload, 4, payload.length - 4);
+            assertEquals(Task.ATTRIBUTE_UPDATED.getValueByte(), nameValues.get(0).getValues()[0][0]);
+        }
+        inflater.end();
+
+        // a new connection has to request it again
+        browserPage.setWebSocketPushListener(frames::add);
+        id.setValue("id5");
+        assertEquals(5, frames.size());
+        assertNotEquals(-1, frames.get(4).get(4));
+    }
+
+    @Test
+    public void testUseWffRuntimeScriptPath() throws Exception {
+        final BrowserPage browserPage = new BrowserPage() {
+
+            @Override
+            public String webSocketUrl() {
+                return "wss://webfirmframework.com/ws-con";
+            }
+
+            @Override
+            public AbstractHtml render() {
+                return new Html(null).give(html -> {
+                    new Head(html);
+                    new Body(html);
+                });
+            }
+
+            @Override
+            protected String useWffRuntimeScriptPath() {
+                return "/assets/js/";
+            }
+        };
+
+        final String html = browserPage.toHtmlString();
+        final int scriptStart = html.indexOf("base64,") + 7;
+        final String bootstrap = new String(
+                Base64.getDecoder().decode(html.substring(scriptStart, html.indexOf('"', scriptStart))),
+                StandardCharsets.UTF_8);
+        assertTrue(bootstrap.startsWith("var wffBtCfg = {"));
+        assertTrue(bootstrap.contains(browserPage.getInstanceId()));
+        assertTrue(bootstrap.length() < 1024);
+
+        final String runtimeSrc = "src=\"/assets/js/" + WffRuntimeScript.getFileName() + "\"";
+        assertTrue(html.contains(runtimeSrc));
+        assertTrue(html.contains("integrity=\"" + WffRuntimeScript.getIntegrity() + "\""));
+        // the runtime script must be after the bootstrap script
+        assertTrue(html.indexOf(runtimeSrc) > scriptStart);
+
+        // not embedded again
+        assertEquals(html, browserPage.toHtmlString());
+    }
+
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class ExternalDriveSegmentedByteArrayQueueTest {
+
+    private static final String dirName = "0f4a7c6e-5b1d-4c3e-9a8f-2d6b1e7c9a40";
+
+    @Test
+    public void testOfferAndPollConcurrently() throws IOException, InterruptedException, ExecutionException {
+        final ExternalDriveSegmentedByteArrayQueue q = new ExternalDriveSegmentedByteArrayQueue(
+                Files.createTempDirectory(getClass().getSimpleName()).toString(), dirName, "in", 64, 1);
+
+        final List<Integer> expectedResult = new ArrayList<>(100);
+
+        final List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final int count = i;
+            expectedResult.add(count);
+            results.add(CompletableFuture
+                    .supplyAsync(() -> q.offer((String.valueOf(count)).getBytes(StandardCharsets.UTF_8))));
+        }
+
+        for (final CompletableFuture<Boolean> completableFuture : results) {
+            assertTrue(completableFuture.get());
+        }
+
+        assertEquals(100, q.size());
+
+        final List<Integer> actualResult = new ArrayList<>(100);
+
+        byte[] polled = null;
+        while ((polled = q.poll()) != null) {
+            actualResult.add(Integer.parseInt(new String(polled, StandardCharsets.UTF_8)));
+        }
+
+        Collections.sort(actualResult);
+        assertArrayEquals(expectedResult.toArray(), actualResult.toArray());
+        assertTrue(q.isEmpty());
+
+        for (int i = 0; i < 100; i++) {
+            q.offer((String.valueOf(i)).getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(100, q.size());
+        q.clear();
+        assertEquals(0, q.size());
+        assertNull(q.poll());
+
+        q.deleteBaseDirStructure();
+    }
+
+    @Test
+    public void testOrderAndSegmentRecycling() throws IOException {
+        final String basePath = Files.createTempDirectory(getClass().getSimpleName()).toString();
+        // each record is 4 + 10 bytes so a segment can hold 4 records
+        final ExternalDriveSegmentedByteArrayQueue q = new ExternalDriveSegmentedByteArrayQueue(basePath, dirName,
+                "in", 56, 1);
+
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 10; i++) {
+                q.offer(String.format("%010d", round * 10 + i).getBytes(StandardCharsets.UTF_8));
+            }
+            for (int i = 0; i < 10; i++) {
+                assertEquals(String.format("%010d", round * 10 + i), new String(q.poll(), StandardCharsets.UTF_8));
+            }
+            assertNull(q.poll());
+        }
+
+        // the consumed segments must be recycled or deleted, there should not be a
+        // file per message
+        try (Stream<Path> files = Files.list(Paths.get(basePath, dirName, "in"))) {
+            assertTrue(files.count() <= 4);
+        }
+
+        q.deleteBaseDirStructure();
+    }
+
+    @Test
+    public void testOversizedAndEmptyRecords() throws IOException {
+        final ExternalDriveSegmentedByteArrayQueue q = new ExternalDriveSegmentedByteArrayQueue(
+                Files.createTempDirectory(getClass().getSimpleName()).toString(), dirName, "in", 32, 1);
+
+        final byte[] big = new byte[1000];
+        Arrays.fill(big, (byte) 7);
+
+        q.offer(new byte[] { 1, 2, 3 });
+        q.offer(big);
+        q.offer(new byte[0]);
+        q.offer(new byte[] { 4 });
+
+        assertArrayEquals(new byte[] { 1, 2, 3 }, q.poll());
+        assertArrayEquals(big, q.poll());
+        assertArrayEquals(new byte[0], q.poll());
+        assertArrayEquals(new byte[] { 4 }, q.poll());
+        assertNull(q.poll());
+
+        q.deleteBaseDirStructure();
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        final String basePath = Files.createTempDirectory(getClass().getSimpleName()).toString();
+        final ExternalDriveSegmentedByteArrayQueue q = new ExternalDriveSegmentedByteArrayQueue(basePath, dirName,
+                "in", 32, 1);
+
+        assertTrue(q.offer(new byte[] { 1, 2, 3 }));
+        q.close();
+
+        assertFalse(q.offer(new byte[] { 4 }));
+        assertNull(q.poll());
+        try (Stream<Path> files = Files.list(Paths.get(basePath, dirName, "in"))) {
+            assertEquals(0, files.count());
+        }
+
+        q.deleteBaseDirStructure();
+    }
+
+}
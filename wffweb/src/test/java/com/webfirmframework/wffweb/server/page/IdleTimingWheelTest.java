@@ -0,0 +1,74 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class IdleTimingWheelTest {
+
+    @Test
+    public void testAdvance() {
+        final long startTime = System.currentTimeMillis() + 10;
+        final IdleTimingWheel wheel = new IdleTimingWheel(1);
+
+        // covers all levels and beyond the range of the wheels
+        final long[] offsets = { 0, 5, 63, 64, 65, 4095, 4096, 300_000, 20_000_000, 70_000_000 };
+        for (final long offset : offsets) {
+            wheel.schedule(startTime + offset, "key" + offset);
+        }
+        assertEquals(offsets.length, wheel.size());
+
+        final Set<String> expired = new HashSet<>();
+        for (final long offset : offsets) {
+            // a key is returned only when the wheel is advanced beyond its tick
+            for (final String key : wheel.advance(startTime + offset)) {
+                assertTrue(expired.add(key));
+            }
+            assertTrue(!expired.contains("key" + offset));
+            final List<String> keys = wheel.advance(startTime + offset + 1);
+            assertEquals(List.of("key" + offset), keys);
+            expired.addAll(keys);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testOverdueAndPurge() {
+        final long currentTime = System.currentTimeMillis();
+        final IdleTimingWheel wheel = new IdleTimingWheel(1000);
+
+        // before the current tick so it will be returned by the next advance
+        wheel.schedule(currentTime - 60_000, "overdue");
+        wheel.schedule(currentTime + 60_000, "future");
+        assertEquals(List.of("overdue"), wheel.advance(currentTime - 120_000));
+        assertEquals(1, wheel.size());
+
+        for (int i = 0; i < 100; i++) {
+            wheel.schedule(currentTime + i * 1000L, "removed" + i);
+        }
+        wheel.purgeIfOversized(1, "future"::equals);
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("future"), wheel.advance(currentTime + 120_000));
+    }
+
+}
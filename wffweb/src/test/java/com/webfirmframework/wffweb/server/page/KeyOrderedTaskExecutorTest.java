@@ -0,0 +1,180 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.Test;
+
+public class KeyOrderedTaskExecutorTest {
+
+    @Test
+    public void testOrderPerKey() throws InterruptedException {
+        final KeyOrderedTaskExecutor keyOrderedTaskExecutor = new KeyOrderedTaskExecutor();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final int keys = 10;
+            final int tasksPerKey = 1000;
+            final List<List<Integer>> executed = new ArrayList<>(keys);
+            for (int key = 0; key < keys; key++) {
+                executed.add(new ArrayList<>(tasksPerKey));
+            }
+            final CountDownLatch done = new CountDownLatch(keys * tasksPerKey);
+            for (int i = 0; i < tasksPerKey; i++) {
+                for (int key = 0; key < keys; key++) {
+                    final List<Integer> keyExecuted = executed.get(key);
+                    final int order = i;
+                    keyOrderedTaskExecutor.execute(key, () -> {
+                        // no lock as the tasks of the same key never run concurrently
+                        keyExecuted.add(order);
+                        done.countDown();
+                    }, executor);
+                }
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            for (final List<Integer> keyExecuted : executed) {
+                assertEquals(tasksPerKey, keyExecuted.size());
+                for (int i = 0; i < tasksPerKey; i++) {
+                    assertEquals(i, keyExecuted.get(i).intValue());
+                }
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(0, keyOrderedTaskExecutor.pendingKeys());
+    }
+
+    @Test
+    public void testDifferentKeysRunConcurrently() throws InterruptedException {
+        final KeyOrderedTaskExecutor keyOrderedTaskExecutor = new KeyOrderedTaskExecutor();
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final CountDownLatch slowTaskRelease = new CountDownLatch(1);
+            final CountDownLatch fastTaskDone = new CountDownLatch(1);
+            final CountDownLatch sameKeyTaskDone = new CountDownLatch(1);
+
+            keyOrderedTaskExecutor.execute("export", () -> {
+                try {
+                    slowTaskRelease.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, executor);
+            keyOrderedTaskExecutor.execute("export", sameKeyTaskDone::countDown, executor);
+            keyOrderedTaskExecutor.execute("search", fastTaskDone::countDown, executor);
+
+            // the search task is not blocked by the slow export task
+            assertTrue(fastTaskDone.await(10, TimeUnit.SECONDS));
+            assertEquals(1, sameKeyTaskDone.getCount());
+
+            slowTaskRelease.countDown();
+            assertTrue(sameKeyTaskDone.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testExceptionAndRejection() {
+        final KeyOrderedTaskExecutor keyOrderedTaskExecutor = new KeyOrderedTaskExecutor();
+        final List<String> executed = new ArrayList<>();
+        keyOrderedTaskExecutor.execute("key", () -> {
+            throw new IllegalStateException("test exception");
+        }, Runnable::run);
+        keyOrderedTaskExecutor.execute("key", () -> executed.add("after exception"), Runnable::run);
+
+        // the rejection is logged as the tasks are executed in the calling thread
+        final List<LogRecord> warnings = new ArrayList<>();
+        final Handler handler = new Handler() {
+
+            @Override
+            public void publish(final LogRecord logRecord) {
+                if (Level.WARNING.equals(logRecord.getLevel())) {
+                    warnings.add(logRecord);
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        final Logger logger = Logger.getLogger(KeyOrderedTaskExecutor.class.getName());
+        logger.addHandler(handler);
+        try {
+            keyOrderedTaskExecutor.execute("key", () -> executed.add("after rejection"), task -> {
+                throw new RejectedExecutionException();
+            });
+        } finally {
+            logger.removeHandler(handler);
+        }
+        assertEquals(List.of("after exception", "after rejection"), executed);
+        assertEquals(0, keyOrderedTaskExecutor.pendingKeys());
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.get(0).getThrown() instanceof RejectedExecutionException);
+    }
+
+    @Test
+    public void testError() throws InterruptedException {
+        final KeyOrderedTaskExecutor keyOrderedTaskExecutor = new KeyOrderedTaskExecutor();
+        final Executor executor = task -> {
+            final Thread thread = new Thread(task);
+            // the error is expected
+            thread.setUncaughtExceptionHandler((t, e) -> {
+            });
+            thread.start();
+        };
+        final CountDownLatch errorTaskRelease = new CountDownLatch(1);
+        final CountDownLatch nextTaskDone = new CountDownLatch(1);
+        keyOrderedTaskExecutor.execute("key", () -> {
+            try {
+                errorTaskRelease.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new AssertionError("test error");
+        }, executor);
+        keyOrderedTaskExecutor.execute("key", nextTaskDone::countDown, executor);
+        errorTaskRelease.countDown();
+
+        assertTrue(nextTaskDone.await(10, TimeUnit.SECONDS));
+        // the last task is dequeued after its execution
+        for (int i = 0; i < 100 && keyOrderedTaskExecutor.pendingKeys() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, keyOrderedTaskExecutor.pendingKeys());
+    }
+
+}
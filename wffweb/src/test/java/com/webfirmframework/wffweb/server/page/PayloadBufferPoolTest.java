@@ -0,0 +1,119 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.webfirmframework.wffweb.InvalidValueException;
+
+public class PayloadBufferPoolTest {
+
+    @Test
+    public void testAcquireAndRelease() {
+        final PayloadBufferPool pool = new PayloadBufferPool(100, 1000, 2, 0);
+        assertEquals(128, pool.getMinBufferSize());
+        assertEquals(1024, pool.getMaxBufferSize());
+
+        final ByteBuffer buffer1 = pool.acquire(10);
+        assertEquals(10, buffer1.capacity());
+        assertEquals(PayloadBufferPool.HEADER_LENGTH + 128, buffer1.array().length);
+
+        final ByteBuffer buffer2 = pool.acquire(129);
+        assertEquals(129, buffer2.capacity());
+        assertEquals(PayloadBufferPool.HEADER_LENGTH + 256, buffer2.array().length);
+        assertEquals(2, pool.getAllocatedCount());
+        assertEquals(384, pool.getAllocatedBytes());
+
+        pool.release(buffer1);
+        final ByteBuffer buffer3 = pool.acquire(128);
+        assertTrue(buffer3.array() == buffer1.array());
+        assertEquals(1, pool.getReusedCount());
+        assertEquals(128, pool.getReusedBytes());
+
+        // larger than maxBufferSize is not pooled
+        final ByteBuffer buffer4 = pool.acquire(1025);
+        assertEquals(1025, buffer4.array().length);
+        pool.release(buffer4);
+        assertFalse(pool.acquire(1025).array() == buffer4.array());
+
+        // the shared pool of each size class is limited to 2
+        final ByteBuffer buffer5 = pool.acquire(10);
+        final ByteBuffer buffer6 = pool.acquire(10);
+        pool.release(buffer3);
+        pool.release(buffer5);
+        pool.release(buffer6);
+        assertEquals(1, pool.getDiscardedCount());
+
+        // not acquired from the pool or already released
+        pool.release(ByteBuffer.allocate(128));
+        pool.release(buffer5);
+        assertEquals(1, pool.getDiscardedCount());
+
+        // not of a size class
+        pool.release(ByteBuffer.allocate(100));
+        assertEquals(1, pool.getDiscardedCount());
+    }
+
+    @Test
+    public void testThreadCache() throws InterruptedException {
+        final PayloadBufferPool pool = new PayloadBufferPool(64, 64, 1, 1);
+        final ByteBuffer buffer1 = pool.acquire(64);
+        final ByteBuffer buffer2 = pool.acquire(64);
+        pool.release(buffer1);
+        pool.release(buffer2);
+
+        // buffer1 is in the thread cache and buffer2 is in the shared pool
+        final ByteBuffer[] fromOtherThread = new ByteBuffer[1];
+        final Thread thread = new Thread(() -> fromOtherThread[0] = pool.acquire(64));
+        thread.start();
+        thread.join();
+        assertTrue(fromOtherThread[0].array() == buffer2.array());
+        assertTrue(pool.acquire(64).array() == buffer1.array());
+        assertEquals(2, pool.getReusedCount());
+    }
+
+    @Test
+    public void testReleaseForeignBuffer() {
+        final PayloadBufferPool pool = new PayloadBufferPool(128, 128, 2, 1);
+        final ByteBuffer foreign = ByteBuffer.allocate(128);
+        pool.release(foreign);
+        final ByteBuffer acquired = pool.acquire(128);
+        assertFalse(acquired.array() == foreign.array());
+        assertEquals(0, pool.getReusedCount());
+
+        // releasing twice must not hand out the same array twice
+        pool.release(acquired);
+        pool.release(acquired);
+        assertFalse(pool.acquire(128).array() == pool.acquire(128).array());
+
+        // acquired from another pool
+        final ByteBuffer ofOtherPool = new PayloadBufferPool(128, 128, 2, 1).acquire(128);
+        pool.release(ofOtherPool);
+        assertFalse(pool.acquire(128).array() == ofOtherPool.array());
+    }
+
+    @Test(expected = InvalidValueException.class)
+    public void testInvalidSizes() {
+        new PayloadBufferPool(1024, 512, 1, 1);
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.junit.Test;
+
+import com.webfirmframework.wffweb.util.WffBinaryMessageUtil;
+
+public class PushPayloadDeflaterTest {
+
+    static byte[] inflate(final Inflater inflater, final ByteBuffer frame) throws DataFormatException {
+        final byte[] bytes = new byte[frame.remaining()];
+        frame.duplicate().get(bytes);
+        assertArrayEquals(new byte[] { 0, 0, 0, 0, -1 }, Arrays.copyOf(bytes, 5));
+        final int length = WffBinaryMessageUtil.getIntFromBytes(new byte[] { bytes[5], bytes[6], bytes[7], bytes[8] });
+        inflater.setInput(bytes, PushPayloadDeflater.HEADER_LENGTH, bytes.length - PushPayloadDeflater.HEADER_LENGTH);
+        final byte[] payload = new byte[length];
+        int inflated = 0;
+        while (inflated < length) {
+            final int count = inflater.inflate(payload, inflated, length - inflated);
+            if (count == 0) {
+                break;
+            }
+            inflated += count;
+        }
+        assertEquals(length, inflated);
+        return payload;
+    }
+
+    private static byte[] payload(final int index) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            builder.append("<tr data-wff-id=\"S").append(index * 20 + i).append("\"><td>row</td></tr>");
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testDeflate() throws DataFormatException {
+        final PushPayloadDeflater deflater = new PushPayloadDeflater(-1, 64);
+        final Inflater inflater = new Inflater(true);
+
+        int totalLength = 0;
+        int totalFrameLength = 0;
+        for (int i = 0; i < 100; i++) {
+            final byte[] payload = payload(i);
+            final ByteBuffer frame = deflater.deflate(ByteBuffer.wrap(payload));
+            // each payload can be inflated on arrival as it is sync flushed
+            assertArrayEquals(payload, inflate(inflater, frame));
+            totalLength += payload.length;
+            totalFrameLength += frame.remaining();
+        }
+        // the later payloads are compressed against the history of the earlier ones
+        assertTrue(totalFrameLength * 5 < totalLength);
+        inflater.end();
+        deflater.end();
+    }
+
+    @Test
+    public void testDeflateLargePayload() throws DataFormatException {
+        final PushPayloadDeflater deflater = new PushPayloadDeflater(0, 0);
+        final Inflater inflater = new Inflater(true);
+        // level 0 makes the output larger than the input
+        final byte[] payload = new byte[100_000];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (i * 31 + (i >> 7));
+        }
+        assertArrayEquals(payload, inflate(inflater, deflater.deflate(ByteBuffer.wrap(payload))));
+        assertArrayEquals(payload(1), inflate(inflater, deflater.deflate(ByteBuffer.wrap(payload(1)))));
+        inflater.end();
+        deflater.end();
+    }
+
+    @Test
+    public void testNotDeflated() {
+        final PushPayloadDeflater deflater = new PushPayloadDeflater(-1, 64);
+        final ByteBuffer smallPayload = ByteBuffer.wrap(new byte[63]);
+        assertSame(smallPayload, deflater.deflate(smallPayload));
+
+        deflater.end();
+        assertTrue(deflater.isEnded());
+        final ByteBuffer payload = ByteBuffer.wrap(payload(0));
+        assertSame(payload, deflater.deflate(payload));
+        // no exception
+        deflater.end();
+    }
+
+}
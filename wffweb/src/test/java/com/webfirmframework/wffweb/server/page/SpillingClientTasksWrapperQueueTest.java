@@ -0,0 +1,150 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class SpillingClientTasksWrapperQueueTest {
+
+    private static ClientTasksWrapper tasks(final String... tasks) {
+        final ByteBuffer[] buffers = new ByteBuffer[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            buffers[i] = ByteBuffer.wrap(tasks[i].getBytes(StandardCharsets.UTF_8));
+        }
+        return new ClientTasksWrapper(buffers);
+    }
+
+    private static List<String> toStrings(final ClientTasksWrapper clientTasks) {
+        final AtomicReferenceArray<ByteBuffer> tasks = clientTasks.tasks();
+        final List<String> strings = new ArrayList<>(tasks.length());
+        for (int i = 0; i < tasks.length(); i++) {
+            final ByteBuffer task = tasks.get(i);
+            strings.add(new String(task.array(), task.arrayOffset(), task.capacity(), StandardCharsets.UTF_8));
+        }
+        return strings;
+    }
+
+    private static long fileCount(final Path dirPath) throws IOException {
+        try (Stream<Path> files = Files.list(dirPath)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void testOrderAcrossHeapAndFile() throws IOException {
+        final Path dirPath = Files.createTempDirectory(getClass().getSimpleName());
+        // the file size is not a multiple of the task sizes to test the wrapping
+        final SpillingClientTasksWrapperQueue q = new SpillingClientTasksWrapperQueue(100, 997, dirPath);
+        assertTrue(q.isEmpty());
+
+        int offered = 0;
+        int polled = 0;
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 30; i++) {
+                assertTrue(q.offer(tasks("first " + offered, "second " + offered)));
+                offered++;
+            }
+            assertTrue(q.spilledBytes() > 0);
+            assertEquals(1, fileCount(dirPath));
+            for (int i = 0; i < 25; i++) {
+                assertEquals(List.of("first " + polled, "second " + polled), toStrings(q.poll()));
+                polled++;
+            }
+        }
+        assertEquals(offered - polled, q.size());
+        ClientTasksWrapper clientTasks;
+        while ((clientTasks = q.poll()) != null) {
+            assertEquals(List.of("first " + polled, "second " + polled), toStrings(clientTasks));
+            polled++;
+        }
+        assertEquals(offered, polled);
+        assertTrue(q.isEmpty());
+        assertEquals(0, q.spilledBytes());
+
+        q.close();
+        assertEquals(0, fileCount(dirPath));
+        Files.delete(dirPath);
+    }
+
+    @Test
+    public void testFileFull() {
+        final SpillingClientTasksWrapperQueue q = new SpillingClientTasksWrapperQueue(10, 20, null);
+        assertTrue(q.offer(tasks("0123456789")));
+        assertTrue(q.offer(tasks("abcdefghij", "klmnopqrst")));
+        // the file is full, the tasks for which the permit is acquired are kept in
+        // the heap
+        assertTrue(q.offer(tasks("uvwxyz")));
+        assertFalse(q.offer(tasks("not kept"), true));
+        assertEquals(3, q.size());
+
+        assertEquals(List.of("0123456789"), toStrings(q.poll()));
+        assertEquals(List.of("abcdefghij", "klmnopqrst"), toStrings(q.poll()));
+        assertTrue(q.offer(tasks("kept"), true));
+        assertEquals(List.of("uvwxyz"), toStrings(q.poll()));
+        assertEquals(List.of("kept"), toStrings(q.poll()));
+        assertNull(q.poll());
+        q.close();
+    }
+
+    @Test
+    public void testPermit() {
+        final SpillingClientTasksWrapperQueue q = new SpillingClientTasksWrapperQueue(0, 1024, null);
+        assertTrue(q.offer(tasks("acquired")));
+        assertTrue(q.offer(tasks("needs permit"), true));
+        assertTrue(q.offer(tasks("acquired later")));
+
+        final List<Integer> requested = new ArrayList<>();
+        assertEquals(List.of("acquired"), toStrings(q.poll(permits -> {
+            requested.add(permits);
+            return false;
+        })));
+        assertTrue(requested.isEmpty());
+
+        // the order is kept so the later tasks are not polled until the permit is
+        // acquired
+        assertNull(q.poll(permits -> {
+            requested.add(permits);
+            return false;
+        }));
+        assertEquals(List.of(12), requested);
+        assertEquals(2, q.size());
+
+        assertEquals(List.of("needs permit"), toStrings(q.poll(permits -> true)));
+        assertEquals(List.of("acquired later"), toStrings(q.poll(permits -> false)));
+        q.close();
+
+        // the tasks are kept in the heap after closing
+        assertTrue(q.offer(tasks("after close")));
+        assertEquals(0, q.spilledBytes());
+        assertEquals(List.of("after close"), toStrings(q.poll()));
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.server.page;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.webfirmframework.wffweb.internal.server.page.js.WffJsFile;
+
+public class WffRuntimeScriptTest {
+
+    @Test
+    public void testContent() throws Exception {
+        final byte[] expected = WffJsFile.getRuntimeContent().getBytes(StandardCharsets.UTF_8);
+
+        final ByteBuffer bytes = WffRuntimeScript.getBytes();
+        assertTrue(bytes.isReadOnly());
+        assertEquals(expected.length, bytes.remaining());
+        assertEquals(expected.length, WffRuntimeScript.getContentLength());
+        final byte[] actual = new byte[bytes.remaining()];
+        bytes.get(actual);
+        assertArrayEquals(expected, actual);
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        WffRuntimeScript.writeTo(os);
+        assertArrayEquals(expected, os.toByteArray());
+
+        assertTrue(WffRuntimeScript.getFileName().matches("wff-[0-9a-f]{16}\\.js"));
+        assertTrue(WffRuntimeScript.getIntegrity().startsWith("sha384-"));
+    }
+
+}
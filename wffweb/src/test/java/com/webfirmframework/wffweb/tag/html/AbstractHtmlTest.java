@@ -36,6 +36,7 @@ import com.webfirmframework.wffweb.tag.html.attribute.core.AbstractAttribute;
 import com.webfirmframework.wffweb.tag.html.html5.attribute.global.DataWffId;
 import com.webfirmframework.wffweb.tag.html.html5.images.FigCaption;
 import com.webfirmframework.wffweb.tag.html.model.AbstractHtml5SharedObject;
+import com.webfirmframework.wffweb.tag.html.model.TagLockPolicy;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -5333,4 +5334,294 @@ public class AbstractHtmlTest {
         assertNull(rootTag.getPreviousSibling());
     }
 
+    @Test
+    public void testToHtmlStringWithRenderCache() throws IOException {
+        WffConfiguration.setRenderCacheEnabled(true);
+        try {
+            final Div rootTag = new Div(null, new Id("div1")).give(div1 -> {
+                new Div(div1, new Id("div2")).give(div2 -> {
+                    new Span(div2, new Id("span1")).give(TagContent::text, "one");
+                });
+                new Div(div1, new Id("div3")).give(TagContent::text, "three");
+            });
+            assertEquals(rootTag.toBigHtmlString(), rootTag.toHtmlString());
+            assertEquals(
+                    "<div id=\"div1\"><div id=\"div2\"><span id=\"span1\">one</span></div><div id=\"div3\">three</div></div>",
+                    rootTag.toHtmlString());
+
+            final AbstractHtml span1 = TagRepository.findTagById("span1", rootTag);
+            span1.addAttributes(new ClassAttribute("c1"));
+            assertEquals(
+                    "<div id=\"div1\"><div id=\"div2\"><span id=\"span1\" class=\"c1\">one</span></div><div id=\"div3\">three</div></div>",
+                    rootTag.toHtmlString());
+
+            final AbstractHtml div3 = TagRepository.findTagById("div3", rootTag);
+            div3.addInnerHtml(new NoTag(null, "three changed"));
+            assertEquals(
+                    "<div id=\"div1\"><div id=\"div2\"><span id=\"span1\" class=\"c1\">one</span></div><div id=\"div3\">three changed</div></div>",
+                    rootTag.toHtmlString());
+
+            // moving a rendered tag to another parent
+            div3.appendChild(span1);
+            assertEquals(
+                    "<div id=\"div1\"><div id=\"div2\"></div><div id=\"div3\">three changed<span id=\"span1\" class=\"c1\">one</span></div></div>",
+                    rootTag.toHtmlString());
+            final Id span1Id = (Id) span1.getAttributeByName(AttributeNameConstants.ID);
+            span1Id.setValue("span2");
+            assertEquals(
+                    "<div id=\"div1\"><div id=\"div2\"></div><div id=\"div3\">three changed<span id=\"span2\" class=\"c1\">one</span></div></div>",
+                    rootTag.toHtmlString());
+
+            // the removed tag becomes the root of its own hierarchy
+            final AbstractHtml div2 = TagRepository.findTagById("div2", rootTag);
+            div2.appendChild(new B(null));
+            rootTag.removeChild(div3);
+            assertEquals("<div id=\"div1\"><div id=\"div2\"><b></b></div></div>", rootTag.toHtmlString());
+            assertEquals("<div id=\"div3\">three changed<span id=\"span2\" class=\"c1\">one</span></div>",
+                    div3.toHtmlString());
+            span1.removeAttributes(AttributeNameConstants.CLASS);
+            assertEquals("<div id=\"div3\">three changed<span id=\"span2\">one</span></div>", div3.toHtmlString());
+
+            // bigger than a chunk when encoded
+            rootTag.appendChild(new NoTag(null, "\u00fc".repeat(5000)));
+            final ByteArrayOutputStream os = new ByteArrayOutputStream();
+            final int written = rootTag.toOutputStream(os, true);
+            assertEquals(rootTag.toHtmlString(), os.toString(StandardCharsets.UTF_8));
+            assertEquals(os.size(), written);
+        } finally {
+            WffConfiguration.setRenderCacheEnabled(false);
+        }
+    }
+
+    @Test
+    public void testRenderCacheRebuild() throws IOException {
+        WffConfiguration.setRenderCacheEnabled(true);
+        try {
+            final AtomicInteger rebuildCount = new AtomicInteger();
+            final Div rootTag = new Div(null, new Id("div1")) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void beforePrintStructure() {
+                    rebuildCount.incrementAndGet();
+                }
+            };
+            final Span span = new Span(rootTag, new Id("span1"));
+            final String expected = "<div id=\"div1\"><span id=\"span1\"></span></div>";
+
+            assertEquals(expected, rootTag.toHtmlString());
+            assertEquals(1, rebuildCount.get());
+
+            // the cached render is returned without rebuilding
+            assertEquals(expected, rootTag.toHtmlString());
+            assertEquals(expected, rootTag.toHtmlString(false));
+            final ByteArrayOutputStream os = new ByteArrayOutputStream();
+            rootTag.toOutputStream(os, false);
+            assertEquals(expected, os.toString(StandardCharsets.UTF_8));
+            assertEquals(1, rebuildCount.get());
+
+            // rebuild true is honoured even if nothing is modified
+            assertEquals(expected, rootTag.toHtmlString(true));
+            assertEquals(2, rebuildCount.get());
+
+            span.addAttributes(new ClassAttribute("c1"));
+            assertEquals("<div id=\"div1\"><span id=\"span1\" class=\"c1\"></span></div>", rootTag.toHtmlString());
+            assertEquals(3, rebuildCount.get());
+
+            // a detached tag is rendered without the render cache
+            rootTag.removeChild(span);
+            assertEquals("<span id=\"span1\" class=\"c1\"></span>", span.toHtmlString());
+            span.removeAttributes(AttributeNameConstants.CLASS);
+            assertEquals("<span id=\"span1\"></span>", span.toHtmlString());
+            assertEquals("<div id=\"div1\"></div>", rootTag.toHtmlString());
+        } finally {
+            WffConfiguration.setRenderCacheEnabled(false);
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testBeforeWritePrintStructureToOutputStreamModifyingTags() throws IOException {
+        WffConfiguration.setRenderCacheEnabled(true);
+        try {
+            final AtomicInteger invokedCount = new AtomicInteger();
+            final Div rootTag = new Div(null, new Id("div1")) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void beforeWritePrintStructureToOutputStream() {
+                    if (invokedCount.incrementAndGet() == 2) {
+                        new Span(this);
+                    }
+                }
+            };
+            assertEquals("<div id=\"div1\"></div>", rootTag.toHtmlString());
+
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            rootTag.toOutputStream(os, false);
+            assertEquals("<div id=\"div1\"></div>", os.toString(StandardCharsets.UTF_8));
+            assertEquals(1, invokedCount.get());
+
+            // the tags are modified by the overridden method while the render cache is
+            // valid
+            os = new ByteArrayOutputStream();
+            rootTag.toOutputStream(os, false);
+            assertEquals("<div id=\"div1\"><span></span></div>", os.toString(StandardCharsets.UTF_8));
+            assertEquals(2, invokedCount.get());
+        } finally {
+            WffConfiguration.setRenderCacheEnabled(false);
+        }
+    }
+
+    @Test
+    public void testToOutputStreamFlushOnWrite() throws IOException {
+        WffConfiguration.setRenderCacheEnabled(true);
+        try {
+            final Div rootTag = new Div(null, new Id("div1")).give(div -> new Span(div));
+            final AtomicInteger flushCount = new AtomicInteger();
+            final ByteArrayOutputStream os = new ByteArrayOutputStream() {
+                @Override
+                public void flush() throws IOException {
+                    flushCount.incrementAndGet();
+                    super.flush();
+                }
+            };
+            rootTag.toOutputStream(os, false, true);
+            assertEquals("<div id=\"div1\"><span></span></div>", os.toString(StandardCharsets.UTF_8));
+            // flushed on each opening and closing tag even with the render cache
+            assertEquals(4, flushCount.get());
+        } finally {
+            WffConfiguration.setRenderCacheEnabled(false);
+        }
+    }
+
+    @Test
+    public void testOptimisticReadAbortedOnModification() {
+        final Div rootTag = TagLockPolicy.OPTIMISTIC.build(() -> new Div(null));
+        for (int i = 0; i < 1000; i++) {
+            new Span(rootTag);
+        }
+        final AbstractHtml5SharedObject sharedObject = rootTag.getSharedObject();
+        final long stamp = AbstractHtml.tryOptimisticRead(sharedObject);
+        assertNotEquals(0L, stamp);
+
+        final AtomicInteger visitedCount = new AtomicInteger();
+        try {
+            AbstractHtml.applyInOptimisticRead(sharedObject, stamp, () -> {
+                AbstractHtml.loopThroughAllNestedChildren(child -> {
+                    if (visitedCount.incrementAndGet() == 10) {
+                        rootTag.appendChild(new B(null));
+                    }
+                    return true;
+                }, true, rootTag);
+                return null;
+            });
+            fail("the optimistic read should be aborted");
+        } catch (final RuntimeException e) {
+            // the loop is aborted on the first validation after the modification
+            assertTrue(visitedCount.get() < 1000);
+        }
+        assertFalse(AbstractHtml.validateOptimisticRead(sharedObject, stamp));
+    }
+
+    @Test
+    public void testReadOptimisticallyRethrowsReaderFailure() {
+        final Div rootTag = TagLockPolicy.OPTIMISTIC.build(() -> new Div(null));
+        new Span(rootTag);
+
+        // not caused by a concurrent modification so it is not read again
+        final AtomicInteger callCount = new AtomicInteger();
+        try {
+            AbstractHtmlRepository.readOptimistically(false, tagIndex -> {
+                callCount.incrementAndGet();
+                throw new IllegalStateException("reader failure");
+            }, rootTag);
+            fail("the failure of the reader should be thrown");
+        } catch (final IllegalStateException e) {
+            assertEquals("reader failure", e.getMessage());
+        }
+        assertEquals(1, callCount.get());
+
+        // the tags are not modified so it is a real failure of the reader
+        callCount.set(0);
+        try {
+            AbstractHtmlRepository.readOptimistically(false, tagIndex -> {
+                callCount.incrementAndGet();
+                throw new NullPointerException("reader failure");
+            }, rootTag);
+            fail("the failure of the reader should be thrown");
+        } catch (final NullPointerException e) {
+            assertEquals("reader failure", e.getMessage());
+        }
+        assertEquals(1, callCount.get());
+
+        // the tags are modified so it is read again under the lock
+        callCount.set(0);
+        final Object result = AbstractHtmlRepository.readOptimistically(false, tagIndex -> {
+            if (callCount.incrementAndGet() == 1) {
+                rootTag.appendChild(new B(null));
+                throw new NullPointerException("concurrently modified");
+            }
+            return rootTag.getChildrenSize();
+        }, rootTag);
+        assertEquals(2, callCount.get());
+        assertEquals(2, result);
+
+        // a parallel reader is called only under the lock, so a writer waits
+        callCount.set(0);
+        final Thread writer = new Thread(() -> rootTag.appendChild(new B(null)));
+        AbstractHtmlRepository.readOptimistically(true, tagIndex -> {
+            callCount.incrementAndGet();
+            writer.start();
+            try {
+                writer.join(200);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertTrue("the writer is not blocked by the read lock", writer.isAlive());
+            return null;
+        }, rootTag);
+        assertEquals(1, callCount.get());
+    }
+
+    private static ByteArrayOutputStream modifyingOutputStream(final AbstractHtml tag) {
+        return new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(final byte[] b, final int off, final int len) {
+                super.write(b, off, len);
+                // the tag is modified by another thread while writing, it should not
+                // wait for the writing to be finished
+                final Thread modifier = new Thread(() -> tag.appendChild(new B(null)));
+                modifier.start();
+                try {
+                    modifier.join(10000);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                assertFalse("the modification is blocked by the writing", modifier.isAlive());
+            }
+        };
+    }
+
+    @Test
+    public void testToOutputStreamDoesNotBlockModifications() throws IOException {
+        final Div rootTag = new Div(null, new Id("div1")).give(div1 -> {
+            new Span(div1, new Id("span1")).give(TagContent::text, "one");
+        });
+        final Div notRootTag = new Div(rootTag, new Id("div2"));
+
+        for (final boolean big : new boolean[] { false, true }) {
+            for (final AbstractHtml tag : new AbstractHtml[] { rootTag, notRootTag }) {
+                final String expected = tag.toHtmlString();
+                final ByteArrayOutputStream os = modifyingOutputStream(tag);
+                final int written = big ? tag.toBigOutputStream(os) : tag.toOutputStream(os);
+                // the html of the snapshot taken before the modification
+                assertEquals(expected, os.toString(StandardCharsets.UTF_8));
+                assertEquals(os.size(), written);
+                assertTrue(tag.toHtmlString().endsWith("<b></b></div>"));
+            }
+        }
+    }
+
 }
@@ -16,7 +16,10 @@
 package com.webfirmframework.wffweb.tag.html.attribute.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.lang.reflect.Field;
@@ -28,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.webfirmframework.wffweb.tag.html.TagNameConstants;
 import com.webfirmframework.wffweb.tag.html.core.TagRegistry;
@@ -40,6 +44,7 @@ import com.webfirmframework.wffweb.tag.html.attribute.AttributeNameConstants;
 import com.webfirmframework.wffweb.tag.html.attribute.InternalAttrNameConstants;
 import com.webfirmframework.wffweb.tag.html.attribute.event.EventAttribute;
 import com.webfirmframework.wffweb.tag.html.attribute.global.Style;
+import com.webfirmframework.wffweb.tag.html.attributewff.CustomAttribute;
 import com.webfirmframework.wffweb.util.WffBinaryMessageUtil;
 
 @FixMethodOrder(MethodSorters.NAME_ASCENDING)
@@ -279,5 +284,70 @@ public class AttributeRegistryTest {
         }
     }
 
+    @Test
+    public void testGetNewAttributeInstanceByAttrName() {
+        for (PreIndexedAttributeName each : PreIndexedAttributeName.values()) {
+            final AbstractAttribute attr = AttributeRegistry.getNewAttributeInstanceOrNullIfFailed(each.attrName(),
+                    "1");
+            if (attr != null) {
+                assertEquals(each.attrName(), attr.getAttributeName());
+            }
+            final AbstractAttribute attrWithoutValue = AttributeRegistry
+                    .getNewAttributeInstanceOrNullIfFailed(each.attrName(), null);
+            if (attrWithoutValue != null) {
+                assertEquals(each.attrName(), attrWithoutValue.getAttributeName());
+            }
+        }
+        assertNull(AttributeRegistry.getNewAttributeInstanceOrNullIfFailed(AttributeNameConstants.LOOP, "1"));
+    }
+
+    @Test
+    public void testGetNewAttributeInstanceWithoutValue() {
+        for (final Entry<String, Class<?>> entry : AttributeRegistry.getAttributeClassByAttrName().entrySet()) {
+            boolean hasNoArgConstructor;
+            try {
+                entry.getValue().getConstructor();
+                hasNoArgConstructor = true;
+            } catch (final NoSuchMethodException e) {
+                hasNoArgConstructor = false;
+            }
+            final AbstractAttribute attr = AttributeRegistry.getNewAttributeInstanceOrNullIfFailed(entry.getKey(),
+                    null);
+            assertEquals(entry.getKey(), hasNoArgConstructor, attr != null);
+            try {
+                AttributeRegistry.getNewAttributeInstance(entry.getKey(), null);
+                assertTrue(entry.getKey(), hasNoArgConstructor);
+            } catch (final InvalidValueException e) {
+                assertFalse(entry.getKey(), hasNoArgConstructor);
+            }
+        }
+        assertNull(AttributeRegistry.getNewAttributeInstanceOrNullIfFailed(AttributeNameConstants.FOR, null));
+    }
+
+    @Test
+    public void testRegister() {
+        final String attrName = "data-registered-attr";
+        final AtomicInteger created = new AtomicInteger();
+        AttributeRegistry.register(attrName, value -> {
+            created.incrementAndGet();
+            return new CustomAttribute(attrName, value);
+        });
+        try {
+            final AbstractAttribute attr = AttributeRegistry.getNewAttributeInstance(attrName, "val");
+            assertTrue(attr instanceof CustomAttribute);
+            assertEquals("val", attr.getAttributeValue());
+            assertNotNull(AttributeRegistry.getNewAttributeInstanceOrNullIfFailed(attrName, null));
+            assertEquals(2, created.get());
+        } finally {
+            AttributeRegistry.register(attrName, null);
+        }
+        assertNull(AttributeRegistry.getNewAttributeInstanceOrNullIfFailed(attrName, "val"));
+        assertEquals(2, created.get());
+    }
+
+    @Test(expected = InvalidValueException.class)
+    public void testRegisterBuiltInAttrName() {
+        AttributeRegistry.register(AttributeNameConstants.ID, value -> new CustomAttribute("id", value));
+    }
 
 }
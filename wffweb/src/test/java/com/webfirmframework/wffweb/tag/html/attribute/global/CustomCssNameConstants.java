@@ -25,6 +25,8 @@ public class CustomCssNameConstants {
 
     public static final String CUSTOM_ALIGN_SELF = "custom-align-self";
 
+    public static final String CUSTOM_WIDTH = "custom-width";
+
     private CustomCssNameConstants() {
         throw new AssertionError();
     }
@@ -0,0 +1,32 @@
+/*
+* Copyright since 2014 Web Firm Framework
+* 
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+* 
+*     http://www.apache.org/licenses/LICENSE-2.0
+* 
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+* @author WFF
+*/
+package com.webfirmframework.wffweb.tag.html.attribute.global;
+
+import java.io.Serial;
+
+import com.webfirmframework.wffweb.css.WidthCss;
+
+public class CustomWidth extends WidthCss {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String getCssName() {
+        return CustomCssNameConstants.CUSTOM_WIDTH;
+    }
+}
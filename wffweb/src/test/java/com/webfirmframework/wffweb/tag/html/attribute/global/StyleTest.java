@@ -25,8 +25,11 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -44,7 +47,9 @@ import com.webfirmframework.wffweb.csswff.CustomCssProperty;
 import com.webfirmframework.wffweb.tag.html.attribute.AttributeNameConstants;
 import com.webfirmframework.wffweb.tag.html.attribute.core.AttributeRegistry;
 import com.webfirmframework.wffweb.tag.html.attribute.core.IndexedAttributeName;
+import com.webfirmframework.wffweb.tag.html.attribute.listener.AttributeValueChangeListener.ValueMapChange;
 import com.webfirmframework.wffweb.tag.html.html5.attribute.global.DataWffId;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Div;
 
 /**
  * 
@@ -606,6 +611,28 @@ public class StyleTest {
         System.out.println("testAddSupportForNewCustomCssClass succes");
     }
     
+    @Test
+    public void testAddSupportForNewCustomCssClassWithCreator() {
+        final AtomicInteger created = new AtomicInteger();
+        Style.addSupportForNewCustomCssClass(CustomCssNameConstants.CUSTOM_WIDTH, CustomWidth.class, () -> {
+            created.incrementAndGet();
+            return new CustomWidth();
+        });
+        try {
+            Style style = new Style("custom-width:10px;width:20px");
+            CssProperty customWidth = style.getCssProperty(CustomCssNameConstants.CUSTOM_WIDTH);
+            assertTrue(customWidth instanceof CustomWidth);
+            assertEquals("10px", customWidth.getCssValue());
+            assertTrue(style.getCssProperty(CssNameConstants.WIDTH) instanceof WidthCss);
+            assertEquals(1, created.get());
+        } finally {
+            Style.removeSupportOfCssClass(CustomWidth.class);
+        }
+        Style style = new Style("custom-width:10px");
+        assertFalse(style.getCssProperty(CustomCssNameConstants.CUSTOM_WIDTH) instanceof CustomWidth);
+        assertEquals(1, created.get());
+    }
+
     @Test
     public void testRemoveSupportOfCssClass() {
         Style style = new Style();
@@ -703,4 +730,29 @@ public class StyleTest {
         }
     }
 
+    @Test
+    public void testAddCssPropertyStringUpdatesCssProperty() {
+        final Style style = new Style("width:10px;");
+        assertEquals("10px", style.getCssProperty("width").getCssValue());
+        style.addCssProperty("width", "20px");
+        assertEquals("width:20px;", style.getAttributeValue());
+        assertEquals("20px", style.getCssProperty("width").getCssValue());
+        assertTrue(style.contains(style.getCssProperty("width")));
+        assertEquals(1, style.getCssPropertiesSize());
+    }
+
+    @Test
+    public void testValueMapChangeInValueChangeListener() {
+        final Style style = new Style();
+        new Div(null, style);
+        final List<ValueMapChange> valueMapChanges = new ArrayList<>();
+        style.addValueChangeListener(event -> valueMapChanges.add(event.valueMapChange()));
+
+        style.addCssProperty("width", "20px");
+        style.removeCssProperty("width");
+
+        assertEquals(List.of(new ValueMapChange("width", "20px"), new ValueMapChange("width", null)),
+                valueMapChanges);
+    }
+
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.tag.html.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.webfirmframework.wffweb.settings.WffConfiguration;
+import com.webfirmframework.wffweb.tag.html.AbstractHtml;
+import com.webfirmframework.wffweb.tag.html.TagNameConstants;
+import com.webfirmframework.wffweb.tag.html.attribute.global.ClassAttribute;
+import com.webfirmframework.wffweb.tag.html.attribute.global.Id;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Div;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Span;
+import com.webfirmframework.wffweb.tag.repository.TagRepository;
+
+public class TagLockPolicyTest {
+
+    @Test
+    public void testBuild() {
+        assertEquals(TagLockPolicy.FAIR, new Div(null).getSharedObject().getLockPolicy());
+
+        final Div[] innerDiv = { null };
+        final Div div = TagLockPolicy.OPTIMISTIC.build(() -> {
+            innerDiv[0] = TagLockPolicy.NON_FAIR.build(() -> new Div(null));
+            return new Div(null);
+        });
+        assertEquals(TagLockPolicy.OPTIMISTIC, div.getSharedObject().getLockPolicy());
+        assertEquals(TagLockPolicy.NON_FAIR, innerDiv[0].getSharedObject().getLockPolicy());
+        assertEquals(TagLockPolicy.FAIR, new Div(null).getSharedObject().getLockPolicy());
+
+        // the appended tag uses the lock of its root tag
+        final Span span = new Span(null);
+        div.appendChild(span);
+        assertEquals(TagLockPolicy.OPTIMISTIC, span.getSharedObject().getLockPolicy());
+
+        // the detached tag keeps the lock policy of its previous root tag
+        div.removeChild(span);
+        assertEquals(TagLockPolicy.OPTIMISTIC, span.getSharedObject().getLockPolicy());
+        final Span span2 = new Span(div);
+        div.removeAllChildren();
+        assertEquals(TagLockPolicy.OPTIMISTIC, span2.getSharedObject().getLockPolicy());
+
+        try {
+            WffConfiguration.setTagLockPolicy(TagLockPolicy.NON_FAIR);
+            assertEquals(TagLockPolicy.NON_FAIR, new Div(null).getSharedObject().getLockPolicy());
+            assertEquals(TagLockPolicy.FAIR,
+                    TagLockPolicy.FAIR.build(() -> new Div(null)).getSharedObject().getLockPolicy());
+        } finally {
+            WffConfiguration.setTagLockPolicy(null);
+        }
+        assertEquals(TagLockPolicy.FAIR, WffConfiguration.getTagLockPolicy());
+    }
+
+    @Test
+    public void testOptimisticFinders() throws InterruptedException {
+        final Div root = TagLockPolicy.OPTIMISTIC.build(() -> new Div(null, new Id("root")));
+        final Div stable = new Div(root, new Id("stable"), new ClassAttribute("stable"));
+        new Span(stable);
+
+        final Set<Throwable> errors = new HashSet<>();
+        final Thread writer = new Thread(() -> {
+            for (int i = 0; i < 20000; i++) {
+                final Div div = new Div(null, new Id("id" + i), new ClassAttribute("stable"));
+                root.appendChild(div);
+                if (i % 2 == 0) {
+                    root.removeChild(div);
+                }
+            }
+        });
+        final Thread reader = new Thread(() -> {
+            try {
+                while (writer.isAlive()) {
+                    assertSame(stable, TagRepository.findTagById("stable", root));
+                    assertSame(stable, TagRepository.findOneTagByAttribute("id", "stable", root));
+                    assertSame(root, TagRepository.findOneTagByTagName(TagNameConstants.DIV, root));
+                    assertTrue(TagRepository.findTagsByAttribute("class", "stable", root).contains(stable));
+                    assertEquals(1, TagRepository.findTagsByTagName(TagNameConstants.SPAN, root).size());
+                }
+            } catch (final Throwable e) {
+                synchronized (errors) {
+                    errors.add(e);
+                }
+            }
+        });
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+        assertTrue(errors.toString(), errors.isEmpty());
+
+        assertEquals(10001, TagRepository.findTagsByAttribute("class", "stable", root).size());
+        final AbstractHtml last = TagRepository.findTagById("id19999", root);
+        assertSame(root, last.getParent());
+        assertNull(TagRepository.findTagById("id19998", root));
+    }
+
+}
@@ -17,9 +17,16 @@ package com.webfirmframework.wffweb.tag.repository;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -39,11 +46,14 @@ import com.webfirmframework.wffweb.tag.html.TitleTag;
 import com.webfirmframework.wffweb.tag.html.attribute.AttributeNameConstants;
 import com.webfirmframework.wffweb.tag.html.attribute.Name;
 import com.webfirmframework.wffweb.tag.html.attribute.core.AbstractAttribute;
+import com.webfirmframework.wffweb.tag.html.attribute.global.ClassAttribute;
 import com.webfirmframework.wffweb.tag.html.attribute.global.Id;
+import com.webfirmframework.wffweb.tag.html.attribute.global.Style;
 import com.webfirmframework.wffweb.tag.html.formsandinputs.Form;
 import com.webfirmframework.wffweb.tag.html.formsandinputs.Input;
 import com.webfirmframework.wffweb.tag.html.formsandinputs.TextArea;
 import com.webfirmframework.wffweb.tag.html.metainfo.Head;
+import com.webfirmframework.wffweb.tag.html.model.TagLockPolicy;
 import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Div;
 import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Span;
 import com.webfirmframework.wffweb.tag.html.tables.TBody;
@@ -1299,4 +1309,245 @@ public class TagRepositoryTest {
         }
     }
 
+    @Test
+    public void testFindTagsWithTagIndex() {
+        final Div div1 = new Div(null, new Id("one"), new Name("n1"));
+        final Span span1 = new Span(null, new Name("n1"));
+        final Html html = new Html(null) {{
+            new Head(this);
+            new Body(this) {{
+                appendChild(div1);
+                appendChild(span1);
+                new Div(this, new Id("two"));
+            }};
+        }};
+
+        final BrowserPage browserPage = new BrowserPage() {
+
+            @Override
+            public String webSocketUrl() {
+                return "wss://webfirmframework/websocket";
+            }
+
+            @Override
+            public AbstractHtml render() {
+                return html;
+            }
+
+            @Override
+            protected Set<String> useTagIndexAttributeNames() {
+                return Set.of(AttributeNameConstants.NAME);
+            }
+        };
+        browserPage.toHtmlString();
+
+        final TagRepository tagRepository = browserPage.getTagRepository();
+
+        assertEquals(div1, tagRepository.findTagById("one"));
+        assertEquals(div1, TagRepository.findTagById("one", html));
+        assertEquals(Set.of(div1, span1),
+                new HashSet<>(tagRepository.findTagsByAttribute(AttributeNameConstants.NAME, "n1")));
+        assertEquals(Set.of(div1, span1),
+                new HashSet<>(TagRepository.findTagsByAttribute(AttributeNameConstants.NAME, "n1", html)));
+        assertEquals(2, tagRepository.findTagsByTagName(TagNameConstants.DIV).size());
+        assertEquals(span1, tagRepository.findOneTagByTagName(TagNameConstants.SPAN));
+
+        // attribute value change
+        ((Id) div1.getAttributeByName(AttributeNameConstants.ID)).setValue("oneChanged");
+        assertNull(tagRepository.findTagById("one"));
+        assertEquals(div1, tagRepository.findTagById("oneChanged"));
+
+        // attribute add and remove
+        span1.addAttributes(new Id("spanId"));
+        assertEquals(span1, tagRepository.findOneTagByAttribute(AttributeNameConstants.ID, "spanId"));
+        span1.removeAttributes(AttributeNameConstants.NAME);
+        assertEquals(Set.of(div1),
+                new HashSet<>(tagRepository.findTagsByAttribute(AttributeNameConstants.NAME, "n1")));
+
+        // append and remove
+        final Div nested = new Div(null, new Name("n1")) {{
+            new Span(this, new Id("nestedSpan"));
+        }};
+        div1.appendChild(nested);
+        assertEquals(Set.of(div1, nested),
+                new HashSet<>(tagRepository.findTagsByAttribute(AttributeNameConstants.NAME, "n1")));
+        assertNotNull(tagRepository.findTagById("nestedSpan"));
+        assertEquals(3, tagRepository.findTagsByTagName(TagNameConstants.DIV).size());
+
+        div1.removeChild(nested);
+        assertEquals(Set.of(div1),
+                new HashSet<>(tagRepository.findTagsByAttribute(AttributeNameConstants.NAME, "n1")));
+        assertNull(tagRepository.findTagById("nestedSpan"));
+        assertEquals(2, tagRepository.findTagsByTagName(TagNameConstants.DIV).size());
+
+        // changes in a removed tag should not be reflected
+        ((Name) nested.getAttributeByName(AttributeNameConstants.NAME)).setValue("n2");
+        assertTrue(tagRepository.findTagsByAttribute(AttributeNameConstants.NAME, "n2").isEmpty());
+
+        // replace
+        final Div replacement = new Div(null, new Id("replacement"));
+        span1.replaceWith(replacement);
+        assertNull(tagRepository.findTagById("spanId"));
+        assertEquals(replacement, tagRepository.findTagById("replacement"));
+        assertNull(tagRepository.findOneTagByTagName(TagNameConstants.SPAN));
+
+        // the attribute which is not indexed
+        div1.addAttributes(new ClassAttribute("c1"));
+        assertEquals(div1, tagRepository.findOneTagByAttribute(AttributeNameConstants.CLASS, "c1"));
+    }
+
+    @Test
+    public void testFindTagsWithTagIndexOfClassAndStyle() {
+        final Div div1 = new Div(null, new ClassAttribute("c1 c2"), new Style("color:red; width:10px"));
+        final Html html = new Html(null) {{
+            new Body(this) {{
+                appendChild(div1);
+                new Div(this, new ClassAttribute("c3"));
+            }};
+        }};
+
+        final BrowserPage browserPage = new BrowserPage() {
+
+            @Override
+            public String webSocketUrl() {
+                return "wss://webfirmframework/websocket";
+            }
+
+            @Override
+            public AbstractHtml render() {
+                return html;
+            }
+
+            @Override
+            protected Set<String> useTagIndexAttributeNames() {
+                return Set.of(AttributeNameConstants.CLASS, AttributeNameConstants.STYLE);
+            }
+        };
+        browserPage.toHtmlString();
+
+        final TagRepository tagRepository = browserPage.getTagRepository();
+
+        final String classValue = div1.getAttributeByName(AttributeNameConstants.CLASS).getAttributeValue();
+        final String styleValue = div1.getAttributeByName(AttributeNameConstants.STYLE).getAttributeValue();
+        assertEquals(div1, tagRepository.findOneTagByAttribute(AttributeNameConstants.CLASS, classValue));
+        assertEquals(div1, tagRepository.findOneTagByAttribute(AttributeNameConstants.STYLE, styleValue));
+
+        ((ClassAttribute) div1.getAttributeByName(AttributeNameConstants.CLASS)).addClassNames("c4");
+        assertNull(tagRepository.findOneTagByAttribute(AttributeNameConstants.CLASS, classValue));
+        assertEquals(div1, tagRepository.findOneTagByAttribute(AttributeNameConstants.CLASS,
+                div1.getAttributeByName(AttributeNameConstants.CLASS).getAttributeValue()));
+    }
+
+    @Test(timeout = 60000)
+    public void testFindTagByIdWithTagIndexAndOptimisticPolicyConcurrently() throws Exception {
+        final Div[] divs = new Div[200];
+        final Html html = TagLockPolicy.OPTIMISTIC.build(() -> new Html(null) {{
+            new Body(this) {{
+                for (int i = 0; i < divs.length; i++) {
+                    divs[i] = new Div(this);
+                }
+            }};
+        }});
+
+        final BrowserPage browserPage = new BrowserPage() {
+
+            @Override
+            public String webSocketUrl() {
+                return "wss://webfirmframework/websocket";
+            }
+
+            @Override
+            public AbstractHtml render() {
+                return html;
+            }
+
+            @Override
+            protected Set<String> useTagIndexAttributeNames() {
+                return Set.of(AttributeNameConstants.NAME);
+            }
+        };
+        browserPage.toHtmlString();
+        assertEquals(TagLockPolicy.OPTIMISTIC, html.getSharedObject().getLockPolicy());
+
+        final int count = 20000;
+        final AtomicBoolean written = new AtomicBoolean();
+        final ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            final List<Future<?>> futures = new ArrayList<>(5);
+            futures.add(executor.submit(() -> {
+                try {
+                    for (int i = 0; i < count; i++) {
+                        divs[i % divs.length].addAttributes(new Id("id" + i));
+                    }
+                } finally {
+                    written.set(true);
+                }
+            }));
+            for (int r = 0; r < 4; r++) {
+                futures.add(executor.submit(() -> {
+                    // the readers should not deadlock with the writer
+                    for (int i = 0; !written.get(); i = (i + 1) % count) {
+                        TagRepository.findTagById(false, "id" + i, html);
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get(50, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(divs[(count - 1) % divs.length], TagRepository.findTagById(false, "id" + (count - 1), html));
+    }
+
+    @Test(timeout = 60000)
+    public void testParallelFindWithOptimisticPolicyConcurrently() throws Exception {
+        final Div[] divs = new Div[200];
+        final Body[] body = { null };
+        final Html html = TagLockPolicy.OPTIMISTIC.build(() -> new Html(null) {{
+            body[0] = new Body(this) {{
+                for (int i = 0; i < divs.length; i++) {
+                    divs[i] = new Div(this, new Id("id" + i));
+                }
+            }};
+        }});
+        assertEquals(TagLockPolicy.OPTIMISTIC, html.getSharedObject().getLockPolicy());
+
+        final int count = 5000;
+        final AtomicBoolean written = new AtomicBoolean();
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final List<Future<?>> futures = new ArrayList<>(3);
+            futures.add(executor.submit(() -> {
+                try {
+                    for (int i = 0; i < count; i++) {
+                        final Span span = new Span(null);
+                        body[0].appendChild(span);
+                        body[0].removeChild(span);
+                        // moves the div to the end
+                        body[0].appendChild(divs[i % divs.length]);
+                    }
+                } finally {
+                    written.set(true);
+                }
+            }));
+            futures.add(executor.submit(() -> {
+                while (!written.get()) {
+                    assertEquals(divs.length, TagRepository.findTagsByTagName(true, TagNameConstants.DIV, html).size());
+                }
+            }));
+            futures.add(executor.submit(() -> {
+                for (int i = 0; !written.get(); i = (i + 1) % divs.length) {
+                    assertEquals(divs[i], TagRepository.findTagById(true, "id" + i, html));
+                }
+            }));
+            for (final Future<?> future : futures) {
+                future.get(50, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(divs.length, TagRepository.findTagsByTagName(true, TagNameConstants.DIV, html).size());
+    }
+
 }
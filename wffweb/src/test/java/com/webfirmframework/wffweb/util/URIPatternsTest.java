@@ -0,0 +1,152 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.webfirmframework.wffweb.InvalidValueException;
+import com.webfirmframework.wffweb.common.URIEvent;
+import com.webfirmframework.wffweb.common.URIEventInitiator;
+
+public class URIPatternsTest {
+
+    @Test
+    public void testMatch() {
+        final URIPatterns patterns = new URIPatterns();
+        final URIPattern itemView = patterns.add("/user/items/view/{itemId}");
+        final URIPattern itemNew = patterns.add("/user/items/view/new");
+        final URIPattern itemDetails = patterns.add("/user/items/view/{itemId}/[details]");
+        final URIPattern home = patterns.add("/");
+
+        assertSame(itemView, patterns.add("/user/items/view/{itemId}"));
+        assertEquals("/user/items/view/{itemId}", itemView.getPattern());
+
+        assertEquals(List.of(itemView, itemNew), patterns.match("/user/items/view/new"));
+        assertEquals(List.of(itemView), patterns.match("/user/items/view/123?tab=1#top"));
+        assertEquals(List.of(itemDetails), patterns.match("/user/items/view/123/basic/full"));
+        assertEquals(List.of(home), patterns.match("/"));
+        assertEquals(List.of(), patterns.match("/user/items"));
+
+        assertTrue(itemView.matches("/user/items/view/123"));
+        assertFalse(itemNew.matches("/user/items/view/123"));
+        assertTrue(itemDetails.test(new URIEvent(null, "/user/items/view/1/a", URIEventInitiator.SERVER_CODE, false)));
+        assertFalse(itemDetails.test(new URIEvent("/user/items/view/1/a", null, URIEventInitiator.SERVER_CODE, false)));
+
+        // the patterns added later are also matched
+        final URIPattern items = patterns.add("/user/items");
+        assertEquals(List.of(items), patterns.match("/user/items"));
+    }
+
+    @Test
+    public void testMatchIsKeptPerThread() throws InterruptedException {
+        final URIPatterns patterns = new URIPatterns();
+        final URIPattern itemView = patterns.add("/user/items/view/{itemId}");
+        final BitSet matchedIds = patterns.matchedIds("/user/items/view/1");
+        assertTrue(matchedIds.get(itemView.id()));
+
+        // a uri matched in another thread does not replace the match of this thread
+        final Thread thread = new Thread(() -> patterns.matchedIds("/user/items"));
+        thread.start();
+        thread.join();
+        assertSame(matchedIds, patterns.matchedIds("/user/items/view/1"));
+
+        // a different uri replaces it
+        assertFalse(patterns.matchedIds("/user/items").get(itemView.id()));
+        assertNotSame(matchedIds, patterns.matchedIds("/user/items/view/1"));
+    }
+
+    @Test
+    public void testTypedVariables() {
+        final URIPatterns patterns = new URIPatterns();
+        final URIPattern intItem = patterns.add("/items/{itemId:int}");
+        final URIPattern longItem = patterns.add("/items/{itemId:long}");
+        final URIPattern anyItem = patterns.add("/items/{itemId}");
+
+        assertEquals(List.of(intItem, longItem, anyItem), patterns.match("/items/-12"));
+        assertEquals(List.of(longItem, anyItem), patterns.match("/items/12345678901"));
+        assertEquals(List.of(anyItem), patterns.match("/items/new"));
+        assertEquals(List.of(anyItem), patterns.match("/items/99999999999999999999"));
+        assertEquals(List.of(anyItem), patterns.match("/items/-"));
+
+        final ParsedURI parsedURI = intItem.parse("/items/42?x=1&x=2#top");
+        assertEquals("/items/42", parsedURI.pathname());
+        assertEquals(Map.of("itemId", "42"), parsedURI.pathParameters());
+        assertEquals(Map.of("x", List.of("1", "2")), parsedURI.queryParameters());
+        assertEquals("top", parsedURI.hash());
+
+        assertThrows(InvalidValueException.class, () -> intItem.parse("/items/new"));
+        assertThrows(InvalidValueException.class, () -> patterns.add("/items/{itemId}/{itemId:int}"));
+    }
+
+    @Test
+    public void testSameAsURIUtil() {
+        final String[] patternParts = { "", "a", "b", "{x}", "{y}", "[m]", "[n]" };
+        final String[] uriParts = { "", "a", "b", "c", "a%2Fb" };
+
+        final Random random = new Random(12);
+        final URIPatterns patterns = new URIPatterns();
+        final List<String> patternStrings = new ArrayList<>();
+        while (patternStrings.size() < 500) {
+            final int length = 1 + random.nextInt(5);
+            final List<String> parts = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                final String part = patternParts[random.nextInt(patternParts.length)];
+                if (part.length() < 2 || !parts.contains(part)) {
+                    parts.add(part);
+                }
+            }
+            final String pattern = String.join("/", parts);
+            if (!patternStrings.contains(pattern)) {
+                patternStrings.add(pattern);
+                patterns.add(pattern);
+            }
+        }
+
+        for (int count = 0; count < 1000; count++) {
+            final int length = 1 + random.nextInt(6);
+            final List<String> parts = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                parts.add(uriParts[random.nextInt(uriParts.length)]);
+            }
+            final String uri = String.join("/", parts);
+            final List<URIPattern> matched = patterns.match(uri);
+            for (final String patternString : patternStrings) {
+                final URIPattern pattern = patterns.add(patternString);
+                final boolean expected = URIUtil.patternMatches(patternString, uri);
+                assertEquals(patternString + " " + uri, expected, matched.contains(pattern));
+                assertEquals(patternString + " " + uri, expected, pattern.matches(uri));
+                if (expected && !patternString.equals(uri)) {
+                    assertEquals(patternString + " " + uri, URIUtil.parseValues(patternString, uri),
+                            pattern.parse(uri).pathParameters());
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.webfirmframework.wffweb.util.data.NameValue;
+
+public class WffBinaryMessageReaderTest {
+
+    private static NameValue[] sampleNameValues() {
+        final byte[] bigValue = new byte[300];
+        Arrays.fill(bigValue, (byte) 9);
+        return new NameValue[] {
+                new NameValue("name1".getBytes(StandardCharsets.UTF_8),
+                        new byte[][] { "value1".getBytes(StandardCharsets.UTF_8) }),
+                new NameValue("name2".getBytes(StandardCharsets.UTF_8), new byte[][] {}),
+                new NameValue("name3".getBytes(StandardCharsets.UTF_8),
+                        new byte[][] { "v1".getBytes(StandardCharsets.UTF_8), new byte[0], bigValue }) };
+    }
+
+    private static byte[] toByteArray(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static void assertNameValues(final NameValue[] expected, final WffBinaryMessageReader reader) {
+        for (final NameValue nameValue : expected) {
+            assertTrue(reader.next());
+            assertArrayEquals(nameValue.getName(), toByteArray(reader.name()));
+            assertEquals(nameValue.getValues().length, reader.valuesCount());
+            for (int i = 0; i < nameValue.getValues().length; i++) {
+                assertArrayEquals(nameValue.getValues()[i], toByteArray(reader.value(i)));
+            }
+        }
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void testReadFromSingleBuffer() {
+        final NameValue[] nameValues = sampleNameValues();
+        final byte[] message = WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
+        assertNameValues(nameValues, new WffBinaryMessageReader(ByteBuffer.wrap(message)));
+
+        // the values should be slices of the message
+        final WffBinaryMessageReader reader = new WffBinaryMessageReader(ByteBuffer.wrap(message));
+        assertTrue(reader.next());
+        assertTrue(reader.name().hasArray());
+        assertTrue(reader.name().array() == message);
+    }
+
+    @Test
+    public void testReadFromChunks() {
+        final NameValue[] nameValues = sampleNameValues();
+        final byte[] message = WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
+
+        // splits the message at each index into a heap and a direct buffer
+        for (int splitIndex = 1; splitIndex < message.length; splitIndex++) {
+            final ByteBuffer first = ByteBuffer.wrap(message, 0, splitIndex).slice();
+            final ByteBuffer second = ByteBuffer.allocateDirect(message.length - splitIndex);
+            second.put(message, splitIndex, message.length - splitIndex).flip();
+
+            assertNameValues(nameValues, new WffBinaryMessageReader(first, ByteBuffer.allocate(0), second));
+            assertEquals(0, first.position());
+            assertEquals(0, second.position());
+        }
+    }
+
+    @Test
+    public void testToNameValue() {
+        final NameValue[] nameValues = sampleNameValues();
+        final byte[] message = WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
+        final WffBinaryMessageReader reader = new WffBinaryMessageReader(ByteBuffer.wrap(message));
+        for (final NameValue expected : nameValues) {
+            assertTrue(reader.next());
+            final NameValue actual = reader.toNameValue();
+            assertArrayEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getValues().length, actual.getValues().length);
+            for (int i = 0; i < expected.getValues().length; i++) {
+                assertArrayEquals(expected.getValues()[i], actual.getValues()[i]);
+            }
+        }
+        assertFalse(reader.next());
+    }
+
+}
@@ -38,6 +38,7 @@ import org.junit.rules.TestName;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webfirmframework.wffweb.InvalidValueException;
 import com.webfirmframework.wffweb.util.data.NameValue;
 
 import de.undercouch.bson4jackson.BsonFactory;
@@ -130,6 +131,50 @@ public class WffBinaryMessageUtilTest {
         }
     }
     
+    @Test
+    public void testGetWffBinaryMessageBytesWithReservedLeadingBytes() {
+        
+        NameValue[] nameValues = {new NameValue("name1".getBytes(), new byte[][]{"value1".getBytes()}),
+                new NameValue("name2".getBytes(), new byte[][]{"value2".getBytes(), "value3".getBytes()})};
+        
+        byte[] message = WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
+        byte[] messageWithReservedBytes = WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(4, nameValues);
+        
+        assertEquals(message.length + 4, messageWithReservedBytes.length);
+        assertArrayEquals(new byte[4], Arrays.copyOf(messageWithReservedBytes, 4));
+        assertArrayEquals(message, Arrays.copyOfRange(messageWithReservedBytes, 4, messageWithReservedBytes.length));
+        
+        List<NameValue> actualNameValues = WffBinaryMessageUtil.VERSION_1.parse(messageWithReservedBytes, 4, message.length);
+        assertEquals(2, actualNameValues.size());
+        assertArrayEquals("value3".getBytes(), actualNameValues.get(1).getValues()[1]);
+    }
+    
+    @Test
+    public void testGetWffBinaryMessageBytesWithAllocator() {
+        
+        NameValue[] nameValues = {new NameValue("name1".getBytes(), new byte[][]{"value1".getBytes()}),
+                new NameValue("name2".getBytes(), new byte[][]{})};
+        
+        byte[] message = WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
+        
+        // a dirty array larger than the message to simulate a reused buffer
+        byte[] array = new byte[message.length + 16];
+        Arrays.fill(array, (byte) 7);
+        ByteBuffer buffer = WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(4,
+                length -> ByteBuffer.wrap(array, 0, length).slice(), nameValues);
+        
+        assertTrue(buffer.array() == array);
+        assertEquals(message.length + 4, buffer.capacity());
+        assertArrayEquals(new byte[4], Arrays.copyOf(array, 4));
+        assertArrayEquals(message, Arrays.copyOfRange(array, 4, buffer.capacity()));
+    }
+    
+    @Test(expected = InvalidValueException.class)
+    public void testGetWffBinaryMessageBytesWithInvalidAllocator() {
+        WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(0, length -> ByteBuffer.allocate(length + 1),
+                new NameValue("name1".getBytes(), new byte[][]{"value1".getBytes()}));
+    }
+    
     @Test
     public void testParse3() {
         
@@ -17,15 +17,20 @@ package com.webfirmframework.wffweb.wffbm.data;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import org.junit.Test;
 
 import com.webfirmframework.wffweb.InvalidValueException;
+import com.webfirmframework.wffweb.WffRuntimeException;
 
 public class WffBMArrayTest {
 
@@ -258,4 +263,63 @@ public class WffBMArrayTest {
         assertFalse(wffBMAry.similar(wffBMAryCopy));
     }
 
+    @Test
+    public void testFirstAndLastMethods() {
+        final WffBMArray wffBMAry = new WffBMArray(BMValueType.STRING);
+        wffBMAry.add("two");
+        wffBMAry.addFirst("one");
+        wffBMAry.addLast("three");
+        assertEquals("one", wffBMAry.getFirst());
+        assertEquals("three", wffBMAry.getLast());
+        assertEquals("one", wffBMAry.removeFirst());
+        assertEquals("three", wffBMAry.removeLast());
+        assertEquals("two", wffBMAry.getValueAsString(0));
+        wffBMAry.clear();
+        assertThrows(NoSuchElementException.class, wffBMAry::getFirst);
+        assertThrows(NoSuchElementException.class, wffBMAry::removeLast);
+
+        final WffBMArray numberAry = new WffBMArray(BMValueType.NUMBER);
+        numberAry.addNumberLast(2);
+        numberAry.addNumberFirst(1.5F);
+        assertEquals(1.5D, numberAry.getValueAsDouble(0), 0);
+        assertEquals(2D, numberAry.getValueAsDouble(1), 0);
+    }
+
+    @Test
+    public void testDequeMethods() {
+        final WffBMArray wffBMAry = new WffBMArray(BMValueType.STRING);
+        assertNull(wffBMAry.peek());
+        assertNull(wffBMAry.poll());
+        assertNull(wffBMAry.pollLast());
+        assertThrows(NoSuchElementException.class, wffBMAry::pop);
+        assertThrows(NoSuchElementException.class, wffBMAry::element);
+
+        assertTrue(wffBMAry.offer("two"));
+        assertTrue(wffBMAry.offerFirst("one"));
+        assertTrue(wffBMAry.offerLast("three"));
+        wffBMAry.push("zero");
+        assertEquals("zero", wffBMAry.peek());
+        assertEquals("three", wffBMAry.peekLast());
+        assertEquals("zero", wffBMAry.pop());
+        assertEquals("one", wffBMAry.element());
+
+        final Iterator<Object> descendingIterator = wffBMAry.descendingIterator();
+        assertEquals("three", descendingIterator.next());
+        assertEquals("two", descendingIterator.next());
+        assertEquals("one", descendingIterator.next());
+        assertFalse(descendingIterator.hasNext());
+
+        wffBMAry.add("one");
+        assertTrue(wffBMAry.removeLastOccurrence("one"));
+        assertEquals(3, wffBMAry.size());
+        assertTrue(wffBMAry.removeFirstOccurrence("two"));
+        assertFalse(wffBMAry.removeFirstOccurrence("two"));
+        assertEquals("one", wffBMAry.poll());
+        assertEquals("three", wffBMAry.pollLast());
+        assertTrue(wffBMAry.isEmpty());
+
+        final WffBMNumberArray<Integer> numberAry = new WffBMNumberArray<>();
+        assertThrows(WffRuntimeException.class, () -> numberAry.push("one"));
+    }
+
 }
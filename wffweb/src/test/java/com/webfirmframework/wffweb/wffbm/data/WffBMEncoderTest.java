@@ -0,0 +1,211 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.wffbm.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.junit.Test;
+
+import com.webfirmframework.wffweb.WffRuntimeException;
+import com.webfirmframework.wffweb.util.WffBinaryMessageUtil;
+import com.webfirmframework.wffweb.util.data.NameValue;
+
+public class WffBMEncoderTest {
+
+    /**
+     * builds the bytes by composing the bytes of each nested object as
+     * NameValues.
+     */
+    private static byte[] composedBytes(final WffBMObject object, final boolean outer) {
+        final List<NameValue> nameValues = new ArrayList<>();
+        if (outer) {
+            final NameValue typeNameValue = new NameValue();
+            typeNameValue.setName(BMType.OBJECT.getType());
+            nameValues.add(typeNameValue);
+        }
+        for (final Entry<String, ValueValueType> entry : object.entrySet()) {
+            final NameValue nameValue = new NameValue();
+            nameValue.setName(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            final byte valueType = entry.getValue().getValueTypeByte();
+            nameValue.setValues(new byte[] { valueType }, composedValueBytes(valueType, entry.getValue().getValue()));
+            nameValues.add(nameValue);
+        }
+        return WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
+    }
+
+    private static byte[] composedBytes(final WffBMArray array, final boolean outer) {
+        final List<NameValue> nameValues = new ArrayList<>();
+        if (outer) {
+            final NameValue typeNameValue = new NameValue();
+            typeNameValue.setName(BMType.ARRAY.getType());
+            nameValues.add(typeNameValue);
+        }
+        final byte valueType = array.getValueType().getType();
+        final byte[][] values = new byte[array.size()][];
+        int i = 0;
+        for (final Object value : array) {
+            values[i++] = composedValueBytes(valueType, value);
+        }
+        nameValues.add(new NameValue(new byte[] { valueType }, values));
+        return WffBinaryMessageUtil.VERSION_1.getWffBinaryMessageBytes(nameValues);
+    }
+
+    private static byte[] composedValueBytes(final byte valueType, final Object value) {
+        return switch (BMValueType.getInstanceByType(valueType)) {
+        case STRING, REG_EXP, FUNCTION -> ((String) value).getBytes(StandardCharsets.UTF_8);
+        case NUMBER -> WffBinaryMessageUtil.getOptimizedBytesFromDouble(((Number) value).doubleValue());
+        case UNDEFINED, NULL -> new byte[0];
+        case BOOLEAN -> new byte[] { (byte) (((Boolean) value) ? 1 : 0) };
+        case BM_OBJECT -> composedBytes((WffBMObject) value, false);
+        case BM_ARRAY -> composedBytes((WffBMArray) value, false);
+        case BM_BYTE_ARRAY -> ((WffBMByteArray) value).build(false);
+        case INTERNAL_BYTE -> throw new AssertionError();
+        };
+    }
+
+    private static String repeat(final String s, final int length) {
+        final StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            builder.append(s);
+        }
+        return builder.substring(0, length);
+    }
+
+    private static WffBMByteArray byteArray(final int length) {
+        final WffBMByteArray byteArray = new WffBMByteArray();
+        for (int i = 0; i < length; i++) {
+            byteArray.write(i);
+        }
+        return byteArray;
+    }
+
+    private static WffBMObject sampleObject(final int nestedStringLength) {
+        final WffBMObject object = new WffBMObject();
+        object.put("string", BMValueType.STRING, "こんにちは WFFWEB 😀");
+        object.put("unpairedSurrogate", BMValueType.STRING, "a\uD83Db\uDE00");
+        object.put("regex", BMValueType.REG_EXP, "^[a-z]+$");
+        object.put("function", BMValueType.FUNCTION, "function(a) { return a; }");
+        object.put("number", BMValueType.NUMBER, 14.01);
+        object.put("zero", BMValueType.NUMBER, 0);
+        object.put("negative", BMValueType.NUMBER, -1401L);
+        object.put("null", BMValueType.NULL, null);
+        object.put("undefined", BMValueType.UNDEFINED, null);
+        object.put("true", BMValueType.BOOLEAN, true);
+        object.put("false", BMValueType.BOOLEAN, false);
+        object.put("emptyObject", BMValueType.BM_OBJECT, new WffBMObject());
+        object.put("emptyArray", BMValueType.BM_ARRAY, new WffBMArray(BMValueType.STRING));
+        object.put("byteArray", BMValueType.BM_BYTE_ARRAY, byteArray(300));
+        object.put("emptyByteArray", BMValueType.BM_BYTE_ARRAY, new WffBMByteArray());
+        object.put(repeat("ключ", 300), BMValueType.STRING, "long key");
+
+        final WffBMObject nested = new WffBMObject();
+        nested.put("long", BMValueType.STRING, repeat("xé世", nestedStringLength));
+        nested.put("byteArray", BMValueType.BM_BYTE_ARRAY, byteArray(nestedStringLength));
+
+        final WffBMArray objects = new WffBMArray(BMValueType.BM_OBJECT);
+        objects.add(nested);
+        objects.add(new WffBMObject());
+
+        final WffBMArray strings = new WffBMArray(BMValueType.STRING);
+        strings.add("a");
+        strings.add("");
+        strings.add(repeat("b", 260));
+        final WffBMArray arrays = new WffBMArray(BMValueType.BM_ARRAY);
+        arrays.add(strings);
+        final WffBMNumberArray<Number> numbers = new WffBMNumberArray<>();
+        numbers.add(1);
+        numbers.add(-2.5);
+        numbers.add(Double.MAX_VALUE);
+        arrays.add(numbers);
+        final WffBMArray booleans = new WffBMArray(BMValueType.BOOLEAN);
+        booleans.add(true);
+        booleans.add(false);
+        arrays.add(booleans);
+        final WffBMArray nulls = new WffBMArray(BMValueType.NULL);
+        nulls.add(null);
+        nulls.add(null);
+        arrays.add(nulls);
+        final WffBMArray byteArrays = new WffBMArray(BMValueType.BM_BYTE_ARRAY);
+        byteArrays.add(byteArray(3));
+        byteArrays.add(new WffBMByteArray());
+        arrays.add(byteArrays);
+
+        object.put("objects", BMValueType.BM_ARRAY, objects);
+        object.put("arrays", BMValueType.BM_ARRAY, arrays);
+        object.put("nested", BMValueType.BM_OBJECT, nested);
+        return object;
+    }
+
+    private static byte[] writtenBytes(final WffBMData data, final boolean outer) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        data.writeBytes(out, outer);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testObjectBytesSameAsComposedBytes() throws IOException {
+        // the nested lengths need 1, 2 and 3 bytes
+        for (final int nestedStringLength : new int[] { 10, 1000, 30000 }) {
+            final WffBMObject object = sampleObject(nestedStringLength);
+            for (final boolean outer : new boolean[] { true, false }) {
+                final byte[] expected = composedBytes(object, outer);
+                assertArrayEquals(expected, object.buildBytes(outer));
+                assertArrayEquals(expected, writtenBytes(object, outer));
+            }
+        }
+    }
+
+    @Test
+    public void testArrayBytesSameAsComposedBytes() throws IOException {
+        final WffBMObject object = sampleObject(10000);
+        final WffBMArray objects = new WffBMArray(BMValueType.BM_OBJECT);
+        objects.add(object);
+        objects.add(sampleObject(5));
+
+        for (final WffBMArray array : new WffBMArray[] { objects, (WffBMArray) object.getValue("arrays"),
+                new WffBMArray(BMValueType.NUMBER), new WffBMArray(BMValueType.UNDEFINED) }) {
+            for (final boolean outer : new boolean[] { true, false }) {
+                final byte[] expected = composedBytes(array, outer);
+                assertArrayEquals(expected, array.buildBytes(outer));
+                assertArrayEquals(expected, writtenBytes(array, outer));
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyObjectBytes() throws IOException {
+        final WffBMObject object = new WffBMObject();
+        assertArrayEquals(composedBytes(object, true), object.buildBytes(true));
+        assertArrayEquals(composedBytes(object, false), object.buildBytes(false));
+        assertEquals(2, writtenBytes(object, false).length);
+    }
+
+    @Test(expected = WffRuntimeException.class)
+    public void testInternalByteValueType() {
+        final WffBMObject object = new WffBMObject();
+        object.put("byte", BMValueType.INTERNAL_BYTE, (byte) 1);
+        object.buildBytes(true);
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright since 2014 Web Firm Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webfirmframework.wffweb.wffbm.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.webfirmframework.wffweb.WffRuntimeException;
+
+public class WffBMPrimitiveNumberArrayTest {
+
+    private static WffBMNumberArray<Number> numberArray(final double... values) {
+        final WffBMNumberArray<Number> numberArray = new WffBMNumberArray<>();
+        for (final double value : values) {
+            numberArray.add(value);
+        }
+        return numberArray;
+    }
+
+    @Test
+    public void testBytesSameAsNumberArray() throws IOException {
+        for (final int count : new int[] { 0, 1, 30, 1000, 10000 }) {
+            final double[] values = new double[count];
+            final long[] longValues = new long[count];
+            final int[] intValues = new int[count];
+            for (int i = 0; i < count; i++) {
+                intValues[i] = i % 3 == 0 ? -i : i;
+                longValues[i] = intValues[i];
+                values[i] = i % 2 == 0 ? intValues[i] : intValues[i] / 7.0;
+            }
+
+            final WffBMNumberArray<Number> expected = numberArray(values);
+            final WffBMDoubleArray doubleArray = new WffBMDoubleArray(values);
+            for (final boolean outer : new boolean[] { true, false }) {
+                assertArrayEquals(expected.buildBytes(outer), doubleArray.buildBytes(outer));
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                doubleArray.writeBytes(out, outer);
+                assertArrayEquals(expected.buildBytes(outer), out.toByteArray());
+            }
+
+            final WffBMNumberArray<Number> expectedLongs = numberArray(
+                    Arrays.stream(longValues).asDoubleStream().toArray());
+            assertArrayEquals(expectedLongs.buildBytes(true), new WffBMLongArray(longValues).buildBytes(true));
+            assertArrayEquals(expectedLongs.buildBytes(false), new WffBMIntArray(intValues).buildBytes(false));
+        }
+    }
+
+    @Test
+    public void testDecode() {
+        final double[] values = { 0, -0.0, 1, -1, 0.1, Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN,
+                Double.NEGATIVE_INFINITY };
+        final WffBMNumberArray<Number> numberArray = numberArray(values);
+
+        assertArrayEquals(values, new WffBMDoubleArray(numberArray.buildBytes(true)).toDoubleArray(), 0);
+        assertArrayEquals(values, new WffBMDoubleArray(numberArray.buildBytes(false), false).toDoubleArray(), 0);
+        assertEquals(0, new WffBMDoubleArray(new byte[0], false).size());
+        assertEquals(0, new WffBMDoubleArray(new WffBMDoubleArray().buildBytes(true)).size());
+
+        final long[] longValues = { 0, 1, -1, 1L << 52, -(1L << 40) };
+        assertArrayEquals(longValues,
+                new WffBMLongArray(new WffBMLongArray(longValues).buildBytes(true)).toLongArray());
+        final int[] intValues = { 0, 1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE };
+        assertArrayEquals(intValues,
+                new WffBMIntArray(new WffBMIntArray(intValues).buildBytes(false), false).toIntArray());
+
+        // the values are the same as the values decoded by WffBMArray
+        final WffBMArray decoded = new WffBMArray(new WffBMDoubleArray(values).buildBytes(true));
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], (Double) decoded.get(i), 0);
+        }
+    }
+
+    @Test(expected = WffRuntimeException.class)
+    public void testDecodeNotNumberArray() {
+        final WffBMArray stringArray = new WffBMArray(BMValueType.STRING);
+        stringArray.add("1");
+        new WffBMDoubleArray(stringArray.buildBytes(true));
+    }
+
+    @Test
+    public void testListMethods() {
+        final WffBMIntArray array = new WffBMIntArray(1);
+        array.addInt(1);
+        array.add(3);
+        array.add(1, 2);
+        array.addInt(0, 0);
+        array.addAllInts(4, 5);
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), array);
+        assertEquals(3, array.set(3, 30).intValue());
+        assertEquals(30, array.removeInt(3));
+        assertEquals(List.of(0, 1, 2, 4, 5), array);
+        assertTrue(array.remove(Integer.valueOf(4)));
+        assertEquals(List.of(0, 1, 2, 5), array);
+        array.subList(0, 2).clear();
+        assertEquals(List.of(2, 5), array);
+        array.clear();
+        assertTrue(array.isEmpty());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        final WffBMDoubleArray array = new WffBMDoubleArray(4);
+        array.addDouble(1);
+        array.getDouble(1);
+    }
+
+    @Test
+    public void testNestedInObject() {
+        final WffBMObject expected = new WffBMObject();
+        expected.put("series", BMValueType.BM_ARRAY, numberArray(1, 2.5, -3));
+        final WffBMArray expectedArrays = new WffBMArray(BMValueType.BM_ARRAY);
+        expectedArrays.add(numberArray(7, 8));
+        expected.put("arrays", BMValueType.BM_ARRAY, expectedArrays);
+
+        final WffBMObject actual = new WffBMObject();
+        actual.put("series", BMValueType.BM_ARRAY, new WffBMDoubleArray(1, 2.5, -3));
+        final WffBMArray actualArrays = new WffBMArray(BMValueType.BM_ARRAY);
+        actualArrays.add(new WffBMLongArray(7, 8));
+        actual.put("arrays", BMValueType.BM_ARRAY, actualArrays);
+
+        assertArrayEquals(expected.buildBytes(true), actual.buildBytes(true));
+    }
+
+}